@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.examples.with.different.packagename.benchmark;
+
+public class BoundedStack {
+
+    private final int[] elements;
+    private int size = 0;
+
+    public BoundedStack(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity has to be positive");
+        if (capacity > 1000)
+            capacity = 1000;
+        elements = new int[capacity];
+    }
+
+    public void push(int x) {
+        if (isFull())
+            throw new IllegalStateException("Stack is full");
+        elements[size++] = x;
+    }
+
+    public int pop() {
+        if (isEmpty())
+            throw new IllegalStateException("Stack is empty");
+        return elements[--size];
+    }
+
+    public int peek() {
+        if (isEmpty())
+            throw new IllegalStateException("Stack is empty");
+        return elements[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == elements.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int max() {
+        if (isEmpty())
+            throw new IllegalStateException("Stack is empty");
+        int max = elements[0];
+        for (int i = 1; i < size; i++) {
+            if (elements[i] > max)
+                max = elements[i];
+        }
+        return max;
+    }
+
+    public void pushAll(BoundedStack other) {
+        if (other == this)
+            throw new IllegalArgumentException("Cannot push a stack onto itself");
+        for (int i = 0; i < other.size; i++)
+            push(other.elements[i]);
+    }
+}
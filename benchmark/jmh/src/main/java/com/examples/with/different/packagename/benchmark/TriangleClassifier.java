@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.examples.with.different.packagename.benchmark;
+
+public class TriangleClassifier {
+
+    public enum Type {
+        INVALID, SCALENE, ISOSCELES, EQUILATERAL
+    }
+
+    public static Type classify(int a, int b, int c) {
+        if (a <= 0 || b <= 0 || c <= 0)
+            return Type.INVALID;
+        if (a + b <= c || a + c <= b || b + c <= a)
+            return Type.INVALID;
+        if (a == b && b == c)
+            return Type.EQUILATERAL;
+        if (a == b || b == c || a == c)
+            return Type.ISOSCELES;
+        return Type.SCALENE;
+    }
+
+    public static boolean isRightAngled(int a, int b, int c) {
+        if (classify(a, b, c) == Type.INVALID)
+            return false;
+        long a2 = (long) a * a;
+        long b2 = (long) b * b;
+        long c2 = (long) c * c;
+        return a2 + b2 == c2 || a2 + c2 == b2 || b2 + c2 == a2;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.examples.with.different.packagename.benchmark;
+
+public class WordCounter {
+
+    private int words = 0;
+    private int longestWord = 0;
+
+    public int add(String text) {
+        if (text == null)
+            return 0;
+        int count = 0;
+        int current = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                if (current > 0)
+                    count++;
+                current = 0;
+            } else {
+                current++;
+                if (current > longestWord)
+                    longestWord = current;
+            }
+        }
+        if (current > 0)
+            count++;
+        words += count;
+        return count;
+    }
+
+    public int getWords() {
+        return words;
+    }
+
+    public int getLongestWord() {
+        return longestWord;
+    }
+
+    public static boolean isPalindrome(String word) {
+        if (word == null || word.isEmpty())
+            return false;
+        int i = 0;
+        int j = word.length() - 1;
+        while (i < j) {
+            if (word.charAt(i) != word.charAt(j))
+                return false;
+            i++;
+            j--;
+        }
+        return true;
+    }
+
+    public static String capitalize(String word) {
+        if (word == null)
+            throw new IllegalArgumentException("null word");
+        if (word.isEmpty() || Character.isUpperCase(word.charAt(0)))
+            return word;
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.objectweb.asm.Opcodes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the callback that instrumented code makes for every conditional
+ * jump, with the tracer enabled as during test execution
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExecutionTracerBenchmark {
+
+    private static final int[] OPCODES = {Opcodes.IFEQ, Opcodes.IFNE, Opcodes.IFLT, Opcodes.IFGE,
+            Opcodes.IFGT, Opcodes.IFLE};
+
+    private static final int BRANCHES = 64;
+
+    private int counter = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExecutionTracer.enable();
+        ExecutionTracer.setThread(Thread.currentThread());
+        ExecutionTracer.getExecutionTracer().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ExecutionTracer.getExecutionTracer().clear();
+        ExecutionTracer.disable();
+        ExecutionTracer.setThread(null);
+    }
+
+    @Benchmark
+    public void passedBranch() {
+        int i = counter++;
+        ExecutionTracer.passedBranch(i % 17 - 8, OPCODES[i % OPCODES.length], i % BRANCHES, i % BRANCHES);
+    }
+}
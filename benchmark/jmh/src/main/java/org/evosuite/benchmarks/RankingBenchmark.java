@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import org.evosuite.ga.operators.ranking.CrowdingDistance;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
+import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
+import org.evosuite.testcase.TestChromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-dominated sorting of the population on all branch goals and the
+ * distance assignment within a front, as done by MOSA in every generation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RankingBenchmark {
+
+    @Benchmark
+    public int computeRankingAssignment(SearchState state) {
+        FastNonDominatedSorting<TestChromosome> ranking = new FastNonDominatedSorting<>();
+        ranking.computeRankingAssignment(state.population, state.goals);
+        return ranking.getNumberOfSubfronts();
+    }
+
+    @Benchmark
+    public int computeEfficientRankingAssignment(SearchState state) {
+        EfficientNonDominatedSorting<TestChromosome> ranking = new EfficientNonDominatedSorting<>(false);
+        ranking.computeRankingAssignment(state.population, state.goals);
+        return ranking.getNumberOfSubfronts();
+    }
+
+    @Benchmark
+    public double fastEpsilonDominanceAssignment(SearchState state) {
+        new CrowdingDistance<TestChromosome>().fastEpsilonDominanceAssignment(state.population, state.goals);
+        return state.population.get(0).getDistance();
+    }
+
+    @Benchmark
+    public double crowdingDistanceAssignment(SearchState state) {
+        new CrowdingDistance<TestChromosome>().crowdingDistanceAssignment(new ArrayList<>(state.population),
+                new ArrayList<>(state.goals));
+        return state.population.get(0).getDistance();
+    }
+}
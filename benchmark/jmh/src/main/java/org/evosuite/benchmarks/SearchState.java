@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.branch.BranchCoverageFactory;
+import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
+import org.evosuite.coverage.branch.BranchCoverageTestFitness;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.factories.RandomLengthTestFactory;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.Randomness;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sets up EvoSuite for one of the bundled sample CUTs the same way the client
+ * does before the search starts, and provides a random population of
+ * executed tests for it
+ */
+@State(Scope.Thread)
+public class SearchState {
+
+    private static final String CUT_PACKAGE = "com.examples.with.different.packagename.benchmark";
+
+    @Param({"TriangleClassifier", "BoundedStack", "WordCounter"})
+    public String cut;
+
+    @Param({"50"})
+    public int populationSize;
+
+    public List<TestChromosome> population;
+
+    public TestSuiteChromosome suite;
+
+    public BranchCoverageSuiteFitness suiteFitness;
+
+    public Set<BranchCoverageTestFitness> goals;
+
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ClassNotFoundException {
+        Properties.getInstance().resetToDefaults();
+        Properties.TARGET_CLASS = CUT_PACKAGE + "." + cut;
+        Properties.CRITERION = new Criterion[]{Criterion.BRANCH};
+        Randomness.setSeed(42);
+
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        TestGenerationContext.getInstance().resetContext();
+        TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+        String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
+        DependencyAnalysis.analyzeClass(Properties.TARGET_CLASS, Arrays.asList(cp.split(File.pathSeparator)));
+        TestCaseExecutor.initExecutor();
+
+        goals = new LinkedHashSet<>(new BranchCoverageFactory().getCoverageGoals());
+        suiteFitness = new BranchCoverageSuiteFitness();
+
+        RandomLengthTestFactory factory = new RandomLengthTestFactory();
+        population = new ArrayList<>();
+        suite = new TestSuiteChromosome();
+        for (int i = 0; i < populationSize; i++) {
+            TestChromosome test = factory.getChromosome();
+            test.setLastExecutionResult(TestCaseExecutor.runTest(test.getTestCase()));
+            test.setChanged(false);
+            for (BranchCoverageTestFitness goal : goals) {
+                goal.getFitness(test);
+            }
+            population.add(test);
+            suite.addTest(test);
+        }
+        suiteFitness.getFitness(suite);
+    }
+
+    /**
+     * @return the tests of the population in a round robin fashion
+     */
+    public TestChromosome nextTest() {
+        TestChromosome test = population.get(next);
+        next = (next + 1) % population.size();
+        return test;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TestCaseExecutor.pullDown();
+        TestGenerationContext.getInstance().resetContext();
+        Properties.getInstance().resetToDefaults();
+    }
+}
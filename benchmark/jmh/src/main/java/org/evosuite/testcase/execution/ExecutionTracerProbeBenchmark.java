@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the probes called from a plain thread registered with
+ * {@link ExecutionTracer#setThread(Thread)}, which goes through the global
+ * thread comparison, and from an {@link ExecutionThread} carrying its own
+ * tracer. Each invocation runs a batch of probes on a new thread, as the
+ * tracer is looked up from the calling thread.
+ * <p>
+ * The statementExecutedBaseline benchmark replays the checks that the
+ * statement probe made before execution threads carried their tracer: two
+ * lookups of the tracer singleton and the comparison with the global thread.
+ * It is the reference for the two other statementExecuted benchmarks. The
+ * branch probe has no such reference, as its trace bookkeeping is not
+ * reachable from here.
+ * <p>
+ * This benchmark is in the package of the tracer, as the execution threads
+ * are not part of its public API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExecutionTracerProbeBenchmark {
+
+    private static final int PROBES = 100_000;
+
+    private static final int BRANCHES = 64;
+
+    private static int baselineStatements = 0;
+
+    private ExecutionTracer confinedTracer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExecutionTracer.enable();
+        confinedTracer = new ExecutionTracer();
+        confinedTracer.setDisabled(false);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTraces() {
+        ExecutionTracer.getExecutionTracer().clear();
+        confinedTracer.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ExecutionTracer.getExecutionTracer().clear();
+        ExecutionTracer.disable();
+        ExecutionTracer.setThread(null);
+    }
+
+    private static void branchProbes() {
+        for (int i = 0; i < PROBES; i++) {
+            ExecutionTracer.passedBranch(i & 7, Opcodes.IFEQ, 1 + (i % BRANCHES), 0);
+        }
+    }
+
+    private static void statementProbes() {
+        for (int i = 0; i < PROBES; i++) {
+            ExecutionTracer.statementExecuted();
+        }
+    }
+
+    private static void baselineStatementProbes() {
+        for (int i = 0; i < PROBES; i++) {
+            if (!ExecutionTracer.isEnabled())
+                continue;
+            if (ExecutionTracer.isThreadNeqCurrentThread())
+                continue;
+            ExecutionTracer.checkTimeout();
+            baselineStatements++;
+        }
+    }
+
+    private static void runOnGlobalThread(Runnable probes) throws InterruptedException {
+        Thread thread = new Thread(probes);
+        ExecutionTracer.setThread(thread);
+        thread.start();
+        thread.join();
+    }
+
+    private void runOnExecutionThread(Runnable probes) throws InterruptedException {
+        Thread thread = new ExecutionThread(Thread.currentThread().getThreadGroup(), probes, confinedTracer);
+        thread.start();
+        thread.join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void passedBranchGlobalThread() throws InterruptedException {
+        runOnGlobalThread(ExecutionTracerProbeBenchmark::branchProbes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void passedBranchExecutionThread() throws InterruptedException {
+        runOnExecutionThread(ExecutionTracerProbeBenchmark::branchProbes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void statementExecutedGlobalThread() throws InterruptedException {
+        runOnGlobalThread(ExecutionTracerProbeBenchmark::statementProbes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void statementExecutedExecutionThread() throws InterruptedException {
+        runOnExecutionThread(ExecutionTracerProbeBenchmark::statementProbes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int statementExecutedBaseline() throws InterruptedException {
+        runOnGlobalThread(ExecutionTracerProbeBenchmark::baselineStatementProbes);
+        return baselineStatements;
+    }
+}
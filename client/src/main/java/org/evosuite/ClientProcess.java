@@ -32,6 +32,7 @@ import org.evosuite.runtime.instrumentation.MethodCallReplacementCache;
 import org.evosuite.runtime.mock.MockFramework;
 import org.evosuite.runtime.sandbox.MSecurityManager;
 import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.symbolic.solver.SmtSolverSession;
 import org.evosuite.utils.LoggingUtils;
 import org.evosuite.utils.Randomness;
 import org.evosuite.utils.SpawnProcessKeepAliveChecker;
@@ -101,6 +102,7 @@ public class ClientProcess {
          */
 
         ClientServices.getInstance().getClientNode().waitUntilDone();
+        SmtSolverSession.closeAll();
         ClientServices.getInstance().stopServices();
         SpawnProcessKeepAliveChecker.getInstance().unRegister();
     }
@@ -307,6 +307,27 @@ public class Properties {
     @Parameter(key = "migrants_communication_rate", group = "Test Creation", description = "Determines amount of migrants per communication step")
     public static int MIGRANTS_COMMUNICATION_RATE = 3;
 
+    @Parameter(key = "num_islands", group = "Test Creation", description = "Number of islands of the search, each evolving its own population on a separate thread of the same client. Islands share the instrumented classes, the test cluster and the archive, and exchange migrants every migrants_iteration_frequency iterations (1 to disable)")
+    public static int NUM_ISLANDS = 1;
+
+    public enum IslandTopology {
+        /**
+         * Every island sends its migrants to the next one
+         */
+        RING,
+        /**
+         * Every island sends its migrants to all other islands
+         */
+        FULLY_CONNECTED,
+        /**
+         * Every island sends its migrants to another island chosen at random
+         */
+        RANDOM
+    }
+
+    @Parameter(key = "island_topology", group = "Test Creation", description = "Determines which islands receive the migrants of an island")
+    public static IslandTopology ISLAND_TOPOLOGY = IslandTopology.RING;
+
     // ---------------------------------------------------------------
     // Search algorithm
     public enum Algorithm {
@@ -326,12 +347,33 @@ public class Properties {
     public enum RankingType {
         // Preference sorting is the ranking strategy proposed in
         PREFERENCE_SORTING,
-        FAST_NON_DOMINATED_SORTING
+        FAST_NON_DOMINATED_SORTING,
+        // Same fronts as above, computed with the Efficient Non-dominated Sort
+        EFFICIENT_PREFERENCE_SORTING,
+        EFFICIENT_NON_DOMINATED_SORTING
     }
 
     @Parameter(key = "ranking_type", group = "Runtime", description = "type of ranking to use in MOSA")
     public static RankingType RANKING_TYPE = RankingType.PREFERENCE_SORTING;
 
+    @Parameter(key = "ranking_threads", group = "Runtime", description = "Number of threads used to search large fronts with the efficient ranking types, and to compute the crowding distances of large fronts")
+    public static int RANKING_THREADS = 1;
+
+    @Parameter(key = "incremental_suite_fitness", group = "Runtime", description = "Keep per-suite statistics of branch, line, method and weak mutation fitness, and only analyse the execution results of tests that changed since the last evaluation")
+    public static boolean INCREMENTAL_SUITE_FITNESS = false;
+
+    @Parameter(key = "lazy_test_cloning", group = "Runtime", description = "Share the statements of a cloned test case until the original or the clone is accessed, instead of copying them right away")
+    public static boolean LAZY_TEST_CLONING = true;
+
+    @Parameter(key = "resume_test_execution", group = "Runtime", description = "Resume the execution of a test from the state its parent reached after a common prefix of statements, as long as that prefix only produced immutable values and did not touch static state or the environment")
+    public static boolean RESUME_TEST_EXECUTION = false;
+
+    @Parameter(key = "invoke_with_method_handles", group = "Runtime", description = "Execute method calls, constructor calls and field reads of tests through cached method handles instead of reflection")
+    public static boolean INVOKE_WITH_METHOD_HANDLES = true;
+
+    @Parameter(key = "bounded_memory", group = "Runtime", description = "Bound the memory held by the population of long searches: the execution traces of individuals outside the elite are reduced to what the fitness functions need after each iteration, and re-derived by executing them again if more is needed")
+    public static boolean BOUNDED_MEMORY = false;
+
     public enum MapElitesChoice {
         ALL,
         SINGLE,
@@ -433,6 +475,12 @@ public class Properties {
     @Parameter(key = "dse_constraint_length", group = "DSE", description = "Maximal length of the constraints in DSE")
     public static int DSE_CONSTRAINT_LENGTH = 100000;
 
+    @Parameter(key = "dse_solver_cache_max_constraints", group = "DSE", description = "Maximum number of constraints kept in the solver cache, summed over all cached queries. Least recently used queries are evicted first")
+    public static int DSE_SOLVER_CACHE_MAX_CONSTRAINTS = 100000;
+
+    @Parameter(key = "solver_cache_file", group = "DSE", description = "If specified, solver results are appended to this file and reused by later runs. When opened, the file is compacted to its most recent results within dse_solver_cache_max_constraints")
+    public static String SOLVER_CACHE_FILE = null;
+
     @Parameter(key = "dse_constant_probability", group = "DSE", description = "Probability with which to use constants from the constraints when resetting variables during search")
     @DoubleValue(min = 0.0, max = 1.0)
     public static double DSE_CONSTANT_PROBABILITY = 0.5;
@@ -488,6 +536,15 @@ public class Properties {
     @Parameter(key = "cvc4_path", group = "DSE", description = "Indicates the path to the CVC4 solver")
     public static String CVC4_PATH = null;
 
+    @Parameter(key = "dse_solver_session", group = "DSE", description = "If true, keep one Z3/CVC4 process alive and solve consecutive queries incrementally with push/pop, instead of starting a new process per query")
+    public static boolean DSE_SOLVER_SESSION = false;
+
+    @Parameter(key = "dse_solver_threads", group = "DSE", description = "Number of threads solving the queries of the children of a path condition concurrently in the DSE exploration algorithms. With 1, the queries are solved one at a time")
+    public static int DSE_SOLVER_THREADS = 1;
+
+    @Parameter(key = "dse_skip_concrete_calls", group = "DSE", description = "Skip the concolic callbacks of the instrumented methods called with concrete arguments only, as long as no symbolic value is stored in the heap. The skipped calls are handled as calls to uninstrumented code")
+    public static boolean DSE_SKIP_CONCRETE_CALLS = false;
+
     public enum DSEStoppingConditionCriterion {
         TARGETCOVERAGE,
         MAXTIME,
@@ -909,6 +966,18 @@ public class Properties {
     @Parameter(key = "ctg_seeds_ext", group = "Continuous Test Generation", description = "File extension for serialized test files")
     public static String CTG_SEEDS_EXT = "seed";
 
+    @Parameter(key = "ctg_solver_cache", group = "Continuous Test Generation", description = "If true, solver results are stored in a file in the CTG folder and reused by later CTG runs")
+    public static boolean CTG_SOLVER_CACHE = false;
+
+    @Parameter(key = "ctg_solver_cache_file_name", group = "Continuous Test Generation", description = "Name of the file in the CTG folder where solver results are stored")
+    public static String CTG_SOLVER_CACHE_FILE_NAME = "solver-cache.bin";
+
+    @Parameter(key = "ctg_instrumentation_cache", group = "Continuous Test Generation", description = "If true, instrumented classes that are not under test are stored in the CTG folder and reused by later CTG runs")
+    public static boolean CTG_INSTRUMENTATION_CACHE = false;
+
+    @Parameter(key = "ctg_instrumentation_cache_dir_name", group = "Continuous Test Generation", description = "Name of the folder in the CTG folder where instrumented classes are stored")
+    public static String CTG_INSTRUMENTATION_CACHE_DIR_NAME = "instrumentation-cache";
+
     @Parameter(key = "ctg_project_info", group = "Continuous Test Generation", description = "XML file which stores stats about all CTG executions")
     public static String CTG_PROJECT_INFO = "project_info.xml";
 
@@ -1305,6 +1374,12 @@ public class Properties {
     @Parameter(key = "instrumentation_skip_debug", description = "Skip debug information in bytecode instrumentation (needed for compatibility with classes transformed by Emma code instrumentation due to an ASM bug)")
     public static boolean INSTRUMENTATION_SKIP_DEBUG = false;
 
+    @Parameter(key = "instrumentation_cache_dir", description = "If specified, the instrumented bytecode of classes that are not under test is stored in this folder and reused by later runs")
+    public static String INSTRUMENTATION_CACHE_DIR = null;
+
+    @Parameter(key = "instrumentation_threads", description = "Number of threads used to build the control flow graphs of the methods of a class during instrumentation")
+    public static int INSTRUMENTATION_THREADS = 1;
+
     @Parameter(key = "instrument_parent", description = "Also count coverage goals in superclasses")
     public static boolean INSTRUMENT_PARENT = false;
 
@@ -1469,6 +1544,16 @@ public class Properties {
     @Parameter(key = "max_loop_iterations", group = "Test Execution", description = "Max number of iterations allowed per loop. A negative value means no check is done.")
     public static long MAX_LOOP_ITERATIONS = RuntimeSettings.maxNumberOfIterationsPerLoop;
 
+    public enum ExecutionTraceType {
+        MAP, ARRAY
+    }
+
+    @Parameter(key = "execution_trace_type", group = "Test Execution", description = "Data structure used to record branch and line coverage during execution: boxed hash maps (MAP) or dense arrays indexed by branch and line ids (ARRAY)")
+    public static ExecutionTraceType EXECUTION_TRACE_TYPE = ExecutionTraceType.MAP;
+
+    @Parameter(key = "execution_workers", group = "Test Execution", description = "Number of worker threads used to execute the tests of a population concurrently. Tests that touch static state are still executed serially. 1 means serial execution only")
+    public static int EXECUTION_WORKERS = 1;
+
     // ---------------------------------------------------------------
     // Debugging
 
@@ -28,6 +28,7 @@ import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.coverage.dataflow.DefUsePool;
 import org.evosuite.coverage.mutation.MutationPool;
 import org.evosuite.coverage.mutation.MutationTimeoutStoppingCondition;
+import org.evosuite.ga.GoalRegistry;
 import org.evosuite.ga.archive.Archive;
 import org.evosuite.ga.stoppingconditions.GlobalTimeStoppingCondition;
 import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
@@ -187,6 +188,7 @@ public class TestGenerationContext {
         TestCaseExecutor.initExecutor();
 
         Archive.getArchiveInstance().reset();
+        GoalRegistry.reset();
 
         // Constant pool
         ConstantPoolManager.getInstance().reset();
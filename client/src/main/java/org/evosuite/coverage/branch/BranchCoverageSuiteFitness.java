@@ -28,6 +28,7 @@ import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testsuite.SuiteFitnessAggregate;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.objectweb.asm.Type;
@@ -51,6 +52,12 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 
     private final static Logger logger = LoggerFactory.getLogger(BranchCoverageSuiteFitness.class);
 
+    // Channels of the incremental aggregate
+    private static final int PREDICATE_COUNTS = 0;
+    private static final int CALL_COUNTS = 1;
+    private static final int TRUE_DISTANCES = 0;
+    private static final int FALSE_DISTANCES = 1;
+
     // Coverage targets
     public int totalGoals;
     public int totalMethods;
@@ -311,8 +318,31 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
         return hasTimeoutOrTestException;
     }
 
+    /**
+     * Analyses a single execution result for the incremental aggregate. The
+     * goals that are removed from the search afterwards are filtered when the
+     * aggregate is read.
+     */
+    private SuiteFitnessAggregate.Contribution analyzeTrace(TestSuiteChromosome suite, ExecutionResult result) {
+        Map<Integer, Double> trueDistance = new LinkedHashMap<>();
+        Map<Integer, Double> falseDistance = new LinkedHashMap<>();
+        Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
+        Map<String, Integer> callCount = new LinkedHashMap<>();
+
+        SuiteFitnessAggregate.Contribution contribution = new SuiteFitnessAggregate.Contribution(2, 2);
+        if (analyzeTraces(suite, Collections.singletonList(result), predicateCount, callCount,
+                trueDistance, falseDistance)) {
+            contribution.setFailed();
+        }
+        contribution.addCounts(PREDICATE_COUNTS, predicateCount);
+        contribution.addCounts(CALL_COUNTS, callCount);
+        contribution.addMinima(TRUE_DISTANCES, trueDistance);
+        contribution.addMinima(FALSE_DISTANCES, falseDistance);
+        return contribution;
+    }
+
     @Override
-    public boolean updateCoveredGoals() {
+    public synchronized boolean updateCoveredGoals() {
         if (!Properties.TEST_ARCHIVE) {
             return false;
         }
@@ -374,19 +404,43 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
      */
     @Override
     public double getFitness(TestSuiteChromosome suite) {
+        return evaluateExclusively(suite, results -> getFitness(suite, results));
+    }
+
+    private double getFitness(TestSuiteChromosome suite, List<ExecutionResult> results) {
         logger.trace("Calculating branch fitness");
         double fitness = 0.0;
 
-        List<ExecutionResult> results = runTestSuite(suite);
         Map<Integer, Double> trueDistance = new LinkedHashMap<>();
         Map<Integer, Double> falseDistance = new LinkedHashMap<>();
         Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
-        Map<String, Integer> callCount = new LinkedHashMap<>();
-
-        // Collect stats in the traces
-        boolean hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
-                callCount, trueDistance,
-                falseDistance);
+        Map<String, Integer> callCount;
+
+        boolean hasTimeoutOrTestException;
+        if (Properties.INCREMENTAL_SUITE_FITNESS) {
+            SuiteFitnessAggregate aggregate = updateAggregate(suite, results, 2, 2,
+                    result -> analyzeTrace(suite, result));
+            hasTimeoutOrTestException = aggregate.hasFailedResults();
+            callCount = aggregate.getCounts(CALL_COUNTS);
+            aggregate.<Integer>getCounts(PREDICATE_COUNTS).forEach((branch, count) -> {
+                if (!removedBranchesT.contains(branch) || !removedBranchesF.contains(branch))
+                    predicateCount.put(branch, count);
+            });
+            aggregate.<Integer>getMinima(TRUE_DISTANCES).forEach((branch, distance) -> {
+                if (!removedBranchesT.contains(branch))
+                    trueDistance.put(branch, distance);
+            });
+            aggregate.<Integer>getMinima(FALSE_DISTANCES).forEach((branch, distance) -> {
+                if (branchCoverageFalseMap.containsKey(branch))
+                    falseDistance.put(branch, distance);
+            });
+        } else {
+            callCount = new LinkedHashMap<>();
+            // Collect stats in the traces
+            hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
+                    callCount, trueDistance,
+                    falseDistance);
+        }
 
         // Collect branch distances of covered branches
         int numCoveredBranches = 0;
@@ -159,9 +159,12 @@ public class CBranchSuiteFitness extends TestSuiteFitnessFunction {
      */
     @Override
     public double getFitness(TestSuiteChromosome suite) {
+        return evaluateExclusively(suite, results -> getFitness(suite, results));
+    }
+
+    private double getFitness(TestSuiteChromosome suite, List<ExecutionResult> results) {
         double fitness = 0.0; // branchFitness.getFitness(suite);
 
-        List<ExecutionResult> results = runTestSuite(suite);
         Map<CBranchTestFitness, Double> distanceMap = new LinkedHashMap<>();
 
         Map<Integer, Integer> callCounter = new LinkedHashMap<>();
@@ -319,7 +322,7 @@ public class CBranchSuiteFitness extends TestSuiteFitnessFunction {
     }
 
     @Override
-    public boolean updateCoveredGoals() {
+    public synchronized boolean updateCoveredGoals() {
         if (!Properties.TEST_ARCHIVE) {
             return false;
         }
@@ -53,6 +53,10 @@ public class ExceptionCoverageSuiteFitness extends TestSuiteFitnessFunction {
 
     @Override
     public double getFitness(TestSuiteChromosome suite) {
+        return evaluateExclusively(suite, results -> getFitness(suite, results));
+    }
+
+    private double getFitness(TestSuiteChromosome suite, List<ExecutionResult> results) {
         logger.trace("Calculating exception fitness");
 
 
@@ -64,7 +68,6 @@ public class ExceptionCoverageSuiteFitness extends TestSuiteFitnessFunction {
         Map<String, Set<Class<?>>> explicitTypesOfExceptions = new HashMap<>();
         Map<String, Set<Class<?>>> declaredTypesOfExceptions = new HashMap<>();
 
-        List<ExecutionResult> results = runTestSuite(suite);
 
         calculateExceptionInfo(results, implicitTypesOfExceptions, explicitTypesOfExceptions, declaredTypesOfExceptions, this);
 
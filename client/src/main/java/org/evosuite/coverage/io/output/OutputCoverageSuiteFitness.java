@@ -79,10 +79,13 @@ public class OutputCoverageSuiteFitness extends TestSuiteFitnessFunction {
      */
     @Override
     public double getFitness(TestSuiteChromosome suite) {
+        return evaluateExclusively(suite, results -> getFitness(suite, results));
+    }
+
+    private double getFitness(TestSuiteChromosome suite, List<ExecutionResult> results) {
         logger.trace("Calculating test suite fitness");
         double fitness = 0.0;
 
-        List<ExecutionResult> results = runTestSuite(suite);
 
         boolean hasTimeoutOrTestException = false;
         for (ExecutionResult result : results) {
@@ -122,7 +125,7 @@ public class OutputCoverageSuiteFitness extends TestSuiteFitnessFunction {
     }
 
     @Override
-    public boolean updateCoveredGoals() {
+    public synchronized boolean updateCoveredGoals() {
         if (!Properties.TEST_ARCHIVE) {
             return false;
         }
@@ -28,6 +28,7 @@ import org.evosuite.graphs.cfg.ControlDependency;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testsuite.SuiteFitnessAggregate;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.slf4j.Logger;
@@ -47,6 +48,12 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
 
     private final static Logger logger = LoggerFactory.getLogger(LineCoverageSuiteFitness.class);
 
+    // Channels of the incremental aggregate
+    private static final int COVERED_LINES = 0;
+    private static final int PREDICATE_COUNTS = 1;
+    private static final int TRUE_DISTANCES = 0;
+    private static final int FALSE_DISTANCES = 1;
+
     // target goals
     private final int numLines;
     private final Map<Integer, TestFitnessFunction> lineGoals = new LinkedHashMap<>();
@@ -84,7 +91,7 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
     }
 
     @Override
-    public boolean updateCoveredGoals() {
+    public synchronized boolean updateCoveredGoals() {
         if (!Properties.TEST_ARCHIVE) {
             return false;
         }
@@ -142,6 +149,28 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
         return hasTimeoutOrTestException;
     }
 
+    /**
+     * Analyses a single execution result for the incremental aggregate
+     */
+    private SuiteFitnessAggregate.Contribution analyzeTrace(ExecutionResult result) {
+        Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
+        Map<Integer, Double> trueDistance = new LinkedHashMap<>();
+        Map<Integer, Double> falseDistance = new LinkedHashMap<>();
+        Set<Integer> coveredLines = new LinkedHashSet<>();
+
+        SuiteFitnessAggregate.Contribution contribution = new SuiteFitnessAggregate.Contribution(2, 2);
+        List<ExecutionResult> results = Collections.singletonList(result);
+        collectBranchDistances(results, predicateCount, trueDistance, falseDistance);
+        if (analyzeTraces(results, coveredLines)) {
+            contribution.setFailed();
+        }
+        contribution.addKeys(COVERED_LINES, coveredLines);
+        contribution.addCounts(PREDICATE_COUNTS, predicateCount);
+        contribution.addMinima(TRUE_DISTANCES, trueDistance);
+        contribution.addMinima(FALSE_DISTANCES, falseDistance);
+        return contribution;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -149,18 +178,37 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
      */
     @Override
     public double getFitness(TestSuiteChromosome suite) {
+        return evaluateExclusively(suite, results -> getFitness(suite, results));
+    }
+
+    private double getFitness(TestSuiteChromosome suite, List<ExecutionResult> results) {
         logger.trace("Calculating branch fitness");
         double fitness = 0.0;
 
-        List<ExecutionResult> results = runTestSuite(suite);
-        fitness += getControlDependencyGuidance(results);
-        logger.info("Branch distances: " + fitness);
+        boolean hasTimeoutOrTestException;
+        int numCoveredLines = this.removedLines.size();
+        if (Properties.INCREMENTAL_SUITE_FITNESS) {
+            SuiteFitnessAggregate aggregate = updateAggregate(suite, results, 2, 2, this::analyzeTrace);
+            fitness += getControlDependencyGuidance(aggregate.getCounts(PREDICATE_COUNTS),
+                    aggregate.getMinima(TRUE_DISTANCES), aggregate.getMinima(FALSE_DISTANCES));
+            logger.info("Branch distances: " + fitness);
+
+            hasTimeoutOrTestException = aggregate.hasFailedResults();
+            for (Integer line : aggregate.<Integer>getCounts(COVERED_LINES).keySet()) {
+                if (this.lineGoals.containsKey(line)) {
+                    numCoveredLines++;
+                }
+            }
+        } else {
+            fitness += getControlDependencyGuidance(results);
+            logger.info("Branch distances: " + fitness);
 
-        Set<Integer> coveredLines = new LinkedHashSet<>();
-        boolean hasTimeoutOrTestException = analyzeTraces(results, coveredLines);
+            Set<Integer> coveredLines = new LinkedHashSet<>();
+            hasTimeoutOrTestException = analyzeTraces(results, coveredLines);
+            numCoveredLines += coveredLines.size();
+        }
 
         int totalLines = this.numLines;
-        int numCoveredLines = coveredLines.size() + this.removedLines.size();
 
         logger.debug("Covered " + numCoveredLines + " out of " + totalLines + " lines, " + removedLines.size() + " in archive");
         fitness += normalize(totalLines - numCoveredLines);
@@ -269,7 +317,12 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
         Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
         Map<Integer, Double> trueDistance = new LinkedHashMap<>();
         Map<Integer, Double> falseDistance = new LinkedHashMap<>();
+        collectBranchDistances(results, predicateCount, trueDistance, falseDistance);
+        return getControlDependencyGuidance(predicateCount, trueDistance, falseDistance);
+    }
 
+    private void collectBranchDistances(List<ExecutionResult> results, Map<Integer, Integer> predicateCount,
+                                        Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
         for (ExecutionResult result : results) {
             if (result.hasTimeout() || result.hasTestException()) {
                 continue;
@@ -302,7 +355,11 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
                 }
             }
         }
+    }
 
+    private double getControlDependencyGuidance(Map<Integer, Integer> predicateCount,
+                                                Map<Integer, Double> trueDistance,
+                                                Map<Integer, Double> falseDistance) {
         double distance = 0.0;
 
         for (Integer branchId : branchesToCoverBoth) {
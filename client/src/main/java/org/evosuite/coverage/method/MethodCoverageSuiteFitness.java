@@ -26,6 +26,7 @@ import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testsuite.SuiteFitnessAggregate;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.objectweb.asm.Type;
@@ -155,6 +156,19 @@ public class MethodCoverageSuiteFitness extends TestSuiteFitnessFunction {
         return hasTimeoutOrTestException;
     }
 
+    /**
+     * Analyses a single execution result for the incremental aggregate
+     */
+    private SuiteFitnessAggregate.Contribution analyzeTrace(ExecutionResult result) {
+        Set<String> calledMethods = new LinkedHashSet<>();
+        SuiteFitnessAggregate.Contribution contribution = new SuiteFitnessAggregate.Contribution(1, 0);
+        if (analyzeTraces(Collections.singletonList(result), calledMethods)) {
+            contribution.setFailed();
+        }
+        contribution.addKeys(0, calledMethods);
+        return contribution;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -162,16 +176,31 @@ public class MethodCoverageSuiteFitness extends TestSuiteFitnessFunction {
      */
     @Override
     public double getFitness(TestSuiteChromosome suite) {
+        return evaluateExclusively(suite, results -> getFitness(suite, results));
+    }
+
+    private double getFitness(TestSuiteChromosome suite, List<ExecutionResult> results) {
         logger.trace("Calculating method fitness");
         double fitness = 0.0;
 
-        List<ExecutionResult> results = runTestSuite(suite);
 
         // Collect stats in the traces
-        Set<String> calledMethods = new LinkedHashSet<>();
-        boolean hasTimeoutOrTestException = analyzeTraces(results, calledMethods);
+        boolean hasTimeoutOrTestException;
+        int coveredMethods = this.removedMethods.size();
+        if (Properties.INCREMENTAL_SUITE_FITNESS) {
+            SuiteFitnessAggregate aggregate = updateAggregate(suite, results, 1, 0, this::analyzeTrace);
+            hasTimeoutOrTestException = aggregate.hasFailedResults();
+            for (String method : aggregate.<String>getCounts(0).keySet()) {
+                if (this.methodCoverageMap.containsKey(method)) {
+                    coveredMethods++;
+                }
+            }
+        } else {
+            Set<String> calledMethods = new LinkedHashSet<>();
+            hasTimeoutOrTestException = analyzeTraces(results, calledMethods);
+            coveredMethods += calledMethods.size();
+        }
 
-        int coveredMethods = calledMethods.size() + this.removedMethods.size();
         int missingMethods = this.totalMethods - coveredMethods;
         assert (this.totalMethods == coveredMethods + missingMethods);
         fitness = 1.0 * missingMethods;
@@ -230,7 +259,7 @@ public class MethodCoverageSuiteFitness extends TestSuiteFitnessFunction {
     }
 
     @Override
-    public boolean updateCoveredGoals() {
+    public synchronized boolean updateCoveredGoals() {
         if (!Properties.TEST_ARCHIVE) {
             return false;
         }
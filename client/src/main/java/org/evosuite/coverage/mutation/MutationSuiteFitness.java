@@ -79,7 +79,7 @@ public abstract class MutationSuiteFitness extends TestSuiteFitnessFunction {
     }
 
     @Override
-    public boolean updateCoveredGoals() {
+    public synchronized boolean updateCoveredGoals() {
         if (!Properties.TEST_ARCHIVE) {
             return false;
         }
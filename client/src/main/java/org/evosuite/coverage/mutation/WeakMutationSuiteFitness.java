@@ -25,6 +25,7 @@ import org.evosuite.ga.archive.Archive;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testsuite.SuiteFitnessAggregate;
 import org.evosuite.testsuite.TestSuiteChromosome;
 
 import java.util.*;
@@ -41,6 +42,10 @@ public class WeakMutationSuiteFitness extends MutationSuiteFitness {
 
     private static final long serialVersionUID = -1812256816400338180L;
 
+    // Channels of the incremental aggregate
+    private static final int TOUCHED_MUTANTS = 0;
+    private static final int MUTANT_DISTANCES = 0;
+
     public WeakMutationSuiteFitness() {
         super(Properties.Criterion.WEAKMUTATION);
     }
@@ -54,6 +59,10 @@ public class WeakMutationSuiteFitness extends MutationSuiteFitness {
      */
     @Override
     public double getFitness(TestSuiteChromosome individual) {
+        return evaluateExclusively(individual, results -> getFitness(individual, results));
+    }
+
+    private double getFitness(TestSuiteChromosome individual, List<ExecutionResult> results) {
         /*
          * e.g. classes with only static constructors
          */
@@ -64,7 +73,6 @@ public class WeakMutationSuiteFitness extends MutationSuiteFitness {
             return 0.0;
         }
 
-        List<ExecutionResult> results = runTestSuite(individual);
 
         // First objective: achieve branch coverage
         logger.debug("Calculating branch fitness: ");
@@ -78,54 +86,19 @@ public class WeakMutationSuiteFitness extends MutationSuiteFitness {
         Properties.TEST_ARCHIVE = archive;
 
         Map<Integer, Double> mutant_distance = new LinkedHashMap<>();
-        Set<Integer> touchedMutants = new LinkedHashSet<>();
-
-        for (ExecutionResult result : results) {
-            // Using private reflection can lead to false positives
-            // that represent unrealistic behaviour. Thus, we only
-            // use reflection for basic criteria, not for mutation
-            if (result.hasTimeout() || result.hasTestException() || result.calledReflection()) {
-                continue;
-            }
-
-            touchedMutants.addAll(result.getTrace().getTouchedMutants());
-
-            Map<Integer, Double> touchedMutantsDistances = result.getTrace().getMutationDistances();
-            if (touchedMutantsDistances.isEmpty()) {
-                // if 'result' does not touch any mutant, no need to continue
-                continue;
-            }
-
-            TestChromosome test = new TestChromosome();
-            test.setTestCase(result.test);
-            test.setLastExecutionResult(result);
-            test.setChanged(false);
-
-            for (final Entry<Integer, MutationTestFitness> entry : this.mutantMap.entrySet()) {
-                int mutantID = entry.getKey();
-                TestFitnessFunction goal = entry.getValue();
-
-                double fit = 0.0;
-                if (touchedMutantsDistances.containsKey(mutantID)) {
-                    fit = touchedMutantsDistances.get(mutantID);
-
-                    if (!mutant_distance.containsKey(mutantID)) {
-                        mutant_distance.put(mutantID, fit);
-                    } else {
-                        mutant_distance.put(mutantID, Math.min(mutant_distance.get(mutantID), fit));
-                    }
-                } else {
-                    fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
-                }
-
-                if (fit == 0.0) {
-                    test.getTestCase().addCoveredGoal(goal); // update list of covered goals
-                    this.toRemoveMutants.add(mutantID); // goal to not be considered by the next iteration of the evolutionary algorithm
-                }
-
-                if (Properties.TEST_ARCHIVE) {
-                    Archive.getArchiveInstance().updateArchive(goal, test, fit);
-                }
+        Set<Integer> touchedMutants;
+
+        if (Properties.INCREMENTAL_SUITE_FITNESS) {
+            SuiteFitnessAggregate aggregate = updateAggregate(individual, results, 1, 1, this::analyzeTrace);
+            touchedMutants = aggregate.<Integer>getCounts(TOUCHED_MUTANTS).keySet();
+            aggregate.<Integer>getMinima(MUTANT_DISTANCES).forEach((mutantID, distance) -> {
+                if (this.mutantMap.containsKey(mutantID))
+                    mutant_distance.put(mutantID, distance);
+            });
+        } else {
+            touchedMutants = new LinkedHashSet<>();
+            for (ExecutionResult result : results) {
+                analyzeTrace(result, touchedMutants, mutant_distance);
             }
         }
 
@@ -152,4 +125,72 @@ public class WeakMutationSuiteFitness extends MutationSuiteFitness {
 
         return fitness;
     }
+
+    /**
+     * Collects the mutants touched by a single execution result and their
+     * distances, and updates the covered goals and the archive
+     */
+    private void analyzeTrace(ExecutionResult result, Set<Integer> touchedMutants,
+                              Map<Integer, Double> mutant_distance) {
+        // Using private reflection can lead to false positives
+        // that represent unrealistic behaviour. Thus, we only
+        // use reflection for basic criteria, not for mutation
+        if (result.hasTimeout() || result.hasTestException() || result.calledReflection()) {
+            return;
+        }
+
+        touchedMutants.addAll(result.getTrace().getTouchedMutants());
+
+        Map<Integer, Double> touchedMutantsDistances = result.getTrace().getMutationDistances();
+        if (touchedMutantsDistances.isEmpty()) {
+            // if 'result' does not touch any mutant, no need to continue
+            return;
+        }
+
+        TestChromosome test = new TestChromosome();
+        test.setTestCase(result.test);
+        test.setLastExecutionResult(result);
+        test.setChanged(false);
+
+        for (final Entry<Integer, MutationTestFitness> entry : this.mutantMap.entrySet()) {
+            int mutantID = entry.getKey();
+            TestFitnessFunction goal = entry.getValue();
+
+            double fit = 0.0;
+            if (touchedMutantsDistances.containsKey(mutantID)) {
+                fit = touchedMutantsDistances.get(mutantID);
+
+                if (!mutant_distance.containsKey(mutantID)) {
+                    mutant_distance.put(mutantID, fit);
+                } else {
+                    mutant_distance.put(mutantID, Math.min(mutant_distance.get(mutantID), fit));
+                }
+            } else {
+                fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
+            }
+
+            if (fit == 0.0) {
+                test.getTestCase().addCoveredGoal(goal); // update list of covered goals
+                this.toRemoveMutants.add(mutantID); // goal to not be considered by the next iteration of the evolutionary algorithm
+            }
+
+            if (Properties.TEST_ARCHIVE) {
+                Archive.getArchiveInstance().updateArchive(goal, test, fit);
+            }
+        }
+    }
+
+    /**
+     * Analyses a single execution result for the incremental aggregate
+     */
+    private SuiteFitnessAggregate.Contribution analyzeTrace(ExecutionResult result) {
+        Set<Integer> touchedMutants = new LinkedHashSet<>();
+        Map<Integer, Double> mutant_distance = new LinkedHashMap<>();
+        analyzeTrace(result, touchedMutants, mutant_distance);
+
+        SuiteFitnessAggregate.Contribution contribution = new SuiteFitnessAggregate.Contribution(1, 1);
+        contribution.addKeys(TOUCHED_MUTANTS, touchedMutants);
+        contribution.addMinima(MUTANT_DISTANCES, mutant_distance);
+        return contribution;
+    }
 }
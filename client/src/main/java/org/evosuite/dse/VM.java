@@ -19,6 +19,8 @@
  */
 package org.evosuite.dse;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Consumer;
@@ -60,10 +62,86 @@ public final class VM {
 
     public static void disableCallBacks() {
         ignoreCallback = true;
+        vm.skippedMethods.clear();
     }
 
     public static void enableCallBacks() {
         ignoreCallback = false;
+        vm.skippedMethods.clear();
+    }
+
+    /**
+     * Methods whose callbacks are currently skipped, innermost first.
+     */
+    private final Deque<SkippedMethod> skippedMethods = new ArrayDeque<>();
+
+    /**
+     * To be called by a listener on METHOD_BEGIN. No listener is notified of
+     * the callbacks of the method that begins, nor of the methods it calls,
+     * until it returns or until a method that is not skipped handles an
+     * exception. The caller of the method must then handle the call as a call
+     * to uninstrumented code.
+     */
+    public void skipMethod(String className, String methName, String methDesc) {
+        skippedMethods.push(new SkippedMethod(className, methName, methDesc));
+    }
+
+    private static boolean isSkippingMethods() {
+        return !vm.skippedMethods.isEmpty();
+    }
+
+    /**
+     * Returns from the innermost skipped method, if any.
+     *
+     * @return the callback has to be ignored
+     */
+    private static boolean returnFromSkippedMethod() {
+        if (!isSkippingMethods())
+            return false;
+        vm.skippedMethods.pop();
+        ignoreCallback = isSkippingMethods();
+        return true;
+    }
+
+    /**
+     * Discards the skipped methods that an exception escaped from.
+     *
+     * @return the handler belongs to a skipped method and the callback has to
+     * be ignored
+     */
+    private static boolean handleInSkippedMethod(String className, String methName, String methDesc) {
+        if (!isSkippingMethods())
+            return false;
+        int escaped = 0;
+        for (SkippedMethod method : vm.skippedMethods) {
+            if (method.is(className, methName, methDesc)) {
+                for (int i = 0; i < escaped; i++)
+                    vm.skippedMethods.pop();
+                return true;
+            }
+            escaped++;
+        }
+        // the exception escaped from all the skipped methods
+        vm.skippedMethods.clear();
+        ignoreCallback = false;
+        return false;
+    }
+
+    private static final class SkippedMethod {
+        private final String className;
+        private final String methName;
+        private final String methDesc;
+
+        SkippedMethod(String className, String methName, String methDesc) {
+            this.className = className;
+            this.methName = methName;
+            this.methDesc = methDesc;
+        }
+
+        boolean is(String className, String methName, String methDesc) {
+            return this.className.equals(className) && this.methName.equals(methName)
+                    && this.methDesc.equals(methDesc);
+        }
     }
 
     protected int nrCallbacksPath = 0;
@@ -89,6 +167,14 @@ public final class VM {
         nrCallbacksMethodExploration += 1;
     }
 
+    /**
+     * @return number of callbacks notified to the listeners since the current
+     * concolic execution was prepared
+     */
+    public int getNrCallbacksPath() {
+        return nrCallbacksPath;
+    }
+
     public boolean isStopped() {
         return stopped;
     }
@@ -154,6 +240,7 @@ public final class VM {
     public void prepareConcolicExecution() {
         stopped = false;
         ignoreCallback = false;
+        skippedMethods.clear();
         zeroPathCallbacks();
     }
 
@@ -374,6 +461,10 @@ public final class VM {
      */
     public static void METHOD_BEGIN(int access, String className,
                                     String methName, String methDesc) {
+        if (isSkippingMethods()) {
+            vm.skipMethod(className, methName, methDesc);
+            return;
+        }
         if (ignoreCallback)
             return;
         ignoreCallback = true;
@@ -384,7 +475,7 @@ public final class VM {
         } catch (Throwable t) {
             handleException(t);
         }
-        ignoreCallback = false;
+        ignoreCallback = isSkippingMethods();
     }
 
     /**
@@ -685,6 +776,8 @@ public final class VM {
      */
     public static void HANDLER_BEGIN(int access, String className,
                                      String methName, String methDesc) {
+        if (handleInSkippedMethod(className, methName, methDesc))
+            return;
         if (ignoreCallback)
             return;
         ignoreCallback = true;
@@ -3309,6 +3402,8 @@ public final class VM {
     }
 
     public static void IRETURN() {
+        if (returnFromSkippedMethod())
+            return;
         if (ignoreCallback)
             return;
         ignoreCallback = true;
@@ -3323,6 +3418,8 @@ public final class VM {
     }
 
     public static void LRETURN() {
+        if (returnFromSkippedMethod())
+            return;
         if (ignoreCallback)
             return;
         ignoreCallback = true;
@@ -3337,6 +3434,8 @@ public final class VM {
     }
 
     public static void FRETURN() {
+        if (returnFromSkippedMethod())
+            return;
         if (ignoreCallback)
             return;
         ignoreCallback = true;
@@ -3351,6 +3450,8 @@ public final class VM {
     }
 
     public static void DRETURN() {
+        if (returnFromSkippedMethod())
+            return;
         if (ignoreCallback)
             return;
         ignoreCallback = true;
@@ -3365,6 +3466,8 @@ public final class VM {
     }
 
     public static void ARETURN() {
+        if (returnFromSkippedMethod())
+            return;
         if (ignoreCallback)
             return;
         ignoreCallback = true;
@@ -3379,6 +3482,8 @@ public final class VM {
     }
 
     public static void RETURN() {
+        if (returnFromSkippedMethod())
+            return;
         if (ignoreCallback)
             return;
         ignoreCallback = true;
@@ -63,12 +63,12 @@ public abstract class Chromosome<T extends Chromosome<T>>
     /**
      * Last recorded fitness value
      */
-    private final LinkedHashMap<FitnessFunction<T>, Double> fitnessValues = new LinkedHashMap<>();
+    private final FitnessVector<T> fitnessValues = new FitnessVector<>();
 
     /**
      * Previous fitness, to see if there was an improvement
      */
-    private final LinkedHashMap<FitnessFunction<T>, Double> previousFitnessValues = new LinkedHashMap<>();
+    private final FitnessVector<T> previousFitnessValues = new FitnessVector<>();
 
     /**
      * Has this chromosome changed since its fitness was last evaluated?
@@ -137,9 +137,7 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @return a double.
      */
     public double getFitness() {
-        return fitnessValues.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
+        return fitnessValues.sum();
     }
 
     /**
@@ -149,9 +147,22 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @return the fitness of this chromosome
      */
     public double getFitness(FitnessFunction<T> ff) {
-        return fitnessValues.containsKey(ff)
-                ? fitnessValues.get(ff)
-                : ff.getFitness(self()); // Calculate new value if non is cached
+        final double value = fitnessValues.getDouble(ff);
+        if (!Double.isNaN(value) || fitnessValues.containsKey(ff)) {
+            return value;
+        }
+        return ff.getFitness(self()); // Calculate new value if non is cached
+    }
+
+    /**
+     * Tells whether the last recorded fitness of this chromosome for the goal with the given id
+     * (see {@link GoalRegistry}) is 0.
+     *
+     * @param goalId the id of the goal
+     * @return {@code true} if the goal is covered
+     */
+    public boolean isCovered(int goalId) {
+        return fitnessValues.isCovered(goalId);
     }
 
     public Map<FitnessFunction<T>, Double> getFitnessValues() {
@@ -173,13 +184,22 @@ public abstract class Chromosome<T extends Chromosome<T>>
         return this.previousFitnessValues.containsKey(ff);
     }
 
+    @SuppressWarnings("unchecked")
     public void setFitnessValues(Map<? extends FitnessFunction<T>, Double> fits) {
         //TODO mainfitness?
+        if (fits instanceof FitnessVector) {
+            this.fitnessValues.copyFrom((FitnessVector<T>) fits);
+            return;
+        }
         this.fitnessValues.clear();
         this.fitnessValues.putAll(fits);
     }
 
     public void setPreviousFitnessValues(Map<FitnessFunction<T>, Double> lastFits) {
+        if (lastFits instanceof FitnessVector) {
+            this.previousFitnessValues.copyFrom((FitnessVector<T>) lastFits);
+            return;
+        }
         this.previousFitnessValues.clear();
         this.previousFitnessValues.putAll(lastFits);
     }
@@ -228,8 +248,8 @@ public abstract class Chromosome<T extends Chromosome<T>>
      */
     public void addFitness(FitnessFunction<T> ff, double fitnessValue, double coverage,
                            int numCoveredGoals) {
-        this.fitnessValues.put(ff, fitnessValue);
-        this.previousFitnessValues.put(ff, fitnessValue);
+        this.fitnessValues.putDouble(ff, fitnessValue);
+        this.previousFitnessValues.putDouble(ff, fitnessValue);
         this.coverageValues.put(ff, coverage);
         this.numsCoveredGoals.put(ff, numCoveredGoals);
         this.numsNotCoveredGoals.put(ff, -1);
@@ -247,8 +267,9 @@ public abstract class Chromosome<T extends Chromosome<T>>
                     + ff.getClass().getName());
         }
 
-        previousFitnessValues.put(ff, fitnessValues.getOrDefault(ff, value));
-        fitnessValues.put(ff, value);
+        final double currentValue = fitnessValues.getDouble(ff);
+        previousFitnessValues.putDouble(ff, Double.isNaN(currentValue) ? value : currentValue);
+        fitnessValues.putDouble(ff, value);
     }
 
     /**
@@ -258,12 +279,7 @@ public abstract class Chromosome<T extends Chromosome<T>>
      * @return
      */
     public boolean hasFitnessChanged() {
-        return fitnessValues.keySet().stream()
-                .anyMatch(ff -> {
-                    final double currentValue = fitnessValues.get(ff);
-                    final double previousValue = previousFitnessValues.get(ff);
-                    return currentValue != previousValue;
-                });
+        return fitnessValues.differsFrom(previousFitnessValues);
     }
 
     /**
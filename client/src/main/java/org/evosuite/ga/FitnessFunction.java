@@ -38,6 +38,13 @@ public abstract class FitnessFunction<T extends Chromosome<T>> implements Serial
      */
     protected static final Logger logger = LoggerFactory.getLogger(FitnessFunction.class);
 
+    /**
+     * Id assigned by the {@link GoalRegistry} in the lower 32 bits, and the
+     * generation of the registry it belongs to in the upper ones (0 if the
+     * function has never been registered)
+     */
+    private transient volatile long goalKey = 0L;
+
     /**
      * Make sure that the individual gets to know about its fitness
      *
@@ -105,4 +112,18 @@ public abstract class FitnessFunction<T extends Chromosome<T>> implements Serial
     public boolean updateCoveredGoals() {
         return false;
     }
+
+    /**
+     * Returns the dense id of this function in the {@link GoalRegistry}.
+     *
+     * @return the id, or -1 if the function is not registered
+     */
+    public final int getGoalId() {
+        final long key = goalKey;
+        return (int) (key >>> 32) == GoalRegistry.getGeneration() ? (int) key : -1;
+    }
+
+    final void setGoalId(int id, int generation) {
+        goalKey = ((long) generation << 32) | (id & 0xFFFFFFFFL);
+    }
 }
@@ -0,0 +1,413 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The fitness values of a chromosome. Values of goals registered in the
+ * {@link GoalRegistry} are kept in an array indexed by the goal id, together
+ * with a bit set of the goals that are covered (i.e., have fitness 0), while
+ * the values of all other fitness functions are kept in a map. Iteration
+ * visits the registered goals in the order of their ids first.
+ */
+final class FitnessVector<T extends Chromosome<T>> extends AbstractMap<FitnessFunction<T>, Double>
+        implements Serializable {
+
+    private static final long serialVersionUID = 3712285640529014731L;
+
+    private transient FitnessFunction<T>[] goals;
+
+    private transient double[] values;
+
+    private transient BitSet present;
+
+    private transient BitSet covered;
+
+    private transient int denseSize;
+
+    /**
+     * Generation of the goal registry the ids refer to
+     */
+    private transient int generation;
+
+    private transient LinkedHashMap<FitnessFunction<T>, Double> others;
+
+    private transient Set<Entry<FitnessFunction<T>, Double>> entrySet;
+
+    FitnessVector() {
+        init();
+    }
+
+    private void init() {
+        goals = newGoals(0);
+        values = new double[0];
+        present = new BitSet();
+        covered = new BitSet();
+        denseSize = 0;
+        generation = GoalRegistry.getGeneration();
+        others = new LinkedHashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Chromosome<T>> FitnessFunction<T>[] newGoals(int length) {
+        return (FitnessFunction<T>[]) new FitnessFunction[length];
+    }
+
+    /**
+     * Returns the index of the given key, or -1 if its value is kept in the
+     * map of unregistered fitness functions
+     */
+    private int idOf(Object key) {
+        if (generation != GoalRegistry.getGeneration()) {
+            moveToMap();
+        }
+        if (!(key instanceof FitnessFunction)) {
+            return -1;
+        }
+        return GoalRegistry.getId((FitnessFunction<?>) key);
+    }
+
+    /**
+     * The registry has been reset, so the ids of this vector are stale. The
+     * values are kept in the map until their goals are registered again.
+     */
+    private void moveToMap() {
+        generation = GoalRegistry.getGeneration();
+        if (denseSize == 0) {
+            return;
+        }
+        LinkedHashMap<FitnessFunction<T>, Double> map = new LinkedHashMap<>();
+        for (int id = present.nextSetBit(0); id >= 0; id = present.nextSetBit(id + 1)) {
+            map.put(goals[id], values[id]);
+        }
+        map.putAll(others);
+        others = map;
+        goals = newGoals(0);
+        values = new double[0];
+        present.clear();
+        covered.clear();
+        denseSize = 0;
+    }
+
+    private boolean isPresent(int id) {
+        return id >= 0 && id < values.length && present.get(id);
+    }
+
+    /**
+     * Returns the value for the given fitness function without boxing it.
+     *
+     * @param key a fitness function
+     * @return the value, or {@code Double.NaN} if there is none
+     */
+    double getDouble(Object key) {
+        final int id = idOf(key);
+        if (isPresent(id)) {
+            return values[id];
+        }
+        if (others.isEmpty()) {
+            return Double.NaN;
+        }
+        final Double value = others.get(key);
+        return value == null ? Double.NaN : value;
+    }
+
+    /**
+     * Sets the value for the given fitness function without boxing it.
+     */
+    void putDouble(FitnessFunction<T> key, double value) {
+        final int id = idOf(key);
+        if (id < 0) {
+            others.put(key, value);
+            return;
+        }
+        if (!others.isEmpty()) {
+            others.remove(key);
+        }
+        putDense(id, key, value);
+    }
+
+    private void putDense(int id, FitnessFunction<T> key, double value) {
+        if (id >= values.length) {
+            final int length = Math.max(id + 1, Math.max(GoalRegistry.size(), values.length * 2));
+            values = Arrays.copyOf(values, length);
+            goals = Arrays.copyOf(goals, length);
+        }
+        if (!present.get(id)) {
+            present.set(id);
+            goals[id] = key;
+            denseSize++;
+        }
+        values[id] = value;
+        covered.set(id, value == 0.0);
+    }
+
+    private void removeDense(int id) {
+        present.clear(id);
+        covered.clear(id);
+        goals[id] = null;
+        denseSize--;
+    }
+
+    /**
+     * Tells whether the value for the goal with the given id is 0.
+     *
+     * @param id the id of a goal in the {@link GoalRegistry}
+     */
+    boolean isCovered(int id) {
+        return generation == GoalRegistry.getGeneration() && covered.get(id);
+    }
+
+    double sum() {
+        double sum = 0.0;
+        for (int id = present.nextSetBit(0); id >= 0; id = present.nextSetBit(id + 1)) {
+            sum += values[id];
+        }
+        for (Double value : others.values()) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * Tells whether any of the values of this vector differs from the value
+     * the other vector has for the same fitness function.
+     */
+    boolean differsFrom(FitnessVector<T> other) {
+        for (int id = present.nextSetBit(0); id >= 0; id = present.nextSetBit(id + 1)) {
+            if (values[id] != other.getDouble(goals[id])) {
+                return true;
+            }
+        }
+        for (Entry<FitnessFunction<T>, Double> entry : others.entrySet()) {
+            if (entry.getValue() != other.getDouble(entry.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the content of this vector with a copy of the other one.
+     */
+    void copyFrom(FitnessVector<T> other) {
+        if (other == this) {
+            return;
+        }
+        final int length = other.present.length();
+        goals = Arrays.copyOf(other.goals, length);
+        values = Arrays.copyOf(other.values, length);
+        present = (BitSet) other.present.clone();
+        covered = (BitSet) other.covered.clone();
+        denseSize = other.denseSize;
+        generation = other.generation;
+        others = new LinkedHashMap<>(other.others);
+    }
+
+    @Override
+    public Double get(Object key) {
+        final int id = idOf(key);
+        if (isPresent(id)) {
+            return values[id];
+        }
+        return others.isEmpty() ? null : others.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return isPresent(idOf(key)) || (!others.isEmpty() && others.containsKey(key));
+    }
+
+    @Override
+    public Double put(FitnessFunction<T> key, Double value) {
+        final int id = idOf(key);
+        if (id < 0 || value == null) {
+            if (isPresent(id)) {
+                final Double previous = values[id];
+                removeDense(id);
+                others.put(key, value);
+                return previous;
+            }
+            return others.put(key, value);
+        }
+        Double previous = others.isEmpty() ? null : others.remove(key);
+        if (isPresent(id)) {
+            previous = values[id];
+        }
+        putDense(id, key, value);
+        return previous;
+    }
+
+    @Override
+    public Double remove(Object key) {
+        final int id = idOf(key);
+        if (isPresent(id)) {
+            final Double previous = values[id];
+            removeDense(id);
+            return previous;
+        }
+        return others.isEmpty() ? null : others.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (denseSize > 0) {
+            Arrays.fill(goals, null);
+            present.clear();
+            covered.clear();
+            denseSize = 0;
+        }
+        generation = GoalRegistry.getGeneration();
+        others.clear();
+    }
+
+    @Override
+    public int size() {
+        return denseSize + others.size();
+    }
+
+    @Override
+    public Set<Entry<FitnessFunction<T>, Double>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<FitnessFunction<T>, Double>> {
+
+        @Override
+        public Iterator<Entry<FitnessFunction<T>, Double>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return FitnessVector.this.size();
+        }
+
+        @Override
+        public void clear() {
+            FitnessVector.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<FitnessFunction<T>, Double>> {
+
+        private int next = present.nextSetBit(0);
+
+        private int last = -1;
+
+        private boolean lastInOthers = false;
+
+        private Iterator<Entry<FitnessFunction<T>, Double>> othersIterator = null;
+
+        private Iterator<Entry<FitnessFunction<T>, Double>> othersIterator() {
+            if (othersIterator == null) {
+                othersIterator = others.entrySet().iterator();
+            }
+            return othersIterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0 || othersIterator().hasNext();
+        }
+
+        @Override
+        public Entry<FitnessFunction<T>, Double> next() {
+            if (next >= 0) {
+                last = next;
+                next = present.nextSetBit(next + 1);
+                return new DenseEntry(last);
+            }
+            if (!othersIterator().hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = -1;
+            lastInOthers = true;
+            return othersIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (last >= 0) {
+                removeDense(last);
+                last = -1;
+            } else if (lastInOthers) {
+                othersIterator.remove();
+                lastInOthers = false;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private final class DenseEntry extends SimpleEntry<FitnessFunction<T>, Double> {
+
+        private static final long serialVersionUID = -2104957186470235176L;
+
+        private final int id;
+
+        DenseEntry(int id) {
+            super(goals[id], values[id]);
+            this.id = id;
+        }
+
+        @Override
+        public Double setValue(Double value) {
+            Objects.requireNonNull(value);
+            putDense(id, getKey(), value);
+            return super.setValue(value);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size());
+        for (Map.Entry<FitnessFunction<T>, Double> entry : entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+        final int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            put((FitnessFunction<T>) in.readObject(), (Double) in.readObject());
+        }
+    }
+}
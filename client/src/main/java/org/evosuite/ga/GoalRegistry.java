@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense integer ids to the goals of a search, so that chromosomes
+ * can keep their fitness values for many goals in arrays rather than in hash
+ * maps. Goals that are equal share the same id. Ids are only valid until the
+ * next {@link #reset()}.
+ */
+public final class GoalRegistry {
+
+    private static final Map<FitnessFunction<?>, Integer> ids = new HashMap<>();
+
+    private static final List<FitnessFunction<?>> goals = new ArrayList<>();
+
+    /**
+     * Incremented on each reset, so that ids handed out before are invalid
+     */
+    private static volatile int generation = 1;
+
+    private static volatile int size = 0;
+
+    private GoalRegistry() {
+    }
+
+    /**
+     * Registers the given goal, unless it (or an equal goal) already is.
+     *
+     * @param goal the goal to register
+     * @return the id of the goal
+     */
+    public static synchronized int register(FitnessFunction<?> goal) {
+        int id = goal.getGoalId();
+        if (id >= 0) {
+            return id;
+        }
+        Integer known = ids.get(goal);
+        if (known == null) {
+            known = goals.size();
+            goals.add(goal);
+            ids.put(goal, known);
+            size = goals.size();
+        }
+        goal.setGoalId(known, generation);
+        return known;
+    }
+
+    public static void registerAll(Collection<? extends FitnessFunction<?>> goals) {
+        goals.forEach(GoalRegistry::register);
+    }
+
+    /**
+     * Returns the id of the given goal, or of a registered goal equal to it.
+     *
+     * @param goal a fitness function
+     * @return the id, or -1 if no equal goal has been registered
+     */
+    public static int getId(FitnessFunction<?> goal) {
+        int id = goal.getGoalId();
+        if (id >= 0 || size == 0) {
+            return id;
+        }
+        synchronized (GoalRegistry.class) {
+            Integer known = ids.get(goal);
+            if (known == null) {
+                return -1;
+            }
+            goal.setGoalId(known, generation);
+            return known;
+        }
+    }
+
+    public static synchronized FitnessFunction<?> getGoal(int id) {
+        return goals.get(id);
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    static int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Forgets all goals, invalidating the ids handed out so far.
+     */
+    public static synchronized void reset() {
+        ids.clear();
+        goals.clear();
+        size = 0;
+        generation++;
+    }
+}
@@ -21,6 +21,7 @@ package org.evosuite.ga.archive;
 
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.GoalRegistry;
 import org.evosuite.ga.SecondaryObjective;
 import org.evosuite.runtime.util.AtMostOnceLogger;
 import org.evosuite.setup.TestCluster;
@@ -57,7 +58,8 @@ public abstract class Archive implements Serializable {
 
     /**
      * Map used to store all targets (values of the map) of each method (here represented by its name,
-     * keys of the map)
+     * keys of the map). Accesses are synchronized on the map itself, as targets may be covered
+     * concurrently.
      */
     protected final Map<String, Set<TestFitnessFunction>> nonCoveredTargetsOfEachMethod =
             new LinkedHashMap<>();
@@ -65,7 +67,7 @@ public abstract class Archive implements Serializable {
     /**
      * Has this archive been updated with new candidate solutions?
      */
-    protected boolean hasBeenUpdated = false;
+    protected volatile boolean hasBeenUpdated = false;
 
     /**
      * Register a target.
@@ -79,6 +81,8 @@ public abstract class Archive implements Serializable {
             throw new RuntimeException("Trying to add a target of '" + target.getClass().getSimpleName()
                     + "' type to the archive, but correspondent criterion is not enabled.");
         }
+
+        GoalRegistry.register(target);
     }
 
     /**
@@ -97,10 +101,12 @@ public abstract class Archive implements Serializable {
      */
     protected void registerNonCoveredTargetOfAMethod(TestFitnessFunction target) {
         String targetMethod = this.getMethodFullName(target);
-        if (!this.nonCoveredTargetsOfEachMethod.containsKey(targetMethod)) {
-            this.nonCoveredTargetsOfEachMethod.put(targetMethod, new LinkedHashSet<>());
+        synchronized (this.nonCoveredTargetsOfEachMethod) {
+            if (!this.nonCoveredTargetsOfEachMethod.containsKey(targetMethod)) {
+                this.nonCoveredTargetsOfEachMethod.put(targetMethod, new LinkedHashSet<>());
+            }
+            this.nonCoveredTargetsOfEachMethod.get(targetMethod).add(target);
         }
-        this.nonCoveredTargetsOfEachMethod.get(targetMethod).add(target);
     }
 
     /**
@@ -110,16 +116,18 @@ public abstract class Archive implements Serializable {
      */
     protected void removeNonCoveredTargetOfAMethod(TestFitnessFunction target) {
         String targetMethod = this.getMethodFullName(target);
-        if (this.nonCoveredTargetsOfEachMethod.containsKey(targetMethod)) {
-            // target has been covered, therefore we can remove it from the list of non-covered
-            this.nonCoveredTargetsOfEachMethod.get(targetMethod).remove(target);
+        synchronized (this.nonCoveredTargetsOfEachMethod) {
+            if (this.nonCoveredTargetsOfEachMethod.containsKey(targetMethod)) {
+                // target has been covered, therefore we can remove it from the list of non-covered
+                this.nonCoveredTargetsOfEachMethod.get(targetMethod).remove(target);
 
-            if (this.nonCoveredTargetsOfEachMethod.get(targetMethod).isEmpty()) {
-                // method is fully covered, therefore we do not need to keep track of it
-                this.nonCoveredTargetsOfEachMethod.remove(targetMethod);
+                if (this.nonCoveredTargetsOfEachMethod.get(targetMethod).isEmpty()) {
+                    // method is fully covered, therefore we do not need to keep track of it
+                    this.nonCoveredTargetsOfEachMethod.remove(targetMethod);
 
-                // inform TestCluster that method 'targetMethod' is fully covered
-                this.ignoreMethodCall(this.getClassName(target), this.getMethodName(target));
+                    // inform TestCluster that method 'targetMethod' is fully covered
+                    this.ignoreMethodCall(this.getClassName(target), this.getMethodName(target));
+                }
             }
         }
     }
@@ -472,10 +480,12 @@ public abstract class Archive implements Serializable {
      * @return true if a method has been fully covered, false otherwise
      */
     protected boolean isMethodFullyCovered(String methodFullName) {
-        if (!this.nonCoveredTargetsOfEachMethod.containsKey(methodFullName)) {
-            return true;
+        synchronized (this.nonCoveredTargetsOfEachMethod) {
+            if (!this.nonCoveredTargetsOfEachMethod.containsKey(methodFullName)) {
+                return true;
+            }
+            return this.nonCoveredTargetsOfEachMethod.get(methodFullName).isEmpty();
         }
-        return this.nonCoveredTargetsOfEachMethod.get(methodFullName).isEmpty();
     }
 
     /**
@@ -485,10 +495,12 @@ public abstract class Archive implements Serializable {
      * @return
      */
     public int getNumOfRemainingTargets(String methodFullName) {
-        if (!this.nonCoveredTargetsOfEachMethod.containsKey(methodFullName)) {
-            return 0;
+        synchronized (this.nonCoveredTargetsOfEachMethod) {
+            if (!this.nonCoveredTargetsOfEachMethod.containsKey(methodFullName)) {
+                return 0;
+            }
+            return this.nonCoveredTargetsOfEachMethod.get(methodFullName).size();
         }
-        return this.nonCoveredTargetsOfEachMethod.get(methodFullName).size();
     }
 
     /**
@@ -500,7 +512,9 @@ public abstract class Archive implements Serializable {
      * Reset any field.
      */
     public void reset() {
-        this.nonCoveredTargetsOfEachMethod.clear();
+        synchronized (this.nonCoveredTargetsOfEachMethod) {
+            this.nonCoveredTargetsOfEachMethod.clear();
+        }
     }
 
     /**
@@ -30,10 +30,9 @@ import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Coverage Archive.
@@ -47,15 +46,11 @@ public class CoverageArchive extends Archive {
     private static final Logger logger = LoggerFactory.getLogger(CoverageArchive.class);
 
     /**
-     * Map used to store all covered targets (keys of the map) and the corresponding covering
-     * solutions (values of the map)
+     * All targets, each one with a reference to its covering solution (null if the target has not
+     * been covered yet). Solutions of different targets can be updated concurrently, as each
+     * reference is only updated by compare-and-set.
      */
-    private final Map<TestFitnessFunction, TestChromosome> covered = new LinkedHashMap<>();
-
-    /**
-     * Set used to store all targets that have not been covered yet
-     */
-    private final Set<TestFitnessFunction> uncovered = new LinkedHashSet<>();
+    private final TargetIndex<AtomicReference<TestChromosome>> targets = new TargetIndex<>();
 
     public static final CoverageArchive instance = new CoverageArchive();
 
@@ -67,12 +62,10 @@ public class CoverageArchive extends Archive {
     public void addTarget(TestFitnessFunction target) {
         super.addTarget(target);
 
-        if (!this.uncovered.contains(target)) {
+        if (this.targets.register(target, AtomicReference::new)) {
             logger.debug("Registering new target '" + target + "'");
-            this.uncovered.add(target);
+            this.registerNonCoveredTargetOfAMethod(target);
         }
-
-        this.registerNonCoveredTargetOfAMethod(target);
     }
 
     /**
@@ -81,7 +74,8 @@ public class CoverageArchive extends Archive {
     @Override
     public void updateArchive(TestFitnessFunction target, TestChromosome solution, double fitnessValue) {
         super.updateArchive(target, solution, fitnessValue);
-        assert this.covered.containsKey(target) || this.uncovered.contains(target) : "Unknown goal: " + target;
+        TargetIndex.Slot<AtomicReference<TestChromosome>> slot = this.targets.get(target);
+        assert slot != null : "Unknown goal: " + target;
 
         if (fitnessValue > 0.0) {
             // as this type of archive only cares about covered targets, it ignores all
@@ -89,29 +83,28 @@ public class CoverageArchive extends Archive {
             return;
         }
 
-        boolean isNewCoveredTarget = false;
-        boolean isNewSolutionBetterThanCurrent = false;
-
-        TestChromosome currentSolution = this.covered.get(target);
-
-        if (currentSolution == null) {
-            logger.debug("Solution for non-covered target '" + target + "'");
-            isNewCoveredTarget = true;
-        } else {
-            isNewSolutionBetterThanCurrent = this.isBetterThanCurrent(currentSolution, solution);
-        }
+        // update the archive if a new target has been covered, or if solution covers already existing
+        // covered targets but it has been considered a better solution. if another thread replaces
+        // the current solution in the meantime, the candidate is compared to that one instead
+        TestChromosome currentSolution;
+        do {
+            currentSolution = slot.value.get();
+            if (currentSolution == null) {
+                logger.debug("Solution for non-covered target '" + target + "'");
+            } else if (!this.isBetterThanCurrent(currentSolution, solution)) {
+                return;
+            }
+        } while (!slot.value.compareAndSet(currentSolution, solution));
 
-        if (isNewCoveredTarget || isNewSolutionBetterThanCurrent) {
-            // update the archive if a new target has been covered, or if solution covers already existing
-            // covered targets but it has been considered a better solution
-            this.addToArchive(target, solution);
-        }
+        this.addToArchive(slot, solution);
     }
 
-    private void addToArchive(TestFitnessFunction target, TestChromosome solution) {
-        this.uncovered.remove(target);
-        this.covered.put(target, solution);
-        this.removeNonCoveredTargetOfAMethod(target);
+    private void addToArchive(TargetIndex.Slot<AtomicReference<TestChromosome>> slot,
+                              TestChromosome solution) {
+        TestFitnessFunction target = slot.target;
+        if (this.targets.markCovered(slot)) {
+            this.removeNonCoveredTargetOfAMethod(target);
+        }
         this.hasBeenUpdated = true;
 
         ExecutionResult result = solution.getLastExecutionResult();
@@ -127,7 +120,7 @@ public class CoverageArchive extends Archive {
      */
     @Override
     public boolean isArchiveEmpty() {
-        return this.covered.isEmpty();
+        return this.targets.numCovered() == 0;
     }
 
     /**
@@ -135,7 +128,7 @@ public class CoverageArchive extends Archive {
      */
     @Override
     public int getNumberOfTargets() {
-        return this.covered.keySet().size() + this.uncovered.size();
+        return this.targets.size();
     }
 
     /**
@@ -143,7 +136,7 @@ public class CoverageArchive extends Archive {
      */
     @Override
     public int getNumberOfCoveredTargets() {
-        return this.covered.size();
+        return this.targets.numCovered();
     }
 
     /**
@@ -151,7 +144,7 @@ public class CoverageArchive extends Archive {
      */
     @Override
     public int getNumberOfCoveredTargets(Class<?> targetClass) {
-        return (int) this.covered.keySet().stream().filter(target -> target.getClass() == targetClass)
+        return (int) this.getCoveredTargets().stream().filter(target -> target.getClass() == targetClass)
                 .count();
     }
 
@@ -160,7 +153,7 @@ public class CoverageArchive extends Archive {
      */
     @Override
     public Set<TestFitnessFunction> getCoveredTargets() {
-        return this.covered.keySet();
+        return this.targets.coveredTargets();
     }
 
     /**
@@ -168,7 +161,7 @@ public class CoverageArchive extends Archive {
      */
     @Override
     public int getNumberOfUncoveredTargets() {
-        return this.uncovered.size();
+        return this.targets.numUncovered();
     }
 
     /**
@@ -176,7 +169,7 @@ public class CoverageArchive extends Archive {
      */
     @Override
     public int getNumberOfUncoveredTargets(Class<?> targetClass) {
-        return (int) this.uncovered.stream().filter(target -> target.getClass() == targetClass).count();
+        return (int) this.getUncoveredTargets().stream().filter(target -> target.getClass() == targetClass).count();
     }
 
     /**
@@ -184,14 +177,7 @@ public class CoverageArchive extends Archive {
      */
     @Override
     public Set<TestFitnessFunction> getUncoveredTargets() {
-        return this.uncovered;
-    }
-
-    private Set<TestFitnessFunction> getTargets() {
-        Set<TestFitnessFunction> targets = new LinkedHashSet<>();
-        targets.addAll(this.getCoveredTargets());
-        targets.addAll(this.getUncoveredTargets());
-        return targets;
+        return this.targets.uncoveredTargets();
     }
 
     /**
@@ -200,7 +186,7 @@ public class CoverageArchive extends Archive {
     @Override
     public boolean hasTarget(TestFitnessFunction target) {
         assert target != null;
-        return this.covered.containsKey(target) || this.uncovered.contains(target);
+        return this.targets.contains(target);
     }
 
     /**
@@ -208,7 +194,7 @@ public class CoverageArchive extends Archive {
      */
     @Override
     public int getNumberOfSolutions() {
-        return this.covered.size();
+        return this.targets.numCovered();
     }
 
     /**
@@ -216,7 +202,11 @@ public class CoverageArchive extends Archive {
      */
     @Override
     public Set<TestChromosome> getSolutions() {
-        return new LinkedHashSet<>(this.covered.values());
+        Set<TestChromosome> solutions = new LinkedHashSet<>();
+        for (TargetIndex.Slot<AtomicReference<TestChromosome>> slot : this.targets.coveredSlots()) {
+            solutions.add(slot.value.get());
+        }
+        return solutions;
     }
 
     /**
@@ -233,8 +223,9 @@ public class CoverageArchive extends Archive {
     @Override
     public TestChromosome getSolution(TestFitnessFunction target) {
         assert target != null;
-        assert this.covered.containsKey(target);
-        return this.covered.get(target);
+        assert this.hasSolution(target);
+        TargetIndex.Slot<AtomicReference<TestChromosome>> slot = this.targets.get(target);
+        return slot == null ? null : slot.value.get();
     }
 
     /**
@@ -243,7 +234,8 @@ public class CoverageArchive extends Archive {
     @Override
     public boolean hasSolution(TestFitnessFunction target) {
         assert target != null;
-        return this.covered.containsKey(target);
+        TargetIndex.Slot<AtomicReference<TestChromosome>> slot = this.targets.get(target);
+        return slot != null && slot.isCovered();
     }
 
     /**
@@ -283,7 +275,10 @@ public class CoverageArchive extends Archive {
         // to avoid adding the same solution to 'mergedSolution' suite
         Set<TestChromosome> solutionsSampledFromArchive = new LinkedHashSet<>();
 
-        for (TestFitnessFunction target : this.getTargets()) {
+        // only covered targets have a solution in the archive, and their solutions are read once so
+        // that concurrent updates cannot change the merged solution while it is being built
+        for (TargetIndex.Slot<AtomicReference<TestChromosome>> slot : this.targets.coveredSlots()) {
+            TestFitnessFunction target = slot.target;
             // has target been covered? to answer it, we perform a local check rather than calling method
             // {@link TestFitnessFunction.isCoveredBy} as it may perform a fitness evaluation to access
             // whether that 'target' is covered or not (and therefore, it could be more expensive)
@@ -296,7 +291,7 @@ public class CoverageArchive extends Archive {
             }
 
             if (!isGoalCovered) {
-                TestChromosome chromosome = this.covered.get(target);
+                TestChromosome chromosome = slot.value.get();
 
                 // is there any solution in the archive that covers it, and has that solution not been
                 // considered yet?
@@ -341,7 +336,6 @@ public class CoverageArchive extends Archive {
     @Override
     public void reset() {
         super.reset();
-        this.covered.clear();
-        this.uncovered.clear();
+        this.targets.clear();
     }
 }
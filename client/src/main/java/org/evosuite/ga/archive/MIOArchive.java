@@ -34,8 +34,6 @@ import org.slf4j.LoggerFactory;
 import java.io.Serializable;
 import java.util.*;
 
-import static java.util.stream.Collectors.*;
-
 /**
  * Implementation of the archive described in the 'Many Independent Objective (MIO) Algorithm for
  * Test Suite Generation' paper.
@@ -49,10 +47,10 @@ public class MIOArchive extends Archive {
     private static final Logger logger = LoggerFactory.getLogger(MIOArchive.class);
 
     /**
-     * Map used to store all targets (keys of the map) and the corresponding covering solutions
-     * (values of the map)
+     * All targets, each one with the population of its candidate solutions. Each population is
+     * guarded by its own lock, so that solutions of different targets can be updated concurrently.
      **/
-    protected final Map<TestFitnessFunction, Population> archive = new LinkedHashMap<>();
+    private final TargetIndex<Population> archive = new TargetIndex<>();
 
     public static final MIOArchive instance = new MIOArchive();
 
@@ -63,12 +61,10 @@ public class MIOArchive extends Archive {
     public void addTarget(TestFitnessFunction target) {
         super.addTarget(target);
 
-        if (!this.archive.containsKey(target)) {
+        if (this.archive.register(target, () -> new Population(Properties.NUMBER_OF_TESTS_PER_TARGET))) {
             logger.debug("Registering new target '" + target + "'");
-            this.archive.put(target, new Population(Properties.NUMBER_OF_TESTS_PER_TARGET));
+            this.registerNonCoveredTargetOfAMethod(target);
         }
-
-        this.registerNonCoveredTargetOfAMethod(target);
     }
 
     /**
@@ -77,7 +73,8 @@ public class MIOArchive extends Archive {
     @Override
     public void updateArchive(TestFitnessFunction target, TestChromosome solution, double fitnessValue) {
         super.updateArchive(target, solution, fitnessValue);
-        assert this.archive.containsKey(target);
+        TargetIndex.Slot<Population> slot = this.archive.get(target);
+        assert slot != null;
 
         ExecutionResult executionResult = solution.getLastExecutionResult();
         // remove all statements after an exception
@@ -85,10 +82,12 @@ public class MIOArchive extends Archive {
             solution.getTestCase().chop(executionResult.getFirstPositionOfThrownException() + 1);
         }
 
-        boolean isNewCoveredTarget = this.archive.get(target)
+        boolean isNewCoveredTarget = slot.value
                 .addSolution(1.0 - FitnessFunction.normalize(fitnessValue), solution);
         if (isNewCoveredTarget) {
-            this.removeNonCoveredTargetOfAMethod(target);
+            if (this.archive.markCovered(slot)) {
+                this.removeNonCoveredTargetOfAMethod(target);
+            }
             this.hasBeenUpdated = true;
         }
     }
@@ -106,7 +105,7 @@ public class MIOArchive extends Archive {
      */
     @Override
     public int getNumberOfTargets() {
-        return this.archive.keySet().size();
+        return this.archive.size();
     }
 
     /**
@@ -114,7 +113,7 @@ public class MIOArchive extends Archive {
      */
     @Override
     public int getNumberOfCoveredTargets() {
-        return this.getCoveredTargets().size();
+        return this.archive.numCovered();
     }
 
     /**
@@ -131,9 +130,7 @@ public class MIOArchive extends Archive {
      */
     @Override
     public Set<TestFitnessFunction> getCoveredTargets() {
-        return this.archive.keySet().stream()
-                .filter(target -> this.archive.get(target).isCovered())
-                .collect(toSet());
+        return this.archive.coveredTargets();
     }
 
     /**
@@ -141,7 +138,7 @@ public class MIOArchive extends Archive {
      */
     @Override
     public int getNumberOfUncoveredTargets() {
-        return this.getUncoveredTargets().size();
+        return this.archive.numUncovered();
     }
 
     /**
@@ -159,9 +156,7 @@ public class MIOArchive extends Archive {
      */
     @Override
     public Set<TestFitnessFunction> getUncoveredTargets() {
-        return this.archive.keySet().stream()
-                .filter(target -> !this.archive.get(target).isCovered())
-                .collect(toSet());
+        return this.archive.uncoveredTargets();
     }
 
     /**
@@ -170,7 +165,7 @@ public class MIOArchive extends Archive {
     @Override
     public boolean hasTarget(TestFitnessFunction target) {
         assert target != null;
-        return this.archive.containsKey(target);
+        return this.archive.contains(target);
     }
 
     /**
@@ -188,10 +183,11 @@ public class MIOArchive extends Archive {
      */
     @Override
     public Set<TestChromosome> getSolutions() {
-        return this.archive.values().stream()
-                .map(Population::getBestSolutionIfAny)
-                .filter(Objects::nonNull)
-                .collect(toCollection(LinkedHashSet::new));
+        Set<TestChromosome> solutions = new LinkedHashSet<>();
+        for (TargetIndex.Slot<Population> slot : this.archive.coveredSlots()) {
+            solutions.add(slot.value.getBestSolutionIfAny());
+        }
+        return solutions;
     }
 
     /**
@@ -206,46 +202,51 @@ public class MIOArchive extends Archive {
         // one of the covered targets at random. Thereafter, choose one solution randomly from the list
         // of solutions of the chosen target.
 
-        List<TestFitnessFunction> targetsWithSolutions = this.archive.keySet().stream()
-                .filter(target -> this.archive.get(target).numSolutions() > 0).collect(toList());
-
-        if (targetsWithSolutions.isEmpty()) {
-            // there is not at least one target with at least one solution
-            return null;
-        }
-
-        List<TestFitnessFunction> potentialTargets = targetsWithSolutions.stream()
-                .filter(target -> !this.archive.get(target).isCovered()).collect(toList());
-
-        if (potentialTargets.isEmpty()) {
-            potentialTargets =
-                    targetsWithSolutions.stream().filter(target -> this.archive.get(target).isCovered())
-                            .collect(toList());
-        }
-        assert !potentialTargets.isEmpty();
-
         // Instead of choosing a target at random, we choose the one with the lowest counter value.
         // (See Section 3.3 of the paper that describes this archive for more details)
 
         // F target = Randomness.choice(potentialTargets);
         // T randomSolution = (T) this.archive.get(target).sampleSolution();
 
-        // ASC sort, i.e., from the population with the lowest counter to the population with the
-        // highest counter
-        potentialTargets.sort(Comparator.comparingInt(f -> archive.get(f).counter()));
+        // the first population (in registration order) with the lowest counter
+        Population population = this.getLeastSampledPopulation(this.archive.uncoveredSlots());
+        if (population == null) {
+            population = this.getLeastSampledPopulation(this.archive.snapshot());
+        }
+        if (population == null) {
+            // there is not at least one target with at least one solution
+            return null;
+        }
 
-        TestChromosome randomSolution = this.archive.get(potentialTargets.get(0)).sampleSolution();
+        TestChromosome randomSolution = population.sampleSolution();
         return randomSolution == null ? null : randomSolution.clone();
     }
 
+    private Population getLeastSampledPopulation(Iterable<TargetIndex.Slot<Population>> slots) {
+        Population leastSampled = null;
+        int lowestCounter = Integer.MAX_VALUE;
+        for (TargetIndex.Slot<Population> slot : slots) {
+            Population population = slot.value;
+            if (population.numSolutions() == 0) {
+                continue;
+            }
+            int counter = population.counter();
+            if (counter < lowestCounter) {
+                leastSampled = population;
+                lowestCounter = counter;
+            }
+        }
+        return leastSampled;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public TestChromosome getSolution(TestFitnessFunction target) {
         assert target != null;
-        assert this.archive.containsKey(target);
-        return this.archive.get(target).getBestSolutionIfAny();
+        assert this.archive.contains(target);
+        return this.archive.get(target).value.getBestSolutionIfAny();
     }
 
     /**
@@ -254,7 +255,7 @@ public class MIOArchive extends Archive {
     @Override
     public boolean hasSolution(TestFitnessFunction target) {
         assert target != null;
-        assert this.archive.containsKey(target);
+        assert this.archive.contains(target);
         return this.archive.get(target).isCovered();
     }
 
@@ -280,13 +281,13 @@ public class MIOArchive extends Archive {
         // to avoid adding the same solution to 'mergedSolution' suite
         Set<TestChromosome> solutionsSampledFromArchive = new LinkedHashSet<>();
 
-        for (TestFitnessFunction target : this.archive.keySet()) {
+        // only covered targets have a best solution
+        for (TargetIndex.Slot<Population> slot : this.archive.coveredSlots()) {
+            TestFitnessFunction target = slot.target;
             // does solution cover target?
             if (!target.isCoveredBy(mergedSolution)) {
-                Population population = this.archive.get(target);
-
                 // is there any solution in the archive that covers it?
-                TestChromosome t = population.getBestSolutionIfAny();
+                TestChromosome t = slot.value.getBestSolutionIfAny();
                 if (t != null) {
                     // has t been considered?
                     if (!solutionsSampledFromArchive.contains(t)) {
@@ -317,8 +318,8 @@ public class MIOArchive extends Archive {
     @Override
     public void shrinkSolutions(int newPopulationSize) {
         assert newPopulationSize > 0;
-        for (TestFitnessFunction target : this.archive.keySet()) {
-            this.archive.get(target).shrinkPopulation(newPopulationSize);
+        for (TargetIndex.Slot<Population> slot : this.archive.uncoveredSlots()) {
+            slot.value.shrinkPopulation(newPopulationSize);
         }
     }
 
@@ -340,6 +341,9 @@ public class MIOArchive extends Archive {
         this.archive.clear();
     }
 
+    /**
+     * Candidate solutions of a single target. All accesses are synchronized on the population.
+     */
     private class Population implements Serializable {
 
         private static final long serialVersionUID = 1671692598239736237L;
@@ -361,14 +365,14 @@ public class MIOArchive extends Archive {
         /**
          * @return
          */
-        private int counter() {
+        private synchronized int counter() {
             return this.counter;
         }
 
         /**
          * @return
          */
-        private boolean isCovered() {
+        private synchronized boolean isCovered() {
             return this.solutions.size() == 1 && this.capacity == 1
                     && this.solutions.get(0).getLeft() == 1.0;
         }
@@ -378,7 +382,7 @@ public class MIOArchive extends Archive {
          *          possible heuristics value
          * @param t
          */
-        private boolean addSolution(Double h, TestChromosome t) {
+        private synchronized boolean addSolution(Double h, TestChromosome t) {
             assert h >= 0.0 && h <= 1.0;
 
             if (h == 0.0) {
@@ -470,7 +474,7 @@ public class MIOArchive extends Archive {
         /**
          * @return
          */
-        private TestChromosome sampleSolution() {
+        private synchronized TestChromosome sampleSolution() {
             if (this.numSolutions() == 0) {
                 return null;
             }
@@ -495,14 +499,14 @@ public class MIOArchive extends Archive {
         /**
          * @return
          */
-        private int numSolutions() {
+        private synchronized int numSolutions() {
             return this.solutions.size();
         }
 
         /**
          * @return
          */
-        private TestChromosome getBestSolutionIfAny() {
+        private synchronized TestChromosome getBestSolutionIfAny() {
             if (this.numSolutions() == 0 || !this.isCovered()) {
                 return null;
             }
@@ -512,7 +516,7 @@ public class MIOArchive extends Archive {
         /**
          * @param newPopulationSize
          */
-        private void shrinkPopulation(int newPopulationSize) {
+        private synchronized void shrinkPopulation(int newPopulationSize) {
             assert newPopulationSize > 0;
 
             if (this.isCovered()) {
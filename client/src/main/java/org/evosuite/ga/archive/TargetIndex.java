@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.archive;
+
+import org.evosuite.testcase.TestFitnessFunction;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The targets of an archive, each one with a slot holding the per-target state of the archive.
+ * Slots can be looked up and updated concurrently without a global lock. Covered and uncovered
+ * targets are indexed separately, so that neither of them requires to scan all targets.
+ *
+ * @param <V> the type of the per-target state
+ */
+final class TargetIndex<V> implements Serializable {
+
+    private static final long serialVersionUID = 4417650286613957021L;
+
+    static final class Slot<V> implements Serializable {
+
+        private static final long serialVersionUID = -2592473722245880815L;
+
+        final TestFitnessFunction target;
+
+        /**
+         * Position of the target in registration order
+         */
+        final int index;
+
+        final V value;
+
+        private final AtomicBoolean covered = new AtomicBoolean(false);
+
+        private Slot(TestFitnessFunction target, int index, V value) {
+            this.target = target;
+            this.index = index;
+            this.value = value;
+        }
+
+        boolean isCovered() {
+            return this.covered.get();
+        }
+    }
+
+    private final Map<TestFitnessFunction, Slot<V>> slots = new ConcurrentHashMap<>();
+
+    /**
+     * All slots in registration order. Only the first {@link #size} entries are valid; the array is
+     * replaced (never modified below {@link #size}) when it grows.
+     */
+    @SuppressWarnings("unchecked")
+    private volatile Slot<V>[] order = new Slot[16];
+
+    private volatile int size = 0;
+
+    /**
+     * Uncovered targets, in registration order
+     */
+    private final ConcurrentSkipListSet<Slot<V>> uncovered =
+            new ConcurrentSkipListSet<>((Comparator<Slot<V>> & Serializable)
+                    (slot0, slot1) -> Integer.compare(slot0.index, slot1.index));
+
+    /**
+     * Covered targets, in the order in which they have been covered
+     */
+    private final ConcurrentLinkedQueue<Slot<V>> covered = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger numCovered = new AtomicInteger(0);
+
+    /**
+     * Registers a target, unless it is already registered.
+     *
+     * @param target the target to register
+     * @param value  creates the per-target state of a new target
+     * @return true if the target has not been registered before
+     */
+    synchronized boolean register(TestFitnessFunction target, Supplier<V> value) {
+        if (this.slots.containsKey(target)) {
+            return false;
+        }
+        Slot<V> slot = new Slot<>(target, this.size, value.get());
+        if (this.size == this.order.length) {
+            this.order = Arrays.copyOf(this.order, this.size * 2);
+        }
+        this.order[this.size] = slot;
+        this.uncovered.add(slot);
+        this.slots.put(target, slot);
+        this.size++;
+        return true;
+    }
+
+    Slot<V> get(TestFitnessFunction target) {
+        return this.slots.get(target);
+    }
+
+    boolean contains(TestFitnessFunction target) {
+        return this.slots.containsKey(target);
+    }
+
+    /**
+     * Marks the target of a slot as covered.
+     *
+     * @param slot a registered slot
+     * @return true if the target had not been covered before
+     */
+    boolean markCovered(Slot<V> slot) {
+        if (!slot.covered.compareAndSet(false, true)) {
+            return false;
+        }
+        this.uncovered.remove(slot);
+        this.covered.add(slot);
+        this.numCovered.incrementAndGet();
+        return true;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    int numCovered() {
+        return this.numCovered.get();
+    }
+
+    int numUncovered() {
+        return this.size - this.numCovered.get();
+    }
+
+    /**
+     * Returns all slots registered so far, in registration order. The list is a copy, and does not
+     * reflect later registrations.
+     *
+     * @return a list of slots
+     */
+    List<Slot<V>> snapshot() {
+        int n = this.size;
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(this.order, n)));
+    }
+
+    /**
+     * @return the slots of the covered targets, in the order in which they have been covered
+     */
+    Iterable<Slot<V>> coveredSlots() {
+        return this.covered;
+    }
+
+    /**
+     * @return the slots of the uncovered targets, in registration order
+     */
+    Iterable<Slot<V>> uncoveredSlots() {
+        return this.uncovered;
+    }
+
+    /**
+     * @return an unmodifiable, live view of the covered targets
+     */
+    Set<TestFitnessFunction> coveredTargets() {
+        return new TargetView(this.covered, true);
+    }
+
+    /**
+     * @return an unmodifiable, live view of the uncovered targets
+     */
+    Set<TestFitnessFunction> uncoveredTargets() {
+        return new TargetView(this.uncovered, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized void clear() {
+        this.size = 0;
+        this.order = new Slot[16];
+        this.slots.clear();
+        this.uncovered.clear();
+        this.covered.clear();
+        this.numCovered.set(0);
+    }
+
+    private final class TargetView extends AbstractSet<TestFitnessFunction> implements Serializable {
+
+        private static final long serialVersionUID = 2298316931406815005L;
+
+        private final Iterable<Slot<V>> members;
+
+        private final boolean covered;
+
+        private TargetView(Iterable<Slot<V>> members, boolean covered) {
+            this.members = members;
+            this.covered = covered;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (o == null) {
+                return false;
+            }
+            Slot<V> slot = TargetIndex.this.slots.get(o);
+            return slot != null && slot.isCovered() == this.covered;
+        }
+
+        @Override
+        public Iterator<TestFitnessFunction> iterator() {
+            final Iterator<Slot<V>> iterator = this.members.iterator();
+            return new Iterator<TestFitnessFunction>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public TestFitnessFunction next() {
+                    return iterator.next().target;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return this.covered ? numCovered() : numUncovered();
+        }
+    }
+}
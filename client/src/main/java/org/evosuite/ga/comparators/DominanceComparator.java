@@ -23,6 +23,8 @@ import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -37,7 +39,11 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
 
     private static final long serialVersionUID = -2154238776555768364L;
 
-    private Set<FitnessFunction<T>> objectives;
+    /**
+     * The objectives, kept in an array as the comparator is called for each
+     * pair of chromosomes of a front
+     */
+    private FitnessFunction<T>[] objectives;
 
 
     public DominanceComparator() {
@@ -48,15 +54,19 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
      * @param goals set of target goals to consider when computing the dominance relationship
      */
     public DominanceComparator(Set<? extends FitnessFunction<T>> goals) {
-        this.objectives = new LinkedHashSet<>(goals);
+        this.objectives = toArray(new LinkedHashSet<>(goals));
     }
 
     /**
      * @param goal to consider when computing the dominance relationship
      */
     public DominanceComparator(FitnessFunction<T> goal) {
-        this.objectives = new LinkedHashSet<>();
-        this.objectives.add(goal);
+        this.objectives = toArray(Collections.singleton(goal));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Chromosome<T>> FitnessFunction<T>[] toArray(Collection<? extends FitnessFunction<T>> goals) {
+        return goals.toArray(new FitnessFunction[0]);
     }
 
     /**
@@ -81,7 +91,7 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
         boolean dominate2 = false;
 
         if (this.objectives == null) {
-            this.objectives = new LinkedHashSet<>(c1.getFitnessValues().keySet());
+            this.objectives = toArray(c1.getFitnessValues().keySet());
         }
 
         for (FitnessFunction<T> ff : this.objectives) {
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.operators.selection.BestKSelection;
+import org.evosuite.ga.operators.selection.RandomKSelection;
+import org.evosuite.ga.operators.selection.RankSelection;
+import org.evosuite.ga.operators.selection.SelectionFunction;
+import org.evosuite.utils.Randomness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Exchanges migrants between the islands of an {@link IslandModel}. Every
+ * island has an inbox, a lock-free queue to which the other islands add groups
+ * of migrants. After each iteration, an island integrates the migrants it has
+ * received by replacing its worst individuals, and every
+ * {@link Properties#MIGRANTS_ITERATION_FREQUENCY} iterations it sends copies
+ * of {@link Properties#MIGRANTS_COMMUNICATION_RATE} of its individuals to the
+ * islands given by {@link Properties#ISLAND_TOPOLOGY}.
+ * <p>
+ * All accesses to the population of an island happen on the thread of that
+ * island; the migrants are cloned before they are sent, so that no individual
+ * is shared by two islands.
+ *
+ * @param <U> the type of the individuals evolved by the islands
+ */
+final class IslandMigration<U extends Chromosome<U>> implements SearchListener<U> {
+
+    private static final long serialVersionUID = -3950290717862216453L;
+
+    private final int index;
+
+    /**
+     * The migrations of all islands, including this one
+     */
+    private final List<IslandMigration<U>> islands;
+
+    /**
+     * Groups of migrants sent by other islands
+     */
+    private final ConcurrentLinkedQueue<List<U>> immigrants = new ConcurrentLinkedQueue<>();
+
+    private final SelectionFunction<U> emigrantsSelection;
+
+    private int numIterations = 0;
+
+    private volatile int numImmigrants = 0;
+
+    private IslandMigration(int index, List<IslandMigration<U>> islands) {
+        this.index = index;
+        this.islands = islands;
+
+        switch (Properties.EMIGRANT_SELECTION_FUNCTION) {
+            case RANK:
+                this.emigrantsSelection = new RankSelection<>();
+                break;
+            case RANDOMK:
+                this.emigrantsSelection = new RandomKSelection<>();
+                break;
+            default:
+                this.emigrantsSelection = new BestKSelection<>();
+        }
+    }
+
+    /**
+     * Connects the given islands by adding a migration to each of them.
+     *
+     * @param algorithms the algorithms evolving the individuals of the islands
+     * @param <U>        the type of the individuals
+     * @return the migrations, in the order of the islands
+     */
+    static <U extends Chromosome<U>> List<IslandMigration<U>> connect(List<GeneticAlgorithm<U>> algorithms) {
+        List<IslandMigration<U>> migrations = new ArrayList<>(algorithms.size());
+        for (int i = 0; i < algorithms.size(); i++) {
+            IslandMigration<U> migration = new IslandMigration<>(i, Collections.unmodifiableList(migrations));
+            migrations.add(migration);
+            algorithms.get(i).addListener(migration);
+        }
+        return migrations;
+    }
+
+    /**
+     * @return the number of migrants this island has integrated so far
+     */
+    int getNumImmigrants() {
+        return numImmigrants;
+    }
+
+    @Override
+    public void searchStarted(GeneticAlgorithm<U> algorithm) {
+        numIterations = 0;
+    }
+
+    @Override
+    public void iteration(GeneticAlgorithm<U> algorithm) {
+        numIterations++;
+        if (Properties.MIGRANTS_ITERATION_FREQUENCY <= 0 || islands.size() < 2) {
+            return;
+        }
+
+        immigrate(algorithm);
+        if (numIterations % Properties.MIGRANTS_ITERATION_FREQUENCY == 0 && !algorithm.population.isEmpty()) {
+            emigrate(algorithm.population);
+        }
+    }
+
+    /**
+     * Replaces the worst individuals of the population, which all algorithms
+     * keep at its end, with the migrants received so far. At most half of the
+     * population is replaced.
+     */
+    private void immigrate(GeneticAlgorithm<U> algorithm) {
+        List<U> population = algorithm.population;
+        int replaced = 0;
+        List<U> group;
+        while ((group = immigrants.poll()) != null) {
+            for (U immigrant : group) {
+                if (replaced >= population.size() / 2) {
+                    break;
+                }
+                // the fitness is computed again, on the goals of this island
+                algorithm.calculateFitness(immigrant);
+                population.set(population.size() - 1 - replaced, immigrant);
+                replaced++;
+            }
+        }
+        // the population is sorted or ranked again by the next generation,
+        // sorting it here would not work for the multi-objective algorithms
+        numImmigrants += replaced;
+    }
+
+    private void emigrate(List<U> population) {
+        List<U> emigrants = emigrantsSelection.select(population, Properties.MIGRANTS_COMMUNICATION_RATE);
+        for (IslandMigration<U> target : getTargets()) {
+            List<U> copies = new ArrayList<>(emigrants.size());
+            for (U emigrant : emigrants) {
+                copies.add(emigrant.clone());
+            }
+            target.immigrants.offer(copies);
+        }
+    }
+
+    private List<IslandMigration<U>> getTargets() {
+        int numIslands = islands.size();
+        switch (Properties.ISLAND_TOPOLOGY) {
+            case FULLY_CONNECTED:
+                List<IslandMigration<U>> others = new ArrayList<>(islands);
+                others.remove(this);
+                return others;
+            case RANDOM:
+                return Collections.singletonList(islands.get((index + 1 + Randomness.nextInt(numIslands - 1)) % numIslands));
+            case RING:
+            default:
+                return Collections.singletonList(islands.get((index + 1) % numIslands));
+        }
+    }
+
+    @Override
+    public void searchFinished(GeneticAlgorithm<U> algorithm) {
+        immigrants.clear();
+    }
+
+    @Override
+    public void fitnessEvaluation(U individual) {
+        // nothing to do
+    }
+
+    @Override
+    public void modification(U individual) {
+        // nothing to do
+    }
+}
@@ -0,0 +1,504 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.ChromosomeFactory;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.bloatcontrol.BloatControlFunction;
+import org.evosuite.ga.operators.crossover.CrossOverFunction;
+import org.evosuite.ga.operators.selection.SelectionFunction;
+import org.evosuite.ga.populationlimit.PopulationLimit;
+import org.evosuite.ga.stoppingconditions.IslandStoppingCondition;
+import org.evosuite.ga.stoppingconditions.StoppingCondition;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.testcase.execution.IslandExecutor;
+import org.evosuite.utils.ResourceController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Runs several instances of a genetic algorithm, the islands, on threads of
+ * the same client, so that they share the class loader, the test cluster and
+ * the archive of the client. Every few iterations, the islands exchange some
+ * of their individuals (see {@link IslandMigration}).
+ * <p>
+ * Like the {@link TestSuiteAdapter}, this class only forwards the
+ * configuration of the search to the islands: each island has its own
+ * population, operators and stopping conditions, and executes its tests with
+ * its own {@link IslandExecutor}. The fitness functions are shared by all
+ * islands, as the fitness values of migrants are keyed by them (see
+ * {@link org.evosuite.testsuite.TestSuiteFitnessFunction}). The search
+ * listeners are notified by the model, at each iteration of any of the
+ * islands. The search ends for all islands as soon as one of them has
+ * finished.
+ *
+ * @param <T> the type of the individuals evolved by the islands
+ */
+public class IslandModel<T extends Chromosome<T>> extends GeneticAlgorithm<T> {
+
+    private static final long serialVersionUID = 4327981467263530195L;
+
+    private static final Logger logger = LoggerFactory.getLogger(IslandModel.class);
+
+    private final List<GeneticAlgorithm<T>> islands;
+
+    private final IdentityHashMap<SearchListener<T>, List<SearchListener<T>>> searchListenerMapping = new IdentityHashMap<>();
+
+    /**
+     * The best individual of each island, as of its last iteration
+     */
+    private final transient AtomicReferenceArray<T> bestIndividuals;
+
+    private volatile boolean searching = false;
+
+    private transient IslandStoppingCondition<T> stop = null;
+
+    /**
+     * Creates a new island model.
+     *
+     * @param factory       the factory of the individuals
+     * @param islandFactory creates the algorithm of each island, configured
+     *                      with all that is not set through this model
+     * @param numIslands    the number of islands
+     */
+    public IslandModel(ChromosomeFactory<T> factory, Supplier<GeneticAlgorithm<T>> islandFactory,
+                       int numIslands) {
+        super(factory);
+        if (numIslands < 1) {
+            throw new IllegalArgumentException("Invalid number of islands: " + numIslands);
+        }
+
+        List<GeneticAlgorithm<T>> islands = new ArrayList<>(numIslands);
+        for (int i = 0; i < numIslands; i++) {
+            islands.add(islandFactory.get());
+        }
+        this.islands = Collections.unmodifiableList(islands);
+        this.bestIndividuals = new AtomicReferenceArray<>(numIslands);
+
+        // the islands have their own default stopping conditions and listeners
+        stoppingConditions.clear();
+        listeners.clear();
+
+        connect(islands);
+        // after the migration, so that an island has sent its first
+        // emigrants by the time it counts as started
+        for (int i = 0; i < numIslands; i++) {
+            islands.get(i).addListener(new IslandListener<>(this, i));
+        }
+    }
+
+    /**
+     * Adds the migration to the algorithms that evolve the populations of the
+     * islands, which are wrapped by the islands generating test suites from
+     * tests.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T extends Chromosome<T>> void connect(List<GeneticAlgorithm<T>> islands) {
+        List algorithms = new ArrayList<>(islands.size());
+        for (GeneticAlgorithm<T> island : islands) {
+            if (island instanceof TestSuiteAdapter) {
+                algorithms.add(((TestSuiteAdapter<?>) island).getAlgorithm());
+            } else {
+                algorithms.add(island);
+            }
+        }
+        IslandMigration.connect(algorithms);
+    }
+
+    /**
+     * @return the algorithms of the islands
+     */
+    public List<GeneticAlgorithm<T>> getIslands() {
+        return islands;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void evolve() {
+        throw new UnsupportedOperationException("The islands evolve on their own");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initializePopulation() {
+        islands.forEach(GeneticAlgorithm::initializePopulation);
+    }
+
+    /**
+     * Runs the search of each island on its own thread, and waits for all of
+     * them to finish. The threads only start evolving their islands once all
+     * of them are running.
+     */
+    @Override
+    public void generateSolution() {
+        stop = new IslandStoppingCondition<>(islands.size());
+        islands.forEach(island -> {
+            // replaces the stopping condition of a previous search
+            island.removeStoppingCondition(stop);
+            island.addStoppingCondition(stop);
+        });
+
+        searching = true;
+        notifySearchStarted();
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch running = new CountDownLatch(islands.size());
+        List<Thread> threads = new ArrayList<>(islands.size());
+        for (int i = 0; i < islands.size(); i++) {
+            GeneticAlgorithm<T> island = islands.get(i);
+            int index = i;
+            Thread thread = new Thread(() -> {
+                IslandExecutor executor = new IslandExecutor();
+                executor.bindToCurrentThread();
+                try {
+                    running.countDown();
+                    running.await();
+                    island.generateSolution();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    // an island that failed or had no budget must not hold back the others
+                    stop.islandStarted(index);
+                    stop.stop();
+                    IslandExecutor.unbind();
+                    executor.shutdown();
+                    logger.debug("Island executed {} tests concurrently and {} exclusively",
+                            executor.getNumConcurrentTests(), executor.getNumExclusiveTests());
+                }
+            }, "ISLAND_" + i);
+            thread.setDaemon(true);
+            Sandbox.addPrivilegedThread(thread);
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            stop.stopNow();
+            Thread.currentThread().interrupt();
+        }
+        searching = false;
+
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new RuntimeException(t);
+        }
+
+        notifySearchFinished();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isFinished() {
+        return (stop != null && stop.isFinished()) || islands.stream().anyMatch(GeneticAlgorithm::isFinished);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * While the search is running, this is the best individual of the last
+     * iterations of the islands.
+     */
+    @Override
+    public T getBestIndividual() {
+        T best = null;
+        for (int i = 0; i < islands.size(); i++) {
+            T candidate = searching ? bestIndividuals.get(i) : islands.get(i).getBestIndividual();
+            if (candidate == null) {
+                continue;
+            }
+            if (best == null || (!fitnessFunctions.isEmpty() && !isBetterOrEqual(best, candidate))) {
+                best = candidate;
+            }
+        }
+        return best != null ? best : islands.get(0).getBestIndividual();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getBestIndividuals() {
+        return Collections.singletonList(getBestIndividual());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The population of the model consists of the best individuals of the
+     * islands.
+     */
+    @Override
+    public List<T> getPopulation() {
+        List<T> population = new ArrayList<>(islands.size());
+        for (int i = 0; i < islands.size(); i++) {
+            T best = bestIndividuals.get(i);
+            if (best != null) {
+                population.add(best);
+            }
+        }
+        return Collections.unmodifiableList(population);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getAge() {
+        return islands.stream().mapToInt(GeneticAlgorithm::getAge).max().orElse(0);
+    }
+
+    @Override
+    public void addFitnessFunction(FitnessFunction<T> function) {
+        super.addFitnessFunction(function);
+        if (islands != null) {
+            islands.forEach(island -> island.addFitnessFunction(function));
+        }
+    }
+
+    @Override
+    public void addFitnessFunctions(Collection<? extends FitnessFunction<T>> functions) {
+        functions.forEach(super::addFitnessFunction);
+        islands.forEach(island -> island.addFitnessFunctions(functions));
+    }
+
+    @Override
+    public List<? extends FitnessFunction<T>> getFitnessFunctions() {
+        return islands.get(0).getFitnessFunctions();
+    }
+
+    @Override
+    public void setChromosomeFactory(ChromosomeFactory<T> factory) {
+        super.setChromosomeFactory(factory);
+        if (islands != null) {
+            islands.forEach(island -> island.setChromosomeFactory(factory));
+        }
+    }
+
+    @Override
+    public void setSelectionFunction(SelectionFunction<T> function) {
+        super.setSelectionFunction(function);
+        islands.forEach(island -> island.setSelectionFunction(function));
+    }
+
+    @Override
+    public void setCrossOverFunction(CrossOverFunction<T> crossover) {
+        super.setCrossOverFunction(crossover);
+        islands.forEach(island -> island.setCrossOverFunction(crossover));
+    }
+
+    @Override
+    public void setPopulationLimit(PopulationLimit<T> limit) {
+        super.setPopulationLimit(limit);
+        islands.forEach(island -> island.setPopulationLimit(limit));
+    }
+
+    @Override
+    public void setBloatControl(BloatControlFunction<T> bloatControl) {
+        super.setBloatControl(bloatControl);
+        islands.forEach(island -> island.setBloatControl(bloatControl));
+    }
+
+    @Override
+    public void addBloatControl(BloatControlFunction<T> bloatControl) {
+        super.addBloatControl(bloatControl);
+        islands.forEach(island -> island.addBloatControl(bloatControl));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A {@link ResourceController} is replaced by one controller per island,
+     * as it acts on the population of the algorithm it listens to.
+     */
+    @Override
+    public void addListener(SearchListener<T> listener) {
+        if (islands != null && listener instanceof ResourceController) {
+            if (!searchListenerMapping.containsKey(listener)) {
+                List<SearchListener<T>> islandListeners = new ArrayList<>(islands.size());
+                for (GeneticAlgorithm<T> island : islands) {
+                    ResourceController<T> islandListener = new ResourceController<>();
+                    island.addListener(islandListener);
+                    islandListeners.add(islandListener);
+                }
+                searchListenerMapping.put(listener, islandListeners);
+            }
+        } else {
+            super.addListener(listener);
+        }
+    }
+
+    @Override
+    public void removeListener(SearchListener<T> listener) {
+        List<SearchListener<T>> islandListeners = searchListenerMapping.remove(listener);
+        if (islandListeners != null) {
+            for (int i = 0; i < islands.size(); i++) {
+                islands.get(i).removeListener(islandListeners.get(i));
+            }
+        } else {
+            super.removeListener(listener);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each island gets its own copy of the stopping condition, unless it
+     * cannot be copied.
+     */
+    @Override
+    public void addStoppingCondition(StoppingCondition<T> condition) {
+        if (islands == null) {
+            // invoked by the constructor of the super class
+            super.addStoppingCondition(condition);
+            return;
+        }
+        islands.forEach(island -> island.addStoppingCondition(copy(condition)));
+    }
+
+    @Override
+    public void setStoppingCondition(StoppingCondition<T> condition) {
+        islands.forEach(island -> island.setStoppingCondition(copy(condition)));
+    }
+
+    @Override
+    public void removeStoppingCondition(StoppingCondition<T> condition) {
+        islands.forEach(island -> island.removeStoppingCondition(condition));
+    }
+
+    @Override
+    public Set<StoppingCondition<T>> getStoppingConditions() {
+        return islands.get(0).getStoppingConditions();
+    }
+
+    @Override
+    public void resetStoppingConditions() {
+        islands.forEach(GeneticAlgorithm::resetStoppingConditions);
+    }
+
+    @Override
+    public void setStoppingConditionLimit(int value) {
+        islands.forEach(island -> island.setStoppingConditionLimit(value));
+    }
+
+    private static <T extends Chromosome<T>> StoppingCondition<T> copy(StoppingCondition<T> condition) {
+        try {
+            return condition.clone();
+        } catch (UnsupportedOperationException e) {
+            // singletons are shared by all islands
+            return condition;
+        }
+    }
+
+    @Override
+    public void printBudget() {
+        islands.get(0).printBudget();
+    }
+
+    @Override
+    public String getBudgetString() {
+        return islands.get(0).getBudgetString();
+    }
+
+    @Override
+    protected double progress() {
+        return islands.stream().mapToDouble(GeneticAlgorithm::progress).max().orElse(0.0);
+    }
+
+    /**
+     * Publishes the best individual of an island after each of its
+     * iterations, and forwards its notifications to the listeners of the
+     * model.
+     */
+    static final class IslandListener<T extends Chromosome<T>> implements SearchListener<T> {
+
+        private static final long serialVersionUID = -2103874523907426183L;
+
+        private final IslandModel<T> model;
+
+        private final int index;
+
+        IslandListener(IslandModel<T> model, int index) {
+            this.model = model;
+            this.index = index;
+        }
+
+        @Override
+        public void searchStarted(GeneticAlgorithm<T> algorithm) {
+            // the model notifies its listeners once for all islands
+        }
+
+        @Override
+        public void iteration(GeneticAlgorithm<T> algorithm) {
+            // the population is also notified once initialized
+            if (model.stop != null && algorithm.getAge() > 0) {
+                model.stop.islandStarted(index);
+            }
+            model.bestIndividuals.set(index, algorithm.getBestIndividual());
+            synchronized (model) {
+                model.notifyIteration();
+            }
+        }
+
+        @Override
+        public void searchFinished(GeneticAlgorithm<T> algorithm) {
+            // the model notifies its listeners once for all islands
+        }
+
+        @Override
+        public void fitnessEvaluation(T individual) {
+            synchronized (model) {
+                model.notifyEvaluation(individual);
+            }
+        }
+
+        @Override
+        public void modification(T individual) {
+            synchronized (model) {
+                model.notifyMutation(individual);
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.evosuite.ga.*;
 import org.evosuite.ga.bloatcontrol.BloatControlFunction;
 import org.evosuite.ga.bloatcontrol.MaxSizeBloatControl;
 import org.evosuite.ga.operators.crossover.*;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.RankBasedPreferenceSorting;
 import org.evosuite.ga.operators.ranking.RankingFunction;
@@ -291,6 +292,9 @@ public abstract class TestSuiteAdapter<A extends GeneticAlgorithm<TestChromosome
             return new FastNonDominatedSorting<>();
         } else if (function instanceof RankBasedPreferenceSorting) {
             return new RankBasedPreferenceSorting<>();
+        } else if (function instanceof EfficientNonDominatedSorting) {
+            return new EfficientNonDominatedSorting<>(
+                    ((EfficientNonDominatedSorting<?>) function).usesPreferenceCriterion());
         } else {
             throw new IllegalArgumentException("cannot adapt ranking function " + function);
         }
@@ -444,6 +448,8 @@ public abstract class TestSuiteAdapter<A extends GeneticAlgorithm<TestChromosome
                 super.addListener(listener);
             } else if (listener instanceof ZeroFitnessStoppingCondition) {
                 super.addListener(listener);
+            } else if (listener instanceof IslandModel.IslandListener) {
+                super.addListener(listener);
             } else {
                 throw new IllegalArgumentException("cannot adapt listener " + listener);
             }
@@ -469,6 +475,8 @@ public abstract class TestSuiteAdapter<A extends GeneticAlgorithm<TestChromosome
                 super.removeListener(listener);
             } else if (listener instanceof ZeroFitnessStoppingCondition) {
                 super.removeListener(listener);
+            } else if (listener instanceof IslandModel.IslandListener) {
+                super.removeListener(listener);
             } else {
                 throw new IllegalArgumentException("cannot adapt listener " + listener);
             }
@@ -593,6 +601,8 @@ public abstract class TestSuiteAdapter<A extends GeneticAlgorithm<TestChromosome
             return SocketStoppingCondition.getInstance();
         } else if (stoppingCondition instanceof ZeroFitnessStoppingCondition) {
             return new ZeroFitnessStoppingCondition<>((ZeroFitnessStoppingCondition<?>) stoppingCondition);
+        } else if (stoppingCondition instanceof IslandStoppingCondition) {
+            return new IslandStoppingCondition<>((IslandStoppingCondition<?>) stoppingCondition);
         } else {
             throw new IllegalArgumentException("cannot adapt stopping condition: " + stoppingCondition);
         }
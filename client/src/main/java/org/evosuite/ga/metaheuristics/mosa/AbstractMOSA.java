@@ -32,6 +32,7 @@ import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.TestExecutionWorkerPool;
 import org.evosuite.testcase.secondaryobjectives.TestCaseSecondaryObjective;
 import org.evosuite.testcase.statements.*;
 import org.evosuite.testcase.variable.VariableReference;
@@ -138,6 +139,9 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
      */
     protected List<TestChromosome> breedNextGeneration() {
         List<TestChromosome> offspringPopulation = new ArrayList<>(Properties.POPULATION);
+        // with several execution workers, the offspring are executed together
+        // once they have all been bred
+        List<TestChromosome> unevaluated = TestExecutionWorkerPool.isEnabled() ? new ArrayList<>() : null;
         // we apply only Properties.POPULATION/2 iterations since in each generation
         // we generate two offsprings
         for (int i = 0; i < Properties.POPULATION / 2 && !this.isFinished(); i++) {
@@ -171,7 +175,7 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
             if (offspring1.isChanged()) {
                 this.clearCachedResults(offspring1);
                 offspring1.updateAge(this.currentIteration);
-                this.calculateFitness(offspring1);
+                this.calculateFitness(offspring1, unevaluated);
                 offspringPopulation.add(offspring1);
             }
 
@@ -180,7 +184,7 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
             if (offspring2.isChanged()) {
                 this.clearCachedResults(offspring2);
                 offspring2.updateAge(this.currentIteration);
-                this.calculateFitness(offspring2);
+                this.calculateFitness(offspring2, unevaluated);
                 offspringPopulation.add(offspring2);
             }
         }
@@ -197,14 +201,33 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
             }
             if (tch.isChanged()) {
                 tch.updateAge(this.currentIteration);
-                this.calculateFitness(tch);
+                this.calculateFitness(tch, unevaluated);
                 offspringPopulation.add(tch);
             }
         }
+        if (unevaluated != null) {
+            TestExecutionWorkerPool.getInstance().executeTests(unevaluated);
+            unevaluated.forEach(this::calculateFitness);
+        }
         logger.info("Number of offsprings = {}", offspringPopulation.size());
         return offspringPopulation;
     }
 
+    /**
+     * Calculates the fitness of the given offspring right away, or defers it
+     * to the given list of offspring that are evaluated together.
+     *
+     * @param offspring   the offspring to evaluate
+     * @param unevaluated the offspring whose evaluation is deferred, or null
+     */
+    private void calculateFitness(TestChromosome offspring, List<TestChromosome> unevaluated) {
+        if (unevaluated != null) {
+            unevaluated.add(offspring);
+        } else {
+            this.calculateFitness(offspring);
+        }
+    }
+
     /**
      * Method used to mutate an offspring.
      *
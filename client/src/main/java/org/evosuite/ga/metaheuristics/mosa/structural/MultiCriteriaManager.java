@@ -381,11 +381,15 @@ public class MultiCriteriaManager extends StructuralGoalManager implements Seria
      */
     @Override
     public void calculateFitness(TestChromosome c, GeneticAlgorithm<TestChromosome> ga) {
-        // Run the test and record the execution result.
+        // Run the test and record the execution result, unless it has already
+        // been executed since it was last changed.
         TestCase test = c.getTestCase();
-        ExecutionResult result = TestCaseExecutor.runTest(test);
-        c.setLastExecutionResult(result);
-        c.setChanged(false);
+        ExecutionResult result = c.getLastExecutionResult();
+        if (result == null || c.isChanged()) {
+            result = TestCaseExecutor.runTest(test);
+            c.setLastExecutionResult(result);
+            c.setChanged(false);
+        }
 
         // If the test failed to execute properly, or if the test does not cover anything,
         // it means none of the current gaols could be reached.
@@ -36,17 +36,25 @@
  */
 package org.evosuite.ga.operators.ranking;
 
+import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.SortByFitness;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.DoubleBinaryOperator;
+import java.util.stream.IntStream;
 
 /**
- * This class implements different variants of Crowding Distance for many-objective problems
+ * This class implements different variants of Crowding Distance for many-objective problems.
+ * <p>
+ * The fitness values of the front are copied once into a matrix of primitive values, and the
+ * objectives are processed in chunks that run on a fork-join pool when
+ * {@link Properties#RANKING_THREADS} is greater than one and the front is large enough.
  *
  * @author Annibale Panichella
  */
@@ -54,8 +62,26 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
 
     private static final long serialVersionUID = 5700682318003298299L;
 
+    /**
+     * Fronts with fewer fitness values than this are always processed sequentially
+     */
+    private static final int PARALLEL_SIZE = 4096;
+
+    /**
+     * Computes the contribution of the objectives {@code from} (inclusive) to {@code to}
+     * (exclusive) to the distances of the solutions
+     */
+    @FunctionalInterface
+    private interface ObjectiveChunk {
+        void apply(int from, int to, double[] distances);
+    }
+
     /**
      * Method used to assign the 'traditional' Crowding Distance.
+     * <p>
+     * Solutions at the boundary of any objective get an infinite distance. Objectives on which
+     * all solutions have the same value do not add to the distance. Ties are broken by the
+     * position in the front, which is left sorted by the last objective.
      *
      * @param front front of non-dominated solutions/tests
      * @param set   list of goals/targets (e.g., branches) to consider
@@ -75,28 +101,40 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
             return;
         }
 
-        front.forEach(t -> t.setDistance(0.0));
-
-        double objetiveMaxn;
-        double objetiveMinn;
-        double distance;
+        final double[][] values = getObjectiveValues(front, set);
+        final double[] distances = forAllObjectives(values.length, size, 0.0, (from, to, result) -> {
+            final int[] order = new int[size];
+            final int[] buffer = new int[size];
+            for (int k = from; k < to; k++) {
+                final double[] objective = values[k];
+                sortByValue(objective, order, buffer);
 
-        for (final FitnessFunction<T> ff : set) {
-            // Sort the population by Fit n
-            front.sort(new SortByFitness<>(ff, false));
-
-            objetiveMinn = front.get(0).getFitness(ff);
-            objetiveMaxn = front.get(front.size() - 1).getFitness(ff);
+                final double min = objective[order[0]];
+                final double max = objective[order[size - 1]];
+                result[order[0]] = Double.POSITIVE_INFINITY;
+                result[order[size - 1]] = Double.POSITIVE_INFINITY;
+                if (max == min) {
+                    continue;
+                }
+                for (int j = 1; j < size - 1; j++) {
+                    result[order[j]] += (objective[order[j + 1]] - objective[order[j - 1]]) / (max - min);
+                }
+            }
+        }, Double::sum);
 
-            // set crowding distance
-            front.get(0).setDistance(Double.POSITIVE_INFINITY);
-            front.get(size - 1).setDistance(Double.POSITIVE_INFINITY);
+        for (int i = 0; i < size; i++) {
+            front.get(i).setDistance(distances[i]);
+        }
 
-            for (int j = 1; j < size - 1; j++) {
-                distance = front.get(j + 1).getFitness(ff) - front.get(j - 1).getFitness(ff);
-                distance = distance / (objetiveMaxn - objetiveMinn);
-                distance += front.get(j).getDistance();
-                front.get(j).setDistance(distance);
+        if (values.length > 0) {
+            final int[] order = new int[size];
+            sortByValue(values[values.length - 1], order, new int[size]);
+            final List<T> sorted = new ArrayList<>(size);
+            for (int index : order) {
+                sorted.add(front.get(index));
+            }
+            for (int i = 0; i < size; i++) {
+                front.set(i, sorted.get(i));
             }
         }
     }
@@ -112,33 +150,48 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
      * @param set   set of goals/targets (e.g., branches) to consider
      */
     public void subvectorDominanceAssignment(List<T> front, Set<FitnessFunction<T>> set) {
-        int size = front.size();
-        if (front.size() == 1) {
+        final int size = front.size();
+        if (size == 1) {
             front.get(0).setDistance(Double.POSITIVE_INFINITY);
             return;
         }
 
-        front.forEach(t -> t.setDistance(Double.MAX_VALUE));
-
-        int dominate1, dominate2;
-        for (int i = 0; i < front.size() - 1; i++) {
-            T p1 = front.get(i);
-            for (int j = i + 1; j < front.size(); j++) {
-                T p2 = front.get(j);
-                dominate1 = 0;
-                dominate2 = 0;
-                for (final FitnessFunction<T> ff : set) {
-                    double value1 = p1.getFitness(ff);
-                    double value2 = p2.getFitness(ff);
-                    if (value1 < value2)
-                        dominate1++;
-                    else if (value1 > value2)
-                        dominate2++;
+        final double[][] values = getSolutionValues(front, set);
+        final double[] distances = new double[size];
+        Arrays.fill(distances, Double.MAX_VALUE);
+
+        if (isParallel(size, set.size())) {
+            // each solution is compared with all others, so that no distance is shared
+            EfficientNonDominatedSorting.getRankingPool().submit(() -> IntStream.range(0, size).parallel()
+                    .forEach(i -> {
+                        for (int j = 0; j < size; j++) {
+                            if (j != i) {
+                                distances[i] = Math.min(distances[i], countBetterObjectives(values[i], values[j]));
+                            }
+                        }
+                    })).join();
+        } else {
+            for (int i = 0; i < size - 1; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    distances[i] = Math.min(distances[i], countBetterObjectives(values[i], values[j]));
+                    distances[j] = Math.min(distances[j], countBetterObjectives(values[j], values[i]));
                 }
-                p1.setDistance(Math.min(dominate1, p1.getDistance()));
-                p2.setDistance(Math.min(dominate2, p2.getDistance()));
             }
         }
+
+        for (int i = 0; i < size; i++) {
+            front.get(i).setDistance(distances[i]);
+        }
+    }
+
+    private static int countBetterObjectives(double[] solution, double[] other) {
+        int count = 0;
+        for (int k = 0; k < solution.length; k++) {
+            if (solution[k] < other[k]) {
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
@@ -152,36 +205,162 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
      * @param set   set of goals/targets (e.g., branches) to consider
      */
     public void fastEpsilonDominanceAssignment(List<T> front, Set<? extends FitnessFunction<T>> set) {
-        double value;
-        front.forEach(test -> test.setDistance(0));
-
-        for (final FitnessFunction<T> ff : set) {
-            double min = Double.POSITIVE_INFINITY;
-            List<T> minSet = new ArrayList<>(front.size());
-            double max = 0;
-            for (T test : front) {
-                value = test.getFitness(ff);
-                if (value < min) {
-                    min = value;
-                    minSet.clear();
-                    minSet.add(test);
-                } else if (value == min)
-                    minSet.add(test);
-
-                if (value > max) {
-                    max = value;
+        final int size = front.size();
+        if (size == 0) {
+            return;
+        }
+
+        final double[][] values = getObjectiveValues(front, set);
+        final double[] distances = forAllObjectives(values.length, size, 0.0, (from, to, result) -> {
+            for (int k = from; k < to; k++) {
+                final double[] objective = values[k];
+                double min = Double.POSITIVE_INFINITY;
+                double max = 0;
+                int minCount = 0;
+                for (double value : objective) {
+                    if (value < min) {
+                        min = value;
+                        minCount = 1;
+                    } else if (value == min) {
+                        minCount++;
+                    }
+                    if (value > max) {
+                        max = value;
+                    }
+                }
+
+                if (max == min)
+                    continue;
+
+                final double distance = (double) (size - minCount) / size;
+                for (int i = 0; i < size; i++) {
+                    if (objective[i] == min) {
+                        result[i] = Math.max(result[i], distance);
+                    }
                 }
             }
+        }, Math::max);
 
-            if (max == min)
-                continue;
+        for (int i = 0; i < size; i++) {
+            front.get(i).setDistance(distances[i]);
+        }
+    }
 
-            for (T test : minSet) {
-                double numer = (front.size() - minSet.size());
-                double demon = front.size();
-                test.setDistance(Math.max(test.getDistance(), numer / demon));
+    /**
+     * Returns the fitness values of the front indexed by objective, then by solution.
+     */
+    private static <T extends Chromosome<T>> double[][] getObjectiveValues(List<T> front,
+                                                                           Collection<? extends FitnessFunction<T>> set) {
+        final double[][] values = new double[set.size()][front.size()];
+        int k = 0;
+        for (FitnessFunction<T> ff : set) {
+            final double[] objective = values[k++];
+            for (int i = 0; i < objective.length; i++) {
+                objective[i] = front.get(i).getFitness(ff);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the fitness values of the front indexed by solution, then by objective.
+     */
+    private static <T extends Chromosome<T>> double[][] getSolutionValues(List<T> front,
+                                                                          Collection<? extends FitnessFunction<T>> set) {
+        final double[][] values = new double[front.size()][set.size()];
+        int k = 0;
+        for (FitnessFunction<T> ff : set) {
+            for (int i = 0; i < values.length; i++) {
+                values[i][k] = front.get(i).getFitness(ff);
             }
+            k++;
+        }
+        return values;
+    }
+
+    private static boolean isParallel(int solutions, int objectives) {
+        return Properties.RANKING_THREADS > 1 && (long) solutions * objectives >= PARALLEL_SIZE;
+    }
+
+    /**
+     * Applies the given chunk computation to all objectives, in parallel if enabled, and merges
+     * the per-solution results of the chunks.
+     *
+     * @param objectives the number of objectives
+     * @param solutions  the number of solutions
+     * @param identity   the initial value of each distance
+     * @param chunk      computes the distances for a range of objectives
+     * @param merge      combines the distances of two chunks
+     * @return the distance of each solution
+     */
+    private static double[] forAllObjectives(int objectives, int solutions, double identity,
+                                             ObjectiveChunk chunk, DoubleBinaryOperator merge) {
+        if (objectives < 2 || !isParallel(solutions, objectives)) {
+            final double[] distances = new double[solutions];
+            Arrays.fill(distances, identity);
+            chunk.apply(0, objectives, distances);
+            return distances;
         }
+
+        final int chunks = Math.min(objectives, Properties.RANKING_THREADS * 4);
+        return EfficientNonDominatedSorting.getRankingPool().submit(() -> IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    final double[] distances = new double[solutions];
+                    Arrays.fill(distances, identity);
+                    chunk.apply(c * objectives / chunks, (c + 1) * objectives / chunks, distances);
+                    return distances;
+                })
+                .reduce((a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] = merge.applyAsDouble(a[i], b[i]);
+                    }
+                    return a;
+                }).get()).join();
+    }
+
+    /**
+     * Sorts the indices of the given values in ascending order of value, breaking ties by index.
+     *
+     * @param values the values to sort by
+     * @param order  receives the sorted indices
+     * @param buffer scratch space of the same length
+     */
+    static void sortByValue(double[] values, int[] order, int[] buffer) {
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        mergeSort(values, order, buffer, 0, order.length);
     }
 
+    private static void mergeSort(double[] values, int[] order, int[] buffer, int from, int to) {
+        if (to - from < 8) {
+            // insertion sort, which is stable
+            for (int i = from + 1; i < to; i++) {
+                final int index = order[i];
+                int j = i - 1;
+                while (j >= from && Double.compare(values[order[j]], values[index]) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = index;
+            }
+            return;
+        }
+        final int middle = (from + to) >>> 1;
+        mergeSort(values, order, buffer, from, middle);
+        mergeSort(values, order, buffer, middle, to);
+        if (Double.compare(values[order[middle - 1]], values[order[middle]]) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && Double.compare(values[buffer[left]], values[buffer[right]]) <= 0)) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * This class ranks the solutions with the Efficient Non-dominated Sort (ENS-SS) of Zhang et
+ * al., "An Efficient Approach to Nondominated Sorting for Evolutionary Multiobjective
+ * Optimization", IEEE TEVC, 2015. The fitness values are copied once into a matrix, on which
+ * the solutions are sorted lexicographically, so that no solution can be dominated by one that
+ * follows it. Each solution is then added to the first front that does not contain a solution
+ * dominating it, which only needs to be checked for the solutions already in the front.
+ * <p>
+ * With the preference criterion, the first front is chosen as in
+ * {@link RankBasedPreferenceSorting}, otherwise the fronts are the same as computed by
+ * {@link FastNonDominatedSorting}.
+ */
+public class EfficientNonDominatedSorting<T extends Chromosome<T>> implements RankingFunction<T> {
+
+    private static final long serialVersionUID = 4313271936617392706L;
+
+    private static final Logger logger = LoggerFactory.getLogger(EfficientNonDominatedSorting.class);
+
+    /**
+     * Fronts with at least this many solutions are searched in parallel, if enabled
+     */
+    private static final int PARALLEL_FRONT_SIZE = 512;
+
+    private static ForkJoinPool rankingPool = null;
+
+    private final boolean preferenceCriterion;
+
+    /**
+     * A list containing all the fronts found during the search.
+     */
+    private List<List<T>> fronts = null;
+
+    public EfficientNonDominatedSorting() {
+        this(true);
+    }
+
+    /**
+     * @param preferenceCriterion whether the first front is chosen with the preference
+     *                            criterion of MOSA
+     */
+    public EfficientNonDominatedSorting(boolean preferenceCriterion) {
+        this.preferenceCriterion = preferenceCriterion;
+    }
+
+    public boolean usesPreferenceCriterion() {
+        return preferenceCriterion;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void computeRankingAssignment(List<T> solutions,
+                                         Set<? extends FitnessFunction<T>> uncovered_goals) {
+        this.fronts = new ArrayList<>();
+        if (solutions.isEmpty()) {
+            logger.debug("solution is empty");
+            return;
+        }
+
+        List<T> remaining = new ArrayList<>(solutions);
+        if (this.preferenceCriterion) {
+            List<T> zeroFront = RankBasedPreferenceSorting.getZeroFront(solutions, uncovered_goals);
+            this.fronts.add(zeroFront);
+            remaining.removeAll(zeroFront);
+
+            if (zeroFront.size() >= Properties.POPULATION) {
+                for (T t : remaining) {
+                    t.setRank(1);
+                }
+                this.fronts.add(remaining);
+                return;
+            }
+        } else {
+            for (T solution : solutions) {
+                solution.setDistance(Double.MAX_VALUE);
+            }
+        }
+
+        for (int[] front : getNonDominatedFronts(getFitnessMatrix(remaining, uncovered_goals))) {
+            List<T> solutionsOfFront = new ArrayList<>(front.length);
+            for (int index : front) {
+                T solution = remaining.get(index);
+                solution.setRank(this.fronts.size() + (this.preferenceCriterion ? 0 : 1));
+                solutionsOfFront.add(solution);
+            }
+            this.fronts.add(solutionsOfFront);
+        }
+    }
+
+    private static <T extends Chromosome<T>> double[][] getFitnessMatrix(List<T> solutions,
+                                                                         Set<? extends FitnessFunction<T>> goals) {
+        List<FitnessFunction<T>> objectives = new ArrayList<>(goals);
+        double[][] matrix = new double[solutions.size()][objectives.size()];
+        for (int i = 0; i < solutions.size(); i++) {
+            T solution = solutions.get(i);
+            for (int k = 0; k < objectives.size(); k++) {
+                matrix[i][k] = solution.getFitness(objectives.get(k));
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Computes the non-dominated fronts of the rows of the given matrix, where each row holds
+     * the (minimised) objective values of one solution.
+     *
+     * @param matrix the objective values
+     * @return the indices of the rows in each front, in ascending order
+     */
+    static List<int[]> getNonDominatedFronts(double[][] matrix) {
+        Integer[] order = new Integer[matrix.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> compareLexicographically(matrix[i], matrix[j]));
+
+        List<int[]> members = new ArrayList<>();
+        int[] sizes = new int[matrix.length];
+        for (int index : order) {
+            int front = 0;
+            while (front < members.size()
+                    && isDominated(matrix, matrix[index], members.get(front), sizes[front])) {
+                front++;
+            }
+            if (front == members.size()) {
+                members.add(new int[4]);
+            }
+            int size = sizes[front]++;
+            if (size == members.get(front).length) {
+                members.set(front, Arrays.copyOf(members.get(front), size * 2));
+            }
+            members.get(front)[size] = index;
+        }
+
+        List<int[]> fronts = new ArrayList<>(members.size());
+        for (int front = 0; front < members.size(); front++) {
+            int[] indices = Arrays.copyOf(members.get(front), sizes[front]);
+            Arrays.sort(indices);
+            fronts.add(indices);
+        }
+        return fronts;
+    }
+
+    private static int compareLexicographically(double[] a, double[] b) {
+        for (int k = 0; k < a.length; k++) {
+            int flag = Double.compare(a[k], b[k]);
+            if (flag != 0) {
+                return flag;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks whether any of the first {@code size} solutions of the front dominates the given
+     * one. As the solutions are added in lexicographic order, the latest ones are the most likely
+     * to dominate it, so the front is searched backwards.
+     */
+    private static boolean isDominated(double[][] matrix, double[] solution, int[] front, int size) {
+        if (size >= PARALLEL_FRONT_SIZE && Properties.RANKING_THREADS > 1) {
+            return getRankingPool().submit(() -> IntStream.range(0, size).parallel()
+                    .anyMatch(i -> dominates(matrix[front[i]], solution))).join();
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            if (dominates(matrix[front[i]], solution)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether the first solution dominates the second one, stopping at the first objective
+     * on which it is worse.
+     */
+    private static boolean dominates(double[] a, double[] b) {
+        boolean better = false;
+        for (int k = 0; k < a.length; k++) {
+            if (a[k] > b[k]) {
+                return false;
+            } else if (a[k] < b[k]) {
+                better = true;
+            }
+        }
+        return better;
+    }
+
+    static synchronized ForkJoinPool getRankingPool() {
+        if (rankingPool == null || rankingPool.getParallelism() != Properties.RANKING_THREADS) {
+            if (rankingPool != null) {
+                rankingPool.shutdown();
+            }
+            rankingPool = new ForkJoinPool(Properties.RANKING_THREADS);
+        }
+        return rankingPool;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getSubfront(int rank) {
+        if (this.fronts == null || rank >= this.fronts.size()) {
+            return new ArrayList<>();
+        }
+        return this.fronts.get(rank);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfSubfronts() {
+        return this.fronts.size();
+    }
+}
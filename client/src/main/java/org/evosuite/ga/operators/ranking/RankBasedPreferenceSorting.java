@@ -81,7 +81,7 @@ public class RankBasedPreferenceSorting<T extends Chromosome<T>> implements Rank
 
         // first apply the "preference sorting" to the first front only
         // then compute the ranks according to the non-dominate sorting algorithm
-        List<T> zero_front = this.getZeroFront(solutions, uncovered_goals);
+        List<T> zero_front = getZeroFront(solutions, uncovered_goals);
         this.fronts.add(zero_front);
         int frontIndex = 1;
 
@@ -119,7 +119,8 @@ public class RankBasedPreferenceSorting<T extends Chromosome<T>> implements Rank
      * @param uncovered_goals the goals used for ranking
      * @return the non-dominated solutions (first sub-front)
      */
-    private List<T> getZeroFront(List<T> solutionSet, Set<? extends FitnessFunction<T>> uncovered_goals) {
+    static <T extends Chromosome<T>> List<T> getZeroFront(List<T> solutionSet,
+                                                          Set<? extends FitnessFunction<T>> uncovered_goals) {
         Set<T> zero_front = new LinkedHashSet<>(solutionSet.size());
         for (FitnessFunction<T> f : uncovered_goals) {
             // for each uncovered goal, peak up the best tests using the proper comparator
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.stoppingconditions;
+
+import org.evosuite.ga.Chromosome;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stops all islands of an {@link org.evosuite.ga.metaheuristics.IslandModel}
+ * as soon as one of them has finished, but not before every island has
+ * started, i.e., completed its first iteration. Otherwise, an island whose
+ * thread is scheduled late would be stopped before evolving at all. Copies of
+ * this stopping condition share its state, so that it can be handed to
+ * islands evolving different types of chromosomes.
+ */
+public class IslandStoppingCondition<T extends Chromosome<T>> extends StoppingConditionImpl<T> {
+
+    private static final long serialVersionUID = 1725048296457353087L;
+
+    private final AtomicBoolean stopped;
+
+    private final int numIslands;
+
+    private final Set<Integer> startedIslands;
+
+    public IslandStoppingCondition(int numIslands) {
+        this.stopped = new AtomicBoolean(false);
+        this.numIslands = numIslands;
+        this.startedIslands = ConcurrentHashMap.newKeySet();
+    }
+
+    public IslandStoppingCondition(IslandStoppingCondition<?> that) {
+        this.stopped = that.stopped;
+        this.numIslands = that.numIslands;
+        this.startedIslands = that.startedIslands;
+    }
+
+    @Override
+    public IslandStoppingCondition<T> clone() {
+        return new IslandStoppingCondition<>(this);
+    }
+
+    /**
+     * Stop all islands sharing this stopping condition, once all of them have
+     * started
+     */
+    public void stop() {
+        stopped.set(true);
+    }
+
+    /**
+     * Stop all islands sharing this stopping condition, even those that have
+     * not started yet
+     */
+    public void stopNow() {
+        for (int i = 0; i < numIslands; i++) {
+            startedIslands.add(i);
+        }
+        stopped.set(true);
+    }
+
+    /**
+     * Records that an island has started
+     *
+     * @param index the index of the island
+     */
+    public void islandStarted(int index) {
+        startedIslands.add(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCurrentValue() {
+        return isFinished() ? 1 : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isFinished() {
+        return stopped.get() && startedIslands.size() >= numIslands;
+    }
+
+    /**
+     * Does nothing, as the islands must not be able to restart each other
+     */
+    @Override
+    public void reset() {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setLimit(long limit) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getLimit() {
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forceCurrentValue(long value) {
+        if (value > 0) {
+            stopNow();
+        }
+    }
+}
@@ -33,6 +33,7 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.stream.Collectors.toCollection;
 
@@ -64,7 +65,7 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 
     private static final Logger logger = LoggerFactory.getLogger(EvoSuiteGraph.class);
 
-    private static int evoSuiteGraphs = 0;
+    private static final AtomicInteger evoSuiteGraphs = new AtomicInteger();
     protected int graphId;
 
     protected DirectedGraph<V, E> graph;
@@ -105,8 +106,7 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
     }
 
     private void setId() {
-        evoSuiteGraphs++;
-        graphId = evoSuiteGraphs;
+        graphId = evoSuiteGraphs.incrementAndGet();
     }
 
     // retrieving nodes and edges
@@ -219,6 +219,35 @@ public class GraphPool {
      *            object.
      */
     public void registerActualCFG(ActualControlFlowGraph cfg) {
+        cfg.finalise();
+        addActualCFG(cfg);
+
+        if (DependencyAnalysis.shouldInstrument(cfg.getClassName(), cfg.getMethodName())) {
+            registerControlDependence(new ControlDependenceGraph(cfg));
+        }
+    }
+
+    /**
+     * <p>
+     * registerActualCFG
+     * </p>
+     * Variant of {@link #registerActualCFG(ActualControlFlowGraph)} for graphs
+     * that were finalised and analyzed outside of the GraphPool, e.g. by
+     * {@link org.evosuite.graphs.cfg.CFGGenerator#computeCFGs(boolean)}.
+     *
+     * @param cfg a finalised {@link org.evosuite.graphs.cfg.ActualControlFlowGraph}
+     * @param cd  the control dependence graph of cfg, or null if the method
+     *            is not instrumented
+     */
+    public void registerActualCFG(ActualControlFlowGraph cfg, ControlDependenceGraph cd) {
+        addActualCFG(cfg);
+
+        if (cd != null) {
+            registerControlDependence(cd);
+        }
+    }
+
+    private void addActualCFG(ActualControlFlowGraph cfg) {
         String className = cfg.getClassName();
         String methodName = cfg.getMethodName();
 
@@ -232,20 +261,13 @@ public class GraphPool {
         }
         Map<String, ActualControlFlowGraph> methods = actualCFGs.get(className);
         logger.debug("Added CFG for class " + className + " and method " + methodName);
-        cfg.finalise();
         methods.put(methodName, cfg);
 
         if (Properties.WRITE_CFG)
             cfg.toDot();
-
-        if (DependencyAnalysis.shouldInstrument(cfg.getClassName(), cfg.getMethodName())) {
-            createAndRegisterControlDependence(cfg);
-        }
     }
 
-    private void createAndRegisterControlDependence(ActualControlFlowGraph cfg) {
-
-        ControlDependenceGraph cd = new ControlDependenceGraph(cfg);
+    private void registerControlDependence(ControlDependenceGraph cd) {
 
         String className = cd.getClassName();
         String methodName = cd.getMethodName();
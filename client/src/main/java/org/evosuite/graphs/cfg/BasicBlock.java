@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -62,7 +63,7 @@ public class BasicBlock implements Serializable, Iterable<BytecodeInstruction> {
 
     private static final Logger logger = LoggerFactory.getLogger(BasicBlock.class);
 
-    private static int blockCount = 0;
+    private static final AtomicInteger blockCount = new AtomicInteger();
 
     private int id = -1;
     protected ClassLoader classLoader;
@@ -245,8 +246,7 @@ public class BasicBlock implements Serializable, Iterable<BytecodeInstruction> {
     }
 
     private void setId() {
-        blockCount++;
-        this.id = blockCount;
+        this.id = blockCount.incrementAndGet();
     }
 
     // retrieve information
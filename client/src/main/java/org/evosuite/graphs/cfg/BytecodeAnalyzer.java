@@ -67,7 +67,7 @@ public class BytecodeAnalyzer extends Analyzer {
     public CFGFrame analyze(ClassLoader classLoader, String owner, String method,
                             MethodNode node) throws AnalyzerException {
 
-        cfgGenerator = new CFGGenerator(classLoader, owner, method, node);
+        prepare(classLoader, owner, method, node);
         this.analyze(owner, node);
 
         Frame[] frames = getFrames();
@@ -78,6 +78,20 @@ public class BytecodeAnalyzer extends Analyzer {
         return (CFGFrame) getFrames()[0];
     }
 
+    /**
+     * Initializes the CFGGenerator and thus the BytecodeInstructionPool for
+     * the given method without analyzing it yet. The analysis can then be run
+     * later, and on a different thread, with analyze(String, MethodNode).
+     *
+     * @param owner  a {@link java.lang.String} object.
+     * @param method a {@link java.lang.String} object.
+     * @param node   a {@link org.objectweb.asm.tree.MethodNode} object.
+     */
+    public void prepare(ClassLoader classLoader, String owner, String method,
+                        MethodNode node) {
+        cfgGenerator = new CFGGenerator(classLoader, owner, method, node);
+    }
+
     /**
      * After running analyze() this method yields the filled CFGGenerator for
      * further processing of the gathered information from analyze() within the
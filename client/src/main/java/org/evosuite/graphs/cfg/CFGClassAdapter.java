@@ -19,7 +19,10 @@
  */
 package org.evosuite.graphs.cfg;
 
+import org.evosuite.Properties;
 import org.evosuite.classpath.ResourceList;
+import org.evosuite.coverage.branch.BranchPool;
+import org.evosuite.graphs.GraphPool;
 import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.MethodVisitor;
@@ -28,6 +31,13 @@ import org.objectweb.asm.commons.JSRInlinerAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
 /**
  * The CFGClassAdapter calls a CFG generator for relevant methods
  *
@@ -39,6 +49,20 @@ public class CFGClassAdapter extends ClassVisitor {
 
     public static final String LAMBDA_METHOD_NAME = "lambda$";
 
+    /**
+     * Wall clock time spent building control flow graphs, in nanoseconds
+     */
+    private static final AtomicLong graphConstructionTime = new AtomicLong();
+
+    /**
+     * Sum of the time spent building the control flow graphs of each method,
+     * in nanoseconds. This is what graph construction would have taken
+     * without instrumentation_threads.
+     */
+    private static final AtomicLong methodGraphConstructionTime = new AtomicLong();
+
+    private static ForkJoinPool graphConstructionPool = null;
+
     /**
      * Current class
      */
@@ -51,6 +75,12 @@ public class CFGClassAdapter extends ClassVisitor {
      */
     private boolean isEnum = false;
 
+    /**
+     * Methods whose graphs are built concurrently once the whole class has
+     * been visited, or null if they are built one at a time
+     */
+    private final List<CFGMethodAdapter> pendingMethods;
+
     /**
      * Constructor
      *
@@ -61,6 +91,7 @@ public class CFGClassAdapter extends ClassVisitor {
         super(Opcodes.ASM9, visitor);
         this.className = className;
         this.classLoader = classLoader;
+        this.pendingMethods = Properties.INSTRUMENTATION_THREADS > 1 ? new ArrayList<>() : null;
     }
 
     /* (non-Javadoc)
@@ -131,10 +162,87 @@ public class CFGClassAdapter extends ClassVisitor {
         String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
 
         mv = new CFGMethodAdapter(classLoader, classNameWithDots, methodAccess, name,
-                descriptor, signature, exceptions, mv);
+                descriptor, signature, exceptions, mv, pendingMethods);
         return mv;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void visitEnd() {
+        if (pendingMethods != null) {
+            buildPendingGraphs();
+        }
+        super.visitEnd();
+    }
+
+    /**
+     * Builds the graphs of all methods of the class on the fork-join pool.
+     * Everything that depends on the order of the methods (ids of
+     * instructions and branches, GraphPool registration, instrumentation and
+     * the output of the methods) happens on the calling thread.
+     */
+    private void buildPendingGraphs() {
+        List<CFGMethodAdapter> methodsToAnalyze = pendingMethods.stream()
+                .filter(CFGMethodAdapter::hasPendingGraphs)
+                .collect(Collectors.toList());
+
+        if (!methodsToAnalyze.isEmpty()) {
+            // the pools are created lazily, this must not happen concurrently
+            BranchPool.getInstance(classLoader);
+            GraphPool.getInstance(classLoader);
+
+            long start = System.nanoTime();
+            long sequential;
+            if (methodsToAnalyze.size() == 1) {
+                sequential = methodsToAnalyze.get(0).buildGraphs();
+            } else {
+                sequential = getGraphConstructionPool().submit(() -> methodsToAnalyze.parallelStream()
+                        .mapToLong(CFGMethodAdapter::buildGraphs).sum()).join();
+            }
+            recordGraphConstruction(System.nanoTime() - start, sequential);
+        }
+
+        for (CFGMethodAdapter method : pendingMethods) {
+            method.finishPendingMethod();
+        }
+        pendingMethods.clear();
+    }
+
+    private static synchronized ForkJoinPool getGraphConstructionPool() {
+        if (graphConstructionPool == null
+                || graphConstructionPool.getParallelism() != Properties.INSTRUMENTATION_THREADS) {
+            if (graphConstructionPool != null) {
+                graphConstructionPool.shutdown();
+            }
+            graphConstructionPool = new ForkJoinPool(Properties.INSTRUMENTATION_THREADS);
+        }
+        return graphConstructionPool;
+    }
+
+    static void recordGraphConstruction(long elapsed, long sequential) {
+        graphConstructionTime.addAndGet(elapsed);
+        methodGraphConstructionTime.addAndGet(sequential);
+    }
+
+    /**
+     * @return the time spent building control flow graphs so far, in
+     * milliseconds
+     */
+    public static long getGraphConstructionTime() {
+        return TimeUnit.NANOSECONDS.toMillis(graphConstructionTime.get());
+    }
+
+    /**
+     * @return how much faster building the control flow graphs was thanks to
+     * instrumentation_threads, in milliseconds
+     */
+    public static long getGraphConstructionTimeSaved() {
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(methodGraphConstructionTime.get()
+                - graphConstructionTime.get()));
+    }
+
     /**
      * Just checks wheter the name of the method is of a synthetic lambda.
      * TODO: we do the same on the concolic engine VMs, eventually move this to a commons space.
@@ -20,6 +20,7 @@
 package org.evosuite.graphs.cfg;
 
 import org.evosuite.graphs.GraphPool;
+import org.evosuite.graphs.cdg.ControlDependenceGraph;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.objectweb.asm.tree.analysis.Frame;
@@ -65,6 +66,9 @@ public class CFGGenerator {
     private String methodName;
     private final ClassLoader classLoader;
 
+    private ActualControlFlowGraph actualGraph;
+    private ControlDependenceGraph controlDependence;
+
     /**
      * Initializes this generator to generate the CFG for the method identified
      * by the given parameters
@@ -102,6 +106,41 @@ public class CFGGenerator {
         GraphPool.getInstance(classLoader).registerActualCFG(computeActualCFG());
     }
 
+    /**
+     * Does the same work as registerCFGs() except for adding the graphs to the
+     * GraphPool, which is left to registerComputedCFGs()
+     * <p>
+     * This only touches the graphs of the method at hand and the instructions
+     * registered for it, so it can be called concurrently for different
+     * methods once their nodes have been registered
+     *
+     * @param withControlDependence whether to also compute the
+     *                              ControlDependenceGraph of the method
+     */
+    public void computeCFGs(boolean withControlDependence) {
+
+        int removed = getRawGraph().removeIsolatedNodes();
+        if (removed > 0)
+            logger.info("removed isolated nodes: " + removed + " in " + methodName);
+
+        actualGraph = computeActualCFG();
+        actualGraph.finalise();
+        if (withControlDependence)
+            controlDependence = new ControlDependenceGraph(actualGraph);
+    }
+
+    /**
+     * Adds the graphs created by computeCFGs() to the GraphPool
+     */
+    public void registerComputedCFGs() {
+        if (actualGraph == null)
+            throw new IllegalStateException(
+                    "computeCFGs() has to be called before registerComputedCFGs()");
+
+        GraphPool.getInstance(classLoader).registerRawCFG(getRawGraph());
+        GraphPool.getInstance(classLoader).registerActualCFG(actualGraph, controlDependence);
+    }
+
     // build up the graph
 
     private void registerMethodNode(MethodNode currentMethod, String className,
@@ -81,6 +81,18 @@ public class CFGMethodAdapter extends MethodVisitor {
     private final String className;
     private final ClassLoader classLoader;
 
+    /**
+     * If not null, the graphs of this method are built together with those of
+     * the other methods of the class, see CFGClassAdapter#visitEnd()
+     */
+    private final List<CFGMethodAdapter> pendingMethods;
+
+    private BytecodeAnalyzer bytecodeAnalyzer = null;
+    private List<MethodInstrumentation> instrumentations;
+    private boolean shouldInstrument;
+    private AnalyzerException analyzerException = null;
+    private RuntimeException graphException = null;
+
     private int lineNumber = 0;
 
     /**
@@ -104,6 +116,12 @@ public class CFGMethodAdapter extends MethodVisitor {
     public CFGMethodAdapter(ClassLoader classLoader, String className, int access,
                             String name, String desc, String signature, String[] exceptions,
                             MethodVisitor mv) {
+        this(classLoader, className, access, name, desc, signature, exceptions, mv, null);
+    }
+
+    CFGMethodAdapter(ClassLoader classLoader, String className, int access,
+                     String name, String desc, String signature, String[] exceptions,
+                     MethodVisitor mv, List<CFGMethodAdapter> pendingMethods) {
 
         // super(new MethodNode(access, name, desc, signature, exceptions),
         // className,
@@ -118,6 +136,7 @@ public class CFGMethodAdapter extends MethodVisitor {
         this.methodName = name + desc;
         this.plain_name = name;
         this.classLoader = classLoader;
+        this.pendingMethods = pendingMethods;
 
         if (!methods.containsKey(classLoader))
             methods.put(classLoader, new HashMap<>());
@@ -201,9 +220,20 @@ public class CFGMethodAdapter extends MethodVisitor {
             // System.out.println("Generating CFG for "+ className+"."+mn.name +
             // " ("+mn.desc +")");
 
-            BytecodeAnalyzer bytecodeAnalyzer = new BytecodeAnalyzer();
+            bytecodeAnalyzer = new BytecodeAnalyzer();
+            this.instrumentations = instrumentations;
+            this.shouldInstrument = DependencyAnalysis.shouldInstrument(className, methodName);
             logger.info("Generating CFG for method " + methodName);
 
+            if (pendingMethods != null) {
+                // instructions and branches are registered in the order of the
+                // methods, the graphs are built later on
+                bytecodeAnalyzer.prepare(classLoader, className, methodName, mn);
+                pendingMethods.add(this);
+                return;
+            }
+
+            long start = System.nanoTime();
             try {
 
                 bytecodeAnalyzer.analyze(classLoader, className, methodName, mn);
@@ -218,24 +248,10 @@ public class CFGMethodAdapter extends MethodVisitor {
                 // compute Raw and ActualCFG and put both into GraphPool
                 bytecodeAnalyzer.retrieveCFGGenerator().registerCFGs();
                 logger.info("Created CFG for method " + methodName);
+                long elapsed = System.nanoTime() - start;
+                CFGClassAdapter.recordGraphConstruction(elapsed, elapsed);
 
-                if (DependencyAnalysis.shouldInstrument(className, methodName)) {
-                    if (!methods.get(classLoader).containsKey(className))
-                        methods.get(classLoader).put(className, new HashSet<>());
-
-                    // add the actual instrumentation
-                    logger.info("Instrumenting method " + methodName + " in class "
-                            + className);
-                    for (MethodInstrumentation instrumentation : instrumentations)
-                        instrumentation.analyze(classLoader, mn, className, methodName, access);
-
-                    handleBranchlessMethods();
-                    String id = className + "." + methodName;
-                    if (isUsable()) {
-                        methods.get(classLoader).get(className).add(id);
-                        logger.debug("Counting: " + id);
-                    }
-                }
+                instrument(mn);
             } catch (AnalyzerException e) {
                 logger.error("Analyzer exception while analyzing " + className + "."
                         + methodName + ": " + e);
@@ -245,10 +261,92 @@ public class CFGMethodAdapter extends MethodVisitor {
         } else {
             logger.debug("NOT Creating CFG of " + className + "." + methodName + ": " + checkForMain + ", " + ((!isExcludedMethod || executeOnExcluded)) + ", " + ((access & Opcodes.ACC_ABSTRACT) == 0) + ", " + ((access & Opcodes.ACC_NATIVE) == 0));
             super.visitEnd();
+            if (pendingMethods != null) {
+                // keep the order of the methods in the class
+                pendingMethods.add(this);
+                return;
+            }
+        }
+        mn.accept(next);
+    }
+
+    /**
+     * Whether the graphs of this method still have to be built with
+     * buildGraphs()
+     */
+    boolean hasPendingGraphs() {
+        return bytecodeAnalyzer != null;
+    }
+
+    /**
+     * Runs the data flow analysis of this method and builds its graphs
+     * without adding them to the GraphPool. Only touches data of this method,
+     * so it is called concurrently for the methods of a class.
+     *
+     * @return the time spent in nanoseconds
+     */
+    long buildGraphs() {
+        long start = System.nanoTime();
+        try {
+            bytecodeAnalyzer.analyze(className, (MethodNode) mv);
+            bytecodeAnalyzer.retrieveCFGGenerator().computeCFGs(shouldInstrument);
+        } catch (AnalyzerException e) {
+            analyzerException = e;
+        } catch (RuntimeException e) {
+            graphException = e;
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Registers the graphs built by buildGraphs(), instruments the method and
+     * passes it on to the next visitor. Has to be called in the order in
+     * which the methods were visited.
+     */
+    void finishPendingMethod() {
+        MethodNode mn = (AnnotatedMethodNode) mv;
+        if (bytecodeAnalyzer != null) {
+            if (analyzerException != null) {
+                logger.error("Analyzer exception while analyzing " + className + "."
+                        + methodName + ": " + analyzerException);
+                analyzerException.printStackTrace();
+            } else {
+                CFGGenerator generator = bytecodeAnalyzer.retrieveCFGGenerator();
+                if (graphException == null) {
+                    generator.registerComputedCFGs();
+                } else {
+                    logger.debug("Failed to build CFG of " + className + "." + methodName
+                            + " concurrently, retrying: " + graphException);
+                    generator.registerCFGs();
+                }
+                logger.info("Created CFG for method " + methodName);
+
+                instrument(mn);
+            }
         }
         mn.accept(next);
     }
 
+    private void instrument(MethodNode mn) {
+        if (shouldInstrument) {
+            if (!methods.get(classLoader).containsKey(className))
+                methods.get(classLoader).put(className, new HashSet<>());
+
+            // add the actual instrumentation
+            logger.info("Instrumenting method " + methodName + " in class "
+                    + className);
+            for (MethodInstrumentation instrumentation : instrumentations)
+                instrumentation.analyze(classLoader, mn, className, methodName, access);
+
+            handleBranchlessMethods();
+            String id = className + "." + methodName;
+            if (isUsable()) {
+                methods.get(classLoader).get(className).add(id);
+                logger.debug("Counting: " + id);
+            }
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
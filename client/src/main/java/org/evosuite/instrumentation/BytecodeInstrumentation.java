@@ -31,6 +31,7 @@ import org.evosuite.instrumentation.testability.ContainerTransformation;
 import org.evosuite.instrumentation.testability.StringTransformation;
 import org.evosuite.junit.writer.TestSuiteWriterUtils;
 import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.classhandling.ModifiedTargetStaticFields;
 import org.evosuite.runtime.instrumentation.*;
 import org.evosuite.runtime.util.ComputeClassWriter;
 import org.evosuite.seeding.PrimitiveClassAdapter;
@@ -41,6 +42,7 @@ import org.evosuite.testcarver.instrument.TransformerUtil;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.commons.SerialVersionUIDAdder;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.util.TraceClassVisitor;
@@ -49,6 +51,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The bytecode transformer - transforms bytecode depending on package and
@@ -134,6 +138,88 @@ public class BytecodeInstrumentation {
         return TestCluster.isTargetClassName(className);
     }
 
+    /**
+     * Classes whose instrumentation does not register anything in the
+     * branch, line, mutation or graph pools, and can therefore be taken
+     * from the {@link InstrumentationCache}
+     */
+    private boolean isCacheable(String classNameWithDots) {
+        return !DependencyAnalysis.shouldAnalyze(classNameWithDots)
+                && !isTargetClassName(classNameWithDots)
+                && !Properties.TEST_CARVING
+                && !(Properties.TT && classNameWithDots.startsWith(Properties.CLASS_PREFIX))
+                && !shouldTransform(classNameWithDots);
+    }
+
+    /**
+     * Instruments a class, reusing the result of a previous instrumentation
+     * if the instrumentation cache is enabled.
+     * <p>
+     * On a cache hit the cached bytecode is returned without instrumenting
+     * the class again: only its loop indices are updated, and what the
+     * instrumentation would have registered in the pools (final classes,
+     * constants, purity) is read from the original and the cached bytecode.
+     * The static fields whose final modifier was removed are registered from
+     * the names stored in the cache entry.
+     *
+     * @param classLoader the loader of the class
+     * @param className   the class name, with slashes
+     * @param classBytes  the original bytecode
+     * @return the instrumented bytecode
+     */
+    public byte[] transformBytes(ClassLoader classLoader, String className, byte[] classBytes) {
+        String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
+        InstrumentationCache cache = InstrumentationCache.getInstance();
+        if (cache == null || !checkIfCanInstrument(classNameWithDots) || !isCacheable(classNameWithDots)) {
+            return transformBytes(classLoader, className, new ClassReader(classBytes));
+        }
+
+        String key = cache.getKey(className, classBytes);
+        InstrumentationCache.Entry cached = cache.get(key);
+        if (cached != null) {
+            logger.debug("Taking instrumentation of {} from the cache", classNameWithDots);
+            registerNonTargetClass(className, classBytes);
+            if (!cached.getFinalStaticFields().isEmpty()) {
+                ModifiedTargetStaticFields.getInstance().addFinalFields(cached.getFinalStaticFields());
+            }
+            return InstrumentationCache.relocateLoopIndices(cached.getBytes(), cv -> Properties.PURE_INSPECTORS
+                    ? new PurityAnalysisClassVisitor(cv, className, CheapPurityAnalyzer.getInstance()) : cv);
+        }
+
+        List<String> finalStaticFields = new ArrayList<>();
+        byte[] bytes = transformBytes(classLoader, className, new ClassReader(classBytes), finalStaticFields);
+        cache.put(key, bytes, finalStaticFields);
+        return bytes;
+    }
+
+    /**
+     * Registers the final classes and the constants of a non-target class,
+     * as {@link NonTargetClassAdapter} and {@link PrimitiveClassAdapter} do
+     * when the class is instrumented. The purity analysis is not done here,
+     * as it has to see the calls replaced by the mock instrumentation.
+     */
+    private static void registerNonTargetClass(String className, byte[] classBytes) {
+        ClassVisitor cv = new ClassVisitor(Opcodes.ASM9, new PrimitiveClassAdapter(null, className)) {
+            @Override
+            public void visit(int version, int access, String name, String signature, String superName,
+                              String[] interfaces) {
+                if ((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
+                    RemoveFinalClassAdapter.finalClasses.add(name.replace('/', '.'));
+                }
+                super.visit(version, access, name, signature, superName, interfaces);
+            }
+
+            @Override
+            public void visitInnerClass(String name, String outerName, String innerName, int access) {
+                if ((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
+                    RemoveFinalClassAdapter.finalClasses.add(name.replace('/', '.'));
+                }
+                super.visitInnerClass(name, outerName, innerName, access);
+            }
+        };
+        new ClassReader(classBytes).accept(cv, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+    }
+
     /**
      * <p>
      * transformBytes
@@ -144,6 +230,17 @@ public class BytecodeInstrumentation {
      * @return an array of byte.
      */
     public byte[] transformBytes(ClassLoader classLoader, String className, ClassReader reader) {
+        return transformBytes(classLoader, className, reader, null);
+    }
+
+    /**
+     * Instruments a class
+     *
+     * @param finalStaticFields collects the fields whose final modifier was
+     *                          removed, if not null
+     */
+    private byte[] transformBytes(ClassLoader classLoader, String className, ClassReader reader,
+                                  List<String> finalStaticFields) {
 
         int readFlags = ClassReader.SKIP_FRAMES;
 
@@ -225,7 +322,7 @@ public class BytecodeInstrumentation {
         cv = new PrimitiveClassAdapter(cv, className);
 
         if (Properties.RESET_STATIC_FIELDS) {
-            cv = handleStaticReset(className, cv);
+            cv = handleStaticReset(className, cv, finalStaticFields);
         }
 
         // Mock instrumentation (eg File and TCP).
@@ -317,9 +414,12 @@ public class BytecodeInstrumentation {
      *
      * @param className
      * @param cv
+     * @param finalStaticFields collects the fields whose final modifier was
+     *                          removed, if not null
      * @return
      */
-    private static ClassVisitor handleStaticReset(String className, ClassVisitor cv) {
+    private static ClassVisitor handleStaticReset(String className, ClassVisitor cv,
+                                                  List<String> finalStaticFields) {
         // Create a __STATIC_RESET() cloning the original <clinit> method or
         // create one by default
         final CreateClassResetClassAdapter resetClassAdapter;
@@ -333,6 +433,16 @@ public class BytecodeInstrumentation {
         // Adds a callback before leaving the <clinit> method
         EndOfClassInitializerVisitor exitClassInitAdapter = new EndOfClassInitializerVisitor(cv, className);
         cv = exitClassInitAdapter;
+
+        if (finalStaticFields != null) {
+            cv = new ClassVisitor(Opcodes.ASM9, cv) {
+                @Override
+                public void visitEnd() {
+                    super.visitEnd();
+                    finalStaticFields.addAll(resetClassAdapter.getModifiedStaticFields());
+                }
+            };
+        }
         return cv;
     }
 
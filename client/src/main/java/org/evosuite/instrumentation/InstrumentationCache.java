@@ -0,0 +1,445 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import org.apache.commons.io.IOUtils;
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.junit.writer.TestSuiteWriterUtils;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.classhandling.ModifiedTargetStaticFields;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * Instrumented bytecode stored on disk, so that classes that are loaded by
+ * many clients (e.g., the dependencies of all the CUTs of a CTG run) are
+ * not instrumented again by each of them.
+ * <p>
+ * Each entry is a file named after a digest of the original bytecode, of
+ * the properties that change the instrumentation, and of the classpath the
+ * stack map frames were computed on. Entries are written to a temporary
+ * file and then renamed, so that clients sharing the folder never read a
+ * partially written entry.
+ * <p>
+ * The only global state that ends up in the bytecode of cacheable classes
+ * are the indices of the {@link LoopCounter}. See
+ * {@link #relocateLoopIndices(byte[], List)}. The names of the static fields
+ * whose final modifier was removed are stored along with the bytecode, as
+ * they have to be registered in {@link ModifiedTargetStaticFields} whenever
+ * the class is loaded.
+ */
+final class InstrumentationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentationCache.class);
+
+    /**
+     * To be increased whenever the format of the entries changes
+     */
+    private static final int FORMAT_VERSION = 3;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final String ENTRY_EXTENSION = ".class";
+
+    private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+    private static InstrumentationCache instance = null;
+
+    /**
+     * The instrumented bytecode of a class, and the fields whose final
+     * modifier the instrumentation removed
+     */
+    static final class Entry {
+
+        private final byte[] bytes;
+
+        private final List<String> finalStaticFields;
+
+        Entry(byte[] bytes, List<String> finalStaticFields) {
+            this.bytes = bytes;
+            this.finalStaticFields = finalStaticFields;
+        }
+
+        byte[] getBytes() {
+            return bytes;
+        }
+
+        List<String> getFinalStaticFields() {
+            return finalStaticFields;
+        }
+    }
+
+    /**
+     * Fingerprints of classpaths, which are computed only once per JVM
+     */
+    private static final Map<String, String> classPathFingerprints = new ConcurrentHashMap<>();
+
+    private final File folder;
+
+    private final AtomicInteger hits = new AtomicInteger(0);
+
+    private final AtomicInteger misses = new AtomicInteger(0);
+
+    InstrumentationCache(File folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Returns the cache in the folder given by
+     * {@link Properties#INSTRUMENTATION_CACHE_DIR}
+     *
+     * @return the cache, or null if no folder is set or it cannot be created
+     */
+    static synchronized InstrumentationCache getInstance() {
+        if (Properties.INSTRUMENTATION_CACHE_DIR == null) {
+            return null;
+        }
+        File folder = new File(Properties.INSTRUMENTATION_CACHE_DIR).getAbsoluteFile();
+        if (instance == null || !instance.folder.equals(folder)) {
+            if (!folder.exists() && !folder.mkdirs() && !folder.exists()) {
+                logger.warn("Cannot create instrumentation cache folder {}", folder);
+                return null;
+            }
+            instance = new InstrumentationCache(folder);
+        }
+        return instance;
+    }
+
+    public int getNumberOfHits() {
+        return hits.get();
+    }
+
+    public int getNumberOfMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Computes the key of a class for the current configuration
+     *
+     * @param className  the class name, with slashes
+     * @param classBytes the original bytecode of the class
+     * @return the key
+     */
+    String getKey(String className, byte[] classBytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            digest.update(getConfiguration().getBytes(StandardCharsets.UTF_8));
+            digest.update(className.getBytes(StandardCharsets.UTF_8));
+            digest.update(classBytes);
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the entry stored for a key
+     *
+     * @param key the key of the class
+     * @return the entry, or null on a miss
+     */
+    Entry get(String key) {
+        File entry = new File(folder, key + ENTRY_EXTENSION);
+        if (entry.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(entry.toPath())))) {
+                int numFields = in.readInt();
+                List<String> finalStaticFields = new ArrayList<>(numFields);
+                for (int i = 0; i < numFields; i++) {
+                    finalStaticFields.add(in.readUTF());
+                }
+                byte[] bytes = IOUtils.toByteArray(in);
+                hits.incrementAndGet();
+                return new Entry(bytes, finalStaticFields);
+            } catch (IOException e) {
+                logger.debug("Cannot read instrumentation cache entry {}: {}", entry, e.getMessage());
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores the instrumented bytecode of a class
+     *
+     * @param key               the key of the class
+     * @param bytes             the instrumented bytecode
+     * @param finalStaticFields the fields whose final modifier was removed
+     */
+    void put(String key, byte[] bytes, List<String> finalStaticFields) {
+        File entry = new File(folder, key + ENTRY_EXTENSION);
+        if (entry.exists()) {
+            return;
+        }
+        File tmp = null;
+        try {
+            tmp = File.createTempFile(key, ".tmp", folder);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tmp.toPath())))) {
+                out.writeInt(finalStaticFields.size());
+                for (String field : finalStaticFields) {
+                    out.writeUTF(field);
+                }
+                out.write(bytes);
+            }
+            try {
+                Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.debug("Cannot write instrumentation cache entry {}: {}", entry, e.getMessage());
+            if (tmp != null && tmp.exists() && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Everything but the class itself the instrumentation of a cacheable
+     * class depends on. The target class, the prefixes, the criteria and
+     * the testability transformations only change the instrumentation of
+     * the classes that are not cacheable, and are therefore left out so
+     * that dependencies are shared by the runs on different CUTs.
+     */
+    private static String getConfiguration() {
+        StringBuilder buff = new StringBuilder();
+        buff.append(FORMAT_VERSION).append(';');
+        buff.append(System.getProperty("java.version")).append(';');
+        buff.append(getClassPathFingerprint(ClassPathHandler.getInstance().getEvoSuiteClassPath())).append(';');
+        buff.append(getClassPathFingerprint(ClassPathHandler.getInstance().getTargetProjectClasspath())).append(';');
+
+        buff.append(Properties.MAKE_ACCESSIBLE).append(';');
+        buff.append(Properties.RESET_STATIC_FIELDS).append(';');
+        buff.append(Properties.RESET_STATIC_FINAL_FIELDS).append(';');
+        buff.append(Properties.PURE_INSPECTORS).append(';');
+        buff.append(Properties.MAX_LOOP_ITERATIONS >= 0).append(';');
+        buff.append(Properties.INSTRUMENTATION_SKIP_DEBUG).append(';');
+
+        buff.append(TestSuiteWriterUtils.needToUseAgent()).append(';');
+        buff.append(RuntimeSettings.mockJVMNonDeterminism).append(';');
+        buff.append(RuntimeSettings.mockSystemIn).append(';');
+        buff.append(RuntimeSettings.mockGUI).append(';');
+        buff.append(RuntimeSettings.useVFS).append(';');
+        buff.append(RuntimeSettings.useVNET).append(';');
+        buff.append(RuntimeSettings.useJEE).append(';');
+        buff.append(RuntimeSettings.useSeparateClassLoader).append(';');
+        buff.append(RuntimeSettings.applyUIDTransformation).append(';');
+        return buff.toString();
+    }
+
+    /**
+     * The stack map frames of an instrumented class depend on the hierarchy
+     * of the classes it uses, so entries computed on a different classpath
+     * cannot be reused. Each element is identified by its path, size and
+     * last modification, and folders by those of the files they contain.
+     */
+    private static String getClassPathFingerprint(String classPath) {
+        if (classPath == null) {
+            return "";
+        }
+        return classPathFingerprints.computeIfAbsent(classPath, cp -> {
+            StringBuilder buff = new StringBuilder();
+            for (String element : cp.split(File.pathSeparator)) {
+                File file = new File(element);
+                buff.append(file.getAbsolutePath());
+                if (file.isDirectory()) {
+                    long[] stamp = new long[3];
+                    addFolderFingerprint(file, stamp);
+                    buff.append(':').append(stamp[0]).append(':').append(stamp[1]).append(':').append(stamp[2]);
+                } else {
+                    buff.append(':').append(file.length()).append(':').append(file.lastModified());
+                }
+                buff.append(File.pathSeparator);
+            }
+            return buff.toString();
+        });
+    }
+
+    /**
+     * Accumulates number of files, total size and latest modification
+     */
+    private static void addFolderFingerprint(File folder, long[] stamp) {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                addFolderFingerprint(file, stamp);
+            } else {
+                stamp[0]++;
+                stamp[1] += file.length();
+                stamp[2] = Math.max(stamp[2], file.lastModified());
+            }
+        }
+    }
+
+    /**
+     * Returns the indices passed to {@link LoopCounter#checkLoop(int)} in an
+     * instrumented class, in the order in which they appear
+     *
+     * @param bytes the instrumented bytecode
+     * @return the loop indices
+     */
+    static List<Integer> getLoopIndices(byte[] bytes) {
+        List<Integer> indices = new ArrayList<>();
+        new ClassReader(bytes).accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                             String[] exceptions) {
+                return new LoopIndexMethodAdapter(null) {
+                    @Override
+                    protected Object visitLoopIndex(int index) {
+                        indices.add(index);
+                        return index;
+                    }
+                };
+            }
+        }, ClassReader.SKIP_FRAMES);
+        return indices;
+    }
+
+    /**
+     * Replaces the loop indices in a cached class with the ones assigned by
+     * the current JVM, in the order in which they appear. The bytecode is
+     * otherwise copied as is, including its stack map frames.
+     *
+     * @param bytes   the cached instrumented bytecode
+     * @param indices the new loop indices
+     * @return the relocated bytecode, or null if the class does not have as
+     * many loop indices as given
+     */
+    static byte[] relocateLoopIndices(byte[] bytes, List<Integer> indices) {
+        Iterator<Integer> newIndices = indices.iterator();
+        boolean[] mismatch = new boolean[]{false};
+        byte[] relocated = relocateLoopIndices(bytes, index -> {
+            if (!newIndices.hasNext()) {
+                mismatch[0] = true;
+                return index;
+            }
+            return newIndices.next();
+        }, UnaryOperator.identity());
+        if (mismatch[0] || newIndices.hasNext()) {
+            return null;
+        }
+        return relocated;
+    }
+
+    /**
+     * Replaces the loop indices in a cached class with new indices of the
+     * {@link LoopCounter} of the current JVM. The bytecode is otherwise
+     * copied as is, including its stack map frames.
+     *
+     * @param bytes    the cached instrumented bytecode
+     * @param analysis wraps the visitor rewriting the class, to analyse the
+     *                 cached bytecode in the same pass
+     * @return the relocated bytecode
+     */
+    static byte[] relocateLoopIndices(byte[] bytes, UnaryOperator<ClassVisitor> analysis) {
+        LoopCounter loopCounter = LoopCounter.getInstance();
+        return relocateLoopIndices(bytes, index -> loopCounter.getNewIndex(), analysis);
+    }
+
+    private static byte[] relocateLoopIndices(byte[] bytes, IntUnaryOperator relocation,
+                                              UnaryOperator<ClassVisitor> analysis) {
+        ClassReader reader = new ClassReader(bytes);
+        ClassWriter writer = new ClassWriter(reader, 0);
+        ClassVisitor relocator = new ClassVisitor(Opcodes.ASM9, writer) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                             String[] exceptions) {
+                MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+                return new LoopIndexMethodAdapter(mv) {
+                    @Override
+                    protected Object visitLoopIndex(int index) {
+                        return relocation.applyAsInt(index);
+                    }
+                };
+            }
+        };
+        reader.accept(analysis.apply(relocator), 0);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Finds the constants loaded right after {@code LoopCounter.getInstance()},
+     * which is the sequence added by {@link org.evosuite.runtime.instrumentation.LoopCounterMethodAdapter}
+     */
+    private abstract static class LoopIndexMethodAdapter extends MethodVisitor {
+
+        private boolean afterGetInstance = false;
+
+        LoopIndexMethodAdapter(MethodVisitor mv) {
+            super(Opcodes.ASM9, mv);
+        }
+
+        protected abstract Object visitLoopIndex(int index);
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            afterGetInstance = opcode == Opcodes.INVOKESTATIC && owner.equals(LOOP_COUNTER)
+                    && name.equals("getInstance");
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            if (afterGetInstance && value instanceof Integer) {
+                value = visitLoopIndex((Integer) value);
+            }
+            afterGetInstance = false;
+            super.visitLdcInsn(value);
+        }
+    }
+}
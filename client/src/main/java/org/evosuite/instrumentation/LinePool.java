@@ -21,6 +21,7 @@
 package org.evosuite.instrumentation;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Keep track of the lines of code in a class
@@ -34,6 +35,40 @@ public class LinePool {
      */
     private static final Map<String, Map<String, Set<Integer>>> lineMap = new LinkedHashMap<>();
 
+    /**
+     * Map class names to methods to dense line ids. Ids are never reused and
+     * are not cleared on reset, as traces of earlier executions may still
+     * refer to them
+     */
+    private static final Map<String, Map<String, MethodLineIds>> lineIdMap = new ConcurrentHashMap<>();
+
+    private static final List<String> lineIdClassNames = new ArrayList<>();
+
+    private static final List<String> lineIdMethodNames = new ArrayList<>();
+
+    private static int[] lineIdNumbers = new int[1024];
+
+    /**
+     * Line ids of a single method, stored as an array indexed by the line
+     * number relative to the first line of the method
+     */
+    private static final class MethodLineIds {
+        private final int firstLine;
+        private final int[] ids;
+
+        MethodLineIds(int firstLine, int[] ids) {
+            this.firstLine = firstLine;
+            this.ids = ids;
+        }
+
+        int get(int line) {
+            int index = line - firstLine;
+            if (index < 0 || index >= ids.length)
+                return 0;
+            return ids[index];
+        }
+    }
+
     /**
      * Insert line into map for class
      *
@@ -130,4 +165,90 @@ public class LinePool {
     public static void reset() {
         lineMap.clear();
     }
+
+    /**
+     * Retrieve the dense id of a line. Ids start at 1 and are assigned the
+     * first time a line is requested, so the lookup of a known line does not
+     * allocate or lock.
+     *
+     * @param className  a {@link java.lang.String} object.
+     * @param methodName a {@link java.lang.String} object.
+     * @param lineNo     a int.
+     * @return a int.
+     */
+    public static int getLineId(String className, String methodName, int lineNo) {
+        Map<String, MethodLineIds> methods = lineIdMap.get(className);
+        if (methods != null) {
+            MethodLineIds lines = methods.get(methodName);
+            if (lines != null) {
+                int id = lines.get(lineNo);
+                if (id != 0)
+                    return id;
+            }
+        }
+        return registerLineId(className, methodName, lineNo);
+    }
+
+    private static synchronized int registerLineId(String className, String methodName, int lineNo) {
+        Map<String, MethodLineIds> methods = lineIdMap.computeIfAbsent(className, k -> new ConcurrentHashMap<>());
+        MethodLineIds lines = methods.get(methodName);
+        if (lines != null) {
+            int id = lines.get(lineNo);
+            if (id != 0)
+                return id;
+        }
+
+        if (lines == null) {
+            lines = new MethodLineIds(lineNo, new int[1]);
+        } else if (lineNo < lines.firstLine || lineNo >= lines.firstLine + lines.ids.length) {
+            int first = Math.min(lines.firstLine, lineNo);
+            int last = Math.max(lines.firstLine + lines.ids.length - 1, lineNo);
+            int[] ids = new int[last - first + 1];
+            System.arraycopy(lines.ids, 0, ids, lines.firstLine - first, lines.ids.length);
+            lines = new MethodLineIds(first, ids);
+        }
+
+        lineIdClassNames.add(className);
+        lineIdMethodNames.add(methodName);
+        int id = lineIdClassNames.size();
+        if (id >= lineIdNumbers.length)
+            lineIdNumbers = Arrays.copyOf(lineIdNumbers, lineIdNumbers.length * 2);
+        lineIdNumbers[id] = lineNo;
+
+        lines.ids[lineNo - lines.firstLine] = id;
+        methods.put(methodName, lines);
+        return id;
+    }
+
+    /**
+     * Retrieve the class name of the line with the given id
+     *
+     * @param lineId a int.
+     * @return a {@link java.lang.String} object.
+     */
+    public static synchronized String getClassNameOfLineId(int lineId) {
+        return lineIdClassNames.get(lineId - 1);
+    }
+
+    /**
+     * Retrieve the method name of the line with the given id
+     *
+     * @param lineId a int.
+     * @return a {@link java.lang.String} object.
+     */
+    public static synchronized String getMethodNameOfLineId(int lineId) {
+        return lineIdMethodNames.get(lineId - 1);
+    }
+
+    /**
+     * Retrieve the line number of the line with the given id
+     *
+     * @param lineId a int.
+     * @return a int.
+     */
+    public static synchronized int getLineNumberOfLineId(int lineId) {
+        if (lineId < 1 || lineId > lineIdClassNames.size())
+            throw new IllegalArgumentException("Unknown line id " + lineId);
+        return lineIdNumbers[lineId];
+    }
 }
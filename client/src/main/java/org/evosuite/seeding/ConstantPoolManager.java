@@ -95,7 +95,11 @@ public class ConstantPoolManager {
         pools[1].add(value);
     }
 
-    public void addDynamicConstant(Object value) {
+    /*
+     * Synchronized, as instrumented code may report dynamic constants from
+     * several test execution threads at the same time
+     */
+    public synchronized void addDynamicConstant(Object value) {
         pools[DYNAMIC_POOL_INDEX].add(value);
     }
 
@@ -28,6 +28,7 @@ import org.evosuite.classpath.ResourceList;
 import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.coverage.dataflow.DefUsePool;
 import org.evosuite.coverage.mutation.MutationPool;
+import org.evosuite.graphs.cfg.CFGClassAdapter;
 import org.evosuite.graphs.cfg.CFGMethodAdapter;
 import org.evosuite.instrumentation.LinePool;
 import org.evosuite.junit.CoverageAnalysis;
@@ -368,6 +369,10 @@ public class DependencyAnalysis {
 
         ClientServices.getInstance().getClientNode()
                 .trackOutputVariable(RuntimeVariable.Lines, LinePool.getNumLines());
+        ClientServices.getInstance().getClientNode()
+                .trackOutputVariable(RuntimeVariable.CFG_Construction_Time, CFGClassAdapter.getGraphConstructionTime());
+        ClientServices.getInstance().getClientNode()
+                .trackOutputVariable(RuntimeVariable.CFG_Construction_Time_Saved, CFGClassAdapter.getGraphConstructionTimeSaved());
 
         for (Properties.Criterion pc : Properties.CRITERION) {
             switch (pc) {
@@ -34,6 +34,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -54,8 +55,8 @@ public class TestClusterUtils {
 
     private static final List<String> classExceptions = Collections.unmodifiableList(
             Arrays.asList("com.apple.", "apple.", "sun.", "com.sun.", "com.oracle.", "sun.awt."));
-    private final static Map<Class<?>, Set<Field>> accessibleFieldCache = new LinkedHashMap<>();
-    private final static Map<Class<?>, Set<Method>> methodCache = new LinkedHashMap<>();
+    private final static Map<Class<?>, Set<Field>> accessibleFieldCache = new ConcurrentHashMap<>();
+    private final static Map<Class<?>, Set<Method>> methodCache = new ConcurrentHashMap<>();
 
 
     /**
@@ -295,6 +295,28 @@ public enum RuntimeVariable {
      * The total time EvoSuite spent generating the test cases
      */
     Total_Time,
+    /**
+     * Time spent building control flow graphs during instrumentation (ms)
+     */
+    CFG_Construction_Time,
+    /**
+     * Time saved by building the control flow graphs of a class with
+     * multiple threads (ms)
+     */
+    CFG_Construction_Time_Saved,
+    /**
+     * Peak heap usage sampled during the search (bytes)
+     */
+    Peak_Heap_Usage,
+    /**
+     * Number of execution results compacted in bounded memory mode
+     */
+    Compacted_Execution_Results,
+    /**
+     * Number of compacted traces that had to be re-derived by executing the
+     * test again
+     */
+    Rederived_Execution_Traces,
     /**
      * Number of tests in resulting test suite
      */
@@ -594,7 +616,23 @@ public enum RuntimeVariable {
      */
     QueryCacheSize,
     QueryCacheCalls,
-    QueryCacheHitRate;
+    QueryCacheHitRate,
+
+    /**
+     * Solver result cache statistics (see SolverCache)
+     */
+    SolverCacheHits,
+    SolverCacheMisses,
+    SolverCacheSubsumptionHits,
+    SolverCachePersistentHits,
+    SolverCacheEvictions,
+
+    /**
+     * Incremental solver process statistics (see SmtSolverSession)
+     */
+    SolverSessionRestarts,
+    SolverSessionPushedFrames,
+    SolverSessionReusedFrames;
 
     /* -------------------------------------------------- */
 
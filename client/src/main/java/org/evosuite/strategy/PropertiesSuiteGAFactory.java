@@ -39,6 +39,7 @@ import org.evosuite.ga.metaheuristics.mulambda.MuPlusLambdaEA;
 import org.evosuite.ga.metaheuristics.mulambda.OnePlusLambdaLambdaGA;
 import org.evosuite.ga.metaheuristics.mulambda.OnePlusOneEA;
 import org.evosuite.ga.operators.crossover.*;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.RankBasedPreferenceSorting;
 import org.evosuite.ga.operators.ranking.RankingFunction;
@@ -288,6 +289,10 @@ public class PropertiesSuiteGAFactory
         switch (Properties.RANKING_TYPE) {
             case FAST_NON_DOMINATED_SORTING:
                 return new FastNonDominatedSorting<>();
+            case EFFICIENT_PREFERENCE_SORTING:
+                return new EfficientNonDominatedSorting<>(true);
+            case EFFICIENT_NON_DOMINATED_SORTING:
+                return new EfficientNonDominatedSorting<>(false);
             case PREFERENCE_SORTING:
             default:
                 return new RankBasedPreferenceSorting<>();
@@ -299,7 +304,17 @@ public class PropertiesSuiteGAFactory
         ChromosomeFactory<TestSuiteChromosome> factory = getChromosomeFactory();
 
         // FIXXME
-        GeneticAlgorithm<TestSuiteChromosome> ga = getGeneticAlgorithm(factory);
+        GeneticAlgorithm<TestSuiteChromosome> ga;
+        if (Properties.NUM_ISLANDS > 1) {
+            // the islands need their own ranking function, as it keeps the fronts of the last ranking
+            ga = new IslandModel<>(factory, () -> {
+                GeneticAlgorithm<TestSuiteChromosome> island = getGeneticAlgorithm(factory);
+                island.setRankingFunction(getRankingFunction());
+                return island;
+            }, Properties.NUM_ISLANDS);
+        } else {
+            ga = getGeneticAlgorithm(factory);
+        }
 
         if (Properties.NEW_STATISTICS)
             ga.addListener(new StatisticsListener<>());
@@ -27,6 +27,7 @@ import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
 import org.evosuite.symbolic.expr.constraint.RealConstraint;
 import org.evosuite.symbolic.expr.constraint.StringConstraint;
+import org.evosuite.symbolic.solver.SmtSolverSession;
 import org.evosuite.symbolic.solver.SolverCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +69,16 @@ public class DSEStatistics {
             RuntimeVariable.QueryCacheCalls.name(),
             RuntimeVariable.QueryCacheHitRate.name(),
 
+            // Solver Cache
+            RuntimeVariable.SolverCacheHits.name(),
+            RuntimeVariable.SolverCacheMisses.name(),
+            RuntimeVariable.SolverCacheSubsumptionHits.name(),
+            RuntimeVariable.SolverCachePersistentHits.name(),
+            RuntimeVariable.SolverCacheEvictions.name(),
+            RuntimeVariable.SolverSessionRestarts.name(),
+            RuntimeVariable.SolverSessionPushedFrames.name(),
+            RuntimeVariable.SolverSessionReusedFrames.name(),
+
             // Execution Times
             RuntimeVariable.TotalTimeSpentSolvingConstraints.name(),
             RuntimeVariable.TotalTimeSpentExecutingTestCases.name(),
@@ -306,6 +317,9 @@ public class DSEStatistics {
             percentFormat.setMaximumFractionDigits(1);
             String hit_rate_str = percentFormat.format(SolverCache.getInstance().getHitRate());
             logger.info(String.format("  - Cache hit rate: %s", hit_rate_str));
+            logger.info(String.format("  - UNSAT subsumption hits: %s", SolverCache.getInstance().getNumberOfSubsumptionHits()));
+            logger.info(String.format("  - Evictions: %s", SolverCache.getInstance().getNumberOfEvictions()));
+            logger.info(String.format("  - Hits from previous runs: %s", SolverCache.getInstance().getNumberOfPersistentHits()));
         }
     }
 
@@ -367,6 +381,9 @@ public class DSEStatistics {
         logger.info(String.format("  - # Constraint solvings: %s (%s+%s)",
                 total_constraint_solvings, getSAT(),
                 getUNSAT()));
+        logger.info(String.format("  - Solver restarts: %s", SmtSolverSession.getTotalNumberOfRestarts()));
+        logger.info(String.format("  - Solver frames pushed: %s (%s reused)",
+                SmtSolverSession.getTotalNumberOfPushedFrames(), SmtSolverSession.getTotalNumberOfReusedFrames()));
 
     }
 
@@ -587,6 +604,7 @@ public class DSEStatistics {
         trackConstraintTypes();
         trackSolverStatistics();
         trackQueryCacheStatistics();
+        trackSolverCacheStatistics();
         trackExplorationStatistics();
         trackExecutionTimeStatistics();
     }
@@ -627,6 +645,21 @@ public class DSEStatistics {
         trackOutputVariable(RuntimeVariable.QueryCacheHitRate, getQueryCacheHitRate(queryCacheHits, queryCacheCalls));
     }
 
+    /**
+     * Sets the solver cache related output variables to be saved.
+     */
+    private void trackSolverCacheStatistics() {
+        SolverCache solverCache = SolverCache.getInstance();
+        trackOutputVariable(RuntimeVariable.SolverCacheHits, solverCache.getNumberOfHits());
+        trackOutputVariable(RuntimeVariable.SolverCacheMisses, solverCache.getNumberOfMisses());
+        trackOutputVariable(RuntimeVariable.SolverCacheSubsumptionHits, solverCache.getNumberOfSubsumptionHits());
+        trackOutputVariable(RuntimeVariable.SolverCachePersistentHits, solverCache.getNumberOfPersistentHits());
+        trackOutputVariable(RuntimeVariable.SolverCacheEvictions, solverCache.getNumberOfEvictions());
+        trackOutputVariable(RuntimeVariable.SolverSessionRestarts, SmtSolverSession.getTotalNumberOfRestarts());
+        trackOutputVariable(RuntimeVariable.SolverSessionPushedFrames, SmtSolverSession.getTotalNumberOfPushedFrames());
+        trackOutputVariable(RuntimeVariable.SolverSessionReusedFrames, SmtSolverSession.getTotalNumberOfReusedFrames());
+    }
+
     /**
      * Sets the path exploration related output variables to be saved.
      */
@@ -29,6 +29,7 @@ import org.evosuite.symbolic.dse.DSEStatistics;
 import org.evosuite.symbolic.dse.DSETestCase;
 import org.evosuite.symbolic.dse.algorithm.strategies.*;
 import org.evosuite.symbolic.dse.algorithm.strategies.implementations.CachingStrategies.CacheQueryResult;
+import org.evosuite.symbolic.dse.algorithm.strategies.implementations.CachingStrategies.QueryCache;
 import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.solver.*;
 import org.evosuite.testcase.DefaultTestCase;
@@ -44,6 +45,11 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Structure of a DSE Exploration algorithm,
@@ -104,7 +110,7 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
     /**
      * A cache of previous results from the constraint solver
      **/
-    protected final transient Map<Set<Constraint<?>>, SolverResult> queryCache = new HashMap<>();
+    protected final transient QueryCache queryCache = new QueryCache();
 
     /**
      * Exploration strategies
@@ -121,6 +127,11 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
     private final transient ConcolicExecutor engine;
     private final transient Solver solver;
 
+    /**
+     * Threads solving the queries of the children concurrently, null if they are solved one at a time
+     **/
+    private transient ExecutorService solvingExecutor;
+
     public ExplorationAlgorithm() {
         this(
                 SHOW_PROGRESS_DEFAULT_VALUE,
@@ -230,6 +241,21 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
      */
     @Override
     protected void explore(Method method) {
+        if (Properties.DSE_SOLVER_THREADS > 1) {
+            solvingExecutor = createSolvingExecutor(Properties.DSE_SOLVER_THREADS);
+        }
+
+        try {
+            exploreMethod(method);
+        } finally {
+            if (solvingExecutor != null) {
+                solvingExecutor.shutdownNow();
+                solvingExecutor = null;
+            }
+        }
+    }
+
+    private void exploreMethod(Method method) {
         // Children cache
         HashSet<Set<Constraint<?>>> seenChildren = new HashSet();
 
@@ -295,6 +321,11 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
     }
 
     private void processChildren(Queue<DSETestCase> testCasesWorkList, HashSet<Set<Constraint<?>>> seenChildren, DSETestCase currentTestCase, List<GenerationalSearchPathCondition> children, boolean hasPathConditionDiverged) {
+        if (solvingExecutor != null) {
+            processChildrenConcurrently(testCasesWorkList, seenChildren, currentTestCase, children, hasPathConditionDiverged);
+            return;
+        }
+
         // We look at all the children
         for (GenerationalSearchPathCondition child : children) {
             List<Constraint<?>> childQuery = SolverUtils.buildQuery(child.getPathCondition());
@@ -335,20 +366,161 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
                 }
 
                 if (smtSolution != null) {
-                    // Generates the new tests based on the current solution
-                    DSETestCase newTestCase = generateNewTestCase(
-                            currentTestCase,
-                            child,
-                            smtSolution,
-                            hasPathConditionDiverged);
-
-                    testCasesWorkList.offer(newTestCase);
-                    addNewTestCaseToTestSuite(newTestCase);
-
-                    // NOTE: We consider adding a test case an iteration
-                    notifyIteration();
+                    addChildTestCase(testCasesWorkList, currentTestCase, child, smtSolution, hasPathConditionDiverged);
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as the sequential processing of the children, but the queries missed by the cache are all submitted
+     * to the solving threads first. The solutions are then processed in the order of the children, so that the
+     * work list and the test suite are the same as when solving one query at a time, and the tests of the first
+     * solutions are built and executed while the following queries are still being solved.
+     * <p>
+     * The queries of a batch are checked against the cache before any of them is solved, so a query is not
+     * pruned by the result of a previous query of the same batch, except if both are equal.
+     *
+     * @param testCasesWorkList
+     * @param seenChildren
+     * @param currentTestCase
+     * @param children
+     * @param hasPathConditionDiverged
+     */
+    private void processChildrenConcurrently(Queue<DSETestCase> testCasesWorkList, HashSet<Set<Constraint<?>>> seenChildren, DSETestCase currentTestCase, List<GenerationalSearchPathCondition> children, boolean hasPathConditionDiverged) {
+        List<ChildQuery> childQueries = new ArrayList<>();
+        Set<Set<Constraint<?>>> batchQueries = new HashSet<>();
+
+        try {
+            for (GenerationalSearchPathCondition child : children) {
+                List<Constraint<?>> childQuery = SolverUtils.buildQuery(child.getPathCondition());
+                Set<Constraint<?>> normalizedChildQuery = normalize(childQuery);
+
+                if (shouldSkipChild(seenChildren, normalizedChildQuery) || !batchQueries.add(normalizedChildQuery)) continue;
+                if (this.isFinished()) break;
+
+                CacheQueryResult cacheQueryResult = cachingStrategy.checkCache(normalizedChildQuery, queryCache);
+
+                // Path condition previously explored and unsatisfiable
+                if (cacheQueryResult.hitUnSat()) {
+                    logger.debug(CACHE_CALL_HIT_UNSAT);
+                    continue;
+                }
+
+                statisticsLogger.reportNewConstraints(childQuery);
+                ChildQuery query = new ChildQuery(child, normalizedChildQuery);
+
+                if (cacheQueryResult.hitSat()) {
+                    // Path condition already solved before
+                    logger.debug(CACHE_CALL_HIT_SAT);
+                    query.smtSolution = cacheQueryResult.getSmtSolution();
+                } else {
+                    // Path condition not explored
+                    assert (cacheQueryResult.missed());
+                    logger.debug(CACHE_CALL_MISSED);
+
+                    childQuery.addAll(
+                            SolverUtils.createBoundsForQueryVariables(childQuery)
+                    );
+
+                    logger.debug(SOLVER_QUERY_STARTED_MESSAGE, childQuery.size());
+                    query.smtQueryResult = solvingExecutor.submit(() -> {
+                        long startSolvingTime = System.currentTimeMillis();
+                        SolverResult smtQueryResult = doSolveQuery(childQuery);
+                        query.solvingTime = System.currentTimeMillis() - startSolvingTime;
+                        return smtQueryResult;
+                    });
+                }
+                childQueries.add(query);
+            }
+
+            for (ChildQuery query : childQueries) {
+                if (this.isFinished()) return;
+
+                Map<String, Object> smtSolution = query.smtSolution;
+                if (query.smtQueryResult != null) {
+                    SolverResult smtQueryResult = getSolverResult(query.smtQueryResult);
+                    // The statistics are only updated by this thread
+                    DSEStatistics.getInstance().reportNewSolvingTime(query.solvingTime);
+                    smtSolution = getQuerySolution(query.normalizedQuery, smtQueryResult);
+                }
+
+                if (smtSolution != null) {
+                    addChildTestCase(testCasesWorkList, currentTestCase, query.child, smtSolution, hasPathConditionDiverged);
                 }
             }
+        } finally {
+            // The queries of a finished search are not needed anymore
+            for (ChildQuery query : childQueries) {
+                if (query.smtQueryResult != null) query.smtQueryResult.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Generates the new test from the solution of a child query, and adds it to the work list and the test suite.
+     *
+     * @param testCasesWorkList
+     * @param currentTestCase
+     * @param child
+     * @param smtSolution
+     * @param hasPathConditionDiverged
+     */
+    private void addChildTestCase(Queue<DSETestCase> testCasesWorkList, DSETestCase currentTestCase, GenerationalSearchPathCondition child, Map<String, Object> smtSolution, boolean hasPathConditionDiverged) {
+        // Generates the new tests based on the current solution
+        DSETestCase newTestCase = generateNewTestCase(
+                currentTestCase,
+                child,
+                smtSolution,
+                hasPathConditionDiverged);
+
+        testCasesWorkList.offer(newTestCase);
+        addNewTestCaseToTestSuite(newTestCase);
+
+        // NOTE: We consider adding a test case an iteration
+        notifyIteration();
+    }
+
+    /**
+     * Waits for the result of a query solved by the solving threads.
+     *
+     * @param smtQueryResult
+     * @return the result, or null if the solver failed
+     */
+    private SolverResult getSolverResult(Future<SolverResult> smtQueryResult) {
+        try {
+            return smtQueryResult.get();
+        } catch (ExecutionException e) {
+            logger.debug(SOLVER_ERROR_DEBUG_MESSAGE, e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static ExecutorService createSolvingExecutor(int numThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(numThreads, runnable -> {
+            Thread thread = new Thread(runnable, "DSE_SOLVER_" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A child query, with either its solution found in the cache, or its pending result
+     */
+    private static final class ChildQuery {
+        private final GenerationalSearchPathCondition child;
+        private final Set<Constraint<?>> normalizedQuery;
+        private Map<String, Object> smtSolution;
+        private Future<SolverResult> smtQueryResult;
+        private volatile long solvingTime;
+
+        private ChildQuery(GenerationalSearchPathCondition child, Set<Constraint<?>> normalizedQuery) {
+            this.child = child;
+            this.normalizedQuery = normalizedQuery;
         }
     }
 
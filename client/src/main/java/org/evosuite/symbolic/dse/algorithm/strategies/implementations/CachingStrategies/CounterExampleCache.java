@@ -19,11 +19,11 @@
  */
 package org.evosuite.symbolic.dse.algorithm.strategies.implementations.CachingStrategies;
 
-import org.evosuite.symbolic.PathConditionUtils;
 import org.evosuite.symbolic.dse.DSEStatistics;
 import org.evosuite.symbolic.dse.algorithm.strategies.CachingStrategy;
 import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.solver.SolverResult;
+import org.evosuite.symbolic.solver.SolverUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,13 +32,15 @@ import java.util.Set;
 
 /**
  * Resembles checks (a) and (b) of a counter-example cache strategy.
- * (b) Is performed only if exactly the same constraint set is found.
- *     TODO: Implement the solution for supersets.
+ * (b) Is performed for exactly the same constraint set, and for supersets whose model still satisfies the
+ *     query once restricted to its variables.
  * <p>
  * Counter-example cache strategy: Maps sets of constraints to counter-examples and performs three optimizations:
  * (a)  When a subset of a constraint set has no solution, then neither does the original set. i.e. as the query x>10 ∧ x<5 has no solution, neither does the original query x>10 ∧ x<5 ∧ y=0
  * (b)  When a superset of a constraint set has a solution, that solution also satisfies the original set.  i.e. x=14 is the solution for the query x>0 ∧ x<5, thus it satisfies either x>0 or x<5 individually
  * (c)  When a subset of a constraint set has a solution, it is likely that this is also a solution for the original set
+ * <p>
+ * Subsets and supersets are looked up in the index of the {@link QueryCache}.
  *
  * @author Ignacio Lebrero
  */
@@ -47,6 +49,11 @@ public class CounterExampleCache implements CachingStrategy {
     private static final Logger logger = LoggerFactory.getLogger(CounterExampleCache.class);
     private static final DSEStatistics statisticsLogger = DSEStatistics.getInstance();
 
+    /**
+     * Maximum number of supersets whose models are checked against the query
+     */
+    private static final int MAX_SUPRA_SET_MODEL_CHECKS = 10;
+
     @Override
     public CacheQueryResult checkCache(Set<Constraint<?>> query, Map<Set<Constraint<?>>, SolverResult> queryCache) {
         statisticsLogger.reportNewQueryCacheCall();
@@ -67,44 +74,35 @@ public class CounterExampleCache implements CachingStrategy {
             }
         }
 
-        // Cache hit of a sub set solution
-        if (PathConditionUtils.isConstraintSetSupraSetOf(query, queryCache.keySet())) {
-            Set<Constraint<?>> subSetSolution = PathConditionUtils.getConstraintSetSupraSetOf(query, queryCache.keySet());
-            SolverResult cachedResult = queryCache.get(subSetSolution);
-
-            // Case (a) for sub sets: the query is a supra set of a sat solution. Heuristics can be implemented here
-            if (cachedResult.isSAT()) {
-                // TODO: implement me!
-                return new CacheQueryResult(CacheQueryStatus.MISS);
-
-                // Case (b) for sub sets: the query is a supra set of an unsat solution
-            } else if (cachedResult.isUNSAT()) {
-                statisticsLogger.reportNewQueryCacheHit();
-                logger.debug("skipping current query since it is in the query cache and it unsatisfiable");
-                return new CacheQueryResult(CacheQueryStatus.HIT_UNSAT);
-            }
+        QueryCache indexedQueryCache = queryCache instanceof QueryCache
+                ? (QueryCache) queryCache
+                : new QueryCache(queryCache);
 
+        // Case (a): the query is a supra set of an unsat query.
+        // Case (c), the query being a supra set of a sat query, is not implemented; heuristics can be implemented here
+        if (indexedQueryCache.getUNSATSubSetOf(query) != null) {
+            statisticsLogger.reportNewQueryCacheHit();
+            logger.debug("skipping current query since a subset of it is in the query cache and it is unsatisfiable");
+            return new CacheQueryResult(CacheQueryStatus.HIT_UNSAT);
         }
 
-        // Cache hit of a supra set solution
-        if (PathConditionUtils.isConstraintSetSubSetOf(query, queryCache.keySet())) {
-            Set<Constraint<?>> supraSetSolution = PathConditionUtils.getConstraintSetSubSetOf(query, queryCache.keySet());
-            SolverResult cachedResult = queryCache.get(supraSetSolution);
-
-            // Case (c) of Counter-example cache: Heuristics can be implemented here
-            if (cachedResult.isUNSAT()) {
-                // TODO: implement me!
-                return new CacheQueryResult(CacheQueryStatus.MISS);
+        // Case (b): the query is a sub set of a sat query.
+        // The model of the superset may assign variables that do not appear in the query and that would
+        // steer the new test away from the path, so only the values of the query variables are reused.
+        int checkedModels = 0;
+        for (Set<Constraint<?>> supraSet : indexedQueryCache.getSATSupraSetsOf(query)) {
+            if (checkedModels++ >= MAX_SUPRA_SET_MODEL_CHECKS) {
+                break;
+            }
 
-                // Case (b) for for supra sets: The query is sat as there was a bigger query that was SAT
-            } else if (cachedResult.isSAT()) {
-                // TODO: Implement me!
-                // We cannot use all the solution model from the superset as it may differ with other elements of this path.
-                // Implementation idea: reuse only the necessary elements of the model.
-                return new CacheQueryResult(CacheQueryStatus.MISS);
+            Map<String, Object> model = SolverUtils.getModelSatisfying(query, queryCache.get(supraSet).getModel());
+            if (model != null) {
+                statisticsLogger.reportNewQueryCacheHit();
+                logger.debug("skipping solving of current query since a superset of it is in the query cache");
+                return new CacheQueryResult(model, CacheQueryStatus.HIT_SAT);
             }
         }
 
         return new CacheQueryResult(CacheQueryStatus.MISS);
     }
-}
\ No newline at end of file
+}
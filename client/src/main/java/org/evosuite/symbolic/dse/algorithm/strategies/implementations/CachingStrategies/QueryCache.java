@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.dse.algorithm.strategies.implementations.CachingStrategies;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.solver.SolverResult;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache of solver results of the queries (i.e. sets of constraints) solved during the exploration.
+ * <p>
+ * Besides the exact lookup of a map, the cache answers which cached queries are a subset or a supra set
+ * of a given query without scanning all of them. Each cached query gets an id, and an inverted index maps
+ * each constraint to the ids of the cached queries that contain it:
+ * - The supra sets of a query are the intersection of the ids of its constraints.
+ * - The subsets of a query are the cached queries whose constraints are all hit when counting the ids
+ * of the constraints of the query.
+ * Both lookups only visit the cached queries that share some constraint with the query.
+ * <p>
+ * The cache is not thread-safe, and keys must not be modified once they are stored.
+ */
+public class QueryCache extends AbstractMap<Set<Constraint<?>>, SolverResult> {
+
+    public static final String QUERY_CANNOT_BE_NULL_EXCEPTION_MESSAGE = "Query cannot be null.";
+
+    private final Map<Set<Constraint<?>>, SolverResult> results = new HashMap<>();
+
+    /**
+     * Ids of the cached queries
+     **/
+    private final Map<Set<Constraint<?>>, Integer> ids = new HashMap<>();
+    private final List<Set<Constraint<?>>> queriesById = new ArrayList<>();
+
+    /**
+     * Inverted index from each constraint to the ids of the cached queries containing it
+     **/
+    private final Map<Constraint<?>, BitSet> index = new HashMap<>();
+
+    private final BitSet satIds = new BitSet();
+    private final BitSet unsatIds = new BitSet();
+    private final BitSet emptyIds = new BitSet();
+
+    public QueryCache() {
+        /* empty constructor */
+    }
+
+    public QueryCache(Map<Set<Constraint<?>>, SolverResult> results) {
+        putAll(results);
+    }
+
+    @Override
+    public SolverResult get(Object query) {
+        return results.get(query);
+    }
+
+    @Override
+    public boolean containsKey(Object query) {
+        return results.containsKey(query);
+    }
+
+    @Override
+    public int size() {
+        return results.size();
+    }
+
+    @Override
+    public SolverResult put(Set<Constraint<?>> query, SolverResult result) {
+        if (query == null) throw new IllegalArgumentException(QUERY_CANNOT_BE_NULL_EXCEPTION_MESSAGE);
+
+        SolverResult previous = results.put(query, result);
+        Integer id = ids.get(query);
+        if (id == null) {
+            id = queriesById.size();
+            ids.put(query, id);
+            queriesById.add(query);
+            if (query.isEmpty()) {
+                emptyIds.set(id);
+            }
+            for (Constraint<?> constraint : query) {
+                index.computeIfAbsent(constraint, c -> new BitSet()).set(id);
+            }
+        }
+
+        satIds.set(id, result != null && result.isSAT());
+        unsatIds.set(id, result != null && result.isUNSAT());
+        return previous;
+    }
+
+    @Override
+    public SolverResult remove(Object query) {
+        if (!results.containsKey(query)) {
+            return null;
+        }
+
+        SolverResult previous = results.remove(query);
+        int id = ids.remove(query);
+        Set<Constraint<?>> cachedQuery = queriesById.set(id, null);
+        satIds.clear(id);
+        unsatIds.clear(id);
+        emptyIds.clear(id);
+        for (Constraint<?> constraint : cachedQuery) {
+            BitSet queryIds = index.get(constraint);
+            if (queryIds != null) {
+                queryIds.clear(id);
+                if (queryIds.isEmpty()) {
+                    index.remove(constraint);
+                }
+            }
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        results.clear();
+        ids.clear();
+        queriesById.clear();
+        index.clear();
+        satIds.clear();
+        unsatIds.clear();
+        emptyIds.clear();
+    }
+
+    @Override
+    public Set<Entry<Set<Constraint<?>>, SolverResult>> entrySet() {
+        return Collections.unmodifiableMap(results).entrySet();
+    }
+
+    /**
+     * Returns a cached unsatisfiable query whose constraints are all contained in the given query, which
+     * is hence unsatisfiable as well.
+     *
+     * @param query
+     * @return the cached query, or null if there is none
+     */
+    public Set<Constraint<?>> getUNSATSubSetOf(Set<Constraint<?>> query) {
+        if (query == null) throw new IllegalArgumentException(QUERY_CANNOT_BE_NULL_EXCEPTION_MESSAGE);
+
+        int id = getSubSetId(query, unsatIds);
+        return id < 0 ? null : queriesById.get(id);
+    }
+
+    /**
+     * Returns the cached satisfiable queries that contain all the constraints of the given query, in the
+     * order in which they were cached.
+     *
+     * @param query
+     * @return the cached queries, empty if there are none
+     */
+    public List<Set<Constraint<?>>> getSATSupraSetsOf(Set<Constraint<?>> query) {
+        if (query == null) throw new IllegalArgumentException(QUERY_CANNOT_BE_NULL_EXCEPTION_MESSAGE);
+
+        BitSet supraSetIds = getSupraSetIds(query, satIds);
+        List<Set<Constraint<?>>> supraSets = new ArrayList<>(supraSetIds.cardinality());
+        for (int id = supraSetIds.nextSetBit(0); id >= 0; id = supraSetIds.nextSetBit(id + 1)) {
+            supraSets.add(queriesById.get(id));
+        }
+        return supraSets;
+    }
+
+    /**
+     * Counts, for each candidate sharing constraints with the query, how many of its constraints are in
+     * the query. A candidate is a subset once all of its constraints are counted.
+     */
+    private int getSubSetId(Set<Constraint<?>> query, BitSet candidates) {
+        int emptyId = emptyIds.nextSetBit(0);
+        while (emptyId >= 0 && !candidates.get(emptyId)) {
+            emptyId = emptyIds.nextSetBit(emptyId + 1);
+        }
+        if (emptyId >= 0) {
+            return emptyId;
+        }
+
+        Map<Integer, Integer> hits = new HashMap<>();
+        for (Constraint<?> constraint : query) {
+            BitSet queryIds = index.get(constraint);
+            if (queryIds == null) {
+                continue;
+            }
+            for (int id = queryIds.nextSetBit(0); id >= 0; id = queryIds.nextSetBit(id + 1)) {
+                if (!candidates.get(id)) {
+                    continue;
+                }
+                int count = hits.merge(id, 1, Integer::sum);
+                if (count == queriesById.get(id).size()) {
+                    return id;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Intersects the ids of the queries containing each constraint of the query, starting from the
+     * rarest constraints.
+     */
+    private BitSet getSupraSetIds(Set<Constraint<?>> query, BitSet candidates) {
+        List<BitSet> constraintIds = new ArrayList<>(query.size());
+        for (Constraint<?> constraint : query) {
+            BitSet queryIds = index.get(constraint);
+            if (queryIds == null) {
+                return new BitSet();
+            }
+            constraintIds.add(queryIds);
+        }
+        constraintIds.sort((ids1, ids2) -> Integer.compare(ids1.cardinality(), ids2.cardinality()));
+
+        BitSet supraSetIds = (BitSet) candidates.clone();
+        for (BitSet queryIds : constraintIds) {
+            supraSetIds.and(queryIds);
+            if (supraSetIds.isEmpty()) {
+                break;
+            }
+        }
+        return supraSetIds;
+    }
+}
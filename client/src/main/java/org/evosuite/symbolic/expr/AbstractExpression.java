@@ -32,6 +32,11 @@ public abstract class AbstractExpression<T> implements Expression<T> {
 
     private final int size;
 
+    /**
+     * Structural hash of the expression, computed once since expressions are immutable
+     */
+    private transient int hash = 0;
+
     public AbstractExpression(T concreteValue, int size, boolean containsSymbolicVariable) {
         this.concreteValue = concreteValue;
         this.size = size;
@@ -78,6 +83,29 @@ public abstract class AbstractExpression<T> implements Expression<T> {
         return concreteValue;
     }
 
+    /**
+     * Caches the hash computed by {@link #computeHashCode()}, so that hashing a
+     * deep expression (e.g. as part of a constraint used as cache key) does not
+     * traverse it every time.
+     */
+    @Override
+    public final int hashCode() {
+        if (hash == 0) {
+            hash = computeHashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the hash of the expression. Expressions comparing their structure
+     * in <code>equals</code> must override it.
+     *
+     * @return the hash of the expression
+     */
+    protected int computeHashCode() {
+        return super.hashCode();
+    }
+
     @Override
     public Set<Object> getConstants() {
         Set<Object> result = new HashSet<>();
@@ -57,7 +57,7 @@ public abstract class Constraint<T extends Object> implements Serializable {
      */
     abstract public Expression<?> getRightOperand();
 
-    private int hash = 0;
+    private transient int hash = 0;
 
     /**
      * {@inheritDoc}
@@ -102,6 +102,9 @@ public abstract class Constraint<T extends Object> implements Serializable {
         }
 
         Constraint<?> other = (Constraint<?>) obj;
+        if (this.hashCode() != other.hashCode()) {
+            return false;
+        }
         return this.getComparator().equals(other.getComparator())
                 // && this.getSize() == other.getSize()
                 && this.getLeftOperand().equals(other.getLeftOperand())
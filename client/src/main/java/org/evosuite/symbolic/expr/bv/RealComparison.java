@@ -79,7 +79,7 @@ public final class RealComparison extends AbstractExpression<Long> implements
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHashCode() {
         return this.left.hashCode() + this.right.hashCode();
     }
 
@@ -86,7 +86,7 @@ public final class IntegerToRealCast extends AbstractExpression<Double> implemen
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHashCode() {
         return this.expr.hashCode();
     }
 
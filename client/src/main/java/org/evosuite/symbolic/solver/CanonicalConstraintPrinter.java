@@ -0,0 +1,393 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.ExpressionVisitor;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.bv.*;
+import org.evosuite.symbolic.expr.fp.*;
+import org.evosuite.symbolic.expr.reader.StringReaderExpr;
+import org.evosuite.symbolic.expr.ref.GetFieldExpression;
+import org.evosuite.symbolic.expr.ref.ReferenceConstant;
+import org.evosuite.symbolic.expr.ref.ReferenceVariable;
+import org.evosuite.symbolic.expr.ref.array.ArrayConstant;
+import org.evosuite.symbolic.expr.ref.array.ArraySelect;
+import org.evosuite.symbolic.expr.ref.array.ArrayStore;
+import org.evosuite.symbolic.expr.ref.array.ArrayVariable;
+import org.evosuite.symbolic.expr.reftype.LambdaSyntheticType;
+import org.evosuite.symbolic.expr.reftype.LiteralClassType;
+import org.evosuite.symbolic.expr.reftype.LiteralNullType;
+import org.evosuite.symbolic.expr.str.*;
+import org.evosuite.symbolic.expr.token.HasMoreTokensExpr;
+import org.evosuite.symbolic.expr.token.NewTokenizerExpr;
+import org.evosuite.symbolic.expr.token.NextTokenizerExpr;
+import org.evosuite.symbolic.expr.token.StringNextTokenExpr;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints constraints in a form that does not depend on the names nor on the
+ * concrete values of their variables. Each variable is replaced by its sort
+ * followed by the order in which it was first printed, so two constraints
+ * that only differ in the naming of their variables are printed the same
+ * way. When the printer is anonymous, every variable is replaced by its sort
+ * only, which is used to order constraints before their variables are
+ * numbered.
+ * <p>
+ * Constants are printed exactly. Expressions on references, arrays,
+ * tokenizers and readers are not supported and raise an
+ * {@link UnsupportedOperationException}.
+ */
+final class CanonicalConstraintPrinter implements ExpressionVisitor<String, Void> {
+
+    private final boolean anonymous;
+
+    private final Map<String, String> canonicalNames = new LinkedHashMap<>();
+
+    CanonicalConstraintPrinter(boolean anonymous) {
+        this.anonymous = anonymous;
+    }
+
+    /**
+     * Returns the mapping from the original variable names to their
+     * canonical names, in the order in which the variables were printed.
+     *
+     * @return a map from original to canonical variable names
+     */
+    Map<String, String> getCanonicalNames() {
+        return canonicalNames;
+    }
+
+    /**
+     * Prints a constraint
+     *
+     * @param constraint the constraint to print
+     * @return the canonical form of the constraint
+     */
+    String print(Constraint<?> constraint) {
+        return "(" + constraint.getClass().getSimpleName()
+                + " " + constraint.getComparator().name()
+                + " " + constraint.getLeftOperand().accept(this, null)
+                + " " + constraint.getRightOperand().accept(this, null) + ")";
+    }
+
+    private String rename(String sort, String varName) {
+        if (anonymous) {
+            return sort;
+        }
+        String canonicalName = canonicalNames.get(varName);
+        if (canonicalName == null) {
+            canonicalName = sort + canonicalNames.size();
+            canonicalNames.put(varName, canonicalName);
+        }
+        return canonicalName;
+    }
+
+    private String print(Expression<?> e, Operator op, Expression<?>... operands) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("(").append(e.getClass().getSimpleName());
+        if (op != null) {
+            builder.append(" ").append(op.name());
+        }
+        for (Expression<?> operand : operands) {
+            builder.append(" ").append(operand.accept(this, null));
+        }
+        builder.append(")");
+        return builder.toString();
+    }
+
+    private String print(Expression<?> e, Operator op, Expression<?> left, Expression<?> right,
+                         List<Expression<?>> other) {
+        StringBuilder builder = new StringBuilder(print(e, op, left, right));
+        builder.setLength(builder.length() - 1);
+        for (Expression<?> operand : other) {
+            builder.append(" ").append(operand.accept(this, null));
+        }
+        builder.append(")");
+        return builder.toString();
+    }
+
+    private static String printString(String str) {
+        return "\"" + str.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String unsupported(Expression<?> e) {
+        throw new UnsupportedOperationException("Cannot print " + e.getClass().getSimpleName() + " canonically");
+    }
+
+    @Override
+    public String visit(IntegerBinaryExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getLeftOperand(), n.getRightOperand());
+    }
+
+    @Override
+    public String visit(IntegerComparison n, Void arg) {
+        return print(n, null, n.getLeftOperant(), n.getRightOperant());
+    }
+
+    @Override
+    public String visit(IntegerConstant n, Void arg) {
+        return Long.toString(n.getConcreteValue());
+    }
+
+    @Override
+    public String visit(IntegerUnaryExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getOperand());
+    }
+
+    @Override
+    public String visit(IntegerVariable n, Void arg) {
+        return rename("i", n.getName());
+    }
+
+    @Override
+    public String visit(RealComparison n, Void arg) {
+        return print(n, null, n.getLeftOperant(), n.getRightOperant());
+    }
+
+    @Override
+    public String visit(RealToIntegerCast n, Void arg) {
+        return print(n, null, n.getArgument());
+    }
+
+    @Override
+    public String visit(RealUnaryToIntegerExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getOperand());
+    }
+
+    @Override
+    public String visit(StringBinaryComparison n, Void arg) {
+        return print(n, n.getOperator(), n.getLeftOperand(), n.getRightOperand());
+    }
+
+    @Override
+    public String visit(StringBinaryToIntegerExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getLeftOperand(), n.getRightOperand());
+    }
+
+    @Override
+    public String visit(StringMultipleComparison n, Void arg) {
+        return print(n, n.getOperator(), n.getLeftOperand(), n.getRightOperand(), n.getOther());
+    }
+
+    @Override
+    public String visit(StringMultipleToIntegerExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getLeftOperand(), n.getRightOperand(), n.getOther());
+    }
+
+    @Override
+    public String visit(StringToIntegerCast n, Void arg) {
+        return print(n, null, n.getArgument());
+    }
+
+    @Override
+    public String visit(StringUnaryToIntegerExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getOperand());
+    }
+
+    @Override
+    public String visit(IntegerToRealCast n, Void arg) {
+        return print(n, null, n.getArgument());
+    }
+
+    @Override
+    public String visit(RealBinaryExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getLeftOperand(), n.getRightOperand());
+    }
+
+    @Override
+    public String visit(RealConstant n, Void arg) {
+        return Double.toString(n.getConcreteValue());
+    }
+
+    @Override
+    public String visit(RealUnaryExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getOperand());
+    }
+
+    @Override
+    public String visit(RealVariable n, Void arg) {
+        return rename("r", n.getName());
+    }
+
+    @Override
+    public String visit(StringReaderExpr n, Void arg) {
+        return unsupported(n);
+    }
+
+    @Override
+    public String visit(IntegerToStringCast n, Void arg) {
+        return print(n, null, n.getArgument());
+    }
+
+    @Override
+    public String visit(RealToStringCast n, Void arg) {
+        return print(n, null, n.getArgument());
+    }
+
+    @Override
+    public String visit(StringBinaryExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getLeftOperand(), n.getRightOperand());
+    }
+
+    @Override
+    public String visit(StringConstant n, Void arg) {
+        return printString(n.getConcreteValue());
+    }
+
+    @Override
+    public String visit(StringMultipleExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getLeftOperand(), n.getRightOperand(), n.getOther());
+    }
+
+    @Override
+    public String visit(StringUnaryExpression n, Void arg) {
+        return print(n, n.getOperator(), n.getOperand());
+    }
+
+    @Override
+    public String visit(StringVariable n, Void arg) {
+        return rename("s", n.getName());
+    }
+
+    @Override
+    public String visit(HasMoreTokensExpr n, Void arg) {
+        return unsupported(n);
+    }
+
+    @Override
+    public String visit(NewTokenizerExpr n, Void arg) {
+        return unsupported(n);
+    }
+
+    @Override
+    public String visit(NextTokenizerExpr n, Void arg) {
+        return unsupported(n);
+    }
+
+    @Override
+    public String visit(StringNextTokenExpr n, Void arg) {
+        return unsupported(n);
+    }
+
+    @Override
+    public String visit(ReferenceConstant r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ReferenceVariable r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(GetFieldExpression r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayStore.IntegerArrayStore r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayStore.RealArrayStore r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayStore.StringArrayStore r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArraySelect.IntegerArraySelect r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArraySelect.RealArraySelect r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArraySelect.StringArraySelect r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayConstant.IntegerArrayConstant r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayConstant.RealArrayConstant r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayConstant.StringArrayConstant r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayConstant.ReferenceArrayConstant r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayVariable.IntegerArrayVariable r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayVariable.RealArrayVariable r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayVariable.StringArrayVariable r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(ArrayVariable.ReferenceArrayVariable r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(LambdaSyntheticType r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(LiteralNullType r, Void arg) {
+        return unsupported(r);
+    }
+
+    @Override
+    public String visit(LiteralClassType r, Void arg) {
+        return unsupported(r);
+    }
+}
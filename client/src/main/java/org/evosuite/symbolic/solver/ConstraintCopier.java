@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Expression;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies the expression trees of a query, so that the concrete values of
+ * the variables of the copy can be changed (e.g., by a search for a model)
+ * without affecting queries solved on other threads.
+ * <p>
+ * Expressions, constraints and the collections holding them are copied
+ * through serialization. All other objects they refer to (constant values,
+ * types, the concrete objects of references) are shared with the original,
+ * as they are not changed while solving.
+ */
+final class ConstraintCopier {
+
+    /**
+     * Stands for a shared object in the serialized copy
+     */
+    private static final class SharedObject implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+
+        private SharedObject(int index) {
+            this.index = index;
+        }
+    }
+
+    private static final class CopyingOutputStream extends ObjectOutputStream {
+
+        private final List<Object> sharedObjects;
+
+        private CopyingOutputStream(OutputStream out, List<Object> sharedObjects) throws IOException {
+            super(out);
+            this.sharedObjects = sharedObjects;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            if (obj instanceof Expression || obj instanceof Constraint
+                    || obj instanceof Collection || obj instanceof Map) {
+                return obj;
+            }
+            sharedObjects.add(obj);
+            return new SharedObject(sharedObjects.size() - 1);
+        }
+    }
+
+    private static final class CopyingInputStream extends ObjectInputStream {
+
+        private final List<Object> sharedObjects;
+
+        private CopyingInputStream(InputStream in, List<Object> sharedObjects) throws IOException {
+            super(in);
+            this.sharedObjects = sharedObjects;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) {
+            if (obj instanceof SharedObject) {
+                return sharedObjects.get(((SharedObject) obj).index);
+            }
+            return obj;
+        }
+    }
+
+    private ConstraintCopier() {
+        // no instances
+    }
+
+    /**
+     * Returns copies of the constraints. Variables occurring in several
+     * constraints are the same object in the copies as well.
+     *
+     * @param constraints the query to copy
+     * @return the copied constraints, in the same order
+     * @throws IllegalArgumentException if the constraints cannot be copied
+     */
+    @SuppressWarnings("unchecked")
+    static List<Constraint<?>> copy(Collection<Constraint<?>> constraints) {
+        List<Object> sharedObjects = new ArrayList<>();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new CopyingOutputStream(bytes, sharedObjects)) {
+                out.writeObject(new ArrayList<>(constraints));
+            }
+            try (ObjectInputStream in = new CopyingInputStream(new ByteArrayInputStream(bytes.toByteArray()),
+                    sharedObjects)) {
+                return (List<Constraint<?>>) in.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalArgumentException("Cannot copy the constraints: " + e.getMessage(), e);
+        }
+    }
+}
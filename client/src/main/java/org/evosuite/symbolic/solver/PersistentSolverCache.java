@@ -0,0 +1,475 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Solver results stored in an append-only file, so that they can be reused
+ * by later runs (e.g., the nightly runs of continuous test generation on
+ * the same project).
+ * <p>
+ * Each record holds a digest of a canonical query (see {@link SolverCache}),
+ * the number of constraints of the query and its result; models are stored
+ * with the canonical variable names. Records are appended under a file
+ * lock, as several clients may share the same file, and a truncated record
+ * at the end of the file (e.g. from a killed client) is removed when
+ * opening.
+ * <p>
+ * Only the position of each record is kept in memory, results are read
+ * from the file on a hit. Like the in-memory cache, the records are bounded
+ * by {@link Properties#DSE_SOLVER_CACHE_MAX_CONSTRAINTS}: the least
+ * recently used ones are dropped from the index, and when the file is
+ * opened it is compacted to its most recent records within that bound,
+ * without duplicates.
+ */
+final class PersistentSolverCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentSolverCache.class);
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Written at the start of the file, files of other formats are reset
+     */
+    private static final int FILE_HEADER = 0x45534302;
+
+    private static final int HEADER_LENGTH = 4;
+
+    /**
+     * Number of bytes of the digest used as key
+     */
+    private static final int KEY_LENGTH = 16;
+
+    private static final byte UNSAT = 0;
+    private static final byte SAT = 1;
+
+    private static final byte LONG_VALUE = 0;
+    private static final byte DOUBLE_VALUE = 1;
+    private static final byte STRING_VALUE = 2;
+
+    /**
+     * Position of a record in the file
+     */
+    private static final class Record {
+
+        private long offset;
+        private final int length;
+        private final int weight;
+
+        private Record(long offset, int length, int weight) {
+            this.offset = offset;
+            this.length = length;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Counts the bytes read, to know where each record starts
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count = 0;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    private final File file;
+
+    private final RandomAccessFile raf;
+
+    /**
+     * Records of the file in access order
+     */
+    private final LinkedHashMap<ByteBuffer, Record> records = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Number of constraints of the queries in the index
+     */
+    private long weight = 0;
+
+    private PersistentSolverCache(File file, RandomAccessFile raf) {
+        this.file = file;
+        this.raf = raf;
+    }
+
+    /**
+     * Loads the index of the records stored in the file, creating the file
+     * if it does not exist yet and compacting it otherwise.
+     *
+     * @param file the cache file
+     * @return the cache, or null if the file cannot be read or created
+     */
+    static PersistentSolverCache open(File file) {
+        RandomAccessFile raf = null;
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Cannot create folder " + parent);
+            }
+            raf = new RandomAccessFile(file, "rw");
+            PersistentSolverCache cache = new PersistentSolverCache(file, raf);
+            cache.load();
+            logger.debug("Loaded {} solver results from {}", cache.size(), file);
+            return cache;
+        } catch (IOException e) {
+            logger.warn("Cannot use solver cache file {}: {}", file, e.getMessage());
+            if (raf != null) {
+                try {
+                    raf.close();
+                } catch (IOException ignored) {
+                    // the file is not used anyway
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Releases the file
+     */
+    synchronized void close() {
+        try {
+            raf.close();
+        } catch (IOException e) {
+            logger.warn("Cannot close solver cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    synchronized int size() {
+        return records.size();
+    }
+
+    /**
+     * Returns the stored result of a canonical query
+     *
+     * @param key the canonical form of the query
+     * @return the result with canonical variable names, or null
+     */
+    synchronized SolverResult get(List<?> key) {
+        ByteBuffer digest = digest(key);
+        Record record = records.get(digest);
+        if (record == null) {
+            return null;
+        }
+        SolverResult result = read(digest, record);
+        if (result == null) {
+            // the file was compacted by another client since it was indexed
+            try {
+                records.clear();
+                weight = 0;
+                load();
+            } catch (IOException e) {
+                logger.warn("Cannot read solver cache file {}: {}", file, e.getMessage());
+            }
+            record = records.get(digest);
+            result = record == null ? null : read(digest, record);
+            if (result == null) {
+                remove(digest);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the result of a record, or returns null if the record is no
+     * longer at its position
+     */
+    private SolverResult read(ByteBuffer digest, Record record) {
+        try (FileLock lock = raf.getChannel().lock(0, Long.MAX_VALUE, true)) {
+            if (record.offset + record.length > raf.length()) {
+                return null;
+            }
+            byte[] bytes = new byte[record.length];
+            raf.seek(record.offset);
+            raf.readFully(bytes);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            byte[] storedKey = new byte[KEY_LENGTH];
+            in.readFully(storedKey);
+            if (!ByteBuffer.wrap(storedKey).equals(digest)) {
+                return null;
+            }
+            in.readInt();
+            return readResult(in);
+        } catch (IOException e) {
+            logger.debug("Cannot read solver cache record: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the result of a canonical query, if it is not stored already
+     *
+     * @param key    the canonical form of the query
+     * @param result the result with canonical variable names
+     */
+    synchronized void put(List<?> key, SolverResult result) {
+        ByteBuffer digest = digest(key);
+        if (records.containsKey(digest) || key.size() > Properties.DSE_SOLVER_CACHE_MAX_CONSTRAINTS) {
+            return;
+        }
+        byte[] bytes = toRecord(digest, key.size(), result);
+        if (bytes == null) {
+            return;
+        }
+        try (FileLock lock = raf.getChannel().lock()) {
+            long offset = raf.length();
+            raf.seek(offset);
+            raf.write(bytes);
+            add(digest, new Record(offset, bytes.length, key.size()));
+        } catch (IOException e) {
+            logger.warn("Cannot write to solver cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void add(ByteBuffer digest, Record record) {
+        remove(digest);
+        records.put(digest, record);
+        weight += record.weight;
+        Iterator<Record> it = records.values().iterator();
+        while (weight > Properties.DSE_SOLVER_CACHE_MAX_CONSTRAINTS && it.hasNext()) {
+            weight -= it.next().weight;
+            it.remove();
+        }
+    }
+
+    private void remove(ByteBuffer digest) {
+        Record previous = records.remove(digest);
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+    }
+
+    /**
+     * Indexes the records of the file, from the oldest to the most recent.
+     * A truncated or corrupted tail is cut off, so that the records appended
+     * by this run can be read back. If records were dropped, the remaining
+     * ones are moved to the front of the file.
+     */
+    private void load() throws IOException {
+        try (FileLock lock = raf.getChannel().lock()) {
+            long length = raf.length();
+            if (length < HEADER_LENGTH || readHeader() != FILE_HEADER) {
+                if (length > 0) {
+                    logger.warn("Discarding solver cache file {} of an unknown format", file);
+                }
+                raf.setLength(0);
+                raf.writeInt(FILE_HEADER);
+                return;
+            }
+
+            raf.seek(HEADER_LENGTH);
+            CountingInputStream counter = new CountingInputStream(
+                    new BufferedInputStream(Channels.newInputStream(raf.getChannel())));
+            DataInputStream in = new DataInputStream(counter);
+            long validLength = HEADER_LENGTH;
+            int numRecords = 0;
+            try {
+                while (validLength < length) {
+                    byte[] key = new byte[KEY_LENGTH];
+                    in.readFully(key);
+                    int recordWeight = in.readInt();
+                    if (recordWeight < 0) {
+                        throw new IOException("Corrupted solver cache record");
+                    }
+                    readResult(in);
+                    long end = HEADER_LENGTH + counter.count;
+                    add(ByteBuffer.wrap(key), new Record(validLength, (int) (end - validLength), recordWeight));
+                    validLength = end;
+                    numRecords++;
+                }
+            } catch (IOException e) {
+                logger.warn("Discarding {} corrupted bytes at the end of solver cache file {}",
+                        length - validLength, file);
+            }
+
+            if (numRecords > records.size()) {
+                compact();
+            } else if (validLength < length) {
+                raf.setLength(validLength);
+            }
+        }
+    }
+
+    private int readHeader() throws IOException {
+        raf.seek(0);
+        return raf.readInt();
+    }
+
+    /**
+     * Rewrites the indexed records in file order after the header. Records
+     * only move towards the start of the file, so they can be moved in place.
+     */
+    private void compact() throws IOException {
+        List<Record> kept = new ArrayList<>(records.values());
+        kept.sort(Comparator.comparingLong(r -> r.offset));
+        long position = HEADER_LENGTH;
+        for (Record record : kept) {
+            byte[] bytes = new byte[record.length];
+            raf.seek(record.offset);
+            raf.readFully(bytes);
+            raf.seek(position);
+            raf.write(bytes);
+            record.offset = position;
+            position += record.length;
+        }
+        logger.debug("Compacted solver cache file {} from {} to {} bytes", file, raf.length(), position);
+        raf.setLength(position);
+    }
+
+    private static SolverResult readResult(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type == UNSAT) {
+            return SolverResult.newUNSAT();
+        } else if (type != SAT) {
+            throw new IOException("Corrupted solver cache record");
+        }
+        int size = in.readInt();
+        Map<String, Object> model = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String name = in.readUTF();
+            byte valueType = in.readByte();
+            switch (valueType) {
+                case LONG_VALUE:
+                    model.put(name, in.readLong());
+                    break;
+                case DOUBLE_VALUE:
+                    model.put(name, in.readDouble());
+                    break;
+                case STRING_VALUE:
+                    int length = in.readInt();
+                    if (length < 0) {
+                        throw new IOException("Corrupted solver cache record");
+                    }
+                    byte[] bytes = new byte[length];
+                    in.readFully(bytes);
+                    model.put(name, new String(bytes, StandardCharsets.UTF_8));
+                    break;
+                default:
+                    throw new IOException("Corrupted solver cache record");
+            }
+        }
+        return SolverResult.newSAT(model);
+    }
+
+    /**
+     * Encodes a result, or returns null if its model has values that
+     * cannot be stored
+     */
+    private static byte[] toRecord(ByteBuffer digest, int weight, SolverResult result) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(digest.array());
+            out.writeInt(weight);
+            if (result.isUNSAT()) {
+                out.writeByte(UNSAT);
+                return bytes.toByteArray();
+            }
+
+            Map<String, Object> model = result.getModel();
+            out.writeByte(SAT);
+            out.writeInt(model.size());
+            for (Map.Entry<String, Object> entry : model.entrySet()) {
+                out.writeUTF(entry.getKey());
+                Object value = entry.getValue();
+                if (value instanceof Long) {
+                    out.writeByte(LONG_VALUE);
+                    out.writeLong((Long) value);
+                } else if (value instanceof Double) {
+                    out.writeByte(DOUBLE_VALUE);
+                    out.writeDouble((Double) value);
+                } else if (value instanceof String) {
+                    byte[] str = ((String) value).getBytes(StandardCharsets.UTF_8);
+                    out.writeByte(STRING_VALUE);
+                    out.writeInt(str.length);
+                    out.write(str);
+                } else {
+                    return null;
+                }
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ByteBuffer digest(List<?> key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            for (Object constraint : key) {
+                byte[] bytes = constraint.toString().getBytes(StandardCharsets.UTF_8);
+                digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+                digest.update(bytes);
+            }
+            byte[] key128 = new byte[KEY_LENGTH];
+            System.arraycopy(digest.digest(), 0, key128, 0, KEY_LENGTH);
+            return ByteBuffer.wrap(key128);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
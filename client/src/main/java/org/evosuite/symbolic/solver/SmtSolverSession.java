@@ -0,0 +1,505 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.apache.commons.exec.CommandLine;
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtConstantDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDefinition;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.smt.SmtQueryPrinter;
+import org.evosuite.symbolic.solver.smt.SmtVariable;
+import org.evosuite.symbolic.solver.smt.SmtVariableCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A solver process that is kept alive across queries.
+ * <p>
+ * Each assertion of a query is asserted in its own {@code (push 1)} frame,
+ * together with the declarations of the constants it uses first. Consecutive
+ * queries usually share a prefix (e.g., the path conditions generated from
+ * the same execution, which only differ in the negated branch condition),
+ * so only the frames after the common prefix are popped and asserted again.
+ * <p>
+ * The end of each response is detected by an {@code (echo ...)} command.
+ * If the solver does not answer within the timeout, the process is killed
+ * and a new one is started by the next query.
+ * <p>
+ * Queries solved through {@link #solve(String, SmtQuery, long)} take a
+ * session from a pool of sessions of the same solver command line, so
+ * that concurrent queries run on different processes. A thread gets back
+ * the session it used last, to keep the prefix of its previous query, or
+ * takes over the session of a thread that has terminated (e.g., the
+ * solving threads of a previous exploration). The pool thus grows up to
+ * the number of threads that solve queries at the same time. The error
+ * output of the processes is only logged.
+ */
+public final class SmtSolverSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtSolverSession.class);
+
+    private static final String END_OF_RESPONSE = "evosuite-end-of-response";
+
+    private static final String TIMEOUT_OPTION = ":timeout";
+
+    /**
+     * Extra time given to the solver before the process is killed, so that
+     * the solver can answer "unknown" on its own timeout
+     */
+    private static final long WATCHDOG_GRACE_MILLIS = 500;
+
+    /**
+     * Put in the output queue when the process output is closed
+     */
+    private static final String END_OF_STREAM = new String("end-of-stream");
+
+    /**
+     * All the sessions of the pools, and the idle ones of each command line.
+     * Guarded by the class.
+     */
+    private static final List<SmtSolverSession> sessions = new ArrayList<>();
+    private static final Map<String, Deque<SmtSolverSession>> idleSessions = new HashMap<>();
+
+    private final String solverCmd;
+
+    /**
+     * The thread that last returned this session to its pool. Guarded by
+     * the class.
+     */
+    private Thread lastThread = null;
+
+    private Process process = null;
+    private Writer input = null;
+    private BlockingQueue<String> output = null;
+
+    /**
+     * Logic and options of the running process
+     */
+    private String preamble = null;
+    private String timeoutOption = null;
+    private final Set<String> functionDefinitions = new HashSet<>();
+
+    /**
+     * Frames currently pushed on the solver's assertion stack
+     */
+    private final List<String> frames = new ArrayList<>();
+
+    private int numberOfRestarts = 0;
+    private long numberOfReusedFrames = 0;
+    private long numberOfPushedFrames = 0;
+
+    SmtSolverSession(String solverCmd) {
+        this.solverCmd = solverCmd;
+    }
+
+    /**
+     * Solves the query on an idle session of the solver command line (see
+     * {@link #solve(SmtQuery, long)}), starting a new session if all of them
+     * are busy
+     *
+     * @param solverCmd     the command line that starts the solver
+     * @param query         the query to solve
+     * @param timeoutMillis time given to the solver before it is restarted
+     * @return the solver output
+     * @throws IOException            if the process cannot be started or written
+     * @throws SolverTimeoutException if the solver did not answer in time
+     * @throws SolverErrorException   if the solver process terminated
+     */
+    public static String solve(String solverCmd, SmtQuery query, long timeoutMillis)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+        SmtSolverSession session = acquire(solverCmd);
+        try {
+            return session.solve(query, timeoutMillis);
+        } finally {
+            release(session);
+        }
+    }
+
+    private static synchronized SmtSolverSession acquire(String solverCmd) {
+        Deque<SmtSolverSession> idle = idleSessions.computeIfAbsent(solverCmd, k -> new ArrayDeque<>());
+        Thread current = Thread.currentThread();
+        SmtSolverSession orphan = null;
+        for (SmtSolverSession session : idle) {
+            if (session.lastThread == current) {
+                orphan = session;
+                break;
+            } else if (orphan == null && !session.lastThread.isAlive()) {
+                orphan = session;
+            }
+        }
+        if (orphan != null) {
+            idle.remove(orphan);
+            return orphan;
+        }
+        SmtSolverSession session = new SmtSolverSession(solverCmd);
+        sessions.add(session);
+        return session;
+    }
+
+    private static synchronized void release(SmtSolverSession session) {
+        session.lastThread = Thread.currentThread();
+        if (sessions.contains(session)) {
+            idleSessions.computeIfAbsent(session.solverCmd, k -> new ArrayDeque<>()).addFirst(session);
+        } else {
+            // the pools were closed while the query was solved
+            session.close();
+        }
+    }
+
+    /**
+     * Stops all solver processes
+     */
+    public static synchronized void closeAll() {
+        for (SmtSolverSession session : sessions) {
+            session.close();
+        }
+        sessions.clear();
+        idleSessions.clear();
+    }
+
+    /**
+     * Returns the number of sessions in the pools
+     *
+     * @return an int.
+     */
+    public static synchronized int getNumberOfSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Returns how many times the solver processes were restarted
+     *
+     * @return an int.
+     */
+    public static synchronized int getTotalNumberOfRestarts() {
+        return sessions.stream().mapToInt(SmtSolverSession::getNumberOfRestarts).sum();
+    }
+
+    /**
+     * Returns how many assertion frames were sent to the solver processes
+     *
+     * @return a long.
+     */
+    public static synchronized long getTotalNumberOfPushedFrames() {
+        return sessions.stream().mapToLong(SmtSolverSession::getNumberOfPushedFrames).sum();
+    }
+
+    /**
+     * Returns how many assertion frames were kept from the previous queries
+     *
+     * @return a long.
+     */
+    public static synchronized long getTotalNumberOfReusedFrames() {
+        return sessions.stream().mapToLong(SmtSolverSession::getNumberOfReusedFrames).sum();
+    }
+
+    /**
+     * Returns how many times the solver process was restarted (e.g., after a
+     * timeout)
+     *
+     * @return an int.
+     */
+    public synchronized int getNumberOfRestarts() {
+        return numberOfRestarts;
+    }
+
+    /**
+     * Returns how many assertion frames were kept from the previous query
+     *
+     * @return a long.
+     */
+    public synchronized long getNumberOfReusedFrames() {
+        return numberOfReusedFrames;
+    }
+
+    /**
+     * Returns how many assertion frames were sent to the solver
+     *
+     * @return a long.
+     */
+    public synchronized long getNumberOfPushedFrames() {
+        return numberOfPushedFrames;
+    }
+
+    /**
+     * Solves the query and returns the solver output in the same form as a
+     * solver process that is given the whole query: either "sat" followed by
+     * the model, or the response to the {@code (check-sat)} command.
+     *
+     * @param query         the query to solve
+     * @param timeoutMillis time given to the solver before it is restarted
+     * @return the solver output
+     * @throws IOException            if the process cannot be started or written
+     * @throws SolverTimeoutException if the solver did not answer in time
+     * @throws SolverErrorException   if the solver process terminated
+     */
+    public synchronized String solve(SmtQuery query, long timeoutMillis)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+
+        SmtQueryPrinter printer = new SmtQueryPrinter();
+        String queryPreamble = buildPreamble(query);
+        if (process != null && (!process.isAlive() || !queryPreamble.equals(preamble))) {
+            close();
+        }
+        if (process == null) {
+            start(queryPreamble);
+        }
+
+        StringBuilder commands = new StringBuilder();
+        String queryTimeout = query.getOptionValue(TIMEOUT_OPTION);
+        if (queryTimeout != null && !queryTimeout.equals(timeoutOption)) {
+            commands.append(String.format("(set-option %s %s)%n", TIMEOUT_OPTION, queryTimeout));
+            timeoutOption = queryTimeout;
+        }
+
+        for (SmtFunctionDefinition definition : query.getFunctionDefinitions()) {
+            String str = printer.print(definition);
+            if (functionDefinitions.add(str)) {
+                commands.append(str).append("\n");
+            }
+        }
+
+        List<String> queryFrames = buildFrames(query, printer);
+        int common = 0;
+        while (common < frames.size() && common < queryFrames.size()
+                && frames.get(common).equals(queryFrames.get(common))) {
+            common++;
+        }
+        if (frames.size() > common) {
+            commands.append(String.format("(pop %s)%n", frames.size() - common));
+            frames.subList(common, frames.size()).clear();
+        }
+        for (String frame : queryFrames.subList(common, queryFrames.size())) {
+            commands.append("(push 1)\n").append(frame);
+            frames.add(frame);
+        }
+        numberOfReusedFrames += common;
+        numberOfPushedFrames += queryFrames.size() - common;
+
+        long deadline = System.currentTimeMillis() + timeoutMillis + WATCHDOG_GRACE_MILLIS;
+        commands.append("(check-sat)\n");
+        String response = send(commands.toString(), deadline);
+        if (!response.startsWith("sat")) {
+            if (response.contains("(error")) {
+                // the assertion stack cannot be trusted anymore
+                close();
+            }
+            return response;
+        }
+
+        String model = send("(get-model)\n", deadline);
+        return "sat\n" + model;
+    }
+
+    /**
+     * Stops the solver process
+     */
+    public synchronized void close() {
+        if (process != null) {
+            process.destroyForcibly();
+        }
+        process = null;
+        input = null;
+        output = null;
+        preamble = null;
+        timeoutOption = null;
+        functionDefinitions.clear();
+        frames.clear();
+    }
+
+    private static String buildPreamble(SmtQuery query) {
+        StringBuilder buff = new StringBuilder();
+        if (query.hasLogic()) {
+            buff.append("(set-logic ").append(query.getLogic()).append(")\n");
+        }
+        for (String optionName : query.getOptions()) {
+            if (!optionName.equals(TIMEOUT_OPTION)) {
+                buff.append(String.format("(set-option %s %s)%n", optionName, query.getOptionValue(optionName)));
+            }
+        }
+        return buff.toString();
+    }
+
+    /**
+     * Splits the query in one frame per assertion, declaring each constant
+     * in the frame of the first assertion that uses it. Constants that are
+     * not used by any assertion are declared in a last frame of their own,
+     * so that they do not break the prefix shared with the next query.
+     */
+    private static List<String> buildFrames(SmtQuery query, SmtQueryPrinter printer) {
+        Map<String, String> declarations = new LinkedHashMap<>();
+        for (SmtConstantDeclaration declaration : query.getConstantDeclarations()) {
+            declarations.put(declaration.getConstantName(), printer.print(declaration));
+        }
+        for (SmtFunctionDeclaration declaration : query.getFunctionDeclarations()) {
+            declarations.put(declaration.getFunctionName(), printer.print(declaration));
+        }
+
+        List<String> frames = new ArrayList<>();
+        for (SmtAssertion assertion : query.getAssertions()) {
+            SmtVariableCollector collector = new SmtVariableCollector();
+            assertion.getFormula().accept(collector, null);
+            Set<String> names = new TreeSet<>();
+            for (SmtVariable variable : collector.getSmtVariables()) {
+                names.add(variable.getName());
+            }
+
+            StringBuilder frame = new StringBuilder();
+            for (String name : names) {
+                String declaration = declarations.remove(name);
+                if (declaration != null) {
+                    frame.append(declaration).append("\n");
+                }
+            }
+            frame.append(printer.print(assertion)).append("\n");
+            frames.add(frame.toString());
+        }
+
+        if (!declarations.isEmpty()) {
+            StringBuilder frame = new StringBuilder();
+            for (String declaration : declarations.values()) {
+                frame.append(declaration).append("\n");
+            }
+            frames.add(frame.toString());
+        }
+        return frames;
+    }
+
+    private void start(String queryPreamble) throws IOException {
+        logger.debug("Starting solver session with command {}", solverCmd);
+        ProcessBuilder builder = new ProcessBuilder(Arrays.asList(CommandLine.parse(solverCmd).toStrings()));
+        process = builder.start();
+        input = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        output = new LinkedBlockingQueue<>();
+
+        Process started = process;
+        BlockingQueue<String> lines = output;
+        Thread reader = new Thread(() -> readOutput(started, lines), "SmtSolverSession-" + solverCmd);
+        reader.setDaemon(true);
+        reader.start();
+        Thread errorReader = new Thread(() -> readErrors(started), "SmtSolverSession-err-" + solverCmd);
+        errorReader.setDaemon(true);
+        errorReader.start();
+
+        preamble = queryPreamble;
+        input.write(queryPreamble);
+        input.flush();
+    }
+
+    private static void readOutput(Process process, BlockingQueue<String> lines) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            // the process was killed
+        } finally {
+            lines.add(END_OF_STREAM);
+        }
+    }
+
+    /**
+     * Drains the error output, so that the process does not block on it
+     */
+    private static void readErrors(Process process) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                logger.debug("Solver session error output: {}", line);
+            }
+        } catch (IOException e) {
+            // the process was killed
+        }
+    }
+
+    /**
+     * Sends the commands followed by an echo, and returns the output
+     * printed before the echo.
+     */
+    private String send(String commands, long deadline)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+        logger.debug("Solver session input:\n{}", commands);
+        try {
+            input.write(commands);
+            input.write("(echo \"" + END_OF_RESPONSE + "\")\n");
+            input.flush();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+
+        StringBuilder response = new StringBuilder();
+        while (true) {
+            String line;
+            try {
+                line = output.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new SolverTimeoutException();
+            }
+
+            if (line == null) {
+                logger.debug("Solver session did not answer in time, restarting it");
+                close();
+                numberOfRestarts++;
+                throw new SolverTimeoutException();
+            } else if (line == END_OF_STREAM) {
+                close();
+                throw new SolverErrorException("Solver process terminated");
+            } else if (isEndOfResponse(line)) {
+                return response.toString();
+            } else if (!line.trim().isEmpty()) {
+                response.append(line).append("\n");
+            }
+        }
+    }
+
+    private static boolean isEndOfResponse(String line) {
+        String trimmed = line.trim();
+        return trimmed.equals(END_OF_RESPONSE) || trimmed.equals("\"" + END_OF_RESPONSE + "\"");
+    }
+}
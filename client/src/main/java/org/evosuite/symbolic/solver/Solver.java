@@ -69,8 +69,9 @@ public abstract class Solver {
      * @throws SolverErrorException      the solver reported an error after its execution
      */
     public SolverResult solve(Collection<Constraint<?>> constraints) throws SolverTimeoutException, SolverParseException, SolverEmptyQueryException, SolverErrorException, IOException {
-        if (solverCache.hasCachedResult(constraints)) {
-            return solverCache.getCachedResult();
+        SolverResult cachedResult = solverCache.getCachedResult(constraints);
+        if (cachedResult != null) {
+            return cachedResult;
         }
 
         SolverResult solverResult;
@@ -177,6 +178,28 @@ public abstract class Solver {
         }
     }
 
+    /**
+     * Returns copies of the constraints with their own variables, on which
+     * concrete values can be set without affecting the constraints of queries
+     * solved concurrently.
+     *
+     * @param constraints the constraint system
+     * @return the copied constraint system
+     * @throws IllegalArgumentException if the constraints cannot be copied
+     */
+    protected static List<Constraint<?>> copyConstraints(Collection<Constraint<?>> constraints) {
+        return ConstraintCopier.copy(constraints);
+    }
+
+    /**
+     * Checks whether the model satisfies the constraints. The model is set on
+     * copies of the constraints, so the concrete values of the variables of the
+     * query are left unchanged.
+     *
+     * @param constraints the constraint system
+     * @param satResult   a SAT result
+     * @return true if the constraints evaluate to true with the model
+     */
     protected static boolean checkSAT(Collection<Constraint<?>> constraints, SolverResult satResult) {
 
         if (satResult == null) {
@@ -187,30 +210,22 @@ public abstract class Solver {
             throw new IllegalArgumentException("satResult should be SAT");
         }
 
-        // back-up values
-        Set<Variable<?>> variables = getVariables(constraints);
-        Map<String, Object> initialValues = getConcreteValues(variables);
         // set new values
-        Map<String, Object> newValues = satResult.getModel();
-        setConcreteValues(variables, newValues);
-
-        try {
-            // check SAT with new values
-            ConstraintEvaluator evaluator = new ConstraintEvaluator();
-            for (Constraint<?> constraint : constraints) {
-                Boolean evaluation = (Boolean) constraint.accept(evaluator, null);
-                if (evaluation == null) {
-                    throw new NullPointerException();
-                }
-                if (evaluation == false) {
-                    return false;
-                }
+        List<Constraint<?>> copies = copyConstraints(constraints);
+        setConcreteValues(getVariables(copies), satResult.getModel());
+
+        // check SAT with new values
+        ConstraintEvaluator evaluator = new ConstraintEvaluator();
+        for (Constraint<?> constraint : copies) {
+            Boolean evaluation = (Boolean) constraint.accept(evaluator, null);
+            if (evaluation == null) {
+                throw new NullPointerException();
+            }
+            if (evaluation == false) {
+                return false;
             }
-            return true;
-        } finally {
-            // restore values
-            setConcreteValues(variables, initialValues);
         }
+        return true;
     }
 
     /**
@@ -19,35 +19,121 @@
  */
 package org.evosuite.symbolic.solver;
 
+import org.evosuite.Properties;
 import org.evosuite.symbolic.expr.Constraint;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Process-wide cache of solver results.
+ * <p>
+ * Queries are canonicalized before being looked up: constraints are
+ * ordered by their shape, duplicates are removed and variables are renamed
+ * by order of first appearance (see {@link CanonicalConstraintPrinter}), so
+ * that queries that only differ in the naming or ordering of their
+ * constraints share the same entry. Models of SAT results are stored with
+ * the canonical variable names and translated back to the names of the
+ * query on each hit. Queries on references, arrays or tokenizers are
+ * cached as they are.
+ * <p>
+ * A query that contains all the constraints of a cached UNSAT query is
+ * UNSAT as well, so it is answered without calling the solver.
+ * <p>
+ * The cache is bounded by the total number of cached constraints
+ * ({@link Properties#DSE_SOLVER_CACHE_MAX_CONSTRAINTS}); the least recently
+ * used entries are evicted first. All methods are thread-safe.
+ * <p>
+ * If {@link Properties#SOLVER_CACHE_FILE} is set, canonical queries and
+ * their results are also appended to that file (see
+ * {@link PersistentSolverCache}) and queries missing in memory are looked
+ * up there, so results are reused across runs, whichever solver is used.
+ */
 public final class SolverCache {
 
     private static final SolverCache instance = new SolverCache();
-    private static final String CONTRAINT_NOT_CACHED_EXCEPTION_MESSAGE = "The constraint is not cached!";
     private static final String SOLVER_RESULT_CANNOT_BE_NULL_EXCEPTION_MESSAGE = "Unable to save solver result as its null.";
 
-    private int number_of_hits = 0;
-    private int number_of_accesses = 0;
-    private int cached_sat_result_count = 0;
-    private int cached_unsat_result_count = 0;
-    private boolean valid_cached_solution = false;
+    /**
+     * A query translated to its cache key
+     */
+    private static final class CanonicalQuery {
 
-    private final HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<>();
-    private SolverResult cached_solution = null;
+        private final List<?> key;
 
-    public int getNumberOfUNSATs() {
-        return cached_unsat_result_count;
+        /**
+         * Original variable names to canonical names, null if the query
+         * could not be canonicalized
+         */
+        private final Map<String, String> canonicalNames;
+
+        private CanonicalQuery(List<?> key, Map<String, String> canonicalNames) {
+            this.key = key;
+            this.canonicalNames = canonicalNames;
+        }
+
+        private boolean isCanonical() {
+            return canonicalNames != null;
+        }
     }
 
-    public int getNumberOfSATs() {
-        return cached_sat_result_count;
+    /**
+     * A constraint with its printed form with anonymous variables
+     */
+    private static final class ConstraintShape {
+
+        private final Constraint<?> constraint;
+        private final String shape;
+
+        private ConstraintShape(Constraint<?> constraint, String shape) {
+            this.constraint = constraint;
+            this.shape = shape;
+        }
     }
 
-    private SolverCache() {
+    private final AtomicLong number_of_hits = new AtomicLong();
+    private final AtomicLong number_of_misses = new AtomicLong();
+    private final AtomicLong number_of_subsumption_hits = new AtomicLong();
+    private final AtomicLong number_of_evictions = new AtomicLong();
+    private final AtomicLong number_of_persistent_hits = new AtomicLong();
+    private final AtomicLong cached_sat_result_count = new AtomicLong();
+    private final AtomicLong cached_unsat_result_count = new AtomicLong();
+
+    /**
+     * Cached results in access order. Guarded by this.
+     */
+    private final LinkedHashMap<List<?>, SolverResult> cached_solver_results = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Canonical UNSAT keys, indexed by their first constraint. Guarded by
+     * this.
+     */
+    private final Map<Object, Set<List<?>>> unsat_index = new HashMap<>();
+
+    /**
+     * Number of constraints in all cached keys. Guarded by this.
+     */
+    private long cached_constraints = 0;
+
+    /**
+     * Results persisted across runs, and the file they were loaded from.
+     * Guarded by this.
+     */
+    private PersistentSolverCache persistent_cache = null;
+    private String persistent_cache_file = null;
+
+    SolverCache() {
         /* empty constructor */
     }
 
@@ -55,47 +141,125 @@ public final class SolverCache {
         return instance;
     }
 
-    private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
-        cached_solver_results.put(unsat_constraints, unsatResult);
-        cached_unsat_result_count++;
+    public int getNumberOfUNSATs() {
+        return (int) cached_unsat_result_count.get();
     }
 
-    private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
-        cached_solver_results.put(sat_constraints, satResult);
-        cached_sat_result_count++;
+    public int getNumberOfSATs() {
+        return (int) cached_sat_result_count.get();
     }
 
-    public boolean hasCachedResult(Collection<Constraint<?>> constraints) {
-        number_of_accesses++;
+    public long getNumberOfHits() {
+        return number_of_hits.get();
+    }
 
-        if (this.cached_solver_results.containsKey(constraints)) {
-            valid_cached_solution = true;
-            cached_solution = this.cached_solver_results.get(constraints);
-            number_of_hits++;
-            return true;
-        } else {
-            valid_cached_solution = false;
-            return false;
-        }
+    public long getNumberOfMisses() {
+        return number_of_misses.get();
+    }
+
+    /**
+     * Returns how many queries were found UNSAT because they contain a
+     * cached UNSAT query. These are also counted as hits.
+     *
+     * @return a long.
+     */
+    public long getNumberOfSubsumptionHits() {
+        return number_of_subsumption_hits.get();
+    }
+
+    /**
+     * Returns how many queries were answered by results persisted by
+     * previous runs. These are also counted as hits.
+     *
+     * @return a long.
+     */
+    public long getNumberOfPersistentHits() {
+        return number_of_persistent_hits.get();
+    }
+
+    public long getNumberOfEvictions() {
+        return number_of_evictions.get();
+    }
+
+    public synchronized int size() {
+        return cached_solver_results.size();
     }
 
     public double getHitRate() {
-        return (double) this.number_of_hits / (double) this.number_of_accesses;
+        long hits = number_of_hits.get();
+        return (double) hits / (double) (hits + number_of_misses.get());
     }
 
     /**
-     * If not in cache returns IllegalArgumentException()
+     * Removes all cached results and resets the counters
+     */
+    public synchronized void clear() {
+        cached_solver_results.clear();
+        unsat_index.clear();
+        cached_constraints = 0;
+        if (persistent_cache != null) {
+            persistent_cache.close();
+        }
+        persistent_cache = null;
+        persistent_cache_file = null;
+        number_of_hits.set(0);
+        number_of_misses.set(0);
+        number_of_subsumption_hits.set(0);
+        number_of_evictions.set(0);
+        number_of_persistent_hits.set(0);
+        cached_sat_result_count.set(0);
+        cached_unsat_result_count.set(0);
+    }
+
+    /**
+     * Returns the cached result for the constraints, with the model
+     * expressed in terms of the variables of the constraints.
      *
-     * @return
+     * @param constraints a constraint system
+     * @return the cached result, or null if the constraints are not cached
      */
-    public SolverResult getCachedResult() {
+    public SolverResult getCachedResult(Collection<Constraint<?>> constraints) {
+        CanonicalQuery query = canonicalize(constraints);
 
-        if (valid_cached_solution == false) {
-            throw new IllegalArgumentException(CONTRAINT_NOT_CACHED_EXCEPTION_MESSAGE);
+        SolverResult cachedResult;
+        boolean subsumed = false;
+        synchronized (this) {
+            cachedResult = cached_solver_results.get(query.key);
+            if (cachedResult == null && query.isCanonical() && isSubsumedByUNSAT(query.key)) {
+                cachedResult = SolverResult.newUNSAT();
+                subsumed = true;
+            }
         }
 
-        valid_cached_solution = false;
-        return this.cached_solution;
+        boolean persisted = false;
+        if (cachedResult == null && query.isCanonical()) {
+            PersistentSolverCache persistentCache = getPersistentCache();
+            if (persistentCache != null) {
+                cachedResult = persistentCache.get(query.key);
+                if (cachedResult != null) {
+                    persisted = true;
+                    store(query, cachedResult);
+                }
+            }
+        }
+
+        if (cachedResult == null) {
+            number_of_misses.incrementAndGet();
+            return null;
+        }
+
+        number_of_hits.incrementAndGet();
+        if (subsumed) {
+            number_of_subsumption_hits.incrementAndGet();
+        }
+        if (persisted) {
+            number_of_persistent_hits.incrementAndGet();
+        }
+
+        if (cachedResult.isSAT() && query.isCanonical()) {
+            return SolverResult.newSAT(renameModel(cachedResult.getModel(), invert(query.canonicalNames)));
+        }
+        return cachedResult;
     }
 
     /**
@@ -109,11 +273,158 @@ public final class SolverCache {
             throw new IllegalArgumentException(SOLVER_RESULT_CANNOT_BE_NULL_EXCEPTION_MESSAGE);
         }
 
+        CanonicalQuery query = canonicalize(constraints);
+
+        SolverResult cachedResult = solverResult;
+        if (solverResult.isSAT() && query.isCanonical()) {
+            cachedResult = SolverResult.newSAT(renameModel(solverResult.getModel(), query.canonicalNames));
+        }
+        store(query, cachedResult);
+
+        if (query.isCanonical()) {
+            PersistentSolverCache persistentCache = getPersistentCache();
+            if (persistentCache != null) {
+                persistentCache.put(query.key, cachedResult);
+            }
+        }
+
         if (solverResult.isUNSAT()) {
-            addUNSAT(constraints, solverResult);
+            cached_unsat_result_count.incrementAndGet();
+        } else {
+            cached_sat_result_count.incrementAndGet();
+        }
+    }
+
+    private synchronized void store(CanonicalQuery query, SolverResult cachedResult) {
+        int weight = query.key.size();
+        if (weight > Properties.DSE_SOLVER_CACHE_MAX_CONSTRAINTS) {
+            return;
+        }
+
+        SolverResult previous = cached_solver_results.put(query.key, cachedResult);
+        if (previous != null) {
+            removeFromIndex(query.key, previous);
         } else {
-            addSAT(constraints, solverResult);
+            cached_constraints += weight;
+        }
+        if (cachedResult.isUNSAT() && query.isCanonical() && !query.key.isEmpty()) {
+            unsat_index.computeIfAbsent(query.key.get(0), k -> new HashSet<>()).add(query.key);
+        }
+        evict();
+    }
+
+    /**
+     * Returns the cache stored in {@link Properties#SOLVER_CACHE_FILE}, or
+     * null if results are not persisted
+     */
+    private synchronized PersistentSolverCache getPersistentCache() {
+        String fileName = Properties.SOLVER_CACHE_FILE;
+        if (fileName == null || fileName.isEmpty()) {
+            return null;
+        }
+        if (!fileName.equals(persistent_cache_file)) {
+            if (persistent_cache != null) {
+                persistent_cache.close();
+            }
+            persistent_cache_file = fileName;
+            persistent_cache = PersistentSolverCache.open(new File(fileName));
+        }
+        return persistent_cache;
+    }
+
+    /**
+     * Evicts least recently used entries until the cache fits its bound
+     */
+    private void evict() {
+        Iterator<Map.Entry<List<?>, SolverResult>> it = cached_solver_results.entrySet().iterator();
+        while (cached_constraints > Properties.DSE_SOLVER_CACHE_MAX_CONSTRAINTS && it.hasNext()) {
+            Map.Entry<List<?>, SolverResult> eldest = it.next();
+            it.remove();
+            removeFromIndex(eldest.getKey(), eldest.getValue());
+            cached_constraints -= eldest.getKey().size();
+            number_of_evictions.incrementAndGet();
+        }
+    }
+
+    private void removeFromIndex(List<?> key, SolverResult result) {
+        if (!result.isUNSAT() || key.isEmpty()) {
+            return;
+        }
+        Set<List<?>> keys = unsat_index.get(key.get(0));
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                unsat_index.remove(key.get(0));
+            }
+        }
+    }
+
+    /**
+     * Checks whether a cached UNSAT key is contained in the query key. Both
+     * keys use canonical names, so a match is a renamed copy of an UNSAT
+     * query and hence UNSAT.
+     */
+    private boolean isSubsumedByUNSAT(List<?> key) {
+        if (unsat_index.isEmpty()) {
+            return false;
+        }
+        Set<Object> constraints = new HashSet<>(key);
+        for (Object constraint : key) {
+            Set<List<?>> unsatKeys = unsat_index.get(constraint);
+            if (unsatKeys == null) {
+                continue;
+            }
+            for (List<?> unsatKey : unsatKeys) {
+                if (unsatKey.size() <= key.size() && constraints.containsAll(unsatKey)) {
+                    return true;
+                }
+            }
         }
+        return false;
     }
 
+    private static Map<String, Object> renameModel(Map<String, Object> model, Map<String, String> names) {
+        Map<String, Object> renamed = new HashMap<>();
+        for (Map.Entry<String, Object> entry : model.entrySet()) {
+            String name = names.get(entry.getKey());
+            if (name != null) {
+                renamed.put(name, entry.getValue());
+            }
+        }
+        return renamed;
+    }
+
+    private static Map<String, String> invert(Map<String, String> names) {
+        Map<String, String> inverted = new HashMap<>();
+        for (Map.Entry<String, String> entry : names.entrySet()) {
+            inverted.put(entry.getValue(), entry.getKey());
+        }
+        return inverted;
+    }
+
+    /**
+     * Computes the cache key of a query. Constraints are ordered by their
+     * printed form with anonymous variables, then printed again numbering
+     * the variables in that order. If any constraint cannot be printed, the
+     * constraints themselves are used as key.
+     */
+    private static CanonicalQuery canonicalize(Collection<Constraint<?>> constraints) {
+        try {
+            CanonicalConstraintPrinter anonymousPrinter = new CanonicalConstraintPrinter(true);
+            List<ConstraintShape> shapes = new ArrayList<>(constraints.size());
+            for (Constraint<?> constraint : constraints) {
+                shapes.add(new ConstraintShape(constraint, anonymousPrinter.print(constraint)));
+            }
+            shapes.sort((c1, c2) -> c1.shape.compareTo(c2.shape));
+
+            CanonicalConstraintPrinter printer = new CanonicalConstraintPrinter(false);
+            Set<String> key = new LinkedHashSet<>();
+            for (ConstraintShape shape : shapes) {
+                key.add(printer.print(shape.constraint));
+            }
+            return new CanonicalQuery(Collections.unmodifiableList(new ArrayList<>(key)), printer.getCanonicalNames());
+        } catch (UnsupportedOperationException e) {
+            return new CanonicalQuery(new ArrayList<>(constraints), null);
+        }
+    }
 }
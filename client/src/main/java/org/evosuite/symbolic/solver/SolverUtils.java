@@ -64,6 +64,30 @@ public abstract class SolverUtils {
         return solverResult;
     }
 
+    /**
+     * Restricts a model found for a larger query to the variables of the given query, and checks that it
+     * still satisfies it.
+     *
+     * @param query
+     * @param model
+     * @return the restricted model, or null if it does not satisfy the query
+     */
+    public static Map<String, Object> getModelSatisfying(Collection<Constraint<?>> query, Map<String, Object> model) {
+        Map<String, Object> restrictedModel = new HashMap<>();
+        for (Variable<?> variable : Solver.getVariables(query)) {
+            if (model.containsKey(variable.getName())) {
+                restrictedModel.put(variable.getName(), model.get(variable.getName()));
+            }
+        }
+
+        try {
+            return Solver.checkSAT(query, SolverResult.newSAT(restrictedModel)) ? restrictedModel : null;
+        } catch (RuntimeException e) {
+            // the constraints cannot be evaluated concretely
+            return null;
+        }
+    }
+
     /**
      * Creates boundaries for the SMT query variables.
      *
@@ -154,34 +178,87 @@ public abstract class SolverUtils {
 
     /**
      * Apply cone of influence reduction to constraints with respect to the last
-     * constraint in the list
+     * constraint in the list: only the constraints that are (transitively)
+     * dependent on it through shared variables are kept. The other ones are
+     * satisfied by the values of the current concrete execution, which are kept
+     * for the variables missing from the model of the reduced query.
      *
      * @param constraints
      * @return
      */
     private static List<Constraint<?>> reduce(List<Constraint<?>> constraints) {
-
         Constraint<?> target = constraints.get(constraints.size() - 1);
-        Set<Variable<?>> dependencies = getVariables(target);
-
-        LinkedList<Constraint<?>> coi = new LinkedList<>();
-        if (dependencies.size() <= 0)
-            return coi;
-
-        coi.add(target);
+        for (List<Constraint<?>> partition : partitionIndependentConstraints(constraints)) {
+            if (partition.get(partition.size() - 1) == target) {
+                return partition;
+            }
+        }
+        // the target has no variables
+        return new LinkedList<>();
+    }
 
-        for (int i = constraints.size() - 2; i >= 0; i--) {
-            Constraint<?> constraint = constraints.get(i);
+    /**
+     * Partitions the constraints into sets that do not share variables, so that
+     * each set can be solved (and cached) independently of the others. Two
+     * constraints are in the same set if they share a variable, directly or
+     * through other constraints of the set. Constraints without variables are
+     * dropped.
+     *
+     * @param constraints
+     * @return the independent sets, keeping the order of the constraints in each
+     * set and ordered by their last constraint
+     */
+    public static List<List<Constraint<?>>> partitionIndependentConstraints(List<Constraint<?>> constraints) {
+        // union-find of the variables, the constraints join all their variables
+        Map<Variable<?>, Variable<?>> parents = new HashMap<>();
+        List<Set<Variable<?>>> constraintVariables = new ArrayList<>(constraints.size());
+        for (Constraint<?> constraint : constraints) {
             Set<Variable<?>> variables = getVariables(constraint);
-            for (Variable<?> var : dependencies) {
-                if (variables.contains(var)) {
-                    dependencies.addAll(variables);
-                    coi.addFirst(constraint);
-                    break;
+            constraintVariables.add(variables);
+
+            Variable<?> root = null;
+            for (Variable<?> variable : variables) {
+                Variable<?> variableRoot = findRoot(parents, variable);
+                if (root == null) {
+                    root = variableRoot;
+                } else if (!root.equals(variableRoot)) {
+                    parents.put(variableRoot, root);
                 }
             }
         }
-        return coi;
+
+        Map<Variable<?>, LinkedList<Constraint<?>>> partitions = new HashMap<>();
+        for (int i = 0; i < constraints.size(); i++) {
+            Set<Variable<?>> variables = constraintVariables.get(i);
+            if (variables.isEmpty()) {
+                continue;
+            }
+            Variable<?> root = findRoot(parents, variables.iterator().next());
+            partitions.computeIfAbsent(root, r -> new LinkedList<>()).add(constraints.get(i));
+        }
+
+        List<List<Constraint<?>>> result = new ArrayList<>(partitions.values());
+        Map<Constraint<?>, Integer> lastIndexes = new IdentityHashMap<>();
+        for (int i = 0; i < constraints.size(); i++) {
+            lastIndexes.put(constraints.get(i), i);
+        }
+        result.sort(Comparator.comparing(partition -> lastIndexes.get(partition.get(partition.size() - 1))));
+        return result;
+    }
+
+    private static Variable<?> findRoot(Map<Variable<?>, Variable<?>> parents, Variable<?> variable) {
+        Variable<?> root = variable;
+        Variable<?> parent;
+        while ((parent = parents.get(root)) != null) {
+            root = parent;
+        }
+        // path compression
+        while (!variable.equals(root)) {
+            Variable<?> next = parents.get(variable);
+            parents.put(variable, root);
+            variable = next;
+        }
+        return root;
     }
 
     /**
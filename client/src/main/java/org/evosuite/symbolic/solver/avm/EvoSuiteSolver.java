@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -44,10 +45,19 @@ public final class EvoSuiteSolver extends Solver {
 
     static Logger log = LoggerFactory.getLogger(EvoSuiteSolver.class);
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The search changes the concrete values of the variables, so it works on
+     * a copy of the constraints, whose variables are not shared with queries
+     * solved on other threads.
+     */
     @Override
-    public SolverResult executeSolver(Collection<Constraint<?>> constraints)
+    public SolverResult executeSolver(Collection<Constraint<?>> query)
             throws SolverTimeoutException, SolverEmptyQueryException {
 
+        List<Constraint<?>> constraints = copyConstraints(query);
+
         long timeout = Properties.DSE_CONSTRAINT_SOLVER_TIMEOUT_MILLIS;
 
         long startTimeMillis = System.currentTimeMillis();
@@ -107,11 +117,9 @@ public final class EvoSuiteSolver extends Solver {
         if (distance <= 0) {
             log.debug("Distance is " + distance + ", found solution");
             Map<String, Object> new_model = getConcreteValues(variables);
-            setConcreteValues(variables, initialValues);
             SolverResult satResult = SolverResult.newSAT(new_model);
             return satResult;
         } else {
-            setConcreteValues(variables, initialValues);
             log.debug("Returning unknown, search was not successful");
             SolverResult unknownResult = SolverResult.newUnknown();
             return unknownResult;
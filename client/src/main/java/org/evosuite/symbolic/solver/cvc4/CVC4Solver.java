@@ -107,10 +107,15 @@ public final class CVC4Solver extends SmtSolver {
 
         String cmd = buildCVC4cmd(cvcTimeout);
 
-        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
         try {
-            launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
-            String output = stdout.toString("UTF-8");
+            String output;
+            if (Properties.DSE_SOLVER_SESSION) {
+                output = SmtSolverSession.solve(cmd, query, cvcTimeout);
+            } else {
+                ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+                launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
+                output = stdout.toString("UTF-8");
+            }
 
             if (output.startsWith("unknown")) {
                 logger.debug("timeout reached when using cvc4");
@@ -263,7 +268,12 @@ public final class CVC4Solver extends SmtSolver {
          * More details on both of these points can be found in Sections 5.2 - 5.4 of
          * http://homepage.cs.uiowa.edu/~ajreynol/thesis.pdf.
          */
-        cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+        if (Properties.DSE_SOLVER_SESSION) {
+            cmd += " --incremental"; // queries are solved with push/pop
+            cmd += " --tlimit-per=" + cvcTimeout; // set timeout of each query to cvcTimeout
+        } else {
+            cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+        }
         return cmd;
     }
 
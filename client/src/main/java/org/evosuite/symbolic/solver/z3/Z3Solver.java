@@ -83,15 +83,19 @@ public class Z3Solver extends SmtSolver {
 
         String z3Cmd = Properties.Z3_PATH + " -smt2 -in ";
 
-        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
         String output;
-        try {
-            launchNewSolvingProcess(z3Cmd, queryStr, (int) hard_timeout, stdout);
-            output = stdout.toString("UTF-8");
-        } catch (SolverErrorException ex) {
-            output = stdout.toString("UTF-8");
-            if (!output.startsWith("unsat")) {
-                throw ex;
+        if (Properties.DSE_SOLVER_SESSION) {
+            output = SmtSolverSession.solve(z3Cmd, query, hard_timeout);
+        } else {
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            try {
+                launchNewSolvingProcess(z3Cmd, queryStr, (int) hard_timeout, stdout);
+                output = stdout.toString("UTF-8");
+            } catch (SolverErrorException ex) {
+                output = stdout.toString("UTF-8");
+                if (!output.startsWith("unsat")) {
+                    throw ex;
+                }
             }
         }
 
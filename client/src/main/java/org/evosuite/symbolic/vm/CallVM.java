@@ -19,7 +19,9 @@
  */
 package org.evosuite.symbolic.vm;
 
+import org.evosuite.Properties;
 import org.evosuite.dse.AbstractVM;
+import org.evosuite.dse.VM;
 import org.evosuite.symbolic.LambdaUtils;
 import org.evosuite.symbolic.expr.Expression;
 import org.evosuite.symbolic.expr.Operator;
@@ -52,6 +54,17 @@ import java.util.*;
 public final class CallVM extends AbstractVM {
 
     public static final String STRING_CONCATENATION_INDY_PARAMETER_IDENTIFIER = "\u0001";
+
+    /**
+     * Uninstrumented classes whose methods do not keep any reference to their
+     * arguments.
+     */
+    private static final Set<String> NON_SHARING_CLASSES = new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.StringBuilder", "java.lang.StringBuffer",
+            "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double",
+            "java.lang.Math", "java.lang.Object"));
+
     /**
      * Environment
      */
@@ -171,6 +184,16 @@ public final class CallVM extends AbstractVM {
             return;
         }
 
+        if (Properties.DSE_SKIP_CONCRETE_CALLS && !conf.INIT.equals(methName) && isConcreteCall(methDesc)) {
+            /*
+             * Nothing symbolic can happen in the callee, so our caller handles
+             * its result as the result of uninstrumented code.
+             */
+            env.topFrame().invokeInstrumentedCode(false);
+            VM.getInstance().skipMethod(className, methName, methDesc);
+            return;
+        }
+
         if (env.topFrame().weInvokedInstrumentedCode() == false
                 || env.topFrame().weInvokedSyntheticLambdaCodeThatInvokesNonInstrCode()) {
             /** TODO: Stream API seems to need special treatment as the call stack is of the form:
@@ -503,6 +526,8 @@ public final class CallVM extends AbstractVM {
             boolean instrumented = !conf.isIgnored(className);
             env.topFrame().invokeInstrumentedCode(instrumented);
             env.topFrame().invokeLambdaSyntheticCodeThatInvokesNonInstrCode(false);
+            if (!instrumented)
+                shareUninstrumentedCallArguments(className.replace('/', '.'), methDesc);
         } else {
             methodCall(className, methName, methDesc);
         }
@@ -1090,9 +1115,27 @@ public final class CallVM extends AbstractVM {
         boolean instrumented = isIgnored(method);
         env.topFrame().invokeInstrumentedCode(instrumented);
         env.topFrame().invokeLambdaSyntheticCodeThatInvokesNonInstrCode(false);
+        if (!instrumented)
+            shareUninstrumentedCallArguments(method.getDeclaringClass().getName(), methDesc);
         return method;
     }
 
+    /**
+     * Uninstrumented code may store the references we pass to it anywhere.
+     * Only needed to know which calls can be skipped.
+     */
+    private void shareUninstrumentedCallArguments(String className, String methDesc) {
+        if (!Properties.DSE_SKIP_CONCRETE_CALLS || NON_SHARING_CLASSES.contains(className))
+            return;
+
+        Iterator<Operand> it = env.topFrame().operandStack.iterator();
+        for (int i = Type.getArgumentTypes(methDesc).length; i > 0 && it.hasNext(); i--) {
+            Operand arg = it.next();
+            if (arg instanceof ReferenceOperand)
+                env.heap.shareReference(((ReferenceOperand) arg).getReference());
+        }
+    }
+
     private boolean nullReferenceViolation(Object conc_receiver, ReferenceExpression symb_receiver) {
         return conc_receiver == null;
     }
@@ -1150,6 +1193,32 @@ public final class CallVM extends AbstractVM {
         }
     }
 
+    /**
+     * The method about to begin cannot reach any symbolic value: our caller
+     * directly invoked it with concrete arguments only (including the
+     * receiver), and no symbolic value is shared through the heap.
+     */
+    private boolean isConcreteCall(String methDesc) {
+        if (!callResultIsPushed() || env.heap.areSymbolicValuesShared())
+            return false;
+
+        Frame callerFrame = env.topFrame();
+        int nrArgs = Type.getArgumentTypes(methDesc).length + (callerFrame.invokeNeedsThis ? 1 : 0);
+        Iterator<Operand> it = callerFrame.operandStack.iterator();
+        for (int i = 0; i < nrArgs; i++) {
+            if (!it.hasNext())
+                return false;
+            Operand arg = it.next();
+            if (arg instanceof ReferenceOperand) {
+                if (env.heap.isSymbolic(((ReferenceOperand) arg).getReference()))
+                    return false;
+            } else if (OperandUtils.retrieveOperandExpression(arg).containsSymbolicVariable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private boolean callResultIsPushed() {
         return env.topFrame().weInvokedInstrumentedCode()
                 && !env.topFrame().weInvokedSyntheticLambdaCodeThatInvokesNonInstrCode();
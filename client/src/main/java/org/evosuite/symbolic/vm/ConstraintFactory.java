@@ -30,29 +30,29 @@ public abstract class ConstraintFactory {
 
     public static IntegerConstraint eq(IntegerValue left,
                                        IntegerValue right) {
-        return new IntegerConstraint(left, Comparator.EQ, right);
+        return ExpressionInterner.intern(new IntegerConstraint(left, Comparator.EQ, right));
     }
 
     public static IntegerConstraint neq(IntegerValue left,
                                         IntegerValue right) {
-        return new IntegerConstraint(left, Comparator.NE, right);
+        return ExpressionInterner.intern(new IntegerConstraint(left, Comparator.NE, right));
     }
 
     public static IntegerConstraint lt(IntegerValue left,
                                        IntegerValue right) {
-        return new IntegerConstraint(left, Comparator.LT, right);
+        return ExpressionInterner.intern(new IntegerConstraint(left, Comparator.LT, right));
 
     }
 
     public static IntegerConstraint lte(IntegerValue left,
                                         IntegerValue right) {
-        return new IntegerConstraint(left, Comparator.LE, right);
+        return ExpressionInterner.intern(new IntegerConstraint(left, Comparator.LE, right));
 
     }
 
     public static IntegerConstraint gte(IntegerValue left,
                                         IntegerValue right) {
-        return new IntegerConstraint(left, Comparator.GE, right);
+        return ExpressionInterner.intern(new IntegerConstraint(left, Comparator.GE, right));
 
     }
 }
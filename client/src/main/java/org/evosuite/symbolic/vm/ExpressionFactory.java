@@ -70,7 +70,7 @@ public abstract class ExpressionFactory {
         else if (value == 5)
             return ICONST_5;
 
-        return new IntegerConstant(value);
+        return ExpressionInterner.intern(new IntegerConstant(value));
     }
 
     public static RealConstant buildNewRealConstant(float x) {
@@ -85,11 +85,11 @@ public abstract class ExpressionFactory {
         else if (x == 2)
             return RCONST_2;
 
-        return new RealConstant(x);
+        return ExpressionInterner.intern(new RealConstant(x));
     }
 
     public static StringConstant buildNewStringConstant(String string) {
-        return new StringConstant(string.intern());
+        return ExpressionInterner.intern(new StringConstant(string.intern()));
     }
 
     public static IntegerValue add(IntegerValue left, IntegerValue right,
@@ -108,7 +108,7 @@ public abstract class ExpressionFactory {
 
         // can only optimize if left is a literal
         if (!(left instanceof IntegerConstant))
-            return new IntegerBinaryExpression(left, Operator.PLUS, right, con);
+            return ExpressionInterner.intern(new IntegerBinaryExpression(left, Operator.PLUS, right, con));
 
         /*
          * (add 0 x) --> x
@@ -138,12 +138,12 @@ public abstract class ExpressionFactory {
 
                 IntegerConstant a_plus_b = buildNewIntegerConstant(a + b);
 
-                return new IntegerBinaryExpression(a_plus_b, Operator.PLUS,
-                        add.getRightOperand(), con);
+                return ExpressionInterner.intern(new IntegerBinaryExpression(a_plus_b, Operator.PLUS,
+                        add.getRightOperand(), con));
             }
         }
 
-        return new IntegerBinaryExpression(left, Operator.PLUS, right, con);
+        return ExpressionInterner.intern(new IntegerBinaryExpression(left, Operator.PLUS, right, con));
     }
 
     public static RealValue add(RealValue left, RealValue right, double con) {
@@ -159,7 +159,7 @@ public abstract class ExpressionFactory {
                                                 RealValue left, double con) {
         // can only optimize if left is a literal
         if (!(left instanceof RealConstant))
-            return new RealBinaryExpression(left, Operator.PLUS, right, con);
+            return ExpressionInterner.intern(new RealBinaryExpression(left, Operator.PLUS, right, con));
 
         /*
          * (add 0 x) --> x
@@ -189,12 +189,12 @@ public abstract class ExpressionFactory {
 
                 RealConstant a_plus_b = buildNewRealConstant(a + b);
 
-                return new RealBinaryExpression(a_plus_b, Operator.PLUS,
-                        add.getRightOperand(), con);
+                return ExpressionInterner.intern(new RealBinaryExpression(a_plus_b, Operator.PLUS,
+                        add.getRightOperand(), con));
             }
         }
 
-        return new RealBinaryExpression(left, Operator.PLUS, right, con);
+        return ExpressionInterner.intern(new RealBinaryExpression(left, Operator.PLUS, right, con));
 
     }
 
@@ -235,8 +235,8 @@ public abstract class ExpressionFactory {
 
         }
 
-        return new IntegerBinaryExpression(left, Operator.MUL, right,
-                con);
+        return ExpressionInterner.intern(new IntegerBinaryExpression(left, Operator.MUL, right,
+                con));
     }
 
     public static RealValue mul(RealValue left, RealValue right, double con) {
@@ -274,7 +274,7 @@ public abstract class ExpressionFactory {
 
         }
 
-        return new RealBinaryExpression(left, Operator.MUL, right, con);
+        return ExpressionInterner.intern(new RealBinaryExpression(left, Operator.MUL, right, con));
     }
 
     public static RealValue div(RealValue left, RealValue right, double con) {
@@ -285,7 +285,7 @@ public abstract class ExpressionFactory {
         if (left instanceof RealConstant && left.getConcreteValue() == 0)
             return buildNewRealConstant(0);
 
-        return new RealBinaryExpression(left, Operator.DIV, right, con);
+        return ExpressionInterner.intern(new RealBinaryExpression(left, Operator.DIV, right, con));
     }
 
     public static IntegerValue div(IntegerValue left, IntegerValue right,
@@ -297,7 +297,7 @@ public abstract class ExpressionFactory {
         if (left instanceof IntegerConstant && left.getConcreteValue() == 0)
             return buildNewIntegerConstant(0);
 
-        return new IntegerBinaryExpression(left, Operator.DIV, right, con);
+        return ExpressionInterner.intern(new IntegerBinaryExpression(left, Operator.DIV, right, con));
     }
 
     public static RealValue rem(RealValue left, RealValue right, double con) {
@@ -308,7 +308,7 @@ public abstract class ExpressionFactory {
         if (left instanceof RealConstant && left.getConcreteValue() == 0)
             return buildNewRealConstant(0);
 
-        return new RealBinaryExpression(left, Operator.REM, right, con);
+        return ExpressionInterner.intern(new RealBinaryExpression(left, Operator.REM, right, con));
     }
 
     public static IntegerValue rem(IntegerValue left, IntegerValue right,
@@ -320,7 +320,7 @@ public abstract class ExpressionFactory {
         if (left instanceof IntegerConstant && left.getConcreteValue() == 0)
             return buildNewIntegerConstant(0);
 
-        return new IntegerBinaryExpression(left, Operator.REM, right, con);
+        return ExpressionInterner.intern(new IntegerBinaryExpression(left, Operator.REM, right, con));
     }
 
     public static ReferenceConstant buildNewNullExpression() {
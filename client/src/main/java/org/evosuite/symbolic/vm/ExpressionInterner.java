@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.vm;
+
+import org.evosuite.symbolic.expr.BinaryExpression;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.UnaryExpression;
+import org.evosuite.symbolic.expr.Variable;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hash-consing of the expressions and constraints built by
+ * {@link ExpressionFactory} and {@link ConstraintFactory}: a node is shared with
+ * a previously built one if it has the same operator and the very same
+ * operands, so that long path conditions do not keep a copy of the same
+ * sub-expression for each instruction, and comparing shared nodes stops at
+ * reference equality.
+ * <p>
+ * Operands are compared by reference, not with <code>equals</code>, because
+ * <code>equals</code> identifies variables by name and ignores the concrete
+ * value of non-literal nodes, whereas each execution has its own variables and
+ * relies on the concrete values. For the same reason, the concrete values of
+ * two shared expressions must be equal, and variables are never shared.
+ * <p>
+ * The pool is cleared once it reaches {@link #MAX_SIZE} nodes.
+ */
+public final class ExpressionInterner {
+
+    public static final int MAX_SIZE = 100_000;
+
+    private static final ConcurrentHashMap<Key, Object> pool = new ConcurrentHashMap<>();
+
+    private ExpressionInterner() {
+    }
+
+    /**
+     * Returns the shared expression with the same operator, operands and
+     * concrete value as the given one. The given expression becomes the shared
+     * one if there is none yet.
+     *
+     * @param expr
+     * @param <E>
+     * @return the shared expression
+     */
+    public static <E extends Expression<?>> E intern(E expr) {
+        if (expr instanceof Variable) {
+            return expr;
+        }
+        Object[] operands;
+        if (expr instanceof BinaryExpression) {
+            BinaryExpression<?> binary = (BinaryExpression<?>) expr;
+            operands = new Object[]{binary.getLeftOperand(), binary.getRightOperand()};
+        } else if (expr instanceof UnaryExpression) {
+            operands = new Object[]{((UnaryExpression<?>) expr).getOperand()};
+        } else if (!expr.containsSymbolicVariable()) {
+            operands = new Object[0];
+        } else {
+            // the operands of this kind of expression are not known
+            return expr;
+        }
+        return internKey(new Key(expr, expr.getConcreteValue(), operands));
+    }
+
+    /**
+     * Returns the shared constraint with the same comparator and operands as
+     * the given one.
+     *
+     * @param constraint
+     * @param <C>
+     * @return the shared constraint
+     */
+    public static <C extends Constraint<?>> C intern(C constraint) {
+        return internKey(new Key(constraint, null,
+                new Object[]{constraint.getLeftOperand(), constraint.getRightOperand()}));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T internKey(Key key) {
+        Object shared = pool.get(key);
+        if (shared != null) {
+            return (T) shared;
+        }
+        if (pool.size() >= MAX_SIZE) {
+            pool.clear();
+        }
+        shared = pool.putIfAbsent(key, key.node);
+        return (T) (shared == null ? key.node : shared);
+    }
+
+    /**
+     * @return the number of nodes currently shared
+     */
+    public static int size() {
+        return pool.size();
+    }
+
+    public static void clear() {
+        pool.clear();
+    }
+
+    private static final class Key {
+
+        private final Object node;
+
+        private final Object concreteValue;
+
+        private final Object[] operands;
+
+        private final int hash;
+
+        Key(Object node, Object concreteValue, Object[] operands) {
+            this.node = node;
+            this.concreteValue = concreteValue;
+            this.operands = operands;
+            this.hash = 31 * node.hashCode() + Objects.hashCode(concreteValue);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            if (hash != other.hash
+                    || node.getClass() != other.node.getClass()
+                    || operands.length != other.operands.length
+                    || !Objects.equals(concreteValue, other.concreteValue)) {
+                return false;
+            }
+            for (int i = 0; i < operands.length; i++) {
+                if (operands[i] != other.operands[i]) {
+                    return false;
+                }
+            }
+            // with the same operands, only compares the operator or the literal
+            return node.equals(other.node);
+        }
+    }
+}
@@ -466,6 +466,7 @@ public final class HeapVM extends AbstractVM {
         } else if (value_operand instanceof ReferenceOperand) {
 
             // NonNullReference are not stored in the symbolic heap fields
+            env.heap.shareReference(((ReferenceOperand) value_operand).getReference());
             return;
 
         }
@@ -1214,6 +1215,7 @@ public final class HeapVM extends AbstractVM {
             env.heap.arrayStore(conc_array, symb_array_reference, symb_index, stringValue);
         } else {
             //TODO: implement general objects
+            env.heap.shareReference(symb_value);
         }
 
         // NonNullReference are not stored in the symbolic heap fields
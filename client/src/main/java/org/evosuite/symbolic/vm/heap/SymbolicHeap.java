@@ -39,7 +39,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author galeotti
@@ -103,6 +105,19 @@ public final class SymbolicHeap {
      */
     private final Map<FieldKey, Expression<?>> symb_static_fields = new HashMap<>();
 
+    /**
+     * References with a symbolic value stored in some of their fields.
+     */
+    private final Set<ReferenceExpression> symbolicReferences = new HashSet<>();
+
+    /**
+     * Some symbolic value may be reached from a static field, an array or
+     * another object, and not only from the reference that holds it. Since
+     * the heap does not keep track of where references are stored, this is
+     * never reset.
+     */
+    private boolean symbolicValuesShared = false;
+
     /**
      * Constructor
      */
@@ -153,6 +168,7 @@ public final class SymbolicHeap {
             symb_field.remove(symb_receiver);
         } else {
             symb_field.put(symb_receiver, symb_value);
+            updateSymbolicReferences(fieldName, symb_receiver, symb_value);
         }
     }
 
@@ -178,6 +194,7 @@ public final class SymbolicHeap {
             symb_field.remove(symb_receiver);
         } else {
             symb_field.put(symb_receiver, symb_value);
+            updateSymbolicReferences(fieldName, symb_receiver, symb_value);
         }
     }
 
@@ -276,11 +293,16 @@ public final class SymbolicHeap {
 
     public void putStaticField(String owner, String name, Expression<?> symb_value) {
 
+        if (symb_value instanceof ReferenceExpression) {
+            shareReference((ReferenceExpression) symb_value);
+        }
+
         FieldKey k = new FieldKey(owner, name);
         if (symb_value == null || !symb_value.containsSymbolicVariable()) {
             symb_static_fields.remove(k);
         } else {
             symb_static_fields.put(k, symb_value);
+            symbolicValuesShared = true;
         }
 
     }
@@ -495,6 +517,7 @@ public final class SymbolicHeap {
      */
     public void arrayStore(Object concreteArray, ReferenceExpression symbolicArray, IntegerValue symbolicIndex, RealValue symbolicValue) {
         symbolicArrays.arrayStore(concreteArray, symbolicArray, symbolicIndex, symbolicValue);
+        updateSymbolicArrays(symbolicIndex, symbolicValue);
     }
 
     /**
@@ -506,6 +529,7 @@ public final class SymbolicHeap {
      */
     public void arrayStore(Object concreteArray, ReferenceExpression symbolicArray, IntegerValue symbolicIndex, StringValue symbolicValue) {
         symbolicArrays.arrayStore(concreteArray, symbolicArray, symbolicIndex, symbolicValue);
+        updateSymbolicArrays(symbolicIndex, symbolicValue);
     }
 
     /**
@@ -517,6 +541,7 @@ public final class SymbolicHeap {
      */
     public void arrayStore(Object concreteArray, ReferenceExpression symbolicArray, IntegerValue symbolicIndex, IntegerValue symbolicValue) {
         symbolicArrays.arrayStore(concreteArray, symbolicArray, symbolicIndex, symbolicValue);
+        updateSymbolicArrays(symbolicIndex, symbolicValue);
     }
 
     /**
@@ -528,8 +553,69 @@ public final class SymbolicHeap {
      */
     public void arrayStore(Object concreteArray, ReferenceExpression symbolicArray, IntegerValue symbolicIndex, ReferenceExpression symbolicValue) {
         symbolicArrays.arrayStore(concreteArray, symbolicArray, symbolicIndex, symbolicValue);
+        updateSymbolicArrays(symbolicIndex, symbolicValue);
+    }
+
+
+    /******** Symbolic Values Tracking *******/
+
+    /**
+     * Returns if the reference is symbolic or holds some symbolic value in its
+     * fields.
+     *
+     * @param symbolicReference
+     * @return true if the reference is symbolic or holds a symbolic value
+     */
+    public boolean isSymbolic(ReferenceExpression symbolicReference) {
+        return symbolicReference.containsSymbolicVariable() || symbolicReferences.contains(symbolicReference);
+    }
+
+    /**
+     * The reference is stored where other code may reach it (a field, an
+     * array, uninstrumented code, etc.).
+     *
+     * @param symbolicReference
+     */
+    public void shareReference(ReferenceExpression symbolicReference) {
+        if (symbolicReference != null && isSymbolic(symbolicReference)) {
+            symbolicValuesShared = true;
+        }
+    }
+
+    /**
+     * Returns if some symbolic value may be reached from a static field, an
+     * array or another object. Otherwise, code that only receives references
+     * that are not symbolic cannot reach any symbolic value.
+     *
+     * @return true if some symbolic value may be shared
+     */
+    public boolean areSymbolicValuesShared() {
+        return symbolicValuesShared;
     }
 
+    private void updateSymbolicReferences(String fieldName, ReferenceExpression symb_receiver, Expression<?> symb_value) {
+        if (symb_value instanceof ReferenceExpression) {
+            shareReference((ReferenceExpression) symb_value);
+        }
+        if (symb_value.containsSymbolicVariable()) {
+            symbolicReferences.add(symb_receiver);
+            // The fields of the models of JDK classes (i.e. $stringValue, etc.)
+            // hold the value of the object itself
+            if (!fieldName.startsWith("$")) {
+                symbolicValuesShared = true;
+            }
+        }
+    }
+
+    private void updateSymbolicArrays(IntegerValue symbolicIndex, Expression<?> symbolicValue) {
+        if (symbolicValue instanceof ReferenceExpression) {
+            shareReference((ReferenceExpression) symbolicValue);
+        }
+        if (symbolicIndex.containsSymbolicVariable()
+                || (symbolicValue != null && symbolicValue.containsSymbolicVariable())) {
+            symbolicValuesShared = true;
+        }
+    }
 
     /******** Types Implementation *******/
 
@@ -20,6 +20,7 @@
 package org.evosuite.testcase;
 
 import org.apache.commons.lang3.reflect.MethodUtils;
+import org.evosuite.Properties;
 import org.evosuite.assertion.Assertion;
 import org.evosuite.assertion.InspectorAssertion;
 import org.evosuite.assertion.PrimitiveFieldAssertion;
@@ -28,6 +29,7 @@ import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.runtime.util.Inputs;
 import org.evosuite.setup.TestClusterUtils;
 import org.evosuite.testcase.execution.CodeUnderTestException;
+import org.evosuite.testcase.execution.ExecutionCheckpoint;
 import org.evosuite.testcase.execution.Scope;
 import org.evosuite.testcase.statements.*;
 import org.evosuite.testcase.statements.environment.AccessedEnvironment;
@@ -44,7 +46,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
@@ -88,14 +92,249 @@ public class DefaultTestCase implements TestCase, Serializable {
 
     private int id;
 
+    /**
+     * Guards the hand-over of the statements of this test case to its lazy
+     * clones. Clones only ever share the statements of a test case that is
+     * not itself a lazy clone, so unrelated tests do not contend for a lock.
+     */
+    private transient Object lazyCloneLock = new Object();
+
+    /**
+     * Set while the statements of this test case are copied into a lazy
+     * clone, so that reading them does not count as an access
+     */
+    private transient boolean copyingStatements = false;
+
+    /**
+     * The list backing {@link #statements}
+     */
+    private final StatementList statementList;
+
+    /**
+     * The test case this is a lazy clone of, or null if the statements of
+     * this test case have been copied
+     */
+    private transient volatile DefaultTestCase source = null;
+
+    /**
+     * Lazy clones that still share the statements of this test case
+     */
+    private transient List<WeakReference<DefaultTestCase>> lazyClones = null;
+
+    /**
+     * Whether no statement of this test case has been handed out since it
+     * was created by cloning, which makes it safe to share the statements
+     */
+    private transient volatile boolean sealed = false;
+
+    /**
+     * State of the last execution after a prefix of the statements
+     */
+    private transient ExecutionCheckpoint executionCheckpoint = null;
+
     /**
      * Constructs an empty test case, i.e., initially containing no statements.
      */
     public DefaultTestCase() {
-        statements = new ListenableList<>(new ArrayList<>());
+        statementList = new StatementList(this);
+        statements = new ListenableList<>(statementList);
         id = idGenerator.getAndIncrement();
     }
 
+    /**
+     * The statements of a test case. While the test case is a lazy clone,
+     * the size is read from the source, and any other access first copies
+     * the statements of the source.
+     */
+    private static final class StatementList extends AbstractList<Statement>
+            implements RandomAccess, Serializable {
+
+        private static final long serialVersionUID = -4470125946013271581L;
+
+        private final DefaultTestCase owner;
+
+        private final ArrayList<Statement> list = new ArrayList<>();
+
+        StatementList(DefaultTestCase owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Returns the statements without copying them, for reading only
+         */
+        List<Statement> view() {
+            DefaultTestCase source = owner.source;
+            return source == null ? list : source.statementList.list;
+        }
+
+        @Override
+        public int size() {
+            return view().size();
+        }
+
+        @Override
+        public Statement get(int index) {
+            owner.access();
+            return list.get(index);
+        }
+
+        @Override
+        public Statement set(int index, Statement element) {
+            owner.access();
+            return list.set(index, element);
+        }
+
+        @Override
+        public void add(int index, Statement element) {
+            owner.access();
+            list.add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public Statement remove(int index) {
+            owner.access();
+            modCount++;
+            return list.remove(index);
+        }
+
+        @Override
+        public int hashCode() {
+            return view().hashCode();
+        }
+
+        /**
+         * Copies the statements of the source into the list. This is not a
+         * structural modification, as the size of the list stays the same,
+         * so iterators that are open over the list stay valid.
+         */
+        void fill(DefaultTestCase from) {
+            int expectedModCount = modCount;
+            copyStatements(from, owner);
+            modCount = expectedModCount;
+        }
+    }
+
+    /**
+     * Returns the statements without copying them, for reading only
+     */
+    private List<Statement> readStatements() {
+        return statementList == null ? statements : statementList.view();
+    }
+
+    /**
+     * Called before the statements are accessed in a way that could expose or
+     * change them. Copies the statements if this test case is a lazy clone,
+     * and copies them into all lazy clones of this test case.
+     */
+    private void access() {
+        if (source == null && !sealed) {
+            return;
+        }
+        copyFromSource();
+        if (!sealed) {
+            return;
+        }
+        synchronized (lazyCloneLock) {
+            if (copyingStatements) {
+                return;
+            }
+            if (lazyClones != null) {
+                List<WeakReference<DefaultTestCase>> clones = lazyClones;
+                lazyClones = null;
+                for (WeakReference<DefaultTestCase> reference : clones) {
+                    DefaultTestCase clone = reference.get();
+                    if (clone != null && clone.source == this) {
+                        clone.materialize();
+                    }
+                }
+            }
+            sealed = false;
+        }
+    }
+
+    /**
+     * Copies the statements of the source into this test case, if it is a
+     * lazy clone
+     */
+    private void copyFromSource() {
+        DefaultTestCase from = source;
+        if (from == null) {
+            return;
+        }
+        synchronized (from.lazyCloneLock) {
+            if (source == from) {
+                materialize();
+            }
+        }
+    }
+
+    /**
+     * Copies the statements of the source into this lazy clone. Requires the
+     * lock of the source.
+     */
+    private void materialize() {
+        DefaultTestCase from = source;
+        source = null;
+        from.copyingStatements = true;
+        try {
+            statementList.fill(from);
+        } finally {
+            from.copyingStatements = false;
+        }
+        sealed = true;
+    }
+
+    /**
+     * Makes the given empty test case a lazy clone of this one, if the
+     * statements of this test case can be shared
+     *
+     * @return whether the statements are shared
+     */
+    private boolean shareStatements(DefaultTestCase clone) {
+        if (source == null && !sealed) {
+            return false;
+        }
+        DefaultTestCase root = source != null ? source : this;
+        synchronized (root.lazyCloneLock) {
+            if (root != this && source != root) {
+                // copied in the meantime
+                return false;
+            }
+            if (!root.sealed) {
+                return false;
+            }
+            if (root.lazyClones == null) {
+                root.lazyClones = new ArrayList<>();
+            } else if (root.lazyClones.size() >= 8 && Integer.bitCount(root.lazyClones.size()) == 1) {
+                // forget clones that were collected or copied
+                root.lazyClones.removeIf(reference -> {
+                    DefaultTestCase other = reference.get();
+                    return other == null || other.source != root;
+                });
+            }
+            root.lazyClones.add(new WeakReference<>(clone));
+            clone.source = root;
+            return true;
+        }
+    }
+
+    /**
+     * Tells whether this test case still shares the statements of another one
+     */
+    boolean isLazyClone() {
+        return source != null;
+    }
+
+    private static void copyStatements(DefaultTestCase from, DefaultTestCase to) {
+        for (Statement s : from.statements) {
+            Statement copy = s.clone(to);
+            to.statements.add(copy);
+            copy.setRetval(s.getReturnValue().clone(to));
+            copy.setAssertions(s.copyAssertions(to, 0));
+        }
+    }
+
     public int getID() {
         return id;
     }
@@ -376,14 +615,14 @@ public class DefaultTestCase implements TestCase, Serializable {
 		}
 		*/
 
-        for (Statement s : statements) {
-            Statement copy = s.clone(t);
-            t.statements.add(copy);
-            copy.setRetval(s.getReturnValue().clone(t));
-            copy.setAssertions(s.copyAssertions(t, 0));
+        // The statements are only copied when either test case is accessed
+        if (!Properties.LAZY_TEST_CLONING || !shareStatements(t)) {
+            copyStatements(this, t);
+            t.sealed = true;
         }
         t.coveredGoals.addAll(coveredGoals);
         t.accessedEnvironment.copyFrom(accessedEnvironment);
+        t.executionCheckpoint = executionCheckpoint;
         t.isFailing = isFailing;
         t.id = idGenerator.getAndIncrement(); //always create new ID when making a clone
         //t.exception_statement = exception_statement;
@@ -415,11 +654,13 @@ public class DefaultTestCase implements TestCase, Serializable {
         if (statements == null) {
             return other.statements == null;
         } else {
-            if (statements.size() != other.statements.size())
+            List<Statement> statements = readStatements();
+            List<Statement> otherStatements = other.readStatements();
+            if (statements.size() != otherStatements.size())
                 return false;
             // if (!statements.equals(other.statements))
             for (int i = 0; i < statements.size(); i++) {
-                if (!statements.get(i).equals(other.statements.get(i))) {
+                if (!statements.get(i).equals(otherStatements.get(i))) {
                     return false;
                 }
             }
@@ -520,6 +761,16 @@ public class DefaultTestCase implements TestCase, Serializable {
         return accessedEnvironment;
     }
 
+    @Override
+    public ExecutionCheckpoint getExecutionCheckpoint() {
+        return executionCheckpoint;
+    }
+
+    @Override
+    public void setExecutionCheckpoint(ExecutionCheckpoint checkpoint) {
+        this.executionCheckpoint = checkpoint;
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.testcase.TestCase#getDependencies(org.evosuite.testcase.VariableReference)
      */
@@ -1212,10 +1463,16 @@ public class DefaultTestCase implements TestCase, Serializable {
     }
 
 
+    private void writeObject(ObjectOutputStream oos) throws IOException {
+        copyFromSource();
+        oos.defaultWriteObject();
+    }
+
     private void readObject(ObjectInputStream ois) throws ClassNotFoundException,
             IOException {
         ois.defaultReadObject();
 
+        lazyCloneLock = new Object();
         coveredGoals = new LinkedHashSet<>();
         contractViolations = new LinkedHashSet<>();
     }
@@ -100,6 +100,18 @@ public abstract class ExecutableChromosome<E extends ExecutableChromosome<E>> ex
         lastMutationResult.clear();
     }
 
+    /**
+     * Drops the parts of the cached results that can be re-derived by executing
+     * this chromosome again, to bound the memory held by the population. The
+     * results of mutants are dropped altogether.
+     */
+    public void compactCachedResults() {
+        if (lastExecutionResult != null && !isChanged()) {
+            lastExecutionResult.compact();
+        }
+        lastMutationResult.clear();
+    }
+
     /**
      * <p>copyCachedResults</p>
      *
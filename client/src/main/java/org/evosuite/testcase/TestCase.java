@@ -22,6 +22,7 @@ package org.evosuite.testcase;
 import org.evosuite.assertion.Assertion;
 import org.evosuite.contracts.ContractViolation;
 import org.evosuite.ga.ConstructionFailedException;
+import org.evosuite.testcase.execution.ExecutionCheckpoint;
 import org.evosuite.testcase.execution.Scope;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testcase.statements.environment.AccessedEnvironment;
@@ -148,6 +149,22 @@ public interface TestCase extends Iterable<Statement>, Cloneable, Listenable<Voi
      */
     AccessedEnvironment getAccessedEnvironment();
 
+    /**
+     * Retrieve the state that the last execution of this test, or of the test
+     * it was cloned from, reached after a prefix of its statements
+     *
+     * @return a {@link org.evosuite.testcase.execution.ExecutionCheckpoint} object, or null
+     */
+    ExecutionCheckpoint getExecutionCheckpoint();
+
+    /**
+     * Keep the state after a prefix of the statements, such that later
+     * executions of this test or its clones can resume from it
+     *
+     * @param checkpoint a {@link org.evosuite.testcase.execution.ExecutionCheckpoint} object, or null
+     */
+    void setExecutionCheckpoint(ExecutionCheckpoint checkpoint);
+
     /**
      * Get all assertions that exist for this test case
      *
@@ -72,9 +72,12 @@ public class TestFactory {
     private static final Logger logger = LoggerFactory.getLogger(TestFactory.class);
 
     /**
-     * Keep track of objects we are already trying to generate to avoid cycles
+     * Keep track of objects we are already trying to generate to avoid cycles.
+     * Every thread has its own set, as the islands of an island model generate
+     * tests at the same time.
      */
-    private final transient Set<GenericAccessibleObject<?>> currentRecursion = new LinkedHashSet<>();
+    private final transient ThreadLocal<Set<GenericAccessibleObject<?>>> currentRecursion =
+            ThreadLocal.withInitial(LinkedHashSet::new);
 
     /**
      * Singleton instance
@@ -91,7 +94,7 @@ public class TestFactory {
      * We keep track of calls already attempted to avoid infinite recursion
      */
     public void reset() {
-        currentRecursion.clear();
+        currentRecursion.get().clear();
         reflectionFactory = null;
     }
 
@@ -120,7 +123,7 @@ public class TestFactory {
         logger.trace("addCallFor {}", callee.getName());
 
         int previousLength = test.size(); // length of the test case before inserting new statements
-        currentRecursion.clear();
+        currentRecursion.get().clear();
 
         try {
             if (call.isMethod()) {
@@ -414,7 +417,7 @@ public class TestFactory {
         if (position <= callee.getStPosition())
             throw new ConstructionFailedException("Cannot insert call on object before the object is defined");
 
-        currentRecursion.clear();
+        currentRecursion.get().clear();
 
         FieldReference fieldVar = new FieldReference(test, field, callee);
         int length = test.size();
@@ -535,7 +538,7 @@ public class TestFactory {
             throw new ConstructionFailedException("Cannot insert call on object before the object is defined");
         }
 
-        currentRecursion.clear();
+        currentRecursion.get().clear();
         int length = test.size();
 
         boolean allowNull = true;
@@ -584,7 +587,7 @@ public class TestFactory {
      */
     public void appendStatement(TestCase test, Statement statement)
             throws ConstructionFailedException {
-        currentRecursion.clear();
+        currentRecursion.get().clear();
 
         if (statement instanceof ConstructorStatement) {
             addConstructor(test, ((ConstructorStatement) statement).getConstructor(),
@@ -832,7 +835,7 @@ public class TestFactory {
         }
 
         GenericAccessibleObject<?> o = TestCluster.getInstance().getRandomGenerator(choice);
-        currentRecursion.add(o);
+        currentRecursion.get().add(o);
 
         if (o == null) {
 
@@ -1061,11 +1064,11 @@ public class TestFactory {
 
         objects.remove(statement.getReturnValue());
         logger.debug("Found assignable objects: " + objects.size());
-        Set<GenericAccessibleObject<?>> currentArrayRecursion = new LinkedHashSet<>(currentRecursion);
+        Set<GenericAccessibleObject<?>> currentArrayRecursion = new LinkedHashSet<>(currentRecursion.get());
 
         for (int i = 0; i < statement.size(); i++) {
-            currentRecursion.clear();
-            currentRecursion.addAll(currentArrayRecursion);
+            currentRecursion.get().clear();
+            currentRecursion.get().addAll(currentArrayRecursion);
             logger.debug("Assigning array index " + i);
             int oldLength = test.size();
             assignArray(test, reference, i, position, objects);
@@ -1252,8 +1255,8 @@ public class TestFactory {
             //regular creation
 
             GenericAccessibleObject<?> o = TestCluster.getInstance().getRandomGenerator(
-                    clazz, currentRecursion, test, position, generatorRefToExclude, recursionDepth);
-            currentRecursion.add(o);
+                    clazz, currentRecursion.get(), test, position, generatorRefToExclude, recursionDepth);
+            currentRecursion.get().add(o);
 
             if (o == null) {
                 if (canReuseVariables) {
@@ -2103,7 +2106,7 @@ public class TestFactory {
     public int insertRandomCallOnEnvironment(TestCase test, int lastValidPosition) {
 
         int previousLength = test.size();
-        currentRecursion.clear();
+        currentRecursion.get().clear();
 
         List<GenericAccessibleObject<?>> shuffledOptions = TestCluster.getInstance().getRandomizedCallsToEnvironment();
         if (shuffledOptions == null || shuffledOptions.isEmpty()) {
@@ -2174,7 +2177,7 @@ public class TestFactory {
     public boolean insertRandomCall(TestCase test, int position) {
         int previousLength = test.size();
         String name = "";
-        currentRecursion.clear();
+        currentRecursion.get().clear();
         logger.debug("Inserting random call at position {}", position);
         try {
             if (reflectionFactory == null) {
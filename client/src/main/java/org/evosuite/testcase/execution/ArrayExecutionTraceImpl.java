@@ -0,0 +1,583 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.instrumentation.LinePool;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Execution trace that keeps branch distances and line coverage in dense
+ * primitive arrays indexed by the branch id of the
+ * {@link org.evosuite.coverage.branch.BranchPool} and by the line id of the
+ * {@link org.evosuite.instrumentation.LinePool}, rather than in synchronized
+ * maps of boxed values.
+ * <p>
+ * The ids of all touched entries are kept in a separate list, such that
+ * {@link #clear()}, {@link #clone()} and the map views returned by the
+ * getters only cost time proportional to the number of branches and lines
+ * that were actually executed. All other trace information (method calls,
+ * data flow, mutation, contexts) is handled by {@link ExecutionTraceImpl}.
+ */
+public class ArrayExecutionTraceImpl extends ExecutionTraceImpl {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Branch information, indexed by branch id
+    private boolean[] branchSeen;
+    private int[] predicateCount;
+    private int[] trueCount;
+    private int[] falseCount;
+    private double[] trueDistance;
+    private double[] falseDistance;
+    // Clones do not carry the distance sums over, so they are tracked separately
+    private boolean[] branchSummed;
+    private double[] trueDistanceSum;
+    private double[] falseDistanceSum;
+
+    private int[] touchedBranches;
+    private int numTouchedBranches = 0;
+    private int maxTouchedBranch = 0;
+
+    // Line information, indexed by line id
+    private int[] lineCount;
+
+    private int[] touchedLines;
+    private int numTouchedLines = 0;
+    private int maxTouchedLine = 0;
+
+    /**
+     * Nested coverage map, only materialised when requested
+     */
+    private Map<String, Map<String, Map<Integer, Integer>>> coverageData = null;
+
+    /**
+     * <p>
+     * Constructor for ArrayExecutionTraceImpl.
+     * </p>
+     */
+    public ArrayExecutionTraceImpl() {
+        this(INITIAL_CAPACITY, INITIAL_CAPACITY);
+    }
+
+    private ArrayExecutionTraceImpl(int branchCapacity, int lineCapacity) {
+        super();
+        allocateBranches(branchCapacity);
+        allocateLines(lineCapacity);
+    }
+
+    private void allocateBranches(int capacity) {
+        branchSeen = new boolean[capacity];
+        predicateCount = new int[capacity];
+        trueCount = new int[capacity];
+        falseCount = new int[capacity];
+        trueDistance = new double[capacity];
+        falseDistance = new double[capacity];
+        branchSummed = new boolean[capacity];
+        trueDistanceSum = new double[capacity];
+        falseDistanceSum = new double[capacity];
+        touchedBranches = new int[Math.min(capacity, INITIAL_CAPACITY)];
+    }
+
+    private void allocateLines(int capacity) {
+        lineCount = new int[capacity];
+        touchedLines = new int[Math.min(capacity, INITIAL_CAPACITY)];
+    }
+
+    private static int grow(int capacity, int index) {
+        int newCapacity = Math.max(capacity, 1);
+        while (newCapacity <= index)
+            newCapacity *= 2;
+        return newCapacity;
+    }
+
+    private void ensureBranchCapacity(int branch) {
+        if (branch < branchSeen.length)
+            return;
+        int capacity = grow(branchSeen.length, branch);
+        branchSeen = Arrays.copyOf(branchSeen, capacity);
+        predicateCount = Arrays.copyOf(predicateCount, capacity);
+        trueCount = Arrays.copyOf(trueCount, capacity);
+        falseCount = Arrays.copyOf(falseCount, capacity);
+        trueDistance = Arrays.copyOf(trueDistance, capacity);
+        falseDistance = Arrays.copyOf(falseDistance, capacity);
+        branchSummed = Arrays.copyOf(branchSummed, capacity);
+        trueDistanceSum = Arrays.copyOf(trueDistanceSum, capacity);
+        falseDistanceSum = Arrays.copyOf(falseDistanceSum, capacity);
+    }
+
+    private void ensureLineCapacity(int lineId) {
+        if (lineId < lineCount.length)
+            return;
+        lineCount = Arrays.copyOf(lineCount, grow(lineCount.length, lineId));
+    }
+
+    private void touchBranch(int branch) {
+        if (numTouchedBranches == touchedBranches.length)
+            touchedBranches = Arrays.copyOf(touchedBranches, touchedBranches.length * 2);
+        touchedBranches[numTouchedBranches++] = branch;
+        if (branch > maxTouchedBranch)
+            maxTouchedBranch = branch;
+    }
+
+    private void touchLine(int lineId) {
+        if (numTouchedLines == touchedLines.length)
+            touchedLines = Arrays.copyOf(touchedLines, touchedLines.length * 2);
+        touchedLines[numTouchedLines++] = lineId;
+        if (lineId > maxTouchedLine)
+            maxTouchedLine = lineId;
+    }
+
+    private boolean isTouchedBranch(Object key) {
+        if (!(key instanceof Integer))
+            return false;
+        int branch = (Integer) key;
+        return branch >= 0 && branch < branchSeen.length && branchSeen[branch];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Add branch to currently active method call
+     */
+    @Override
+    public void branchPassed(int branch, int bytecode_id, double true_distance, double false_distance) {
+
+        assert (true_distance >= 0.0);
+        assert (false_distance >= 0.0);
+        updateTopStackMethodCall(branch, bytecode_id, true_distance, false_distance);
+        trackGradientBranch(branch, true_distance, false_distance);
+
+        ensureBranchCapacity(branch);
+        if (!branchSeen[branch]) {
+            branchSeen[branch] = true;
+            trueDistance[branch] = true_distance;
+            falseDistance[branch] = false_distance;
+            touchBranch(branch);
+        } else {
+            trueDistance[branch] = Math.min(trueDistance[branch], true_distance);
+            falseDistance[branch] = Math.min(falseDistance[branch], false_distance);
+        }
+
+        if (!branchSummed[branch]) {
+            branchSummed[branch] = true;
+            trueDistanceSum[branch] = true_distance;
+            falseDistanceSum[branch] = false_distance;
+        } else {
+            trueDistanceSum[branch] += true_distance;
+            falseDistanceSum[branch] += false_distance;
+        }
+
+        if (traceCoverage) {
+            predicateCount[branch]++;
+            if (true_distance == 0.0)
+                trueCount[branch]++;
+            if (false_distance == 0.0)
+                falseCount[branch]++;
+        }
+
+        if (Properties.TRACK_COVERED_GRADIENT_BRANCHES || Properties.BRANCH_COMPARISON_TYPES)
+            trackBranchTypes(branch, trueCount[branch] > 0, falseCount[branch] > 0);
+
+        trackBranchContext(branch, true_distance, false_distance);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Add line to currently active method call
+     */
+    @Override
+    public void linePassed(String className, String methodName, int line) {
+        if (traceCalls && !updateTopStackLine(className, methodName, line)) {
+            return;
+        }
+        if (traceCoverage) {
+            int lineId = LinePool.getLineId(className, methodName, line);
+            ensureLineCapacity(lineId);
+            if (lineCount[lineId]++ == 0)
+                touchLine(lineId);
+            coverageData = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reset to 0, only visiting the entries that were touched
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        for (int i = 0; i < numTouchedBranches; i++) {
+            int branch = touchedBranches[i];
+            branchSeen[branch] = false;
+            branchSummed[branch] = false;
+            predicateCount[branch] = 0;
+            trueCount[branch] = 0;
+            falseCount[branch] = 0;
+        }
+        numTouchedBranches = 0;
+        maxTouchedBranch = 0;
+
+        for (int i = 0; i < numTouchedLines; i++) {
+            lineCount[touchedLines[i]] = 0;
+        }
+        numTouchedLines = 0;
+        maxTouchedLine = 0;
+        coverageData = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Create a deep copy, only copying the entries that were touched
+     */
+    @Override
+    public ArrayExecutionTraceImpl clone() {
+        ArrayExecutionTraceImpl copy = new ArrayExecutionTraceImpl(maxTouchedBranch + 1, maxTouchedLine + 1);
+        copyStateTo(copy);
+
+        for (int i = 0; i < numTouchedBranches; i++) {
+            int branch = touchedBranches[i];
+            copy.branchSeen[branch] = true;
+            copy.predicateCount[branch] = predicateCount[branch];
+            copy.trueCount[branch] = trueCount[branch];
+            copy.falseCount[branch] = falseCount[branch];
+            copy.trueDistance[branch] = trueDistance[branch];
+            copy.falseDistance[branch] = falseDistance[branch];
+            copy.touchBranch(branch);
+        }
+
+        for (int i = 0; i < numTouchedLines; i++) {
+            int lineId = touchedLines[i];
+            copy.lineCount[lineId] = lineCount[lineId];
+            copy.touchLine(lineId);
+        }
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Like the map based trace, a snapshot also contains the distance sums
+     */
+    @Override
+    public ArrayExecutionTraceImpl snapshot() {
+        ArrayExecutionTraceImpl copy = (ArrayExecutionTraceImpl) super.snapshot();
+        for (int i = 0; i < numTouchedBranches; i++) {
+            int branch = touchedBranches[i];
+            copy.branchSummed[branch] = branchSummed[branch];
+            copy.trueDistanceSum[branch] = trueDistanceSum[branch];
+            copy.falseDistanceSum[branch] = falseDistanceSum[branch];
+        }
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Map<String, Map<Integer, Integer>>> getCoverageData() {
+        if (coverageData == null) {
+            Map<String, Map<String, Map<Integer, Integer>>> data = new HashMap<>();
+            for (int i = 0; i < numTouchedLines; i++) {
+                int lineId = touchedLines[i];
+                data.computeIfAbsent(LinePool.getClassNameOfLineId(lineId), k -> new HashMap<>())
+                        .computeIfAbsent(LinePool.getMethodNameOfLineId(lineId), k -> new HashMap<>())
+                        .put(LinePool.getLineNumberOfLineId(lineId), lineCount[lineId]);
+            }
+            coverageData = data;
+        }
+        return coverageData;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Covered branches are the ones that were passed with a distance of 0
+     * while coverage was traced
+     */
+    @Override
+    public Set<Integer> getCoveredTrueBranches() {
+        Set<Integer> covered = new HashSet<>();
+        for (int i = 0; i < numTouchedBranches; i++) {
+            int branch = touchedBranches[i];
+            if (trueCount[branch] > 0)
+                covered.add(branch);
+        }
+        return covered;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Covered branches are the ones that were passed with a distance of 0
+     * while coverage was traced
+     */
+    @Override
+    public Set<Integer> getCoveredFalseBranches() {
+        Set<Integer> covered = new HashSet<>();
+        for (int i = 0; i < numTouchedBranches; i++) {
+            int branch = touchedBranches[i];
+            if (falseCount[branch] > 0)
+                covered.add(branch);
+        }
+        return covered;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Integer> getCoveredPredicates() {
+        return getPredicateExecutionCount().keySet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, Integer> getPredicateExecutionCount() {
+        return new BranchView<Integer>() {
+            @Override
+            protected boolean isPresent(int branch) {
+                return predicateCount[branch] > 0;
+            }
+
+            @Override
+            protected Integer value(int branch) {
+                return predicateCount[branch];
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As with the map based trace, the distance is only defined if
+     * {@link #hasTrueDistance(int)} holds
+     */
+    @Override
+    public double getTrueDistance(int branchId) {
+        if (!isTouchedBranch(branchId))
+            throw new IllegalArgumentException("No distance recorded for branch " + branchId);
+        return trueDistance[branchId];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As with the map based trace, the distance is only defined if
+     * {@link #hasFalseDistance(int)} holds
+     */
+    @Override
+    public double getFalseDistance(int branchId) {
+        if (!isTouchedBranch(branchId))
+            throw new IllegalArgumentException("No distance recorded for branch " + branchId);
+        return falseDistance[branchId];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasTrueDistance(int predicateId) {
+        return isTouchedBranch(predicateId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasFalseDistance(int predicateId) {
+        return isTouchedBranch(predicateId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, Double> getTrueDistances() {
+        return new DistanceView() {
+            @Override
+            protected Double value(int branch) {
+                return trueDistance[branch];
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, Double> getFalseDistances() {
+        return new DistanceView() {
+            @Override
+            protected Double value(int branch) {
+                return falseDistance[branch];
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, Double> getTrueDistancesSum() {
+        return new BranchView<Double>() {
+            @Override
+            protected boolean isPresent(int branch) {
+                return branchSummed[branch];
+            }
+
+            @Override
+            protected Double value(int branch) {
+                return trueDistanceSum[branch];
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, Double> getFalseDistancesSum() {
+        return new BranchView<Double>() {
+            @Override
+            protected boolean isPresent(int branch) {
+                return branchSummed[branch];
+            }
+
+            @Override
+            protected Double value(int branch) {
+                return falseDistanceSum[branch];
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (!super.equals(obj))
+            return false;
+        return getCoverageData().equals(((ArrayExecutionTraceImpl) obj).getCoverageData());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + getCoverageData().hashCode();
+    }
+
+    /**
+     * Read-only map view on the touched entries of the branch arrays. Keys are
+     * boxed on iteration only.
+     */
+    private abstract class BranchView<V> extends AbstractMap<Integer, V> {
+
+        protected abstract boolean isPresent(int branch);
+
+        protected abstract V value(int branch);
+
+        @Override
+        public boolean containsKey(Object key) {
+            return isTouchedBranch(key) && isPresent((Integer) key);
+        }
+
+        @Override
+        public V get(Object key) {
+            if (!containsKey(key))
+                return null;
+            return value((Integer) key);
+        }
+
+        @Override
+        public Set<Entry<Integer, V>> entrySet() {
+            return new AbstractSet<Entry<Integer, V>>() {
+                @Override
+                public Iterator<Entry<Integer, V>> iterator() {
+                    return new Iterator<Entry<Integer, V>>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            while (from < numTouchedBranches && !isPresent(touchedBranches[from]))
+                                from++;
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < numTouchedBranches;
+                        }
+
+                        @Override
+                        public Entry<Integer, V> next() {
+                            if (!hasNext())
+                                throw new NoSuchElementException();
+                            int branch = touchedBranches[next];
+                            next = advance(next + 1);
+                            return new SimpleImmutableEntry<>(branch, value(branch));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (int i = 0; i < numTouchedBranches; i++) {
+                        if (isPresent(touchedBranches[i]))
+                            size++;
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Distances are recorded for every touched branch
+     */
+    private abstract class DistanceView extends BranchView<Double> {
+
+        @Override
+        protected boolean isPresent(int branch) {
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return numTouchedBranches;
+        }
+    }
+}
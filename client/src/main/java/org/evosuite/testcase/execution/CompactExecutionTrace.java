@@ -0,0 +1,522 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.dataflow.DefUse;
+import org.evosuite.setup.CallContext;
+import org.evosuite.testcase.execution.ExecutionTraceImpl.BranchEval;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * The summary of an execution trace that the coverage based fitness functions
+ * need: branch distances, predicate and method execution counts, covered
+ * lines and methods, and mutant distances. Method calls, data flow, contexts
+ * and the other large parts are dropped.
+ * <p>
+ * Everything that is not part of the summary is read from the full trace,
+ * which is re-derived (i.e., by executing the test again) the first time it
+ * is needed.
+ *
+ * @see ExecutionResult#compact()
+ */
+public class CompactExecutionTrace implements ExecutionTrace {
+
+    private final Map<Integer, Double> trueDistances;
+
+    private final Map<Integer, Double> falseDistances;
+
+    private final Map<Integer, Integer> predicateExecutionCount;
+
+    private final Map<String, Integer> methodExecutionCount;
+
+    private final Set<String> coveredBranchlessMethods;
+
+    /**
+     * Covered lines of each class
+     */
+    private final Map<String, Set<Integer>> coveredLines;
+
+    private final Map<Integer, Double> mutationDistances;
+
+    private final Set<Integer> touchedMutants;
+
+    private final Throwable explicitException;
+
+    private final Set<String> classesWithStaticWrites;
+
+    private final Set<String> classesWithStaticReads;
+
+    private final List<String> initializedClasses;
+
+    private final Supplier<ExecutionTrace> rederivation;
+
+    private ExecutionTrace fullTrace = null;
+
+    /**
+     * @param trace       the full trace to summarise
+     * @param rederivation re-derives the full trace when a part that is not
+     *                    in the summary is needed
+     */
+    public CompactExecutionTrace(ExecutionTrace trace, Supplier<ExecutionTrace> rederivation) {
+        this.trueDistances = new HashMap<>(trace.getTrueDistances());
+        this.falseDistances = new HashMap<>(trace.getFalseDistances());
+        this.predicateExecutionCount = new HashMap<>(trace.getPredicateExecutionCount());
+        this.methodExecutionCount = new HashMap<>(trace.getMethodExecutionCount());
+        this.coveredBranchlessMethods = new HashSet<>(trace.getCoveredBranchlessMethods());
+        this.coveredLines = new HashMap<>();
+        for (Entry<String, Map<String, Map<Integer, Integer>>> entry : trace.getCoverageData().entrySet()) {
+            Set<Integer> lines = coveredLines.computeIfAbsent(entry.getKey(), k -> new HashSet<>());
+            for (Map<Integer, Integer> methodEntry : entry.getValue().values()) {
+                lines.addAll(methodEntry.keySet());
+            }
+        }
+        this.mutationDistances = new HashMap<>(trace.getMutationDistances());
+        this.touchedMutants = new HashSet<>(trace.getTouchedMutants());
+        this.explicitException = trace.getExplicitException();
+        this.classesWithStaticWrites = new LinkedHashSet<>(trace.getClassesWithStaticWrites());
+        this.classesWithStaticReads = new LinkedHashSet<>(trace.getClassesWithStaticReads());
+        this.initializedClasses = new ArrayList<>(trace.getInitializedClasses());
+        this.rederivation = rederivation;
+    }
+
+    /**
+     * Shares the summary of another compact trace, but not its full trace
+     */
+    private CompactExecutionTrace(CompactExecutionTrace other, Supplier<ExecutionTrace> rederivation) {
+        this.trueDistances = other.trueDistances;
+        this.falseDistances = other.falseDistances;
+        this.predicateExecutionCount = other.predicateExecutionCount;
+        this.methodExecutionCount = other.methodExecutionCount;
+        this.coveredBranchlessMethods = other.coveredBranchlessMethods;
+        this.coveredLines = other.coveredLines;
+        this.mutationDistances = other.mutationDistances;
+        this.touchedMutants = other.touchedMutants;
+        this.explicitException = other.explicitException;
+        this.classesWithStaticWrites = other.classesWithStaticWrites;
+        this.classesWithStaticReads = other.classesWithStaticReads;
+        this.initializedClasses = other.initializedClasses;
+        this.rederivation = rederivation;
+    }
+
+    /**
+     * @return the full trace, re-deriving it if this is the first time it is
+     * needed
+     */
+    public synchronized ExecutionTrace getFullTrace() {
+        if (fullTrace == null) {
+            fullTrace = rederivation.get();
+        }
+        return fullTrace;
+    }
+
+    /**
+     * @return true if the full trace has been re-derived
+     */
+    public synchronized boolean isRederived() {
+        return fullTrace != null;
+    }
+
+    @Override
+    public double getFalseDistance(int branchId) {
+        return falseDistances.get(branchId);
+    }
+
+    @Override
+    public double getTrueDistance(int branchId) {
+        return trueDistances.get(branchId);
+    }
+
+    @Override
+    public Set<Integer> getCoveredTrueBranches() {
+        return getCovered(trueDistances);
+    }
+
+    @Override
+    public Set<Integer> getCoveredFalseBranches() {
+        return getCovered(falseDistances);
+    }
+
+    private static Set<Integer> getCovered(Map<Integer, Double> distances) {
+        Set<Integer> covered = new HashSet<>();
+        for (Entry<Integer, Double> entry : distances.entrySet()) {
+            if (entry.getValue() == 0.0)
+                covered.add(entry.getKey());
+        }
+        return covered;
+    }
+
+    @Override
+    public Set<Integer> getCoveredPredicates() {
+        return predicateExecutionCount.keySet();
+    }
+
+    @Override
+    public Map<Integer, Integer> getPredicateExecutionCount() {
+        return predicateExecutionCount;
+    }
+
+    @Override
+    public Map<String, Integer> getMethodExecutionCount() {
+        return methodExecutionCount;
+    }
+
+    @Override
+    public boolean hasTrueDistance(int predicateId) {
+        return trueDistances.containsKey(predicateId);
+    }
+
+    @Override
+    public boolean hasFalseDistance(int predicateId) {
+        return falseDistances.containsKey(predicateId);
+    }
+
+    @Override
+    public Map<Integer, Double> getTrueDistances() {
+        return trueDistances;
+    }
+
+    @Override
+    public Map<Integer, Double> getFalseDistances() {
+        return falseDistances;
+    }
+
+    @Override
+    public Set<Integer> getCoveredLines(String className) {
+        Set<Integer> lines = new HashSet<>();
+        for (Entry<String, Set<Integer>> entry : coveredLines.entrySet()) {
+            // is it className or one of its internal classes?
+            if (entry.getKey().equals(className) || entry.getKey().startsWith(className + "$")) {
+                lines.addAll(entry.getValue());
+            }
+        }
+        return lines;
+    }
+
+    @Override
+    public Set<Integer> getCoveredLines() {
+        return getCoveredLines(Properties.TARGET_CLASS);
+    }
+
+    @Override
+    public Set<Integer> getAllCoveredLines() {
+        Set<Integer> lines = new HashSet<>();
+        for (Set<Integer> classLines : coveredLines.values()) {
+            lines.addAll(classLines);
+        }
+        return lines;
+    }
+
+    @Override
+    public Throwable getExplicitException() {
+        return explicitException;
+    }
+
+    @Override
+    public Set<String> getCoveredMethods() {
+        return methodExecutionCount.keySet();
+    }
+
+    @Override
+    public Set<String> getCoveredBranchlessMethods() {
+        return coveredBranchlessMethods;
+    }
+
+    @Override
+    public double getMutationDistance(int mutationId) {
+        return mutationDistances.get(mutationId);
+    }
+
+    @Override
+    public Map<Integer, Double> getMutationDistances() {
+        return mutationDistances;
+    }
+
+    @Override
+    public boolean wasMutationTouched(int mutationId) {
+        return touchedMutants.contains(mutationId);
+    }
+
+    @Override
+    public Set<Integer> getTouchedMutants() {
+        return touchedMutants;
+    }
+
+    @Override
+    public Set<Integer> getInfectedMutants() {
+        Set<Integer> infectedMutants = new LinkedHashSet<>();
+        for (Entry<Integer, Double> entry : mutationDistances.entrySet()) {
+            if (entry.getValue() == 0.0) {
+                infectedMutants.add(entry.getKey());
+            }
+        }
+        return infectedMutants;
+    }
+
+    @Override
+    public Set<String> getClassesWithStaticWrites() {
+        return classesWithStaticWrites;
+    }
+
+    @Override
+    public Set<String> getClassesWithStaticReads() {
+        return classesWithStaticReads;
+    }
+
+    @Override
+    public List<String> getInitializedClasses() {
+        return initializedClasses;
+    }
+
+    /**
+     * The copy shares the summary, which is never modified, and re-derives
+     * its own full trace
+     */
+    @Override
+    public ExecutionTrace lazyClone() {
+        return lazyClone(rederivation);
+    }
+
+    /**
+     * Like {@link #lazyClone()}, but the copy re-derives its full trace with
+     * the given supplier, e.g., from the test of the result that owns it
+     *
+     * @param rederivation re-derives the full trace of the copy
+     * @return a copy of this trace
+     */
+    public synchronized ExecutionTrace lazyClone(Supplier<ExecutionTrace> rederivation) {
+        if (fullTrace != null) {
+            return fullTrace.lazyClone();
+        }
+        return new CompactExecutionTrace(this, rederivation);
+    }
+
+    // Everything below is not part of the summary
+
+    @Override
+    public void branchPassed(int branch, int bytecode_id, double true_distance, double false_distance) {
+        getFullTrace().branchPassed(branch, bytecode_id, true_distance, false_distance);
+    }
+
+    @Override
+    public Set<Integer> getCoveredDefinitions() {
+        return getFullTrace().getCoveredDefinitions();
+    }
+
+    @Override
+    public Map<Integer, Integer> getDefinitionExecutionCount() {
+        return getFullTrace().getDefinitionExecutionCount();
+    }
+
+    @Override
+    public Map<Integer, Map<CallContext, Double>> getTrueDistancesContext() {
+        return getFullTrace().getTrueDistancesContext();
+    }
+
+    @Override
+    public Map<Integer, Map<CallContext, Double>> getFalseDistancesContext() {
+        return getFullTrace().getFalseDistancesContext();
+    }
+
+    @Override
+    public Map<String, Map<CallContext, Integer>> getMethodContextCount() {
+        return getFullTrace().getMethodContextCount();
+    }
+
+    @Override
+    public Map<Integer, Map<CallContext, Integer>> getPredicateContextExecutionCount() {
+        return getFullTrace().getPredicateContextExecutionCount();
+    }
+
+    @Override
+    public Map<String, Map<String, Map<Integer, Integer>>> getCoverageData() {
+        return getFullTrace().getCoverageData();
+    }
+
+    @Override
+    public Map<String, Map<String, Map<Integer, Integer>>> getReturnData() {
+        return getFullTrace().getReturnData();
+    }
+
+    @Override
+    public Map<String, HashMap<Integer, HashMap<Integer, Integer>>> getDefinitionData() {
+        return getFullTrace().getDefinitionData();
+    }
+
+    @Override
+    public Map<String, HashMap<Integer, HashMap<Integer, Object>>> getDefinitionDataObjects() {
+        return getFullTrace().getDefinitionDataObjects();
+    }
+
+    @Override
+    public Map<String, HashMap<Integer, HashMap<Integer, Integer>>> getUseData() {
+        return getFullTrace().getUseData();
+    }
+
+    @Override
+    public Map<String, HashMap<Integer, HashMap<Integer, Object>>> getUseDataObjects() {
+        return getFullTrace().getUseDataObjects();
+    }
+
+    @Override
+    public Map<Integer, HashMap<Integer, Integer>> getPassedDefinitions(String variableName) {
+        return getFullTrace().getPassedDefinitions(variableName);
+    }
+
+    @Override
+    public Map<Integer, HashMap<Integer, Integer>> getPassedUses(String variableName) {
+        return getFullTrace().getPassedUses(variableName);
+    }
+
+    @Override
+    public List<MethodCall> getMethodCalls() {
+        return getFullTrace().getMethodCalls();
+    }
+
+    @Override
+    public void clear() {
+        getFullTrace().clear();
+    }
+
+    @Override
+    public void definitionPassed(Object object, Object caller, int defID) {
+        getFullTrace().definitionPassed(object, caller, defID);
+    }
+
+    @Override
+    public void enteredMethod(String className, String methodName, Object caller) {
+        getFullTrace().enteredMethod(className, methodName, caller);
+    }
+
+    @Override
+    public void exitMethod(String classname, String methodname) {
+        getFullTrace().exitMethod(classname, methodname);
+    }
+
+    @Override
+    public void finishCalls() {
+        getFullTrace().finishCalls();
+    }
+
+    @Override
+    public ExecutionTrace getTraceForObject(int objectId) {
+        return getFullTrace().getTraceForObject(objectId);
+    }
+
+    @Override
+    public ExecutionTrace getTraceInDUCounterRange(DefUse targetDU, boolean wantToCoverTargetDU, int duCounterStart,
+                                                   int duCounterEnd) {
+        return getFullTrace().getTraceInDUCounterRange(targetDU, wantToCoverTargetDU, duCounterStart, duCounterEnd);
+    }
+
+    @Override
+    public void linePassed(String className, String methodName, int line) {
+        getFullTrace().linePassed(className, methodName, line);
+    }
+
+    @Override
+    public void mutationPassed(int mutationId, double distance) {
+        getFullTrace().mutationPassed(mutationId, distance);
+    }
+
+    @Override
+    public void returnValue(String className, String methodName, int value) {
+        getFullTrace().returnValue(className, methodName, value);
+    }
+
+    @Override
+    public String toDefUseTraceInformation() {
+        return getFullTrace().toDefUseTraceInformation();
+    }
+
+    @Override
+    public String toDefUseTraceInformation(String targetVar) {
+        return getFullTrace().toDefUseTraceInformation(targetVar);
+    }
+
+    @Override
+    public String toDefUseTraceInformation(String var, int objectId) {
+        return getFullTrace().toDefUseTraceInformation(var, objectId);
+    }
+
+    @Override
+    public void usePassed(Object object, Object caller, int useID) {
+        getFullTrace().usePassed(object, caller, useID);
+    }
+
+    @Override
+    public void setExplicitException(Throwable explicitException) {
+        getFullTrace().setExplicitException(explicitException);
+    }
+
+    @Override
+    public List<BranchEval> getBranchesTrace() {
+        return getFullTrace().getBranchesTrace();
+    }
+
+    @Override
+    public Map<Integer, Double> getFalseDistancesSum() {
+        return getFullTrace().getFalseDistancesSum();
+    }
+
+    @Override
+    public Map<Integer, Double> getTrueDistancesSum() {
+        return getFullTrace().getTrueDistancesSum();
+    }
+
+    @Override
+    public Map<String, HashMap<Integer, HashMap<Integer, Integer>>> getPassedUses() {
+        return getFullTrace().getPassedUses();
+    }
+
+    @Override
+    public Set<Integer> getPassedUseIDs() {
+        return getFullTrace().getPassedUseIDs();
+    }
+
+    @Override
+    public Set<Integer> getPassedDefIDs() {
+        return getFullTrace().getPassedDefIDs();
+    }
+
+    @Override
+    public void putStaticPassed(String classNameWithDots, String fieldName) {
+        getFullTrace().putStaticPassed(classNameWithDots, fieldName);
+    }
+
+    @Override
+    public void getStaticPassed(String classNameWithDots, String fieldName) {
+        getFullTrace().getStaticPassed(classNameWithDots, fieldName);
+    }
+
+    @Override
+    public void classInitialized(String classNameWithDots) {
+        getFullTrace().classInitialized(classNameWithDots);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.coverage.mutation.MutationObserver;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.variable.VariableReference;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * <p>
+ * The state of a test execution after a prefix of its statements: the values
+ * of the variables and the trace collected so far. A clone of the test (e.g.
+ * a mutated offspring) whose statements start with the same prefix does not
+ * need to execute the prefix again, but can resume the execution from the
+ * checkpoint.
+ * </p>
+ *
+ * <p>
+ * Objects may be changed by later statements, so a checkpoint is only taken
+ * while all variables hold immutable values, no exception was thrown, and the
+ * executed code did not touch static state, random numbers or system
+ * properties.
+ * </p>
+ */
+public class ExecutionCheckpoint {
+
+    /**
+     * A copy of the test, of which only the prefix is relevant
+     */
+    private final TestCase test;
+
+    private final int position;
+
+    private final Object[] values;
+
+    private final boolean[] defined;
+
+    private final ExecutionTraceImpl trace;
+
+    private final int mutation;
+
+    ExecutionCheckpoint(TestCase test, Scope scope, int position, ExecutionTraceImpl trace) {
+        this.test = test.clone();
+        this.test.setExecutionCheckpoint(null);
+        this.position = position;
+        this.values = new Object[position];
+        this.defined = new boolean[position];
+        this.trace = trace;
+        this.mutation = MutationObserver.activeMutation;
+        for (int i = 0; i < position; i++) {
+            VariableReference var = test.getStatement(i).getReturnValue();
+            defined[i] = scope.getVariables().contains(var);
+            values[i] = scope.getObject(var);
+        }
+    }
+
+    /**
+     * Tell whether a checkpoint may be taken after a statement that produced
+     * the given value, i.e., whether the value cannot be changed later on
+     *
+     * @param value the value of a variable
+     * @return a boolean.
+     */
+    static boolean isImmutable(Object value) {
+        return value == null || isImmutableType(value.getClass());
+    }
+
+    /**
+     * Tell whether all values of the given type are immutable
+     *
+     * @param type a {@link java.lang.Class} object.
+     * @return a boolean.
+     */
+    static boolean isImmutableType(Class<?> type) {
+        return type.isPrimitive()
+                || ClassUtils.isPrimitiveWrapper(type)
+                || type == String.class
+                || type == BigInteger.class
+                || type == BigDecimal.class;
+    }
+
+    /**
+     * @return the number of statements executed before the checkpoint
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Tell whether the given test starts with the statements that were
+     * executed before the checkpoint, and is executed under the same mutant
+     *
+     * @param tc a {@link org.evosuite.testcase.TestCase} object.
+     * @return a boolean.
+     */
+    public boolean isPrefixOf(TestCase tc) {
+        if (tc.size() < position || mutation != MutationObserver.activeMutation)
+            return false;
+
+        for (int i = 0; i < position; i++) {
+            if (!test.getStatement(i).same(tc.getStatement(i)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Put the values of the variables defined by the prefix into the scope of
+     * an execution of the given test
+     *
+     * @param tc    a test that the checkpoint is a prefix of
+     * @param scope a {@link org.evosuite.testcase.execution.Scope} object.
+     */
+    void restore(TestCase tc, Scope scope) {
+        for (int i = 0; i < position; i++) {
+            if (defined[i])
+                scope.setObject(tc.getStatement(i).getReturnValue(), values[i]);
+        }
+    }
+
+    ExecutionTraceImpl getTrace() {
+        return trace;
+    }
+}
@@ -30,12 +30,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 
 public class ExecutionResult implements Cloneable {
 
     private static final Logger logger = LoggerFactory.getLogger(ExecutionResult.class);
 
+    private static final AtomicLong nextExecutionId = new AtomicLong();
+
+    private static final AtomicLong numCompacted = new AtomicLong(0);
+
+    private static final AtomicLong numRederived = new AtomicLong(0);
+
     /**
      * Test case that produced this execution result
      */
@@ -62,6 +69,11 @@ public class ExecutionResult implements Cloneable {
      */
     protected ExecutionTrace trace;
 
+    /**
+     * Identifies the execution this result describes; clones share it
+     */
+    private long executionId = nextExecutionId.getAndIncrement();
+
     /**
      * Duration of execution
      */
@@ -72,6 +84,12 @@ public class ExecutionResult implements Cloneable {
      */
     protected int executedStatements = 0;
 
+    /**
+     * Number of statements at the start of the test that were not executed,
+     * as their effects were restored from an {@link ExecutionCheckpoint}
+     */
+    private int restoredStatements = 0;
+
     /**
      * Was there a permission denied during execution?
      */
@@ -87,6 +105,11 @@ public class ExecutionResult implements Cloneable {
      */
     protected boolean wasAnyPropertyWritten;
 
+    /**
+     * Keep track of whether the mocked random numbers or time were used
+     */
+    protected boolean wasRandomOrTimeAccessed;
+
     private List<FeatureVector> featureVectors = new ArrayList<>(1);
 
     /**
@@ -103,6 +126,21 @@ public class ExecutionResult implements Cloneable {
         this.executedStatements = executedStatements;
     }
 
+    /**
+     * @return the number of statements that were restored from a checkpoint
+     * rather than executed; they are included in the executed statements
+     */
+    public int getRestoredStatements() {
+        return restoredStatements;
+    }
+
+    /**
+     * @param restoredStatements the restoredStatements to set
+     */
+    public void setRestoredStatements(int restoredStatements) {
+        this.restoredStatements = restoredStatements;
+    }
+
     /**
      * Output traces produced by observers
      */
@@ -163,6 +201,7 @@ public class ExecutionResult implements Cloneable {
      */
     public void reportNewThrownException(Integer position, Throwable t) {
         exceptions.put(position, t);
+        executionId = nextExecutionId.getAndIncrement();
     }
 
     /**
@@ -271,6 +310,51 @@ public class ExecutionResult implements Cloneable {
         return trace;
     }
 
+    /**
+     * Replaces the trace of this result with a {@link CompactExecutionTrace},
+     * which only keeps what the coverage based fitness functions need (e.g.,
+     * the branch distances), and drops the output traces. Everything else
+     * (e.g., the exceptions) is kept. The full trace is re-derived by
+     * executing the test again only if a part that is not in the summary is
+     * accessed. Results of executions on a mutant are not compacted.
+     */
+    public void compact() {
+        if (trace == null || trace instanceof CompactExecutionTrace || mutation != null) {
+            return;
+        }
+        trace = new CompactExecutionTrace(trace, this::rederiveTrace);
+        traces.clear();
+        numCompacted.incrementAndGet();
+    }
+
+    /**
+     * @return the number of results compacted so far
+     */
+    public static long getNumCompacted() {
+        return numCompacted.get();
+    }
+
+    /**
+     * @return the number of compacted traces re-derived so far
+     */
+    public static long getNumRederived() {
+        return numRederived.get();
+    }
+
+    /**
+     * @return true if the trace has been compacted by {@link #compact()}
+     */
+    public boolean isCompacted() {
+        return trace instanceof CompactExecutionTrace;
+    }
+
+    private ExecutionTrace rederiveTrace() {
+        logger.debug("Re-executing test to re-derive a compacted trace");
+        numRederived.incrementAndGet();
+        // the execution id is kept, as the re-derived trace describes the same execution
+        return TestCaseExecutor.runTest(test).getTrace();
+    }
+
     /**
      * Set execution trace to different value
      *
@@ -281,6 +365,17 @@ public class ExecutionResult implements Cloneable {
             throw new IllegalArgumentException("Trace cannot be null");
         }
         this.trace = trace;
+        this.executionId = nextExecutionId.getAndIncrement();
+    }
+
+    /**
+     * Returns an id that is the same for clones of this result, and changes
+     * whenever the trace or the thrown exceptions are replaced
+     *
+     * @return the execution id
+     */
+    public long getExecutionId() {
+        return executionId;
     }
 
     /**
@@ -409,9 +504,16 @@ public class ExecutionResult implements Cloneable {
     public ExecutionResult clone() {
         ExecutionResult copy = new ExecutionResult(test, mutation);
         copy.exceptions.putAll(exceptions);
-        copy.trace = trace.lazyClone();
+        if (trace instanceof CompactExecutionTrace) {
+            // the copy re-derives its trace from its own test, which may be changed by setTest
+            copy.trace = ((CompactExecutionTrace) trace).lazyClone(copy::rederiveTrace);
+        } else {
+            copy.trace = trace == null ? null : trace.lazyClone();
+        }
+        copy.executionId = executionId;
         copy.explicitExceptions.putAll(explicitExceptions);
         copy.executionTime = executionTime;
+        copy.restoredStatements = restoredStatements;
         copy.inputGoals = new LinkedHashMap<>(inputGoals);
         copy.outputGoals = new LinkedHashMap<>(outputGoals);
         for (Class<?> clazz : traces.keySet()) {
@@ -422,6 +524,7 @@ public class ExecutionResult implements Cloneable {
             copy.readProperties.addAll(readProperties);
         }
         copy.wasAnyPropertyWritten = wasAnyPropertyWritten;
+        copy.wasRandomOrTimeAccessed = wasRandomOrTimeAccessed;
         copy.featureVectors = new ArrayList<>(this.featureVectors);
 
         return copy;
@@ -451,6 +554,14 @@ public class ExecutionResult implements Cloneable {
         this.wasAnyPropertyWritten = wasAnyPropertyWritten;
     }
 
+    public boolean wasRandomOrTimeAccessed() {
+        return wasRandomOrTimeAccessed;
+    }
+
+    public void setWasRandomOrTimeAccessed(boolean wasRandomOrTimeAccessed) {
+        this.wasRandomOrTimeAccessed = wasRandomOrTimeAccessed;
+    }
+
     public void setTest(TestCase tc) {
         this.test = tc;
     }
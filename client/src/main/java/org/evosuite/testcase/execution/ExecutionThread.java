@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+/**
+ * A test execution thread that carries the {@link ExecutionTracer} its
+ * probes report to. Instrumented code executed on such a thread finds its
+ * tracer in a field of the thread, rather than comparing the thread with the
+ * one registered globally, and several tests can be traced at the same time.
+ */
+final class ExecutionThread extends Thread {
+
+    private volatile ExecutionTracer tracer;
+
+    ExecutionThread(ThreadGroup group, Runnable target, ExecutionTracer tracer) {
+        super(group, target);
+        this.tracer = tracer;
+    }
+
+    /**
+     * @return the tracer of this thread, or null if the thread was detached
+     */
+    ExecutionTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Called once the thread has been replaced by a new execution thread,
+     * e.g. because it did not react to a timeout, so that it does not report
+     * to the tracer of the next test any more.
+     */
+    void detach() {
+        tracer = null;
+    }
+}
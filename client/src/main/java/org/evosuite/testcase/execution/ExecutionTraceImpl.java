@@ -37,6 +37,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Function;
 
 /**
  * Keep a trace of the program execution
@@ -313,12 +314,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         assert (true_distance >= 0.0);
         assert (false_distance >= 0.0);
         updateTopStackMethodCall(branch, bytecode_id, true_distance, false_distance);
-
-        // TODO: property should really be called TRACK_GRADIENT_BRANCHES!
-        if (Properties.TRACK_BOOLEAN_BRANCHES) {
-            if ((true_distance != 0 && true_distance != 1) || (false_distance != 0 && false_distance != 1))
-                gradientBranches.add(branch);
-        }
+        trackGradientBranch(branch, true_distance, false_distance);
 
         if (traceCoverage) {
             if (!coveredPredicates.containsKey(branch))
@@ -342,11 +338,60 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
             }
         }
 
+        if (Properties.TRACK_COVERED_GRADIENT_BRANCHES || Properties.BRANCH_COMPARISON_TYPES)
+            trackBranchTypes(branch, coveredTrue.containsKey(branch), coveredFalse.containsKey(branch));
+
+        if (!trueDistances.containsKey(branch))
+            trueDistances.put(branch, true_distance);
+        else
+            trueDistances.put(branch, Math.min(trueDistances.get(branch), true_distance));
+
+        if (!falseDistances.containsKey(branch))
+            falseDistances.put(branch, false_distance);
+        else
+            falseDistances.put(branch, Math.min(falseDistances.get(branch), false_distance));
+
+        if (!trueDistancesSum.containsKey(branch))
+            trueDistancesSum.put(branch, true_distance);
+        else
+            trueDistancesSum.put(branch, trueDistancesSum.get(branch) + true_distance);
+
+        if (!falseDistancesSum.containsKey(branch))
+            falseDistancesSum.put(branch, false_distance);
+        else
+            falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
+
+        trackBranchContext(branch, true_distance, false_distance);
+    }
+
+    /**
+     * Record branches whose distances are not purely boolean
+     *
+     * @param branch         a int.
+     * @param true_distance  a double.
+     * @param false_distance a double.
+     */
+    protected void trackGradientBranch(int branch, double true_distance, double false_distance) {
+        // TODO: property should really be called TRACK_GRADIENT_BRANCHES!
+        if (Properties.TRACK_BOOLEAN_BRANCHES) {
+            if ((true_distance != 0 && true_distance != 1) || (false_distance != 0 && false_distance != 1))
+                gradientBranches.add(branch);
+        }
+    }
+
+    /**
+     * Track gradient branch coverage and the opcode type of the given branch
+     *
+     * @param branch a int.
+     * @param cTrue  whether the true branch has been covered in this trace
+     * @param cFalse whether the false branch has been covered in this trace
+     */
+    protected void trackBranchTypes(int branch, boolean cTrue, boolean cFalse) {
         if (Properties.TRACK_COVERED_GRADIENT_BRANCHES) {
             if (gradientBranches.contains(branch)) {
-                if ((coveredTrue.containsKey(branch)))
+                if (cTrue)
                     gradientBranchesCoveredTrue.add(branch);
-                if ((coveredFalse.containsKey(branch)))
+                if (cFalse)
                     gradientBranchesCoveredFalse.add(branch);
             }
         }
@@ -359,8 +404,6 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
                     .getInstruction().getASMNode().getPrevious() != null)
                 previousOpcode = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
                         .getBranch(branch).getInstruction().getASMNode().getPrevious().getOpcode();
-            boolean cTrue = coveredTrue.containsKey(branch);
-            boolean cFalse = coveredFalse.containsKey(branch);
             switch (previousOpcode) {
                 case Opcodes.LCMP:
                     trackBranchOpcode(bytecodeInstructionReached, RuntimeVariable.Reached_lcmp, branch);
@@ -446,27 +489,17 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 
             }
         }
+    }
 
-        if (!trueDistances.containsKey(branch))
-            trueDistances.put(branch, true_distance);
-        else
-            trueDistances.put(branch, Math.min(trueDistances.get(branch), true_distance));
-
-        if (!falseDistances.containsKey(branch))
-            falseDistances.put(branch, false_distance);
-        else
-            falseDistances.put(branch, Math.min(falseDistances.get(branch), false_distance));
-
-        if (!trueDistancesSum.containsKey(branch))
-            trueDistancesSum.put(branch, true_distance);
-        else
-            trueDistancesSum.put(branch, trueDistancesSum.get(branch) + true_distance);
-
-        if (!falseDistancesSum.containsKey(branch))
-            falseDistancesSum.put(branch, false_distance);
-        else
-            falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
-
+    /**
+     * Update the context sensitive maps and the (deprecated) branch evaluation
+     * trace, if these are enabled
+     *
+     * @param branch         a int.
+     * @param true_distance  a double.
+     * @param false_distance a double.
+     */
+    protected void trackBranchContext(int branch, double true_distance, double false_distance) {
         if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
                 || ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
                 || ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH))) {
@@ -576,6 +609,16 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     public ExecutionTraceImpl clone() {
 
         ExecutionTraceImpl copy = new ExecutionTraceImpl();
+        copyStateTo(copy);
+        return copy;
+    }
+
+    /**
+     * Copy the state of this trace into a freshly created trace
+     *
+     * @param copy the (empty) trace that receives the data
+     */
+    protected void copyStateTo(ExecutionTraceImpl copy) {
         for (MethodCall call : finishedCalls) {
             copy.finishedCalls.add(call.clone());
         }
@@ -620,6 +663,48 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         copy.objectCounter = objectCounter;
         copy.knownCallerObjects.putAll(knownCallerObjects);
         copy.proxyCount = 1;
+    }
+
+    /**
+     * Create a copy of a trace in progress that an execution can continue
+     * on. Unlike {@link #clone()}, the copy shares no mutable data with this
+     * trace, and it also contains the active method calls, the distance sums
+     * and the method contexts.
+     *
+     * @return a {@link org.evosuite.testcase.execution.ExecutionTraceImpl} object.
+     */
+    public ExecutionTraceImpl snapshot() {
+        ExecutionTraceImpl copy = clone();
+        copy.coverage = Collections.synchronizedMap(copyValues(coverage, m -> copyValues(m, HashMap::new)));
+        copy.returnData = Collections.synchronizedMap(copyValues(returnData, m -> copyValues(m, HashMap::new)));
+        copy.coveredTrueContext = Collections.synchronizedMap(copyValues(coveredTrueContext, HashMap::new));
+        copy.coveredFalseContext = Collections.synchronizedMap(copyValues(coveredFalseContext, HashMap::new));
+        copy.coveredPredicateContext = Collections.synchronizedMap(copyValues(coveredPredicateContext, HashMap::new));
+        copy.coveredMethodContext = Collections.synchronizedMap(copyValues(coveredMethodContext, HashMap::new));
+        copy.passedDefinitions = Collections.synchronizedMap(copyValues(passedDefinitions,
+                m -> copyValues(m, HashMap::new)));
+        copy.passedUses = Collections.synchronizedMap(copyValues(passedUses, m -> copyValues(m, HashMap::new)));
+        copy.passedDefinitionObject = Collections.synchronizedMap(copyValues(passedDefinitionObject,
+                m -> copyValues(m, HashMap::new)));
+        copy.passedUseObject = Collections.synchronizedMap(copyValues(passedUseObject,
+                m -> copyValues(m, HashMap::new)));
+        copy.trueDistancesSum.putAll(trueDistancesSum);
+        copy.falseDistancesSum.putAll(falseDistancesSum);
+        copy.explicitException = explicitException;
+        copy.stack = new LinkedList<>();
+        for (MethodCall call : stack) {
+            copy.stack.add(call.clone());
+        }
+        return copy;
+    }
+
+    private static <K, V> HashMap<K, V> copyValues(Map<K, V> map, Function<V, V> copyValue) {
+        HashMap<K, V> copy = new HashMap<>();
+        synchronized (map) {
+            for (Entry<K, V> entry : map.entrySet()) {
+                copy.put(entry.getKey(), copyValue.apply(entry.getValue()));
+            }
+        }
         return copy;
     }
 
@@ -880,7 +965,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     @Override
     public Set<Integer> getCoveredLines(String className) {
         Set<Integer> coveredLines = new HashSet<>();
-        for (Entry<String, Map<String, Map<Integer, Integer>>> entry : coverage.entrySet()) {
+        for (Entry<String, Map<String, Map<Integer, Integer>>> entry : getCoverageData().entrySet()) {
             if ((entry.getKey().equals(className)) ||
                     // is it a internal class of 'className' ?
                     (entry.getKey().startsWith(className + "$"))) {
@@ -900,7 +985,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     @Override
     public Set<Integer> getAllCoveredLines() {
         Set<Integer> coveredLines = new HashSet<>();
-        for (Entry<String, Map<String, Map<Integer, Integer>>> entry : coverage.entrySet()) {
+        for (Entry<String, Map<String, Map<Integer, Integer>>> entry : getCoverageData().entrySet()) {
             for (Map<Integer, Integer> methodentry : entry.getValue().values()) {
                 coveredLines.addAll(methodentry.keySet());
             }
@@ -1427,43 +1512,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public void linePassed(String className, String methodName, int line) {
-        if (traceCalls) {
-            if (stack.isEmpty()) {
-                logger.info("Method stack is empty: " + className + "." + methodName + " - l" + line); // TODO
-                // switch
-                // back
-                // logger.debug to
-                // logger.warn
-            } else {
-                boolean empty = false;
-                if (!stack.peek().methodName.equals(methodName)) {
-                    if (stack.peek().methodName.equals(""))
-                        return;
-
-                    if (stackHasMethod(methodName)) {
-                        do {
-                            logger.debug("Popping method " + stack.peek().methodName + " because we were looking for "
-                                    + methodName);
-                            finishedCalls.add(stack.pop());
-                        } while (!stack.isEmpty() && !stack.peek().methodName.equals(methodName)
-                                && !stack.peek().methodName.equals(""));
-                    } else {
-
-                        logger.warn("Popping method " + stack.peek().methodName + " because we were looking for "
-                                + methodName);
-                        logger.warn("Current stack: " + stack);
-                        finishedCalls.add(stack.pop());
-                    }
-                    if (stack.isEmpty()) {
-                        logger.warn("Method stack is empty: " + className + "." + methodName + " - l" + line); // TODO
-                        // switch
-                        // back
-                        empty = true;
-                    }
-                }
-                if (!empty)
-                    stack.peek().lineTrace.add(line);
-            }
+        if (traceCalls && !updateTopStackLine(className, methodName, line)) {
+            return;
         }
         if (traceCoverage) {
             if (!coverage.containsKey(className)) {
@@ -1483,6 +1533,51 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         }
     }
 
+    /**
+     * Adds the line to the active MethodCall in this.stack
+     *
+     * @return false if the line should not be recorded at all
+     */
+    protected boolean updateTopStackLine(String className, String methodName, int line) {
+        if (stack.isEmpty()) {
+            logger.info("Method stack is empty: " + className + "." + methodName + " - l" + line); // TODO
+            // switch
+            // back
+            // logger.debug to
+            // logger.warn
+        } else {
+            boolean empty = false;
+            if (!stack.peek().methodName.equals(methodName)) {
+                if (stack.peek().methodName.equals(""))
+                    return false;
+
+                if (stackHasMethod(methodName)) {
+                    do {
+                        logger.debug("Popping method " + stack.peek().methodName + " because we were looking for "
+                                + methodName);
+                        finishedCalls.add(stack.pop());
+                    } while (!stack.isEmpty() && !stack.peek().methodName.equals(methodName)
+                            && !stack.peek().methodName.equals(""));
+                } else {
+
+                    logger.warn("Popping method " + stack.peek().methodName + " because we were looking for "
+                            + methodName);
+                    logger.warn("Current stack: " + stack);
+                    finishedCalls.add(stack.pop());
+                }
+                if (stack.isEmpty()) {
+                    logger.warn("Method stack is empty: " + className + "." + methodName + " - l" + line); // TODO
+                    // switch
+                    // back
+                    empty = true;
+                }
+            }
+            if (!empty)
+                stack.peek().lineTrace.add(line);
+        }
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1657,15 +1752,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
             ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
         }
         ret.append("\nCovered predicates: ");
-        for (Entry<Integer, Integer> entry : coveredPredicates.entrySet()) {
+        for (Entry<Integer, Integer> entry : getPredicateExecutionCount().entrySet()) {
             ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
         }
         ret.append("\nTrue distances: ");
-        for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+        for (Entry<Integer, Double> entry : getTrueDistances().entrySet()) {
             ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
         }
         ret.append("\nFalse distances: ");
-        for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+        for (Entry<Integer, Double> entry : getFalseDistances().entrySet()) {
             ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
         }
         return ret.toString();
@@ -1674,7 +1769,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     /**
      * Adds trace information to the active MethodCall in this.stack
      */
-    private void updateTopStackMethodCall(int branch, int bytecode_id, double true_distance, double false_distance) {
+    protected void updateTopStackMethodCall(int branch, int bytecode_id, double true_distance, double false_distance) {
 
         if (traceCalls) {
             if (stack.isEmpty()) {
@@ -20,6 +20,7 @@
 
 package org.evosuite.testcase.execution;
 
+import org.evosuite.Properties;
 import org.evosuite.coverage.dataflow.DefUse;
 import org.evosuite.setup.CallContext;
 import org.evosuite.testcase.execution.ExecutionTraceImpl.BranchEval;
@@ -46,7 +47,10 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
      * </p>
      */
     public ExecutionTraceProxy() {
-        this.trace = new ExecutionTraceImpl();
+        if (Properties.EXECUTION_TRACE_TYPE == Properties.ExecutionTraceType.ARRAY)
+            this.trace = new ArrayExecutionTraceImpl();
+        else
+            this.trace = new ExecutionTraceImpl();
     }
 
     /**
@@ -603,6 +607,16 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
         return copy;
     }
 
+    /**
+     * Create a copy of the trace in progress that an execution can continue
+     * on, see {@link ExecutionTraceImpl#snapshot()}
+     *
+     * @return a {@link org.evosuite.testcase.execution.ExecutionTraceImpl} object.
+     */
+    ExecutionTraceImpl snapshot() {
+        return trace.snapshot();
+    }
+
     /*
      * (non-Javadoc)
      *
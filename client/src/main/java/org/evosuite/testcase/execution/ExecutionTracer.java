@@ -182,12 +182,38 @@ public class ExecutionTracer {
      * @return a {@link org.evosuite.testcase.execution.ExecutionTracer} object.
      */
     public static ExecutionTracer getExecutionTracer() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof ExecutionThread) {
+            ExecutionTracer tracer = ((ExecutionThread) thread).getTracer();
+            if (tracer != null)
+                return tracer;
+        }
         if (instance == null) {
             instance = new ExecutionTracer();
         }
         return instance;
     }
 
+    /**
+     * Return the tracer that the probes of the current thread report to, or
+     * null if the current thread is not traced. A test execution thread
+     * carries its tracer, so in the common case no global state is consulted.
+     *
+     * @return a {@link org.evosuite.testcase.execution.ExecutionTracer} object, or null
+     */
+    private static ExecutionTracer getTracerOfCurrentThread() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof ExecutionThread) {
+            ExecutionTracer tracer = ((ExecutionThread) thread).getTracer();
+            if (tracer != null)
+                return tracer;
+        }
+        if (isThreadNeqCurrentThread())
+            return null;
+
+        return getExecutionTracer();
+    }
+
     /**
      * Reset for new execution
      */
@@ -208,6 +234,10 @@ public class ExecutionTracer {
         if (!checkCallerThread) {
             return false;
         }
+        Thread thread = Thread.currentThread();
+        if (thread instanceof ExecutionThread && ((ExecutionThread) thread).getTracer() != null) {
+            return false;
+        }
         if (currentThread == null) {
             logger.error("CurrentThread has not been set!");
             Map<Thread, StackTraceElement[]> map = Thread.getAllStackTraces();
@@ -220,7 +250,7 @@ public class ExecutionTracer {
             }
             currentThread = Thread.currentThread();
         }
-        return Thread.currentThread() != currentThread;
+        return thread != currentThread;
     }
 
     /**
@@ -237,6 +267,42 @@ public class ExecutionTracer {
         // return copy;
     }
 
+    /**
+     * Tell whether the code executed so far read or wrote static fields, or
+     * initialized classes
+     *
+     * @return a boolean.
+     */
+    boolean hasTouchedStaticState() {
+        return !trace.getClassesWithStaticReads().isEmpty()
+                || !trace.getClassesWithStaticWrites().isEmpty()
+                || !trace.getInitializedClasses().isEmpty();
+    }
+
+    /**
+     * Copy the trace of the current execution without finishing its calls,
+     * such that a later execution can continue on it
+     *
+     * @return the copy, or null if the trace cannot be copied
+     */
+    ExecutionTraceImpl snapshotTrace() {
+        if (!(trace instanceof ExecutionTraceProxy))
+            return null;
+        return ((ExecutionTraceProxy) trace).snapshot();
+    }
+
+    /**
+     * Continue the current execution on a copy of a trace that was taken
+     * after the given number of statements
+     *
+     * @param snapshot      a trace returned by {@link #snapshotTrace()}
+     * @param numStatements the number of statements executed before the copy
+     */
+    void resumeTrace(ExecutionTraceImpl snapshot, int numStatements) {
+        trace = new ExecutionTraceProxy(snapshot.snapshot());
+        num_statements = numStatements;
+    }
+
     /**
      * Return the last explicitly thrown exception
      *
@@ -256,15 +322,11 @@ public class ExecutionTracer {
      */
     public static void enteredMethod(String classname, String methodname, Object caller)
             throws TestCaseExecutor.TimeoutExceeded {
-        ExecutionTracer tracer = getExecutionTracer();
-
-        if (tracer.disabled)
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
-        if (isThreadNeqCurrentThread())
-            return;
-
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         //logger.trace("Entering method " + classname + "." + methodname);
         tracer.trace.enteredMethod(classname, methodname, caller);
@@ -278,11 +340,8 @@ public class ExecutionTracer {
      * @param methodName a {@link java.lang.String} object.
      */
     public static void returnValue(int value, String className, String methodName) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
-            return;
-
-        if (isThreadNeqCurrentThread())
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
         //logger.trace("Return value: " + value);
@@ -297,10 +356,8 @@ public class ExecutionTracer {
      * @param methodName a {@link java.lang.String} object.
      */
     public static void returnValue(Object value, String className, String methodName) {
-        if (isThreadNeqCurrentThread())
-            return;
-
-        if (!ExecutionTracer.isEnabled())
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
         if (value == null) {
@@ -311,12 +368,12 @@ public class ExecutionTracer {
         try {
             // setLineCoverageDeactivated(true);
             // logger.warn("Disabling tracer: returnValue");
-            ExecutionTracer.disable();
+            tracer.disabled = true;
             tmp = new StringBuilder(value.toString());
         } catch (Throwable t) {
             return;
         } finally {
-            ExecutionTracer.enable();
+            tracer.disabled = false;
         }
         int index = 0;
         int position = 0;
@@ -349,11 +406,8 @@ public class ExecutionTracer {
      * @param methodname a {@link java.lang.String} object.
      */
     public static void leftMethod(String classname, String methodname) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
-            return;
-
-        if (isThreadNeqCurrentThread())
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
         tracer.trace.exitMethod(classname, methodname);
@@ -364,11 +418,14 @@ public class ExecutionTracer {
      * Called by the instrumented code each time a new source line is executed
      */
     public static void checkTimeout() {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
+        getExecutionTracer().checkKillSwitch();
+    }
+
+    private void checkKillSwitch() {
+        if (disabled)
             return;
 
-        if (tracer.killSwitch) {
+        if (killSwitch) {
             // logger.info("Raising TimeoutException as kill switch is active - passedLine");
             if (!isInStaticInit())
                 throw new TestCaseExecutor.TimeoutExceeded();
@@ -391,14 +448,11 @@ public class ExecutionTracer {
      * @param methodName a {@link java.lang.String} object.
      */
     public static void passedLine(String className, String methodName, int line) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
-        if (isThreadNeqCurrentThread())
-            return;
-
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         tracer.trace.linePassed(className, methodName, line);
     }
@@ -413,15 +467,12 @@ public class ExecutionTracer {
      */
     public static void passedBranch(int val, int opcode, int branch, int bytecode_id) {
 
-        ExecutionTracer tracer = getExecutionTracer();
+        ExecutionTracer tracer = getTracerOfCurrentThread();
         // logger.info("passedBranch val="+val+", opcode="+opcode+", branch="+branch+", bytecode_id="+bytecode_id);
-        if (tracer.disabled)
+        if (tracer == null || tracer.disabled)
             return;
 
-        if (isThreadNeqCurrentThread())
-            return;
-
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         ConstantPoolManager.getInstance().addDynamicConstant(val);
 
@@ -475,14 +526,11 @@ public class ExecutionTracer {
     }
 
     public static void passedPutStatic(String classNameWithDots, String fieldName) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
-        if (isThreadNeqCurrentThread())
-            return;
-
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         tracer.trace.putStaticPassed(classNameWithDots, fieldName);
     }
@@ -515,14 +563,11 @@ public class ExecutionTracer {
      * @param fieldName
      */
     public static void passedGetStatic(String classNameWithDots, String fieldName) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
-        if (isThreadNeqCurrentThread())
-            return;
-
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         tracer.trace.getStaticPassed(classNameWithDots, fieldName);
     }
@@ -539,14 +584,11 @@ public class ExecutionTracer {
      */
     public static void passedBranch(int val1, int val2, int opcode, int branch,
                                     int bytecode_id) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
-            return;
-
-        if (isThreadNeqCurrentThread())
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         ConstantPoolManager.getInstance().addDynamicConstant(val1);
         ConstantPoolManager.getInstance().addDynamicConstant(val2);
@@ -615,14 +657,11 @@ public class ExecutionTracer {
      */
     public static void passedBranch(Object val1, Object val2, int opcode, int branch,
                                     int bytecode_id) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
-            return;
-
-        if (isThreadNeqCurrentThread())
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         double distance_true = 0;
         double distance_false = 0;
@@ -652,14 +691,11 @@ public class ExecutionTracer {
      * @param bytecode_id a int.
      */
     public static void passedBranch(Object val, int opcode, int branch, int bytecode_id) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
-        if (isThreadNeqCurrentThread())
-            return;
-
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         double distance_true = 0;
         double distance_false = 0;
@@ -691,11 +727,8 @@ public class ExecutionTracer {
      * @param defID  a int.
      */
     public static void passedDefinition(Object object, Object caller, int defID) {
-        if (isThreadNeqCurrentThread())
-            return;
-
-        ExecutionTracer tracer = getExecutionTracer();
-        if (!tracer.disabled)
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer != null && !tracer.disabled)
             tracer.trace.definitionPassed(object, caller, defID);
     }
 
@@ -707,11 +740,8 @@ public class ExecutionTracer {
      */
     public static void passedUse(Object object, Object caller, int useID) {
 
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
-            return;
-
-        if (isThreadNeqCurrentThread())
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
         tracer.trace.usePassed(object, caller, useID);
@@ -728,11 +758,8 @@ public class ExecutionTracer {
      * @param defuseId
      */
     public static void passedFieldMethodCall(Object callee, Object caller, int defuseId) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
-            return;
-
-        if (isThreadNeqCurrentThread())
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
         if (DefUsePool.isKnownAsDefinition(defuseId)) {
@@ -756,14 +783,11 @@ public class ExecutionTracer {
      * @param mutationId a int.
      */
     public static void passedMutation(double distance, int mutationId) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
-            return;
-
-        if (isThreadNeqCurrentThread())
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         tracer.trace.mutationPassed(mutationId, distance);
     }
@@ -779,14 +803,11 @@ public class ExecutionTracer {
      */
     public static void exceptionThrown(Object exception, String className,
                                        String methodName) {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
-        if (isThreadNeqCurrentThread())
-            return;
-
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         tracer.trace.setExplicitException((Throwable) exception);
 
@@ -798,14 +819,11 @@ public class ExecutionTracer {
      * </p>
      */
     public static void statementExecuted() {
-        ExecutionTracer tracer = getExecutionTracer();
-        if (tracer.disabled)
-            return;
-
-        if (isThreadNeqCurrentThread())
+        ExecutionTracer tracer = getTracerOfCurrentThread();
+        if (tracer == null || tracer.disabled)
             return;
 
-        checkTimeout();
+        tracer.checkKillSwitch();
 
         tracer.num_statements++;
     }
@@ -821,8 +839,20 @@ public class ExecutionTracer {
         return num_statements;
     }
 
-    private ExecutionTracer() {
+    /**
+     * Tracers other than the global one are only created for
+     * {@link ExecutionThread}s
+     */
+    ExecutionTracer() {
         trace = new ExecutionTraceProxy();
     }
 
+    void setDisabled(boolean disabled) {
+        this.disabled = disabled;
+    }
+
+    void setTracerKillSwitch(boolean killSwitch) {
+        this.killSwitch = killSwitch;
+    }
+
 }
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.Runtime;
+import org.evosuite.runtime.jvm.ShutdownHookHandler;
+import org.evosuite.runtime.sandbox.PermissionStatistics;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.runtime.thread.ThreadCounter;
+import org.evosuite.runtime.util.JOptionPaneInputs;
+import org.evosuite.runtime.util.SystemInUtil;
+import org.evosuite.setup.TestCluster;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.utils.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>
+ * Executes the tests of one island of an
+ * {@link org.evosuite.ga.metaheuristics.IslandModel}. While an island executor
+ * is bound to the thread of its island, all tests executed on that thread
+ * through the {@link TestCaseExecutor} are executed by the island executor
+ * instead.
+ * </p>
+ *
+ * <p>
+ * Each island executor has its own {@link TestCaseExecutor}, whose execution
+ * thread is traced by its own {@link ExecutionTracer}, so that the tests of
+ * different islands can run at the same time. As with the
+ * {@link TestExecutionWorkerPool}, the global state shared by all tests
+ * (sandbox, mocked runtime, muted output streams) is set up by the first test
+ * that starts while no other test is running, and torn down by the last one
+ * that finishes. Tests that are known to touch static state are executed
+ * exclusively by the global {@link TestCaseExecutor}, and if a test turns out
+ * to write static fields, to time out or to access the environment, all tests
+ * that ran at the same time are executed again exclusively.
+ * </p>
+ *
+ * <p>
+ * As with the worker pool, the mocks of JVM non-determinism are shared by all
+ * islands, so values drawn from them by concurrent tests are not reproducible.
+ * </p>
+ */
+public class IslandExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(IslandExecutor.class);
+
+    private static final ThreadLocal<IslandExecutor> current = new ThreadLocal<>();
+
+    /**
+     * Concurrent executions hold the read lock, exclusive ones the write lock
+     */
+    private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Tickets of the tests being executed concurrently, in the order in which
+     * they started, guarded by the class
+     */
+    private static final TreeSet<Long> running = new TreeSet<>();
+
+    private static long nextTicket = 0;
+
+    /**
+     * Number of times the tests running concurrently have interfered with
+     * each other, guarded by the class
+     */
+    private static long numInterferences = 0;
+
+    private final TestCaseExecutor worker = new TestCaseExecutor(new ExecutionTracer());
+
+    /**
+     * Ticket of the test being executed by this executor
+     */
+    private long ticket;
+
+    private long interferencesAtEntry;
+
+    private volatile int numConcurrentTests = 0;
+
+    private volatile int numExclusiveTests = 0;
+
+    /**
+     * @return the island executor bound to the current thread, or null
+     */
+    public static IslandExecutor getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * Execute all tests run on the current thread with this executor, until
+     * {@link #unbind()} is called
+     */
+    public void bindToCurrentThread() {
+        current.set(this);
+    }
+
+    /**
+     * Execute the tests run on the current thread with the global
+     * {@link TestCaseExecutor} again
+     */
+    public static void unbind() {
+        current.remove();
+    }
+
+    /**
+     * Stop the execution thread of this executor
+     */
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    /**
+     * @return the number of tests whose concurrent execution result was kept
+     */
+    public int getNumConcurrentTests() {
+        return numConcurrentTests;
+    }
+
+    /**
+     * @return the number of tests that had to be executed exclusively
+     */
+    public int getNumExclusiveTests() {
+        return numExclusiveTests;
+    }
+
+    /**
+     * Execute a test case on a new scope, at the same time as the tests of
+     * other islands if possible
+     *
+     * @param tc      a {@link org.evosuite.testcase.TestCase} object.
+     * @param timeout the timeout in ms
+     * @return a {@link org.evosuite.testcase.execution.ExecutionResult} object.
+     */
+    ExecutionResult execute(TestCase tc, int timeout) {
+        // Observers are not thread safe, so all tests are executed exclusively
+        if (!TestCaseExecutor.getInstance().getExecutionObservers().isEmpty()
+                || TestExecutionWorkerPool.touchesStaticState(tc))
+            return executeExclusively(tc, timeout);
+
+        ExecutionResult result = null;
+        boolean interfered = true;
+        lock.readLock().lock();
+        try {
+            enter();
+            TestGenerationContext.getInstance().goingToExecuteSUTCode();
+            try {
+                result = worker.executeOnWorker(tc, timeout);
+            } finally {
+                TestGenerationContext.getInstance().doneWithExecutingSUTCode();
+                interfered = exit(tc, result);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (interfered) {
+            logger.debug("Test interfered with the tests of other islands, executing it exclusively");
+            return executeExclusively(tc, timeout);
+        }
+        numConcurrentTests++;
+        return result;
+    }
+
+    private ExecutionResult executeExclusively(TestCase tc, int timeout) {
+        lock.writeLock().lock();
+        try {
+            numExclusiveTests++;
+            return TestCaseExecutor.getInstance().executeOnNewScope(tc, timeout);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Set up the global state if no other test is running
+     */
+    private void enter() {
+        synchronized (IslandExecutor.class) {
+            if (running.isEmpty()) {
+                Runtime.getInstance().resetRuntime();
+                if (Properties.REPLACE_CALLS) {
+                    ShutdownHookHandler.getInstance().initHandler();
+                }
+                SystemInUtil.getInstance().initForTestCase();
+                JOptionPaneInputs.getInstance().initForTestCase();
+                if (!Properties.PRINT_TO_SYSTEM) {
+                    LoggingUtils.muteCurrentOutAndErrStream();
+                }
+                LoopCounter.getInstance().setThreadConfined(true);
+                Sandbox.goingToExecuteSUTCode();
+            }
+            ticket = nextTicket++;
+            running.add(ticket);
+            interferencesAtEntry = numInterferences;
+        }
+    }
+
+    /**
+     * Record the effects of a test that may have leaked into other tests, and
+     * tear down the global state if no other test is running. The effects of
+     * the tests that are still running are only known once they finish, so
+     * this waits for them.
+     *
+     * @return true if this test or any test that ran at the same time had
+     * such effects
+     */
+    private boolean exit(TestCase tc, ExecutionResult result) {
+        synchronized (IslandExecutor.class) {
+            TestCluster.getInstance().handleRuntimeAccesses(tc);
+            if (result == null
+                    || TestExecutionWorkerPool.hasGlobalSideEffects(result)
+                    || TestExecutionWorkerPool.accessesEnvironment(tc)
+                    || PermissionStatistics.getInstance().getAndResetExceptionInfo()
+                    || ThreadCounter.getInstance().getNumberOfStartedThreads() > 0) {
+                numInterferences++;
+            }
+
+            running.remove(ticket);
+            if (running.isEmpty()) {
+                Sandbox.doneWithExecutingSUTCode();
+                LoopCounter.getInstance().setThreadConfined(false);
+                if (!Properties.PRINT_TO_SYSTEM) {
+                    LoggingUtils.restorePreviousOutAndErrStream();
+                }
+                if (Properties.REPLACE_CALLS) {
+                    List<Thread> hooks = ShutdownHookHandler.getInstance().getAddedHooks();
+                    if (hooks != null && !hooks.isEmpty())
+                        numInterferences++;
+                    ShutdownHookHandler.getInstance().safeExecuteAddedHooks();
+                }
+            }
+            IslandExecutor.class.notifyAll();
+
+            // all tests that started before this one finished ran at the same time
+            long lastOverlapping = nextTicket - 1;
+            boolean interrupted = false;
+            while (!running.isEmpty() && running.first() <= lastOverlapping) {
+                try {
+                    IslandExecutor.class.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    break;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+
+            boolean interfered = numInterferences != interferencesAtEntry;
+            if (!interfered) {
+                MaxTestsStoppingCondition.testExecuted();
+                TestCaseExecutor.testsExecuted++;
+                TestCaseExecutor.timeExecuted += result.getExecutionTime();
+            }
+            return interfered;
+        }
+    }
+}
@@ -86,6 +86,12 @@ public class TestCaseExecutor implements ThreadFactory {
 
     private final Set<Thread> stalledThreads = new HashSet<>();
 
+    /**
+     * Tracer of a worker of the {@link TestExecutionWorkerPool}, or null if
+     * tests are traced by the global {@link ExecutionTracer}
+     */
+    private final ExecutionTracer tracer;
+
     /**
      * Constant <code>timeExecuted=0</code>
      */
@@ -146,10 +152,53 @@ public class TestCaseExecutor implements ThreadFactory {
     }
 
     private TestCaseExecutor() {
+        this(null);
+    }
+
+    /**
+     * Create an executor whose test execution thread is traced by the given
+     * tracer rather than by the global one. Such an executor does not touch
+     * any global state (sandbox, runtime, output streams, statistics); this
+     * is left to the {@link TestExecutionWorkerPool}.
+     *
+     * @param tracer the tracer of the execution thread, or null
+     */
+    TestCaseExecutor(ExecutionTracer tracer) {
+        this.tracer = tracer;
         executor = Executors.newSingleThreadExecutor(this);
         newObservers();
     }
 
+    private boolean isWorker() {
+        return tracer != null;
+    }
+
+    private ExecutionTracer getTracer() {
+        return isWorker() ? tracer : ExecutionTracer.getExecutionTracer();
+    }
+
+    /**
+     * Execute a test case on a new scope, without re-initializing classes
+     * afterwards. Only used by the {@link TestExecutionWorkerPool}
+     *
+     * @param tc      a {@link org.evosuite.testcase.TestCase} object.
+     * @param timeout the timeout in ms
+     * @return a {@link org.evosuite.testcase.execution.ExecutionResult} object.
+     */
+    ExecutionResult executeOnWorker(TestCase tc, int timeout) {
+        return execute(tc, new Scope(), timeout);
+    }
+
+    /**
+     * Stop the execution thread of a worker executor
+     */
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
     public static class TimeoutExceeded extends RuntimeException {
         private static final long serialVersionUID = -5314228165430676893L;
     }
@@ -175,6 +224,7 @@ public class TestCaseExecutor implements ThreadFactory {
                 instance.executor = null;
             }
         }
+        TestExecutionWorkerPool.pullDown();
     }
 
     /**
@@ -265,6 +315,22 @@ public class TestCaseExecutor implements ThreadFactory {
      * @return a {@link org.evosuite.testcase.execution.ExecutionResult} object.
      */
     public ExecutionResult execute(TestCase tc, int timeout) {
+        IslandExecutor island = IslandExecutor.getCurrent();
+        if (island != null && !isWorker()) {
+            return island.execute(tc, timeout);
+        }
+        return executeOnNewScope(tc, timeout);
+    }
+
+    /**
+     * Execute a test case on a new scope of this executor, even on the thread
+     * of an island
+     *
+     * @param tc      a {@link org.evosuite.testcase.TestCase} object.
+     * @param timeout the timeout in ms
+     * @return a {@link org.evosuite.testcase.execution.ExecutionResult} object.
+     */
+    ExecutionResult executeOnNewScope(TestCase tc, int timeout) {
         Scope scope = new Scope();
         ExecutionResult result = execute(tc, scope, timeout);
 
@@ -284,20 +350,22 @@ public class TestCaseExecutor implements ThreadFactory {
      */
     @SuppressWarnings("deprecation")
     private ExecutionResult execute(TestCase tc, Scope scope, int timeout) {
-        ExecutionTracer.getExecutionTracer().clear();
+        getTracer().clear();
 
         // TODO: Re-insert!
         resetObservers();
-        ExecutionObserver.setCurrentTest(tc);
-        MaxTestsStoppingCondition.testExecuted();
-        Runtime.getInstance().resetRuntime();
+        if (!isWorker()) {
+            ExecutionObserver.setCurrentTest(tc);
+            MaxTestsStoppingCondition.testExecuted();
+            Runtime.getInstance().resetRuntime();
+        }
 
         long startTime = System.currentTimeMillis();
 
         TimeoutHandler<ExecutionResult> handler = new TimeoutHandler<>();
 
         // #TODO steenbuck could be nicer (TestRunnable should be an interface
-        TestRunnable callable = new TestRunnable(tc, scope, observers);
+        TestRunnable callable = new TestRunnable(tc, scope, observers, tracer);
         callable.storeCurrentThreads();
 
         /*
@@ -314,21 +382,26 @@ public class TestCaseExecutor implements ThreadFactory {
 
             ExecutionResult result = null;
 
-            // important to call it before setting up the sandbox
-            SystemInUtil.getInstance().initForTestCase();
-            JOptionPaneInputs.getInstance().initForTestCase();
-
-            Sandbox.goingToExecuteSUTCode();
-            TestGenerationContext.getInstance().goingToExecuteSUTCode();
-            try {
+            if (isWorker()) {
+                // the pool has already set up the sandbox for all its workers
                 result = handler.execute(callable, executor, timeout, Properties.CPU_TIMEOUT);
-            } finally {
-                Sandbox.doneWithExecutingSUTCode();
-                TestGenerationContext.getInstance().doneWithExecutingSUTCode();
-            }
+            } else {
+                // important to call it before setting up the sandbox
+                SystemInUtil.getInstance().initForTestCase();
+                JOptionPaneInputs.getInstance().initForTestCase();
+
+                Sandbox.goingToExecuteSUTCode();
+                TestGenerationContext.getInstance().goingToExecuteSUTCode();
+                try {
+                    result = handler.execute(callable, executor, timeout, Properties.CPU_TIMEOUT);
+                } finally {
+                    Sandbox.doneWithExecutingSUTCode();
+                    TestGenerationContext.getInstance().doneWithExecutingSUTCode();
+                }
 
-            PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
-            result.setSecurityException(PermissionStatistics.getInstance().getAndResetExceptionInfo());
+                PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
+                result.setSecurityException(PermissionStatistics.getInstance().getAndResetExceptionInfo());
+            }
             /*
              * TODO: this will need proper care when we ll start to handle
              * threads in the search.
@@ -340,24 +413,26 @@ public class TestCaseExecutor implements ThreadFactory {
              * we waited for all SUT threads to finish
              */
 
-            long endTime = System.currentTimeMillis();
-            timeExecuted += endTime - startTime;
-            testsExecuted++;
+            if (!isWorker()) {
+                long endTime = System.currentTimeMillis();
+                timeExecuted += endTime - startTime;
+                testsExecuted++;
+            }
             return result;
         } catch (ThreadDeath t) {
             logger.warn("Caught ThreadDeath during test execution");
             ExecutionResult result = new ExecutionResult(tc, null);
             result.setThrownExceptions(callable.getExceptionsThrown());
-            result.setTrace(ExecutionTracer.getExecutionTracer().getTrace());
-            ExecutionTracer.getExecutionTracer().clear();
+            result.setTrace(getTracer().getTrace());
+            getTracer().clear();
             return result;
 
         } catch (InterruptedException e1) {
             logger.info("InterruptedException");
             ExecutionResult result = new ExecutionResult(tc, null);
             result.setThrownExceptions(callable.getExceptionsThrown());
-            result.setTrace(ExecutionTracer.getExecutionTracer().getTrace());
-            ExecutionTracer.getExecutionTracer().clear();
+            result.setTrace(getTracer().getTrace());
+            getTracer().clear();
             return result;
         } catch (ExecutionException e1) {
             /*
@@ -365,14 +440,16 @@ public class TestCaseExecutor implements ThreadFactory {
              * evosuite. As exceptions from the tested code are caught before
              * this.
              */
-            System.setOut(systemOut);
-            System.setErr(systemErr);
+            if (!isWorker()) {
+                System.setOut(systemOut);
+                System.setErr(systemErr);
+            }
 
             logger.error("ExecutionException (this is likely a serious error in the framework)", e1);
             ExecutionResult result = new ExecutionResult(tc, null);
             result.setThrownExceptions(callable.getExceptionsThrown());
-            result.setTrace(ExecutionTracer.getExecutionTracer().getTrace());
-            ExecutionTracer.getExecutionTracer().clear();
+            result.setTrace(getTracer().getTrace());
+            getTracer().clear();
             if (e1.getCause() instanceof Error) { // an error was thrown
                 // somewhere in evosuite
                 // code
@@ -389,7 +466,7 @@ public class TestCaseExecutor implements ThreadFactory {
                 logger.warn("Timeout occurred for " + Properties.TARGET_CLASS);
             }
             logger.info("TimeoutException, need to stop runner", e1);
-            ExecutionTracer.setKillSwitch(true);
+            getTracer().setTracerKillSwitch(true);
             try {
                 handler.getLastTask().get(Properties.SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
             } catch (InterruptedException e2) {
@@ -410,7 +487,7 @@ public class TestCaseExecutor implements ThreadFactory {
                     // and that is costly - to speed things up we deactivate it
                     // until we're outside the static constructor
                     LoopCounter.getInstance().setActive(false);
-                    ExecutionTracer.setKillSwitch(false);
+                    getTracer().setTracerKillSwitch(false);
                     logger.info("Run still not finished, but awaiting for static initializer to finish.");
 
                     try {
@@ -421,7 +498,7 @@ public class TestCaseExecutor implements ThreadFactory {
                     }
                 }
                 LoopCounter.getInstance().setActive(loopCounter);
-                ExecutionTracer.setKillSwitch(true);
+                getTracer().setTracerKillSwitch(true);
 
                 if (!callable.isRunFinished()) {
                     handler.getLastTask().cancel(true);
@@ -454,17 +531,17 @@ public class TestCaseExecutor implements ThreadFactory {
                     } catch (Throwable t) {
                         logger.info("Throwable: " + t);
                     }
-                    ExecutionTracer.disable();
+                    getTracer().setDisabled(true);
                     executor = Executors.newSingleThreadExecutor(this);
                 }
             } else {
                 logger.info("Run is finished - " + currentThread.isAlive() + ": " + getNumStalledThreads());
 
             }
-            ExecutionTracer.disable();
+            getTracer().setDisabled(true);
 
             // TODO: If this is true, is this problematic?
-            if (Sandbox.isOnAndExecutingSUTCode()) {
+            if (!isWorker() && Sandbox.isOnAndExecutingSUTCode()) {
                 Sandbox.doneWithExecutingSUTCode();
                 TestGenerationContext.getInstance().doneWithExecutingSUTCode();
             }
@@ -472,18 +549,22 @@ public class TestCaseExecutor implements ThreadFactory {
             ExecutionResult result = new ExecutionResult(tc, null);
             result.setThrownExceptions(callable.getExceptionsThrown());
             result.reportNewThrownException(tc.size(), new TestCaseExecutor.TimeoutExceeded());
-            result.setTrace(ExecutionTracer.getExecutionTracer().getTrace());
-            ExecutionTracer.getExecutionTracer().clear();
-            ExecutionTracer.setKillSwitch(false);
-            ExecutionTracer.enable();
-            System.setOut(systemOut);
-            System.setErr(systemErr);
+            result.setTrace(getTracer().getTrace());
+            getTracer().clear();
+            getTracer().setTracerKillSwitch(false);
+            getTracer().setDisabled(false);
+            if (!isWorker()) {
+                System.setOut(systemOut);
+                System.setErr(systemErr);
+            }
 
             return result;
         } finally {
-            if (threadGroup != null)
-                PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
-            TestCluster.getInstance().handleRuntimeAccesses(tc);
+            if (!isWorker()) {
+                if (threadGroup != null)
+                    PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
+                TestCluster.getInstance().handleRuntimeAccesses(tc);
+            }
         }
     }
 
@@ -519,6 +600,9 @@ public class TestCaseExecutor implements ThreadFactory {
      */
     @Override
     public Thread newThread(Runnable r) {
+        if (currentThread instanceof ExecutionThread) {
+            ((ExecutionThread) currentThread).detach();
+        }
         if (currentThread != null && currentThread.isAlive()) {
             currentThread.setPriority(Thread.MIN_PRIORITY);
             stalledThreads.add(currentThread);
@@ -527,15 +611,21 @@ public class TestCaseExecutor implements ThreadFactory {
             logger.info("No stalled threads");
         }
 
-        if (threadGroup != null) {
+        if (threadGroup != null && !isWorker()) {
             PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
         }
         threadGroup = new ThreadGroup(TEST_EXECUTION_THREAD_GROUP);
-        currentThread = new Thread(threadGroup, r);
-        currentThread.setName(TEST_EXECUTION_THREAD + "_" + threadCounter);
+        currentThread = new ExecutionThread(threadGroup, r, getTracer());
+        if (isWorker()) {
+            currentThread.setName(TEST_EXECUTION_THREAD + "_WORKER_" + threadCounter);
+        } else {
+            currentThread.setName(TEST_EXECUTION_THREAD + "_" + threadCounter);
+        }
         threadCounter++;
         currentThread.setContextClassLoader(TestGenerationContext.getInstance().getClassLoaderForSUT());
-        ExecutionTracer.setThread(currentThread);
+        if (!isWorker()) {
+            ExecutionTracer.setThread(currentThread);
+        }
         return currentThread;
     }
 
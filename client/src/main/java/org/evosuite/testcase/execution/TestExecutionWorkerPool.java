@@ -0,0 +1,397 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.Runtime;
+import org.evosuite.runtime.jvm.ShutdownHookHandler;
+import org.evosuite.runtime.sandbox.PermissionStatistics;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.runtime.thread.ThreadCounter;
+import org.evosuite.runtime.util.JOptionPaneInputs;
+import org.evosuite.runtime.util.SystemInUtil;
+import org.evosuite.setup.TestCluster;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.environment.AccessedEnvironment;
+import org.evosuite.testcase.statements.reflection.PrivateFieldStatement;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * Executes the tests of a population on several {@link TestCaseExecutor}
+ * workers at the same time. Each worker has its own execution thread, traced
+ * by its own {@link ExecutionTracer}, and executes each test on a fresh
+ * {@link Scope}. The global state that is shared by all tests (sandbox,
+ * mocked runtime, muted output streams, stopping conditions) is set up once
+ * per batch by the pool rather than once per test.
+ * </p>
+ *
+ * <p>
+ * The results are stored as last execution results of the chromosomes, such
+ * that the fitness functions do not execute the tests again. Tests that are
+ * known to touch static state are executed serially by the global
+ * {@link TestCaseExecutor}, and if any test of a batch turns out to write
+ * static fields, to time out, or to access the environment, the whole batch
+ * is executed again serially.
+ * </p>
+ *
+ * <p>
+ * The mocks of JVM non-determinism (time, random numbers) are shared by all
+ * workers, so values drawn from them during a concurrent batch would depend
+ * on the interleaving of the tests. Tests whose last execution used these
+ * mocks are therefore executed serially, each on a freshly reset runtime,
+ * and a batch in which any test used them is executed again serially.
+ * </p>
+ */
+public class TestExecutionWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestExecutionWorkerPool.class);
+
+    private static TestExecutionWorkerPool instance = null;
+
+    private final int numWorkers;
+
+    private final BlockingQueue<TestCaseExecutor> idleWorkers;
+
+    private final List<TestCaseExecutor> workers = new ArrayList<>();
+
+    private final ThreadPoolExecutor dispatcher;
+
+    private int numParallelTests = 0;
+
+    private int numSerialTests = 0;
+
+    /**
+     * Whether tests should be executed concurrently at all
+     *
+     * @return a boolean.
+     */
+    public static boolean isEnabled() {
+        // the islands of an island model execute their tests concurrently already
+        return Properties.EXECUTION_WORKERS > 1 && IslandExecutor.getCurrent() == null;
+    }
+
+    /**
+     * <p>
+     * Getter for the field <code>instance</code>. A new pool is created if
+     * the number of workers has changed.
+     * </p>
+     *
+     * @return a {@link org.evosuite.testcase.execution.TestExecutionWorkerPool} object.
+     */
+    public static synchronized TestExecutionWorkerPool getInstance() {
+        if (instance != null && instance.numWorkers != Properties.EXECUTION_WORKERS) {
+            instance.shutdown();
+            instance = null;
+        }
+        if (instance == null)
+            instance = new TestExecutionWorkerPool(Math.max(1, Properties.EXECUTION_WORKERS));
+
+        return instance;
+    }
+
+    /**
+     * Stop all workers of the current pool
+     */
+    public static synchronized void pullDown() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    private TestExecutionWorkerPool(int numWorkers) {
+        this.numWorkers = numWorkers;
+        this.idleWorkers = new ArrayBlockingQueue<>(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            TestCaseExecutor worker = new TestCaseExecutor(new ExecutionTracer());
+            workers.add(worker);
+            idleWorkers.add(worker);
+        }
+
+        /*
+         * The dispatching threads are started right away, as once the sandbox
+         * is on only privileged threads may create new threads
+         */
+        this.dispatcher = new ThreadPoolExecutor(numWorkers, numWorkers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new ThreadFactory() {
+            private int counter = 0;
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "TEST_EXECUTION_DISPATCHER_" + counter++);
+                thread.setDaemon(true);
+                Sandbox.addPrivilegedThread(thread);
+                return thread;
+            }
+        });
+        this.dispatcher.prestartAllCoreThreads();
+    }
+
+    private void shutdown() {
+        dispatcher.shutdownNow();
+        workers.forEach(TestCaseExecutor::shutdown);
+        workers.clear();
+        idleWorkers.clear();
+    }
+
+    public int getNumWorkers() {
+        return numWorkers;
+    }
+
+    /**
+     * @return the number of tests whose concurrent execution result was kept
+     */
+    public int getNumParallelTests() {
+        return numParallelTests;
+    }
+
+    /**
+     * @return the number of tests that had to be executed serially
+     */
+    public int getNumSerialTests() {
+        return numSerialTests;
+    }
+
+    /**
+     * Execute all tests of the given chromosomes (test cases or test suites)
+     * that have changed since their last execution, and store the results in
+     * the test chromosomes.
+     *
+     * @param chromosomes a {@link java.util.Collection} object.
+     */
+    public void executeChromosomes(Collection<? extends Chromosome<?>> chromosomes) {
+        List<TestChromosome> tests = new ArrayList<>();
+        for (Chromosome<?> chromosome : chromosomes) {
+            if (chromosome instanceof TestChromosome) {
+                tests.add((TestChromosome) chromosome);
+            } else if (chromosome instanceof TestSuiteChromosome) {
+                tests.addAll(((TestSuiteChromosome) chromosome).getTestChromosomes());
+            }
+        }
+        executeTests(tests);
+    }
+
+    /**
+     * Execute all given tests that have changed since their last execution,
+     * and store the results in the test chromosomes.
+     *
+     * @param tests a {@link java.util.Collection} object.
+     */
+    public void executeTests(Collection<TestChromosome> tests) {
+        // Observers are not thread safe, so all tests are executed serially
+        if (!TestCaseExecutor.getInstance().getExecutionObservers().isEmpty())
+            return;
+
+        Set<TestChromosome> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<TestChromosome> parallel = new ArrayList<>();
+        List<TestChromosome> serial = new ArrayList<>();
+        for (TestChromosome test : tests) {
+            if (!seen.add(test) || (!test.isChanged() && test.getLastExecutionResult() != null))
+                continue;
+            if (touchesStaticState(test))
+                serial.add(test);
+            else
+                parallel.add(test);
+        }
+
+        if (parallel.size() > 1) {
+            executeBatch(parallel);
+        } else {
+            serial.addAll(parallel);
+        }
+        serial.forEach(this::executeSerially);
+    }
+
+    /**
+     * Check whether a test needs to be executed on its own, as it or its
+     * previous execution accessed static fields or the environment
+     */
+    private static boolean touchesStaticState(TestChromosome test) {
+        ExecutionResult lastResult = test.getLastExecutionResult();
+        if (lastResult != null && hasGlobalSideEffects(lastResult))
+            return true;
+
+        return touchesStaticState(test.getTestCase());
+    }
+
+    /**
+     * Check whether a test accesses the environment, or references static
+     * fields in any of its statements
+     */
+    static boolean touchesStaticState(TestCase tc) {
+        if (accessesEnvironment(tc))
+            return true;
+
+        for (Statement statement : tc) {
+            if (statement instanceof FieldStatement && ((FieldStatement) statement).getField().isStatic())
+                return true;
+            if (statement instanceof PrivateFieldStatement && ((PrivateFieldStatement) statement).isStaticField())
+                return true;
+            for (VariableReference var : statement.getVariableReferences()) {
+                if (var instanceof FieldReference && ((FieldReference) var).getField().isStatic())
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean accessesEnvironment(TestCase tc) {
+        AccessedEnvironment environment = tc.getAccessedEnvironment();
+        return environment.isFileSystemAccessed() || environment.isNetworkAccessed();
+    }
+
+    /**
+     * Check whether a result shows effects that may have leaked into the
+     * tests that were executed at the same time, or depends on mocked state
+     * that these tests may have changed
+     */
+    static boolean hasGlobalSideEffects(ExecutionResult result) {
+        ExecutionTrace trace = result.getTrace();
+        return result.hasTimeout()
+                || result.wasRandomOrTimeAccessed()
+                || result.hasSecurityException()
+                || result.wasAnyPropertyWritten()
+                || (result.getReadProperties() != null && !result.getReadProperties().isEmpty())
+                || (trace != null && (!trace.getClassesWithStaticWrites().isEmpty()
+                || !trace.getInitializedClasses().isEmpty()));
+    }
+
+    private void executeSerially(TestChromosome test) {
+        ExecutionResult result = TestCaseExecutor.runTest(test.getTestCase());
+        test.setLastExecutionResult(result);
+        test.setChanged(false);
+        numSerialTests++;
+    }
+
+    private void executeBatch(List<TestChromosome> batch) {
+        logger.debug("Executing {} tests on {} workers", batch.size(), numWorkers);
+        Map<TestChromosome, Future<ExecutionResult>> futures = new LinkedHashMap<>();
+        Map<TestChromosome, ExecutionResult> results = new IdentityHashMap<>();
+        boolean conflict = false;
+        boolean securityException;
+
+        Runtime.getInstance().resetRuntime();
+        if (Properties.REPLACE_CALLS) {
+            ShutdownHookHandler.getInstance().initHandler();
+        }
+        SystemInUtil.getInstance().initForTestCase();
+        JOptionPaneInputs.getInstance().initForTestCase();
+        if (!Properties.PRINT_TO_SYSTEM) {
+            LoggingUtils.muteCurrentOutAndErrStream();
+        }
+        LoopCounter.getInstance().setThreadConfined(true);
+
+        Sandbox.goingToExecuteSUTCode();
+        TestGenerationContext.getInstance().goingToExecuteSUTCode();
+        try {
+            for (TestChromosome test : batch) {
+                futures.put(test, dispatcher.submit(() -> executeOnIdleWorker(test.getTestCase())));
+            }
+            for (Map.Entry<TestChromosome, Future<ExecutionResult>> entry : futures.entrySet()) {
+                try {
+                    results.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    logger.info("Concurrent test execution failed: {}", e.getCause().toString());
+                    conflict = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.info("Interrupted while waiting for test execution");
+            futures.values().forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            conflict = true;
+        } finally {
+            Sandbox.doneWithExecutingSUTCode();
+            TestGenerationContext.getInstance().doneWithExecutingSUTCode();
+
+            LoopCounter.getInstance().setThreadConfined(false);
+            if (!Properties.PRINT_TO_SYSTEM) {
+                LoggingUtils.restorePreviousOutAndErrStream();
+            }
+            securityException = PermissionStatistics.getInstance().getAndResetExceptionInfo();
+            if (Properties.REPLACE_CALLS) {
+                List<Thread> hooks = ShutdownHookHandler.getInstance().getAddedHooks();
+                if (hooks != null && !hooks.isEmpty())
+                    conflict = true;
+                ShutdownHookHandler.getInstance().safeExecuteAddedHooks();
+            }
+        }
+
+        if (securityException || ThreadCounter.getInstance().getNumberOfStartedThreads() > 0)
+            conflict = true;
+
+        for (TestChromosome test : batch) {
+            ExecutionResult result = results.get(test);
+            TestCluster.getInstance().handleRuntimeAccesses(test.getTestCase());
+            if (result == null || hasGlobalSideEffects(result)
+                    || accessesEnvironment(test.getTestCase()))
+                conflict = true;
+        }
+
+        if (Properties.RESET_STATIC_FIELDS) {
+            results.forEach((test, result) -> ClassReInitializer.getInstance()
+                    .reInitializeClassesAfterTestExecution(test.getTestCase(), result));
+        }
+
+        if (conflict) {
+            logger.debug("Tests of the batch interfered with each other, executing them serially");
+            batch.forEach(this::executeSerially);
+            return;
+        }
+
+        for (TestChromosome test : batch) {
+            ExecutionResult result = results.get(test);
+            MaxTestsStoppingCondition.testExecuted();
+            MaxStatementsStoppingCondition.statementsExecuted(result.getExecutedStatements());
+            TestCaseExecutor.testsExecuted++;
+            TestCaseExecutor.timeExecuted += result.getExecutionTime();
+            test.setLastExecutionResult(result);
+            test.setChanged(false);
+            numParallelTests++;
+        }
+    }
+
+    private ExecutionResult executeOnIdleWorker(TestCase test) throws InterruptedException {
+        TestCaseExecutor worker = idleWorkers.take();
+        try {
+            return worker.executeOnWorker(test, Properties.TIMEOUT);
+        } finally {
+            idleWorkers.put(worker);
+        }
+    }
+}
@@ -22,12 +22,19 @@ package org.evosuite.testcase.execution;
 import org.evosuite.PackageInfo;
 import org.evosuite.Properties;
 import org.evosuite.dse.VMError;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
 import org.evosuite.runtime.System.SystemExitException;
 import org.evosuite.runtime.jvm.ShutdownHookHandler;
 import org.evosuite.runtime.thread.KillSwitch;
 import org.evosuite.runtime.thread.ThreadStopper;
 import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.PrimitiveStatement;
 import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.environment.AccessedEnvironment;
 import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +75,13 @@ public class TestRunnable implements InterfaceTestRunnable {
 
     protected final ThreadStopper threadStopper;
 
+    /**
+     * Whether this runnable executes on a worker of the
+     * {@link TestExecutionWorkerPool}, in which case the global output
+     * streams, shutdown hooks and loop counters are managed by the pool
+     */
+    private final boolean onWorker;
+
     /**
      * <p>
      * Constructor for TestRunnable.
@@ -78,12 +92,26 @@ public class TestRunnable implements InterfaceTestRunnable {
      * @param observers a {@link java.util.Set} object.
      */
     public TestRunnable(TestCase tc, Scope scope, Set<ExecutionObserver> observers) {
+        this(tc, scope, observers, null);
+    }
+
+    /**
+     * Constructor for a TestRunnable that is executed on a worker thread with
+     * its own tracer
+     *
+     * @param tc        a {@link org.evosuite.testcase.TestCase} object.
+     * @param scope     a {@link org.evosuite.testcase.execution.Scope} object.
+     * @param observers a {@link java.util.Set} object.
+     * @param tracer    the tracer of the worker thread, or null for the global tracer
+     */
+    TestRunnable(TestCase tc, Scope scope, Set<ExecutionObserver> observers, ExecutionTracer tracer) {
         test = tc;
         this.scope = scope;
         this.observers = observers;
         runFinished = false;
+        onWorker = tracer != null;
 
-        KillSwitch killSwitch = ExecutionTracer::setKillSwitch;
+        KillSwitch killSwitch = onWorker ? tracer::setTracerKillSwitch : ExecutionTracer::setKillSwitch;
         Set<String> threadsToIgnore = new LinkedHashSet<>();
         threadsToIgnore.add(TestCaseExecutor.TEST_EXECUTION_THREAD);
         threadsToIgnore.addAll(Arrays.asList(Properties.IGNORE_THREADS));
@@ -172,9 +200,12 @@ public class TestRunnable implements InterfaceTestRunnable {
         PrintStream out = (Properties.PRINT_TO_SYSTEM ? System.out : new PrintStream(byteStream));
         byteStream.reset();
 
-        if (!Properties.PRINT_TO_SYSTEM) {
+        if (!Properties.PRINT_TO_SYSTEM && !onWorker) {
             LoggingUtils.muteCurrentOutAndErrStream();
         }
+        if (onWorker) {
+            LoopCounter.getInstance().reset();
+        }
 
         threadStopper.startRecordingTime();
 
@@ -185,7 +216,7 @@ public class TestRunnable implements InterfaceTestRunnable {
         AtomicInteger num = new AtomicInteger(0);
 
         try {
-            if (Properties.REPLACE_CALLS) {
+            if (Properties.REPLACE_CALLS && !onWorker) {
                 ShutdownHookHandler.getInstance().initHandler();
             }
 
@@ -223,10 +254,10 @@ public class TestRunnable implements InterfaceTestRunnable {
             logger.error("Suppressed/ignored exception during test case execution on class "
                     + Properties.TARGET_CLASS + ": " + e.getMessage(), e);
         } finally {
-            if (!Properties.PRINT_TO_SYSTEM) {
+            if (!Properties.PRINT_TO_SYSTEM && !onWorker) {
                 LoggingUtils.restorePreviousOutAndErrStream();
             }
-            if (Properties.REPLACE_CALLS) {
+            if (Properties.REPLACE_CALLS && !onWorker) {
                 /*
                  * For simplicity, we call it here. Ideally, we could call it among the
                  * statements, with "non-safe" version, to check if any exception is thrown.
@@ -244,6 +275,8 @@ public class TestRunnable implements InterfaceTestRunnable {
         result.setThrownExceptions(exceptionsThrown);
         result.setReadProperties(org.evosuite.runtime.System.getAllPropertiesReadSoFar());
         result.setWasAnyPropertyWritten(org.evosuite.runtime.System.wasAnyPropertyWritten());
+        result.setWasRandomOrTimeAccessed(RuntimeSettings.mockJVMNonDeterminism
+                && (org.evosuite.runtime.Random.wasAccessed() || org.evosuite.runtime.System.wasTimeAccessed()));
 
         return result;
     }
@@ -266,7 +299,24 @@ public class TestRunnable implements InterfaceTestRunnable {
             InvocationTargetException, IllegalAccessException,
             InstantiationException, VMError, EvosuiteError {
 
-        for (Statement s : test) {
+        boolean checkpoints = Properties.RESUME_TEST_EXECUTION && observers.isEmpty();
+        int start = checkpoints ? resumeFromCheckpoint(result) : 0;
+        num.set(start);
+
+        // whether the statements executed so far may be skipped by a checkpoint
+        boolean clean = checkpoints;
+        // whether SUT code was executed since the last checkpoint
+        boolean called = false;
+        ExecutionCheckpoint checkpoint = null;
+
+        for (int position = start; position < test.size(); position++) {
+            Statement s = test.getStatement(position);
+
+            if (clean && called && !ExecutionCheckpoint.isImmutableType(s.getReturnValue().getVariableClass())) {
+                // the statement is likely to produce a mutable object
+                checkpoint = takeCheckpoint(position, checkpoint);
+                called = false;
+            }
 
             if (Thread.currentThread().isInterrupted() || Thread.interrupted()) {
                 logger.info("Thread interrupted at statement " + num + ": " + s.getCode());
@@ -286,6 +336,8 @@ public class TestRunnable implements InterfaceTestRunnable {
             Throwable exceptionThrown = s.execute(scope, out);
 
             if (exceptionThrown != null) {
+                clean = false;
+
                 // if internal error, then throw exception
                 // -------------------------------------------------------
                 if (exceptionThrown instanceof VMError) {
@@ -340,12 +392,79 @@ public class TestRunnable implements InterfaceTestRunnable {
 
             informObservers_after(s, exceptionThrown);
 
+            if (clean) {
+                clean = canBeSkipped(s);
+                called |= s instanceof MethodStatement || s instanceof ConstructorStatement;
+            }
+
             num.incrementAndGet();
         } // end of loop
+
+        if (checkpoints) {
+            if (clean && called) {
+                checkpoint = takeCheckpoint(test.size(), checkpoint);
+            }
+            // a checkpoint that was not used is of no use for the clones either
+            if (checkpoint != null || start == 0) {
+                test.setExecutionCheckpoint(checkpoint);
+            }
+        }
         informObservers_finished(result);
         //TODO
     }
 
+    /**
+     * Restore the state that an earlier execution of the test, or of the test
+     * it was cloned from, reached after a prefix of the statements, unless
+     * the prefix changed or the test accessed the environment
+     *
+     * @param result the result of the current execution
+     * @return the number of statements that need not be executed
+     */
+    private int resumeFromCheckpoint(ExecutionResult result) {
+        ExecutionCheckpoint checkpoint = test.getExecutionCheckpoint();
+        AccessedEnvironment environment = test.getAccessedEnvironment();
+        if (checkpoint == null || environment.isFileSystemAccessed() || environment.isNetworkAccessed()
+                || !checkpoint.isPrefixOf(test)) {
+            return 0;
+        }
+
+        logger.debug("Resuming execution after statement {}", checkpoint.getPosition());
+        checkpoint.restore(test, scope);
+        ExecutionTracer.getExecutionTracer().resumeTrace(checkpoint.getTrace(), checkpoint.getPosition());
+        result.setRestoredStatements(checkpoint.getPosition());
+        return checkpoint.getPosition();
+    }
+
+    /**
+     * Check whether a statement that was executed without exception keeps the
+     * execution in a state that a checkpoint can restore: all values are
+     * immutable, and no static state, random numbers or system properties
+     * were used. Statements that access fields or create arrays, mocks or
+     * other objects end the prefix that can be skipped.
+     *
+     * @param s the executed statement
+     * @return a boolean.
+     */
+    private boolean canBeSkipped(Statement s) {
+        if (!(s instanceof PrimitiveStatement || s instanceof NullStatement
+                || s instanceof MethodStatement || s instanceof ConstructorStatement)) {
+            return false;
+        }
+        return ExecutionCheckpoint.isImmutable(scope.getObject(s.getReturnValue()))
+                && !ExecutionTracer.getExecutionTracer().hasTouchedStaticState()
+                && !org.evosuite.runtime.Random.wasAccessed()
+                && !org.evosuite.runtime.System.wasAnyPropertyWritten();
+    }
+
+    private ExecutionCheckpoint takeCheckpoint(int position, ExecutionCheckpoint previous) {
+        ExecutionTraceImpl trace = ExecutionTracer.getExecutionTracer().snapshotTrace();
+        if (trace == null) {
+            return previous;
+        }
+        return new ExecutionCheckpoint(test, scope, position, trace);
+    }
+
     private void printDebugInfo(Statement s, Throwable exceptionThrown) {
         // some debugging info
         // --------------------------------------------------------
@@ -215,7 +215,7 @@ public class ConstructorStatement extends EntityWithParametersStatement {
                         }
                     }
 
-                    Object ret = constructor.getConstructor().newInstance(inputs);
+                    Object ret = constructor.newInstance(inputs);
 
                     try {
                         // assert(retval.getVariableClass().isAssignableFrom(ret.getClass())) :"we want an " + retval.getVariableClass() + " but got an " + ret.getClass();
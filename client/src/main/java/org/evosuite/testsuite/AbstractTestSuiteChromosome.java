@@ -305,6 +305,15 @@ public abstract class AbstractTestSuiteChromosome<T extends AbstractTestSuiteChr
         addTestChromosomes(newTests);
     }
 
+    /**
+     * Compacts the cached execution results of all tests in this suite
+     *
+     * @see ExecutableChromosome#compactCachedResults()
+     */
+    public void compactCachedResults() {
+        tests.forEach(E::compactCachedResults);
+    }
+
     public List<ExecutionResult> getLastExecutionResults() {
         return tests.stream()
                 .map(E::getLastExecutionResult)
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.testcase.execution.ExecutionResult;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The statistics a suite fitness function collects from the execution results
+ * of a test suite, i.e., summed counts (such as how often a predicate was
+ * executed) and minima (such as the smallest distance to a branch), kept in a
+ * fixed number of channels.
+ * <p>
+ * Each execution result is analysed once, when it first appears in the suite,
+ * and its contribution is remembered by its execution id. When the suite is
+ * evaluated again, only the contributions of the results that were added or
+ * removed since the last evaluation are applied. A minimum that was reached by
+ * a removed result is recomputed from the remaining contributions when it is
+ * read.
+ */
+public final class SuiteFitnessAggregate {
+
+    /**
+     * What a single execution result contributes to the aggregate
+     */
+    public static final class Contribution {
+
+        private boolean failed = false;
+
+        private final Map<Object, Integer>[] counts;
+
+        private final Map<Object, Double>[] minima;
+
+        @SuppressWarnings("unchecked")
+        public Contribution(int countChannels, int minimumChannels) {
+            counts = new Map[countChannels];
+            minima = new Map[minimumChannels];
+            for (int i = 0; i < countChannels; i++) {
+                counts[i] = new LinkedHashMap<>();
+            }
+            for (int i = 0; i < minimumChannels; i++) {
+                minima[i] = new LinkedHashMap<>();
+            }
+        }
+
+        /**
+         * Marks the result as timed out or failed, which usually means the
+         * suite gets the worst fitness
+         */
+        public void setFailed() {
+            failed = true;
+        }
+
+        public void addCounts(int channel, Map<?, Integer> values) {
+            values.forEach((key, count) -> counts[channel].merge(key, count, Integer::sum));
+        }
+
+        public void addKeys(int channel, Collection<?> keys) {
+            for (Object key : keys) {
+                counts[channel].merge(key, 1, Integer::sum);
+            }
+        }
+
+        public void addMinima(int channel, Map<?, Double> values) {
+            values.forEach((key, value) -> minima[channel].merge(key, value, Math::min));
+        }
+    }
+
+    private final Map<Long, Contribution> contributions = new LinkedHashMap<>();
+
+    private final Map<Long, Integer> multiplicities = new HashMap<>();
+
+    private int failed = 0;
+
+    private final Map<Object, Integer>[] counts;
+
+    private final Map<Object, Double>[] minima;
+
+    /**
+     * Keys of the minima whose value may have been reached only by removed
+     * results
+     */
+    private final Set<Object>[] stale;
+
+    /**
+     * Set when the aggregate is referenced by a clone of its suite, which
+     * makes the next update work on a copy
+     */
+    private boolean shared = false;
+
+    @SuppressWarnings("unchecked")
+    public SuiteFitnessAggregate(int countChannels, int minimumChannels) {
+        counts = new Map[countChannels];
+        minima = new Map[minimumChannels];
+        stale = new Set[minimumChannels];
+        for (int i = 0; i < countChannels; i++) {
+            counts[i] = new LinkedHashMap<>();
+        }
+        for (int i = 0; i < minimumChannels; i++) {
+            minima[i] = new LinkedHashMap<>();
+            stale[i] = new LinkedHashSet<>();
+        }
+    }
+
+    private SuiteFitnessAggregate(SuiteFitnessAggregate other) {
+        this(other.counts.length, other.minima.length);
+        contributions.putAll(other.contributions);
+        multiplicities.putAll(other.multiplicities);
+        failed = other.failed;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i].putAll(other.counts[i]);
+        }
+        for (int i = 0; i < minima.length; i++) {
+            minima[i].putAll(other.minima[i]);
+            stale[i].addAll(other.stale[i]);
+        }
+    }
+
+    SuiteFitnessAggregate copy() {
+        return new SuiteFitnessAggregate(this);
+    }
+
+    void markShared() {
+        shared = true;
+    }
+
+    boolean isShared() {
+        return shared;
+    }
+
+    boolean matches(int countChannels, int minimumChannels) {
+        return counts.length == countChannels && minima.length == minimumChannels;
+    }
+
+    /**
+     * Brings the aggregate up to date with the given execution results of the
+     * suite.
+     *
+     * @param results  the current execution results of the suite
+     * @param analyzer computes the contribution of a result that is new to the
+     *                 aggregate; its side effects (such as updating the archive)
+     *                 therefore only happen once per result
+     */
+    public void update(List<ExecutionResult> results, Function<ExecutionResult, Contribution> analyzer) {
+        Map<Long, Integer> current = new LinkedHashMap<>();
+        Map<Long, ExecutionResult> added = new LinkedHashMap<>();
+        for (ExecutionResult result : results) {
+            long id = result.getExecutionId();
+            current.merge(id, 1, Integer::sum);
+            if (!multiplicities.containsKey(id)) {
+                added.putIfAbsent(id, result);
+            }
+        }
+
+        Iterator<Map.Entry<Long, Integer>> iterator = multiplicities.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Integer> entry = iterator.next();
+            int delta = current.getOrDefault(entry.getKey(), 0) - entry.getValue();
+            if (delta == 0) {
+                continue;
+            }
+            Contribution contribution = contributions.get(entry.getKey());
+            apply(contribution, delta);
+            if (delta < 0 && entry.getValue() + delta == 0) {
+                iterator.remove();
+                contributions.remove(entry.getKey());
+                invalidateMinima(contribution);
+            } else {
+                entry.setValue(entry.getValue() + delta);
+            }
+        }
+
+        for (Map.Entry<Long, ExecutionResult> entry : added.entrySet()) {
+            Contribution contribution = analyzer.apply(entry.getValue());
+            int multiplicity = current.get(entry.getKey());
+            contributions.put(entry.getKey(), contribution);
+            multiplicities.put(entry.getKey(), multiplicity);
+            apply(contribution, multiplicity);
+            for (int i = 0; i < minima.length; i++) {
+                Map<Object, Double> channel = minima[i];
+                contribution.minima[i].forEach((key, value) -> channel.merge(key, value, Math::min));
+            }
+        }
+    }
+
+    private void apply(Contribution contribution, int multiplicity) {
+        if (contribution.failed) {
+            failed += multiplicity;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            Map<Object, Integer> channel = counts[i];
+            contribution.counts[i].forEach((key, count) -> {
+                int sum = channel.getOrDefault(key, 0) + multiplicity * count;
+                if (sum == 0) {
+                    channel.remove(key);
+                } else {
+                    channel.put(key, sum);
+                }
+            });
+        }
+    }
+
+    private void invalidateMinima(Contribution removed) {
+        for (int i = 0; i < minima.length; i++) {
+            Map<Object, Double> channel = minima[i];
+            for (Map.Entry<Object, Double> entry : removed.minima[i].entrySet()) {
+                if (entry.getValue().equals(channel.get(entry.getKey()))) {
+                    stale[i].add(entry.getKey());
+                }
+            }
+        }
+    }
+
+    private void recomputeMinima(int channel) {
+        if (stale[channel].isEmpty()) {
+            return;
+        }
+        for (Object key : stale[channel]) {
+            Double minimum = null;
+            for (Contribution contribution : contributions.values()) {
+                Double value = contribution.minima[channel].get(key);
+                if (value != null && (minimum == null || value < minimum)) {
+                    minimum = value;
+                }
+            }
+            if (minimum == null) {
+                minima[channel].remove(key);
+            } else {
+                minima[channel].put(key, minimum);
+            }
+        }
+        stale[channel].clear();
+    }
+
+    /**
+     * Tells whether any of the results timed out or failed
+     */
+    public boolean hasFailedResults() {
+        return failed > 0;
+    }
+
+    /**
+     * Returns the summed counts of the given channel; keys whose count drops
+     * to zero are not contained.
+     */
+    @SuppressWarnings("unchecked")
+    public <K> Map<K, Integer> getCounts(int channel) {
+        return Collections.unmodifiableMap((Map<K, Integer>) counts[channel]);
+    }
+
+    /**
+     * Returns the minima of the given channel over all results that have a
+     * value for the key.
+     */
+    @SuppressWarnings("unchecked")
+    public <K> Map<K, Double> getMinima(int channel) {
+        recomputeMinima(channel);
+        return Collections.unmodifiableMap((Map<K, Double>) minima[channel]);
+    }
+}
@@ -52,6 +52,12 @@ public final class TestSuiteChromosome
     private static int secondaryObjIndex = 0;
     private static final long serialVersionUID = 88380759969800800L;
 
+    /**
+     * Statistics of the suite fitness functions that evaluate this suite
+     * incrementally
+     */
+    private transient Map<TestSuiteFitnessFunction, SuiteFitnessAggregate> fitnessAggregates = null;
+
     /**
      * Add an additional secondary objective to the end of the list of
      * objectives
@@ -132,6 +138,34 @@ public final class TestSuiteChromosome
      */
     protected TestSuiteChromosome(TestSuiteChromosome source) {
         super(source);
+        if (source.fitnessAggregates != null) {
+            // Shared until one of the two suites is evaluated again
+            source.fitnessAggregates.values().forEach(SuiteFitnessAggregate::markShared);
+            fitnessAggregates = new IdentityHashMap<>(source.fitnessAggregates);
+        }
+    }
+
+    /**
+     * Returns the aggregate of the given fitness function that belongs to this
+     * suite only, or null if there is none
+     */
+    SuiteFitnessAggregate getFitnessAggregate(TestSuiteFitnessFunction ff) {
+        if (fitnessAggregates == null) {
+            return null;
+        }
+        SuiteFitnessAggregate aggregate = fitnessAggregates.get(ff);
+        if (aggregate != null && aggregate.isShared()) {
+            aggregate = aggregate.copy();
+            fitnessAggregates.put(ff, aggregate);
+        }
+        return aggregate;
+    }
+
+    void setFitnessAggregate(TestSuiteFitnessFunction ff, SuiteFitnessAggregate aggregate) {
+        if (fitnessAggregates == null) {
+            fitnessAggregates = new IdentityHashMap<>();
+        }
+        fitnessAggregates.put(ff, aggregate);
     }
 
     /**
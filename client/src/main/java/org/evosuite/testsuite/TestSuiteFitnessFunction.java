@@ -31,6 +31,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 /**
  * <p>
@@ -109,6 +111,50 @@ public abstract class TestSuiteFitnessFunction extends FitnessFunction<TestSuite
         return results;
     }
 
+    /**
+     * Executes the tests of a suite, and evaluates their results while
+     * holding the lock of this fitness function. The islands of an
+     * {@link org.evosuite.ga.metaheuristics.IslandModel} share their fitness
+     * functions: their tests are executed concurrently, whereas the goals
+     * covered so far, which are updated by the evaluation and by
+     * {@link #updateCoveredGoals()}, are only accessed by one island at a time.
+     *
+     * @param suite      the suite to evaluate
+     * @param evaluation computes the fitness of the suite from the results
+     * @return the fitness of the suite
+     */
+    protected double evaluateExclusively(TestSuiteChromosome suite,
+                                         ToDoubleFunction<List<ExecutionResult>> evaluation) {
+        List<ExecutionResult> results = runTestSuite(suite);
+        synchronized (this) {
+            return evaluation.applyAsDouble(results);
+        }
+    }
+
+    /**
+     * Returns the statistics of the given suite, updated with the contributions
+     * of the execution results that are new to it since the last evaluation
+     * with this fitness function.
+     *
+     * @param suite           the suite to evaluate
+     * @param results         the execution results of the suite
+     * @param countChannels   number of channels of summed counts
+     * @param minimumChannels number of channels of minima
+     * @param analyzer        computes the contribution of a new execution result
+     * @return the aggregate of the suite
+     */
+    protected SuiteFitnessAggregate updateAggregate(TestSuiteChromosome suite, List<ExecutionResult> results,
+                                                    int countChannels, int minimumChannels,
+                                                    Function<ExecutionResult, SuiteFitnessAggregate.Contribution> analyzer) {
+        SuiteFitnessAggregate aggregate = suite.getFitnessAggregate(this);
+        if (aggregate == null || !aggregate.matches(countChannels, minimumChannels)) {
+            aggregate = new SuiteFitnessAggregate(countChannels, minimumChannels);
+            suite.setFitnessAggregate(this, aggregate);
+        }
+        aggregate.update(results, analyzer);
+        return aggregate;
+    }
+
 
 
     /* (non-Javadoc)
@@ -21,14 +21,23 @@ package org.evosuite.utils;
 
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.comparators.RankAndCrowdingDistanceComparator;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.ga.metaheuristics.SearchListener;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
+import org.evosuite.rmi.ClientServices;
+import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.testcase.ExecutableChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testsuite.AbstractTestSuiteChromosome;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * EvoSuite can run out of resources: eg out of memory, or too many threads that
@@ -38,6 +47,11 @@ import java.io.Serializable;
  * stop the search. Note: stopping the search when EvoSuite is close to run of
  * memory is important because, if it does actually run out of memory, when it
  * will not be able to write down the results obtained so far!
+ * <p>
+ * With {@link Properties#BOUNDED_MEMORY}, the execution results of the
+ * individuals outside the elite are compacted after each iteration, so that
+ * the memory held by the population does not grow with the length of the
+ * search.
  *
  * @author Gordon Fraser
  */
@@ -51,6 +65,11 @@ public class ResourceController<T extends Chromosome<T>> implements SearchListen
     private GeneticAlgorithm<T> ga;
     private boolean stopComputation;
 
+    /**
+     * Highest heap usage sampled so far (bytes)
+     */
+    private long peakHeapUsage;
+
     public ResourceController() {
         // empty default constructor
     }
@@ -58,6 +77,7 @@ public class ResourceController<T extends Chromosome<T>> implements SearchListen
     public ResourceController(ResourceController<T> that) {
         this.ga = that.ga; // no deep copy
         this.stopComputation = that.stopComputation;
+        this.peakHeapUsage = that.peakHeapUsage;
     }
 
     @Override
@@ -110,8 +130,39 @@ public class ResourceController<T extends Chromosome<T>> implements SearchListen
      */
     @Override
     public void iteration(GeneticAlgorithm<T> algorithm) {
-        // TODO Auto-generated method stub
+        if (Properties.BOUNDED_MEMORY) {
+            compactPopulation(algorithm);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        peakHeapUsage = Math.max(peakHeapUsage, runtime.totalMemory() - runtime.freeMemory());
+    }
 
+    /**
+     * Compacts the execution results of all individuals except the
+     * {@link Properties#ELITE} fittest ones. The population of the
+     * many-objective algorithms (e.g., MOSA) is not sorted by fitness, so
+     * the elite is chosen by rank and crowding distance when the individuals
+     * are ranked, and by fitness otherwise.
+     */
+    private void compactPopulation(GeneticAlgorithm<T> algorithm) {
+        List<T> population = new ArrayList<>(algorithm.getPopulation());
+        if (population.stream().anyMatch(individual -> individual.getRank() >= 0)) {
+            population.sort(new RankAndCrowdingDistanceComparator<>());
+        } else if (!algorithm.getFitnessFunctions().isEmpty()
+                && algorithm.getFitnessFunction().isMaximizationFunction()) {
+            population.sort(Collections.reverseOrder());
+        } else {
+            Collections.sort(population);
+        }
+
+        for (int i = Properties.ELITE; i < population.size(); i++) {
+            T individual = population.get(i);
+            if (individual instanceof ExecutableChromosome) {
+                ((ExecutableChromosome<?>) individual).compactCachedResults();
+            } else if (individual instanceof AbstractTestSuiteChromosome) {
+                ((AbstractTestSuiteChromosome<?, ?>) individual).compactCachedResults();
+            }
+        }
     }
 
     /**
@@ -119,8 +170,11 @@ public class ResourceController<T extends Chromosome<T>> implements SearchListen
      */
     @Override
     public void searchFinished(GeneticAlgorithm<T> algorithm) {
-        // TODO Auto-generated method stub
-
+        ClientServices.track(RuntimeVariable.Peak_Heap_Usage, peakHeapUsage);
+        if (Properties.BOUNDED_MEMORY) {
+            ClientServices.track(RuntimeVariable.Compacted_Execution_Results, ExecutionResult.getNumCompacted());
+            ClientServices.track(RuntimeVariable.Rederived_Execution_Traces, ExecutionResult.getNumRederived());
+        }
     }
 
     /**
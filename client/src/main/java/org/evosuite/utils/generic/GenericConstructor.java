@@ -116,6 +116,22 @@ public class GenericConstructor extends GenericExecutable<GenericConstructor, Co
         return constructor;
     }
 
+    /**
+     * Creates a new instance with the enclosed constructor, with the same semantics as {@link
+     * Constructor#newInstance(Object...)}, but through a cached method handle where possible.
+     *
+     * @param inputs the arguments of the call
+     * @return the new instance
+     * @throws InstantiationException    if the declaring class is abstract
+     * @throws IllegalAccessException    if the constructor is not accessible
+     * @throws IllegalArgumentException  if the arguments do not match the constructor
+     * @throws InvocationTargetException if the constructor throws an exception
+     */
+    public Object newInstance(Object[] inputs) throws InstantiationException, IllegalAccessException,
+            IllegalArgumentException, InvocationTargetException {
+        return MemberHandles.newInstance(constructor, inputs);
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.utils.GenericAccessibleMember#getAccessibleObject()
      */
@@ -108,6 +108,19 @@ public class GenericField extends GenericAccessibleObject<GenericField> {
         return field;
     }
 
+    /**
+     * Reads the value of the enclosed field, with the same semantics as {@link Field#get(Object)},
+     * but through a cached method handle where possible.
+     *
+     * @param source the object to read the field from, or {@code null} for static fields
+     * @return the value of the field
+     * @throws IllegalAccessException   if the field is not accessible
+     * @throws IllegalArgumentException if the source is not an instance of the declaring class
+     */
+    public Object get(Object source) throws IllegalAccessException, IllegalArgumentException {
+        return MemberHandles.get(field, source);
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.utils.GenericAccessibleObject#getAccessibleObject()
      */
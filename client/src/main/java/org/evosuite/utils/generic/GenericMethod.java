@@ -123,6 +123,22 @@ public class GenericMethod extends GenericExecutable<GenericMethod, Method> {
         return method;
     }
 
+    /**
+     * Invokes the enclosed method, with the same semantics as {@link Method#invoke(Object,
+     * Object...)}, but through a cached method handle where possible.
+     *
+     * @param callee the object the method is invoked on, or {@code null} for static methods
+     * @param inputs the arguments of the call
+     * @return the value returned by the method, or {@code null} for void methods
+     * @throws IllegalAccessException    if the method is not accessible
+     * @throws IllegalArgumentException  if the callee or the arguments do not match the method
+     * @throws InvocationTargetException if the method throws an exception
+     */
+    public Object invoke(Object callee, Object[] inputs)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        return MemberHandles.invoke(method, callee, inputs);
+    }
+
 
     @Override
     public AccessibleObject getAccessibleObject() {
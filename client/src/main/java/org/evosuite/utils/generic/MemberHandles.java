@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.Properties;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Invokes methods and constructors and reads fields through method handles rather than through
+ * the Java Reflection API, which avoids the access and argument checks of reflection on every
+ * call. The handles are cached per member, in a {@link ClassValue} of the declaring class, so
+ * that they are discarded together with the class loader of the SUT.
+ *
+ * <p>
+ * The behaviour is the same as with reflection: whenever a handle is not applicable (e.g., the
+ * arguments would need a widening conversion, or the member is not accessible), or reflection
+ * would throw an exception before reaching the member, the call falls back to reflection. Static
+ * members are called through reflection until their class has been initialized, so that a failing
+ * class initializer is reported the same way.
+ * </p>
+ */
+final class MemberHandles {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * (Object receiver, Object[] arguments) -> Object
+     */
+    private static final MethodType INVOKER_TYPE =
+            MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * Placeholder for members that cannot be invoked through a method handle
+     */
+    private static final Handle UNSUPPORTED = new Handle(null, new Class<?>[0], false);
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private static final ClassValue<Map<Member, Handle>> handles = new ClassValue<Map<Member, Handle>>() {
+        @Override
+        protected Map<Member, Handle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final class Handle {
+
+        private final MethodHandle invoker;
+
+        private final Class<?>[] parameterTypes;
+
+        /**
+         * Has the class declaring a static member been initialized?
+         */
+        private volatile boolean initialized;
+
+        private Handle(MethodHandle invoker, Class<?>[] parameterTypes, boolean initialized) {
+            this.invoker = invoker;
+            this.parameterTypes = parameterTypes;
+            this.initialized = initialized;
+        }
+
+        /**
+         * Tells whether the invoker can be used, and would neither convert nor reject any of the
+         * given arguments
+         */
+        private boolean accepts(Object[] args) {
+            if (this.invoker == null || !this.initialized || args.length != this.parameterTypes.length) {
+                return false;
+            }
+            for (int i = 0; i < args.length; i++) {
+                Class<?> type = this.parameterTypes[i];
+                Object arg = args[i];
+                if (type.isPrimitive()) {
+                    if (arg == null || ClassUtils.wrapperToPrimitive(arg.getClass()) != type) {
+                        return false;
+                    }
+                } else if (arg != null && !type.isInstance(arg)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private MemberHandles() {
+    }
+
+    /**
+     * Behaves as {@link Method#invoke(Object, Object...)}.
+     */
+    static Object invoke(Method method, Object receiver, Object[] args)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        Handle handle = getHandle(method);
+        if (!handle.accepts(args)
+                || (!Modifier.isStatic(method.getModifiers()) && !method.getDeclaringClass().isInstance(receiver))) {
+            try {
+                Object result = method.invoke(receiver, args);
+                handle.initialized = true;
+                return result;
+            } catch (InvocationTargetException e) {
+                // the method has been reached, so its class has been initialized
+                handle.initialized = true;
+                throw e;
+            }
+        }
+        try {
+            return handle.invoker.invokeExact(receiver, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Behaves as {@link Constructor#newInstance(Object...)}.
+     */
+    static Object newInstance(Constructor<?> constructor, Object[] args)
+            throws InstantiationException, IllegalAccessException, IllegalArgumentException,
+            InvocationTargetException {
+        Handle handle = getHandle(constructor);
+        if (!handle.accepts(args)) {
+            try {
+                Object result = constructor.newInstance(args);
+                handle.initialized = true;
+                return result;
+            } catch (InvocationTargetException e) {
+                handle.initialized = true;
+                throw e;
+            }
+        }
+        try {
+            return handle.invoker.invokeExact((Object) null, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Behaves as {@link Field#get(Object)}.
+     */
+    static Object get(Field field, Object receiver) throws IllegalAccessException, IllegalArgumentException {
+        Handle handle = getHandle(field);
+        if (!handle.accepts(NO_ARGUMENTS)
+                || (!Modifier.isStatic(field.getModifiers()) && !field.getDeclaringClass().isInstance(receiver))) {
+            Object result = field.get(receiver);
+            handle.initialized = true;
+            return result;
+        }
+        try {
+            return handle.invoker.invokeExact(receiver, NO_ARGUMENTS);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            // reading a field cannot throw a checked exception
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static Handle getHandle(Member member) {
+        if (!Properties.INVOKE_WITH_METHOD_HANDLES) {
+            return UNSUPPORTED;
+        }
+        Map<Member, Handle> cache = handles.get(member.getDeclaringClass());
+        Handle handle = cache.get(member);
+        if (handle == null) {
+            handle = createHandle(member);
+            Handle previous = cache.putIfAbsent(member, handle);
+            if (previous != null) {
+                handle = previous;
+            }
+        }
+        return handle;
+    }
+
+    private static Handle createHandle(Member member) {
+        boolean isStatic = Modifier.isStatic(member.getModifiers());
+        try {
+            if (member instanceof Method) {
+                Method method = (Method) member;
+                MethodHandle handle = LOOKUP.unreflect(method).asFixedArity();
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                if (isStatic) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return new Handle(spread(handle, parameterTypes.length), parameterTypes, !isStatic);
+            } else if (member instanceof Constructor) {
+                Constructor<?> constructor = (Constructor<?>) member;
+                Class<?> type = constructor.getDeclaringClass();
+                if (type.isEnum() || Modifier.isAbstract(type.getModifiers())) {
+                    // reflection refuses to instantiate these
+                    return UNSUPPORTED;
+                }
+                MethodHandle handle = LOOKUP.unreflectConstructor(constructor).asFixedArity();
+                Class<?>[] parameterTypes = constructor.getParameterTypes();
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                return new Handle(spread(handle, parameterTypes.length), parameterTypes, false);
+            } else if (member instanceof Field) {
+                MethodHandle handle = LOOKUP.unreflectGetter((Field) member);
+                if (isStatic) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                handle = handle.asType(MethodType.methodType(Object.class, Object.class));
+                handle = MethodHandles.dropArguments(handle, 1, Object[].class);
+                return new Handle(handle, new Class<?>[0], !isStatic);
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            // not accessible, or not supported by method handles: use reflection
+        }
+        return UNSUPPORTED;
+    }
+
+    /**
+     * Adapts a handle taking a receiver and n arguments to {@link #INVOKER_TYPE}
+     */
+    private static MethodHandle spread(MethodHandle handle, int n) {
+        return handle.asType(MethodType.genericMethodType(n + 1))
+                .asSpreader(Object[].class, n)
+                .asType(INVOKER_TYPE);
+    }
+}
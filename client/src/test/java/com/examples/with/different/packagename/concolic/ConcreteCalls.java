@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.examples.with.different.packagename.concolic;
+
+public class ConcreteCalls {
+
+    private static String sharedString;
+
+    public static int test(int x) {
+        int limit = fibonacci(15);
+        if (x > limit) {
+            return 1;
+        }
+        int checked;
+        try {
+            checked = check(-limit);
+        } catch (IllegalArgumentException e) {
+            checked = 0;
+        }
+        if (isEven(x + checked)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    public static int testSharedString(String string) {
+        sharedString = string;
+        return compareSharedString("abc");
+    }
+
+    private static int compareSharedString(String string) {
+        if (sharedString.equals(string)) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static int fibonacci(int n) {
+        if (n < 2) {
+            return n;
+        }
+        return fibonacci(n - 1) + fibonacci(n - 2);
+    }
+
+    private static int check(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException();
+        }
+        return n;
+    }
+
+    private static boolean isEven(int n) {
+        return n % 2 == 0;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FitnessVectorTest {
+
+    private static class Goal extends FitnessFunction<DummyChromosome> {
+
+        private static final long serialVersionUID = 2407163385364426517L;
+
+        private final int target;
+
+        Goal(int target) {
+            this.target = target;
+        }
+
+        @Override
+        public double getFitness(DummyChromosome individual) {
+            double fitness = Math.abs(target - individual.get(0));
+            updateIndividual(individual, fitness);
+            return fitness;
+        }
+
+        @Override
+        public boolean isMaximizationFunction() {
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Goal && ((Goal) o).target == target;
+        }
+
+        @Override
+        public int hashCode() {
+            return target;
+        }
+    }
+
+    private final Goal registered0 = new Goal(0);
+    private final Goal registered1 = new Goal(1);
+    private final Goal unregistered = new Goal(2);
+
+    @Before
+    public void setUp() {
+        GoalRegistry.reset();
+        GoalRegistry.register(registered1);
+        GoalRegistry.register(registered0);
+    }
+
+    @After
+    public void tearDown() {
+        GoalRegistry.reset();
+    }
+
+    @Test
+    public void testRegistryAssignsDenseIds() {
+        assertEquals(0, registered1.getGoalId());
+        assertEquals(1, registered0.getGoalId());
+        assertEquals(-1, unregistered.getGoalId());
+        assertEquals(2, GoalRegistry.size());
+
+        // equal goals share the id
+        assertEquals(1, GoalRegistry.getId(new Goal(0)));
+        assertEquals(-1, GoalRegistry.getId(new Goal(5)));
+        assertEquals(1, GoalRegistry.register(new Goal(0)));
+        assertEquals(2, GoalRegistry.size());
+
+        GoalRegistry.reset();
+        assertEquals(-1, registered1.getGoalId());
+        assertEquals(0, GoalRegistry.register(registered0));
+    }
+
+    @Test
+    public void testBehavesLikeMap() {
+        FitnessVector<DummyChromosome> vector = new FitnessVector<>();
+        Map<FitnessFunction<DummyChromosome>, Double> expected = new LinkedHashMap<>();
+        for (Map<FitnessFunction<DummyChromosome>, Double> map : new Map[]{vector, expected}) {
+            assertNull(map.put(unregistered, 3.0));
+            assertNull(map.put(registered0, 1.0));
+            assertNull(map.put(registered1, 0.0));
+            assertEquals(1.0, map.put(new Goal(0), 2.0), 0.0);
+        }
+        assertEquals(expected, vector);
+        assertEquals(expected.hashCode(), vector.hashCode());
+        assertEquals(3, vector.size());
+        assertEquals(2.0, vector.get(registered0), 0.0);
+        assertEquals(3.0, vector.getDouble(new Goal(2)), 0.0);
+        assertTrue(Double.isNaN(vector.getDouble(new Goal(7))));
+        assertTrue(vector.isCovered(registered1.getGoalId()));
+        assertFalse(vector.isCovered(registered0.getGoalId()));
+        assertEquals(5.0, vector.sum(), 0.0);
+
+        // registered goals come first, in the order of their ids
+        Iterator<Map.Entry<FitnessFunction<DummyChromosome>, Double>> iterator = vector.entrySet().iterator();
+        assertEquals(registered1, iterator.next().getKey());
+        Map.Entry<FitnessFunction<DummyChromosome>, Double> entry = iterator.next();
+        assertEquals(registered0, entry.getKey());
+        entry.setValue(0.0);
+        assertTrue(vector.isCovered(registered0.getGoalId()));
+        iterator.remove();
+        assertEquals(unregistered, iterator.next().getKey());
+        iterator.remove();
+        assertFalse(iterator.hasNext());
+        assertEquals(1, vector.size());
+        assertFalse(vector.containsKey(registered0));
+        assertFalse(vector.containsKey(unregistered));
+        assertFalse(vector.isCovered(registered0.getGoalId()));
+
+        vector.clear();
+        assertTrue(vector.isEmpty());
+        assertNull(vector.get(registered1));
+    }
+
+    @Test
+    public void testValueIsFoundAfterRegistration() {
+        FitnessVector<DummyChromosome> vector = new FitnessVector<>();
+        vector.put(unregistered, 4.0);
+        GoalRegistry.register(unregistered);
+        assertEquals(4.0, vector.get(unregistered), 0.0);
+        vector.putDouble(unregistered, 1.0);
+        assertEquals(1, vector.size());
+        assertEquals(1.0, vector.getDouble(unregistered), 0.0);
+
+        GoalRegistry.reset();
+        assertEquals(1.0, vector.get(unregistered), 0.0);
+        GoalRegistry.register(registered0);
+        vector.put(registered0, 2.0);
+        assertEquals(2, vector.size());
+        assertEquals(3.0, vector.sum(), 0.0);
+    }
+
+    @Test
+    public void testChromosomeFitness() {
+        DummyChromosome chromosome = new DummyChromosome(1);
+        assertEquals(1.0, chromosome.getFitness(registered0), 0.0);
+        assertEquals(0.0, chromosome.getFitness(registered1), 0.0);
+        assertEquals(1.0, chromosome.getFitness(unregistered), 0.0);
+        assertTrue(chromosome.isCovered(registered1.getGoalId()));
+        assertFalse(chromosome.isCovered(registered0.getGoalId()));
+        assertEquals(2.0, chromosome.getFitness(), 0.0);
+        assertFalse(chromosome.hasFitnessChanged());
+
+        DummyChromosome copy = new DummyChromosome(1);
+        copy.setFitnessValues(chromosome.getFitnessValues());
+        copy.setPreviousFitnessValues(chromosome.getPreviousFitnessValues());
+        assertEquals(chromosome.getFitnessValues(), copy.getFitnessValues());
+        copy.setFitness(registered0, 0.5);
+        assertTrue(copy.hasFitnessChanged());
+        assertFalse(chromosome.hasFitnessChanged());
+        assertEquals(1.0, chromosome.getFitness(registered0), 0.0);
+
+        DummyChromosome deserialized = SerializationUtils.clone(copy);
+        assertEquals(copy.getFitnessValues(), deserialized.getFitnessValues());
+        assertEquals(0.5, deserialized.getFitness(new Goal(0)), 0.0);
+        assertTrue(deserialized.hasFitnessChanged());
+    }
+}
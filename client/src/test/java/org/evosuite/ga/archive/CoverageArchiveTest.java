@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.archive;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.method.MethodCoverageTestFitness;
+import org.evosuite.ga.GoalRegistry;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceImpl;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CoverageArchiveTest {
+
+    private static final int NUM_TARGETS = 200;
+
+    private static final int NUM_THREADS = 8;
+
+    @Before
+    public void setUp() {
+        Properties.CRITERION = new Properties.Criterion[]{Properties.Criterion.METHOD};
+        GoalRegistry.reset();
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+        GoalRegistry.reset();
+    }
+
+    private static List<TestFitnessFunction> createTargets(int n) {
+        List<TestFitnessFunction> targets = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            targets.add(new MethodCoverageTestFitness("Foo", "bar" + i + "()V"));
+        }
+        return targets;
+    }
+
+    private static TestChromosome createSolution() {
+        TestChromosome solution = new TestChromosome();
+        solution.setTestCase(new DefaultTestCase());
+        ExecutionResult result = new ExecutionResult(solution.getTestCase());
+        result.setTrace(new ExecutionTraceImpl());
+        solution.setLastExecutionResult(result);
+        return solution;
+    }
+
+    private static void assertIndexConsistent(Archive archive, List<TestFitnessFunction> targets) {
+        int numCovered = 0;
+        for (TestFitnessFunction target : targets) {
+            boolean covered = archive.hasSolution(target);
+            assertEquals(covered, archive.getCoveredTargets().contains(target));
+            assertEquals(!covered, archive.getUncoveredTargets().contains(target));
+            if (covered) {
+                numCovered++;
+            }
+        }
+        assertEquals(numCovered, archive.getNumberOfCoveredTargets());
+        assertEquals(numCovered, archive.getCoveredTargets().size());
+        assertEquals(targets.size() - numCovered, archive.getNumberOfUncoveredTargets());
+        assertEquals(targets.size() - numCovered, archive.getUncoveredTargets().size());
+    }
+
+    @Test
+    public void testUncoveredTargetsInRegistrationOrder() {
+        CoverageArchive archive = new CoverageArchive();
+        List<TestFitnessFunction> targets = createTargets(4);
+        archive.addTargets(targets);
+        assertEquals(4, archive.getNumberOfTargets());
+        assertTrue(archive.isArchiveEmpty());
+
+        TestChromosome solution = createSolution();
+        archive.updateArchive(targets.get(2), solution, 0.0);
+        archive.updateArchive(targets.get(0), solution, 1.0);
+
+        assertFalse(archive.isArchiveEmpty());
+        assertSame(solution, archive.getSolution(targets.get(2)));
+        assertEquals(Arrays.asList(targets.get(2)), new ArrayList<>(archive.getCoveredTargets()));
+        assertEquals(Arrays.asList(targets.get(0), targets.get(1), targets.get(3)),
+                new ArrayList<>(archive.getUncoveredTargets()));
+        assertIndexConsistent(archive, targets);
+
+        // registering a target again does not uncover it
+        archive.addTarget(targets.get(2));
+        assertEquals(4, archive.getNumberOfTargets());
+        assertTrue(archive.hasSolution(targets.get(2)));
+
+        archive.reset();
+        assertEquals(0, archive.getNumberOfTargets());
+        assertTrue(archive.getUncoveredTargets().isEmpty());
+        assertTrue(archive.getSolutions().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        CoverageArchive archive = new CoverageArchive();
+        List<TestFitnessFunction> targets = createTargets(NUM_TARGETS);
+        archive.addTargets(targets);
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < NUM_THREADS; t++) {
+                final int offset = t;
+                futures.add(executor.submit(() -> {
+                    TestChromosome solution = createSolution();
+                    // every thread covers every other target, and all threads compete for the same ones
+                    for (int i = offset % 2; i < NUM_TARGETS; i += 2) {
+                        archive.updateArchive(targets.get(i), solution, 0.0);
+                        archive.getSolutions();
+                        archive.getNumberOfUncoveredTargets();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(NUM_TARGETS, archive.getNumberOfCoveredTargets());
+        assertEquals(0, archive.getNumberOfUncoveredTargets());
+        assertTrue(archive.getUncoveredTargets().isEmpty());
+        assertEquals(0, archive.getNumOfRemainingTargets(archive.getMethodFullName(targets.get(0))));
+        assertIndexConsistent(archive, targets);
+        for (TestFitnessFunction target : targets) {
+            assertNotNull(archive.getSolution(target));
+        }
+    }
+
+    @Test
+    public void testMIOArchiveSamplesUncoveredTargetsFirst() {
+        MIOArchive archive = new MIOArchive();
+        List<TestFitnessFunction> targets = createTargets(3);
+        archive.addTargets(targets);
+        assertNull(archive.getSolution());
+
+        TestChromosome covering = createSolution();
+        archive.updateArchive(targets.get(0), covering, 0.0);
+        assertIndexConsistent(archive, targets);
+        assertEquals(1, archive.getSolutions().size());
+
+        // a partial solution of an uncovered target is preferred over the covering solution
+        TestChromosome partial = createSolution();
+        partial.getTestCase().addStatement(new IntPrimitiveStatement(partial.getTestCase(), 42));
+        archive.updateArchive(targets.get(1), partial, 1.0);
+        assertIndexConsistent(archive, targets);
+        assertEquals(1, archive.getSolution().size());
+        assertEquals(1, archive.getNumberOfCoveredTargets());
+    }
+}
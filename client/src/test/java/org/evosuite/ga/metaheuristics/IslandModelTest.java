@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics;
+
+import com.examples.with.different.packagename.ncs.Loops;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
+import org.evosuite.coverage.line.LineCoverageSuiteFitness;
+import org.evosuite.ga.ChromosomeFactory;
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.archive.Archive;
+import org.evosuite.ga.stoppingconditions.MaxGenerationStoppingCondition;
+import org.evosuite.ga.stoppingconditions.StoppingCondition;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.testcase.factories.RandomLengthTestFactory;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.testsuite.factories.TestSuiteChromosomeFactory;
+import org.evosuite.utils.Randomness;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IslandModelTest {
+
+    private static class Distance extends FitnessFunction<DummyChromosome> {
+
+        private static final long serialVersionUID = -6052480398519374781L;
+
+        @Override
+        public double getFitness(DummyChromosome individual) {
+            double fitness = 0.0;
+            for (int gene : individual.getGenes()) {
+                fitness += Math.abs((double) gene);
+            }
+            updateIndividual(individual, fitness);
+            return fitness;
+        }
+
+        @Override
+        public boolean isMaximizationFunction() {
+            return false;
+        }
+    }
+
+    private static final ChromosomeFactory<DummyChromosome> factory =
+            () -> new DummyChromosome(Randomness.nextInt(100), Randomness.nextInt(100), Randomness.nextInt(100));
+
+    @Before
+    public void setUp() {
+        Properties.getInstance().resetToDefaults();
+        Properties.POPULATION = 10;
+        Properties.TEST_ARCHIVE = false;
+        Properties.MIGRANTS_ITERATION_FREQUENCY = 1;
+        Properties.MIGRANTS_COMMUNICATION_RATE = 2;
+    }
+
+    @After
+    public void tearDown() {
+        Archive.getArchiveInstance().reset();
+        TestGenerationContext.getInstance().resetContext();
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private IslandModel<DummyChromosome> createModel(int numIslands, int generations) {
+        IslandModel<DummyChromosome> model = new IslandModel<>(factory, () -> new StandardGA<>(factory), numIslands);
+        model.addFitnessFunction(new Distance());
+        model.setStoppingCondition(new MaxGenerationStoppingCondition<>());
+        model.setStoppingConditionLimit(generations);
+        return model;
+    }
+
+    private static int getNumImmigrants(GeneticAlgorithm<DummyChromosome> island) {
+        return island.listeners.stream()
+                .filter(l -> l instanceof IslandMigration)
+                .mapToInt(l -> ((IslandMigration<?>) l).getNumImmigrants())
+                .sum();
+    }
+
+    @Test
+    public void testIslandsExchangeMigrants() {
+        for (Properties.IslandTopology topology : Properties.IslandTopology.values()) {
+            Properties.ISLAND_TOPOLOGY = topology;
+            IslandModel<DummyChromosome> model = createModel(3, 20);
+            model.generateSolution();
+
+            DummyChromosome best = model.getBestIndividual();
+            assertNotNull(best);
+            for (GeneticAlgorithm<DummyChromosome> island : model.getIslands()) {
+                assertTrue(island.getAge() > 0);
+                assertTrue(island.getBestIndividual().getFitness() >= best.getFitness());
+                assertTrue(topology.toString(), getNumImmigrants(island) > 0);
+            }
+        }
+    }
+
+    @Test
+    public void testFirstFinishedIslandStopsAllIslands() {
+        IslandModel<DummyChromosome> model = createModel(2, 100000);
+        for (StoppingCondition<DummyChromosome> condition : model.getIslands().get(0).getStoppingConditions()) {
+            condition.setLimit(5);
+        }
+        model.generateSolution();
+
+        assertTrue(model.isFinished());
+        for (GeneticAlgorithm<DummyChromosome> island : model.getIslands()) {
+            assertTrue(island.isFinished());
+            // the other island is not stopped before it has started
+            assertTrue(island.getAge() > 0);
+            assertTrue(island.getAge() < 100000);
+        }
+    }
+
+    private static void analyzeLoops() throws ClassNotFoundException {
+        Properties.TARGET_CLASS = Loops.class.getName();
+        Properties.CRITERION = new Properties.Criterion[]{Properties.Criterion.BRANCH, Properties.Criterion.LINE};
+        Properties.TEST_ARCHIVE = true;
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        TestGenerationContext.getInstance().resetContext();
+        TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+        String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
+        DependencyAnalysis.analyzeClass(Properties.TARGET_CLASS, Arrays.asList(cp.split(File.pathSeparator)));
+    }
+
+    @Test
+    public void testIslandsShareSuiteFitnessFunctions() throws ClassNotFoundException {
+        analyzeLoops();
+        ChromosomeFactory<TestSuiteChromosome> suiteFactory = new TestSuiteChromosomeFactory(new RandomLengthTestFactory());
+        IslandModel<TestSuiteChromosome> model = new IslandModel<>(suiteFactory,
+                () -> new StandardGA<>(suiteFactory), 3);
+        BranchCoverageSuiteFitness branchFitness = new BranchCoverageSuiteFitness();
+        LineCoverageSuiteFitness lineFitness = new LineCoverageSuiteFitness();
+        model.addFitnessFunction(branchFitness);
+        model.addFitnessFunction(lineFitness);
+        model.setStoppingCondition(new MaxGenerationStoppingCondition<>());
+        model.setStoppingConditionLimit(20);
+        model.generateSolution();
+
+        for (GeneticAlgorithm<TestSuiteChromosome> island : model.getIslands()) {
+            assertTrue(island.getAge() > 0);
+            assertSame(branchFitness, island.getFitnessFunctions().get(0));
+        }
+        TestSuiteChromosome best = model.getBestIndividual();
+        assertNotNull(best);
+        assertTrue(best.getCoverage(branchFitness) > 0.0);
+        assertTrue(best.getCoverage(lineFitness) > 0.0);
+        assertTrue(Archive.getArchiveInstance().getNumberOfCoveredTargets() > 0);
+    }
+
+    @Test
+    public void testTestsAreExecutedOutsideTheLockOfTheSuiteFitness() throws Exception {
+        analyzeLoops();
+        TestSuiteChromosome suite = new TestSuiteChromosomeFactory(new RandomLengthTestFactory()).getChromosome();
+        BranchCoverageSuiteFitness fitness = new BranchCoverageSuiteFitness();
+
+        Thread evaluation = new Thread(() -> fitness.getFitness(suite));
+        synchronized (fitness) {
+            evaluation.start();
+            while (evaluation.getState() != Thread.State.BLOCKED) {
+                assertTrue(evaluation.isAlive());
+                Thread.sleep(10);
+            }
+            // the evaluation waits for the lock once the tests have been executed
+            for (TestChromosome test : suite.getTestChromosomes()) {
+                assertNotNull(test.getLastExecutionResult());
+            }
+            assertFalse(suite.getFitnessValues().containsKey(fitness));
+        }
+        evaluation.join();
+        assertTrue(suite.getFitnessValues().containsKey(fitness));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.utils.Randomness;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CrowdingDistanceTest {
+
+    private static class Objective extends FitnessFunction<DummyChromosome> {
+
+        private static final long serialVersionUID = 1730520489312650318L;
+
+        private final int gene;
+
+        Objective(int gene) {
+            this.gene = gene;
+        }
+
+        @Override
+        public double getFitness(DummyChromosome individual) {
+            double fitness = individual.get(gene);
+            updateIndividual(individual, fitness);
+            return fitness;
+        }
+
+        @Override
+        public boolean isMaximizationFunction() {
+            return false;
+        }
+    }
+
+    private final CrowdingDistance<DummyChromosome> crowdingDistance = new CrowdingDistance<>();
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static List<DummyChromosome> createFront(int size, int objectives, int range) {
+        List<DummyChromosome> front = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int[] genes = new int[objectives];
+            for (int k = 0; k < objectives; k++) {
+                genes[k] = Randomness.nextInt(range);
+            }
+            front.add(new DummyChromosome(genes));
+        }
+        return front;
+    }
+
+    private static List<FitnessFunction<DummyChromosome>> createObjectives(int objectives) {
+        List<FitnessFunction<DummyChromosome>> goals = new ArrayList<>();
+        for (int k = 0; k < objectives; k++) {
+            goals.add(new Objective(k));
+        }
+        return goals;
+    }
+
+    private static double[] getDistances(List<DummyChromosome> front) {
+        return front.stream().mapToDouble(DummyChromosome::getDistance).toArray();
+    }
+
+    @Test
+    public void testSortByValueIsStable() {
+        double[] values = new double[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Randomness.nextInt(10);
+        }
+        int[] order = new int[values.length];
+        CrowdingDistance.sortByValue(values, order, new int[values.length]);
+        for (int i = 1; i < order.length; i++) {
+            assertTrue(values[order[i - 1]] < values[order[i]]
+                    || (values[order[i - 1]] == values[order[i]] && order[i - 1] < order[i]));
+        }
+    }
+
+    @Test
+    public void testCrowdingDistanceOfDistinctValues() {
+        // on a single objective the distances are known
+        List<DummyChromosome> front = new ArrayList<>();
+        for (int value : new int[]{8, 0, 2, 4}) {
+            front.add(new DummyChromosome(value));
+        }
+        crowdingDistance.crowdingDistanceAssignment(front, createObjectives(1));
+
+        assertEquals(0, front.get(0).get(0));
+        assertEquals(8, front.get(3).get(0));
+        assertArrayEquals(new double[]{Double.POSITIVE_INFINITY, 0.5, 0.75, Double.POSITIVE_INFINITY},
+                getDistances(front), 0.0);
+    }
+
+    @Test
+    public void testParallelAssignmentsAreTheSame() {
+        Randomness.setSeed(11);
+        List<DummyChromosome> front = createFront(300, 40, 20);
+        List<FitnessFunction<DummyChromosome>> objectives = createObjectives(40);
+
+        // the assignment sorts the front it is given
+        crowdingDistance.crowdingDistanceAssignment(new ArrayList<>(front), objectives);
+        double[] crowding = getDistances(front);
+        crowdingDistance.fastEpsilonDominanceAssignment(front, new LinkedHashSet<>(objectives));
+        double[] epsilon = getDistances(front);
+        crowdingDistance.subvectorDominanceAssignment(front, new LinkedHashSet<>(objectives));
+        double[] subvector = getDistances(front);
+
+        Properties.RANKING_THREADS = 4;
+        crowdingDistance.crowdingDistanceAssignment(new ArrayList<>(front), objectives);
+        assertArrayEquals(crowding, getDistances(front), 1e-9);
+        crowdingDistance.fastEpsilonDominanceAssignment(front, new LinkedHashSet<>(objectives));
+        assertArrayEquals(epsilon, getDistances(front), 0.0);
+        crowdingDistance.subvectorDominanceAssignment(front, new LinkedHashSet<>(objectives));
+        assertArrayEquals(subvector, getDistances(front), 0.0);
+    }
+
+    @Test
+    public void testEpsilonAndSubvectorDominance() {
+        List<DummyChromosome> front = new ArrayList<>();
+        front.add(new DummyChromosome(0, 5, 3));
+        front.add(new DummyChromosome(1, 5, 2));
+        front.add(new DummyChromosome(1, 5, 1));
+        List<FitnessFunction<DummyChromosome>> objectives = createObjectives(3);
+
+        crowdingDistance.fastEpsilonDominanceAssignment(front, new LinkedHashSet<>(objectives));
+        assertArrayEquals(new double[]{2.0 / 3, 0.0, 2.0 / 3}, getDistances(front), 0.0);
+
+        crowdingDistance.subvectorDominanceAssignment(front, new LinkedHashSet<>(objectives));
+        assertArrayEquals(new double[]{1.0, 0.0, 1.0}, getDistances(front), 0.0);
+    }
+}
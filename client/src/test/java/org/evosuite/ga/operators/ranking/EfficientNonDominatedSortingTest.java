@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.utils.Randomness;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class EfficientNonDominatedSortingTest {
+
+    private static class Objective extends FitnessFunction<DummyChromosome> {
+
+        private static final long serialVersionUID = -6480839237180651743L;
+
+        private final int gene;
+
+        Objective(int gene) {
+            this.gene = gene;
+        }
+
+        @Override
+        public double getFitness(DummyChromosome individual) {
+            double fitness = individual.get(gene);
+            updateIndividual(individual, fitness);
+            return fitness;
+        }
+
+        @Override
+        public boolean isMaximizationFunction() {
+            return false;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static List<DummyChromosome> createPopulation(int size, int objectives) {
+        List<DummyChromosome> population = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int[] genes = new int[objectives];
+            for (int k = 0; k < objectives; k++) {
+                genes[k] = Randomness.nextInt(5);
+            }
+            population.add(new DummyChromosome(genes));
+        }
+        return population;
+    }
+
+    private static Set<FitnessFunction<DummyChromosome>> createObjectives(int objectives) {
+        Set<FitnessFunction<DummyChromosome>> goals = new LinkedHashSet<>();
+        for (int k = 0; k < objectives; k++) {
+            goals.add(new Objective(k));
+        }
+        return goals;
+    }
+
+    private static void assertSameFronts(RankingFunction<DummyChromosome> expected,
+                                         RankingFunction<DummyChromosome> actual) {
+        assertEquals(expected.getNumberOfSubfronts(), actual.getNumberOfSubfronts());
+        for (int i = 0; i < expected.getNumberOfSubfronts(); i++) {
+            assertEquals(expected.getSubfront(i).size(), actual.getSubfront(i).size());
+            assertEquals(new HashSet<>(expected.getSubfront(i)), new HashSet<>(actual.getSubfront(i)));
+            for (DummyChromosome c : actual.getSubfront(i)) {
+                assertEquals(expected.getSubfront(i).get(0).getRank(), c.getRank());
+            }
+        }
+    }
+
+    @Test
+    public void testSameFrontsAsFastNonDominatedSorting() {
+        Randomness.setSeed(42);
+        for (int objectives = 1; objectives <= 6; objectives++) {
+            List<DummyChromosome> population = createPopulation(100, objectives);
+            Set<FitnessFunction<DummyChromosome>> goals = createObjectives(objectives);
+
+            FastNonDominatedSorting<DummyChromosome> fast = new FastNonDominatedSorting<>();
+            fast.computeRankingAssignment(population, goals);
+            int[] ranks = population.stream().mapToInt(DummyChromosome::getRank).toArray();
+
+            EfficientNonDominatedSorting<DummyChromosome> efficient = new EfficientNonDominatedSorting<>(false);
+            efficient.computeRankingAssignment(population, goals);
+            assertArrayEquals(ranks, population.stream().mapToInt(DummyChromosome::getRank).toArray());
+            assertSameFronts(fast, efficient);
+        }
+    }
+
+    @Test
+    public void testSameFrontsAsRankBasedPreferenceSorting() {
+        Properties.POPULATION = 1000;
+        for (int objectives = 2; objectives <= 8; objectives += 3) {
+            Randomness.setSeed(objectives);
+            List<DummyChromosome> population = createPopulation(200, objectives);
+            Set<FitnessFunction<DummyChromosome>> goals = createObjectives(objectives);
+
+            Randomness.setSeed(7);
+            RankBasedPreferenceSorting<DummyChromosome> preference = new RankBasedPreferenceSorting<>();
+            preference.computeRankingAssignment(population, goals);
+
+            Randomness.setSeed(7);
+            EfficientNonDominatedSorting<DummyChromosome> efficient = new EfficientNonDominatedSorting<>();
+            efficient.computeRankingAssignment(population, goals);
+
+            assertSameFronts(preference, efficient);
+        }
+    }
+
+    @Test
+    public void testParallelSearchOfLargeFronts() {
+        Properties.RANKING_THREADS = 4;
+        int size = 1500;
+        double[][] matrix = new double[size][];
+        for (int i = 0; i < size; i++) {
+            // two fronts of 750 mutually non-dominated solutions each
+            int j = i / 2;
+            matrix[i] = i % 2 == 0 ? new double[]{j, size - j} : new double[]{j + 1, size - j + 1};
+        }
+        List<int[]> fronts = EfficientNonDominatedSorting.getNonDominatedFronts(matrix);
+        assertEquals(2, fronts.size());
+        for (int f = 0; f < 2; f++) {
+            int[] expected = new int[size / 2];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = 2 * i + f;
+            }
+            assertArrayEquals(expected, fronts.get(f));
+        }
+    }
+}
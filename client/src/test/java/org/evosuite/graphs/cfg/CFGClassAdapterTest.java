@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs.cfg;
+
+import com.examples.with.different.packagename.concolic.TP118;
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.branch.BranchPool;
+import org.evosuite.graphs.GraphPool;
+import org.evosuite.instrumentation.InstrumentingClassLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class CFGClassAdapterTest {
+
+    private static final String CLASS_NAME = TP118.class.getName();
+
+    @Before
+    public void setUp() {
+        Properties.TARGET_CLASS = CLASS_NAME;
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+        ClassPathHandler.resetSingleton();
+    }
+
+    /**
+     * Loads the target class with a fresh class loader and summarizes what
+     * ended up in the pools for it
+     */
+    private static Map<String, String> instrument(int threads) throws Exception {
+        Properties.INSTRUMENTATION_THREADS = threads;
+        InstrumentingClassLoader classLoader = new InstrumentingClassLoader();
+        Class<?> clazz = classLoader.loadClass(CLASS_NAME);
+        assertEquals(TP118.TP118method1(0, 0, 0, 0, 0, 0, 0), clazz.getMethod("TP118method1", int.class, int.class,
+                int.class, int.class, int.class, int.class, int.class).invoke(null, 0, 0, 0, 0, 0, 0, 0));
+
+        BranchPool branchPool = BranchPool.getInstance(classLoader);
+        GraphPool graphPool = GraphPool.getInstance(classLoader);
+        Map<String, String> summary = new TreeMap<>();
+        summary.put("branches", branchPool.getBranchCounter() + "/" + branchPool.getNumArtificialBranches());
+        summary.put("branchless", branchPool.getBranchlessMethods().toString());
+        summary.put("methods", new TreeMap<>(CFGMethodAdapter.methods.get(classLoader)).toString());
+
+        Map<String, RawControlFlowGraph> rawCFGs = graphPool.getRawCFGs(CLASS_NAME);
+        assertNotNull(rawCFGs);
+        for (String method : rawCFGs.keySet()) {
+            ActualControlFlowGraph cfg = graphPool.getActualCFG(CLASS_NAME, method);
+            assertNotNull(graphPool.getCDG(CLASS_NAME, method));
+            summary.put(method, rawCFGs.get(method).vertexCount() + "/" + rawCFGs.get(method).edgeCount()
+                    + " " + cfg.vertexCount() + "/" + cfg.edgeCount() + "/" + cfg.getDiameter()
+                    + " " + graphPool.getCDG(CLASS_NAME, method).vertexCount()
+                    + " " + branchPool.getBranchCountForMethod(CLASS_NAME, method));
+        }
+        return summary;
+    }
+
+    @Test
+    public void testConcurrentGraphConstructionBuildsSameGraphs() throws Exception {
+        Map<String, String> sequential = instrument(1);
+        long sequentialTime = CFGClassAdapter.getGraphConstructionTime();
+        Map<String, String> concurrent = instrument(4);
+
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, concurrent);
+        assertTrue(CFGClassAdapter.getGraphConstructionTime() >= sequentialTime);
+        assertTrue(CFGClassAdapter.getGraphConstructionTimeSaved() >= 0);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import com.examples.with.different.packagename.clinit.FinalReferenceField;
+import com.examples.with.different.packagename.ncs.Loops;
+import org.apache.commons.io.IOUtils;
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.classhandling.ModifiedTargetStaticFields;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentationCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        Properties.INSTRUMENTATION_CACHE_DIR = tmp.getRoot().getAbsolutePath();
+        Properties.TARGET_CLASS = "com.examples.with.different.packagename.ncs.NotLoops";
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+        ClassPathHandler.resetSingleton();
+    }
+
+    private static byte[] getOriginalBytes() throws IOException {
+        try (InputStream in = Loops.class.getResourceAsStream("Loops.class")) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private static int coverMe(Class<?> clazz, int x) throws Exception {
+        Method m = clazz.getMethod("coverMe", int.class);
+        return (Integer) m.invoke(null, x);
+    }
+
+    @Test
+    public void testDependencyIsTakenFromCache() throws Exception {
+        Class<?> first = new InstrumentingClassLoader().loadClass(Loops.class.getName());
+        InstrumentationCache cache = InstrumentationCache.getInstance();
+        assertEquals(0, cache.getNumberOfHits());
+        assertEquals(1, cache.getNumberOfMisses());
+        assertEquals(1, tmp.getRoot().listFiles().length);
+
+        Class<?> second = new InstrumentingClassLoader().loadClass(Loops.class.getName());
+        assertEquals(1, cache.getNumberOfHits());
+        assertEquals(1, cache.getNumberOfMisses());
+
+        assertEquals(coverMe(first, 5), coverMe(second, 5));
+        assertEquals(coverMe(first, 20), coverMe(second, 20));
+        assertEquals(-1, coverMe(second, -3));
+    }
+
+    @Test
+    public void testFinalStaticFieldsAreRegisteredOnHit() throws Exception {
+        ModifiedTargetStaticFields.resetSingleton();
+        new InstrumentingClassLoader().loadClass(FinalReferenceField.class.getName());
+        assertTrue(ModifiedTargetStaticFields.getInstance().containsField("final_value"));
+
+        ModifiedTargetStaticFields.resetSingleton();
+        new InstrumentingClassLoader().loadClass(FinalReferenceField.class.getName());
+        assertEquals(1, InstrumentationCache.getInstance().getNumberOfHits());
+        assertTrue(ModifiedTargetStaticFields.getInstance().containsField("final_value"));
+        ModifiedTargetStaticFields.resetSingleton();
+    }
+
+    @Test
+    public void testTargetClassIsNotCached() throws Exception {
+        Properties.TARGET_CLASS = Loops.class.getName();
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        new InstrumentingClassLoader().loadClass(Loops.class.getName());
+        assertEquals(0, tmp.getRoot().listFiles().length);
+    }
+
+    @Test
+    public void testKeyDependsOnConfiguration() throws Exception {
+        InstrumentationCache cache = InstrumentationCache.getInstance();
+        String className = Loops.class.getName().replace('.', '/');
+        String key = cache.getKey(className, getOriginalBytes());
+        assertEquals(key, cache.getKey(className, getOriginalBytes()));
+
+        Properties.RESET_STATIC_FIELDS = !Properties.RESET_STATIC_FIELDS;
+        assertNotEquals(key, cache.getKey(className, getOriginalBytes()));
+    }
+
+    @Test
+    public void testKeyDoesNotDependOnTargetClass() throws Exception {
+        InstrumentationCache cache = InstrumentationCache.getInstance();
+        String className = Loops.class.getName().replace('.', '/');
+        String key = cache.getKey(className, getOriginalBytes());
+
+        Properties.TARGET_CLASS = "com.examples.with.different.packagename.ncs.NotLoopsEither";
+        Properties.PROJECT_PREFIX = "com.examples.with.different.packagename.ncs";
+        Properties.TARGET_CLASS_PREFIX = "com.examples.with.different.packagename.ncs";
+        assertEquals(key, cache.getKey(className, getOriginalBytes()));
+    }
+
+    @Test
+    public void testLoopIndicesAreRelocated() throws Exception {
+        String className = Loops.class.getName().replace('.', '/');
+        byte[] instrumented = new BytecodeInstrumentation().transformBytes(getClass().getClassLoader(), className,
+                new ClassReader(getOriginalBytes()));
+        List<Integer> indices = InstrumentationCache.getLoopIndices(instrumented);
+        assertFalse(indices.isEmpty());
+
+        List<Integer> moved = new ArrayList<>();
+        for (Integer index : indices) {
+            moved.add(index + 1000);
+        }
+        byte[] relocated = InstrumentationCache.relocateLoopIndices(instrumented, moved);
+        assertEquals(moved, InstrumentationCache.getLoopIndices(relocated));
+
+        assertNull(InstrumentationCache.relocateLoopIndices(instrumented, moved.subList(1, moved.size())));
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.dse.algorithm;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.BranchCondition;
+import org.evosuite.symbolic.PathCondition;
+import org.evosuite.symbolic.dse.ConcolicExecutor;
+import org.evosuite.symbolic.dse.DSEStatistics;
+import org.evosuite.symbolic.dse.DSETestCase;
+import org.evosuite.symbolic.dse.algorithm.strategies.implementations.CachingStrategies.CounterExampleCache;
+import org.evosuite.symbolic.dse.algorithm.strategies.implementations.KeepSearchingCriteriaStrategies.TestCasesPendingStrategy;
+import org.evosuite.symbolic.dse.algorithm.strategies.implementations.PathExtensionStrategies.ExpandExecutionStrategy;
+import org.evosuite.symbolic.dse.algorithm.strategies.implementations.TestCaseSelectionStrategies.TopTestCaseSelectionStrategy;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.evosuite.symbolic.solver.Solver;
+import org.evosuite.symbolic.solver.SolverResult;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExplorationAlgorithmTest {
+
+    private static final int NUM_INPUTS = 4;
+
+    /**
+     * Branches on whether each input is 0
+     */
+    private static class BranchingExecutor implements ConcolicExecutor {
+
+        @Override
+        public List<BranchCondition> getSymbolicPath(TestChromosome test) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PathCondition execute(DefaultTestCase defaultTestCase) {
+            List<BranchCondition> branchConditions = new ArrayList<>();
+            for (Statement statement : defaultTestCase) {
+                String name = statement.getReturnValue().getName();
+                long value = ((Number) ((PrimitiveStatement<?>) statement).getValue()).longValue();
+                IntegerVariable variable = new IntegerVariable(name, value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                Comparator comparator = value == 0 ? Comparator.EQ : Comparator.NE;
+                Constraint<?> constraint = new IntegerConstraint(variable, comparator, new IntegerConstant(0));
+                branchConditions.add(new BranchCondition("Foo", "bar", branchConditions.size(), constraint, new ArrayList<>()));
+            }
+            return new PathCondition(branchConditions);
+        }
+    }
+
+    /**
+     * Takes some time to solve any query by setting its variables to 1
+     */
+    private static class SlowSolver extends Solver {
+
+        private final AtomicInteger numSolvingQueries = new AtomicInteger();
+        private final AtomicInteger maxSolvingQueries = new AtomicInteger();
+        private final AtomicInteger numSolvedQueries = new AtomicInteger();
+
+        @Override
+        public SolverResult solve(Collection<Constraint<?>> constraints) {
+            return executeSolver(constraints);
+        }
+
+        @Override
+        public SolverResult executeSolver(Collection<Constraint<?>> constraints) {
+            maxSolvingQueries.accumulateAndGet(numSolvingQueries.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            numSolvingQueries.decrementAndGet();
+            numSolvedQueries.incrementAndGet();
+
+            String name = constraints.iterator().next().getVariables().iterator().next().getName();
+            return SolverResult.newSAT(Collections.singletonMap(name, 1L));
+        }
+    }
+
+    private static class TestExplorationAlgorithm extends ExplorationAlgorithm {
+
+        private static final long serialVersionUID = -2010526493307815618L;
+
+        TestExplorationAlgorithm(Solver solver) {
+            super(false, DSEStatistics.getInstance(), new BranchingExecutor(), solver);
+
+            setCachingStrategy(new CounterExampleCache());
+            setPathsExpansionStrategy(new ExpandExecutionStrategy());
+            setTestCaseBuildingStrategy(method -> {
+                DefaultTestCase test = new DefaultTestCase();
+                for (int i = 0; i < NUM_INPUTS; i++) {
+                    test.addStatement(new IntPrimitiveStatement(test, 0));
+                }
+                return new DSETestCase(test, new GenerationalSearchPathCondition(new PathCondition(new ArrayList<>()), 0), 0.0);
+            });
+            setTestCaseSelectionStrategy(new TopTestCaseSelectionStrategy());
+            setKeepSearchingCriteriaStrategy(new TestCasesPendingStrategy());
+        }
+
+        @Override
+        protected Queue<DSETestCase> createWorkList() {
+            return new ArrayDeque<>();
+        }
+
+        @Override
+        protected double getTestScore(TestCase newTestCase, boolean hasPathConditionDiverged) {
+            return 0;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static List<String> explore(SlowSolver solver) throws NoSuchMethodException {
+        Method method = ExplorationAlgorithmTest.class.getDeclaredMethod("tearDown");
+        TestExplorationAlgorithm algorithm = new TestExplorationAlgorithm(solver);
+        algorithm.explore(method);
+
+        List<String> tests = new ArrayList<>();
+        algorithm.getGeneratedTestSuite().getTests().forEach(test -> tests.add(test.toCode()));
+        return tests;
+    }
+
+    @Test
+    public void testConcurrentSolvingExploresTheSamePaths() throws NoSuchMethodException {
+        SlowSolver sequentialSolver = new SlowSolver();
+        List<String> sequentialTests = explore(sequentialSolver);
+
+        // the branches are independent, so the initial test and one test per negated branch
+        assertEquals(1 + NUM_INPUTS, sequentialTests.size());
+        assertEquals(1, sequentialSolver.maxSolvingQueries.get());
+
+        Properties.DSE_SOLVER_THREADS = 4;
+        SlowSolver concurrentSolver = new SlowSolver();
+        List<String> concurrentTests = explore(concurrentSolver);
+
+        assertEquals(sequentialTests, concurrentTests);
+        assertEquals(sequentialSolver.numSolvedQueries.get(), concurrentSolver.numSolvedQueries.get());
+        assertTrue(concurrentSolver.maxSolvingQueries.get() > 1);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.dse.algorithm.strategies.implementations.CachingStrategies;
+
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.evosuite.symbolic.solver.SolverResult;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CounterExampleCacheTest {
+
+    private final IntegerVariable x = new IntegerVariable("x", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    private final IntegerVariable y = new IntegerVariable("y", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    private final Constraint<?> xGreaterThan0 = new IntegerConstraint(x, Comparator.GT, new IntegerConstant(0));
+    private final Constraint<?> xGreaterThan10 = new IntegerConstraint(x, Comparator.GT, new IntegerConstant(10));
+    private final Constraint<?> xLowerThan5 = new IntegerConstraint(x, Comparator.LT, new IntegerConstant(5));
+    private final Constraint<?> yEquals3 = new IntegerConstraint(y, Comparator.EQ, new IntegerConstant(3));
+
+    private static Set<Constraint<?>> query(Constraint<?>... constraints) {
+        return new HashSet<>(Arrays.asList(constraints));
+    }
+
+    private static SolverResult sat(long xValue, long yValue) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("x", xValue);
+        model.put("y", yValue);
+        return SolverResult.newSAT(model);
+    }
+
+    @Test
+    public void testIndexedLookups() {
+        QueryCache cache = new QueryCache();
+        cache.put(query(xGreaterThan10, xLowerThan5), SolverResult.newUNSAT());
+        cache.put(query(xGreaterThan0, xLowerThan5, yEquals3), sat(2, 3));
+        cache.put(query(yEquals3), sat(0, 3));
+
+        assertEquals(query(xGreaterThan10, xLowerThan5), cache.getUNSATSubSetOf(query(xGreaterThan10, xLowerThan5, yEquals3)));
+        assertNull(cache.getUNSATSubSetOf(query(xGreaterThan10, yEquals3)));
+        assertNull(cache.getUNSATSubSetOf(query(xGreaterThan0, xLowerThan5, yEquals3)));
+
+        assertEquals(Collections.singletonList(query(xGreaterThan0, xLowerThan5, yEquals3)),
+                cache.getSATSupraSetsOf(query(xGreaterThan0, xLowerThan5)));
+        assertEquals(2, cache.getSATSupraSetsOf(query(yEquals3)).size());
+        assertEquals(2, cache.getSATSupraSetsOf(query()).size());
+        assertTrue(cache.getSATSupraSetsOf(query(xGreaterThan10)).isEmpty());
+
+        cache.remove(query(xGreaterThan0, xLowerThan5, yEquals3));
+        assertEquals(2, cache.size());
+        assertTrue(cache.getSATSupraSetsOf(query(xGreaterThan0)).isEmpty());
+        assertEquals(Collections.singletonList(query(yEquals3)), cache.getSATSupraSetsOf(query(yEquals3)));
+
+        cache.put(query(), SolverResult.newUNSAT());
+        assertEquals(query(), cache.getUNSATSubSetOf(query(xGreaterThan0)));
+    }
+
+    @Test
+    public void testSubSetOfUNSATQueryIsUNSAT() {
+        QueryCache cache = new QueryCache();
+        cache.put(query(xGreaterThan10, xLowerThan5), SolverResult.newUNSAT());
+
+        CacheQueryResult result = new CounterExampleCache().checkCache(query(xGreaterThan10, xLowerThan5, yEquals3), cache);
+        assertTrue(result.hitUnSat());
+    }
+
+    @Test
+    public void testModelOfSupraSetIsReusedForQueryVariables() {
+        QueryCache cache = new QueryCache();
+        cache.put(query(xGreaterThan0, xLowerThan5, yEquals3), sat(2, 3));
+
+        CacheQueryResult result = new CounterExampleCache().checkCache(query(xGreaterThan0, xLowerThan5), cache);
+        assertTrue(result.hitSat());
+        assertEquals(Collections.singletonMap("x", 2L), result.getSmtSolution());
+    }
+
+    @Test
+    public void testModelOfSupraSetIsCheckedAgainstQuery() {
+        Map<Set<Constraint<?>>, SolverResult> cache = new HashMap<>();
+        // a model that does not satisfy its own query, e.g. because of a solver bug
+        cache.put(query(xGreaterThan0, xLowerThan5, yEquals3), sat(7, 3));
+
+        CacheQueryResult result = new CounterExampleCache().checkCache(query(xGreaterThan0, xLowerThan5), cache);
+        assertTrue(result.missed());
+
+        cache.put(query(xGreaterThan0, yEquals3), sat(1, 3));
+        result = new CounterExampleCache().checkCache(query(xGreaterThan0), cache);
+        assertTrue(result.hitSat());
+    }
+}
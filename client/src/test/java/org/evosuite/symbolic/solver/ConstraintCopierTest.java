@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ConstraintCopierTest {
+
+    @Test
+    public void testCopiesShareTheirOwnVariables() {
+        IntegerVariable x = new IntegerVariable("x", 3, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        IntegerConstant ten = new IntegerConstant(10);
+        List<Constraint<?>> constraints = new ArrayList<>();
+        constraints.add(new IntegerConstraint(new IntegerBinaryExpression(x, Operator.PLUS, ten, 13L),
+                Comparator.GT, new IntegerConstant(0)));
+        constraints.add(new IntegerConstraint(x, Comparator.LT, ten));
+
+        List<Constraint<?>> copies = ConstraintCopier.copy(constraints);
+        assertEquals(constraints, copies);
+
+        Set<Variable<?>> variables = Solver.getVariables(copies);
+        assertEquals(1, variables.size());
+        IntegerVariable copy = (IntegerVariable) variables.iterator().next();
+        assertNotSame(x, copy);
+        assertSame(copy, copies.get(1).getLeftOperand());
+
+        // constant values are shared, variables are not
+        assertSame(ten.getConcreteValue(), ((IntegerConstant) copies.get(1).getRightOperand()).getConcreteValue());
+        copy.setConcreteValue(5L);
+        assertEquals(3L, (long) x.getConcreteValue());
+    }
+}
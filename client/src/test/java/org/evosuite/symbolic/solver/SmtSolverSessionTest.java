@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtExpr;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.z3.Z3Solver;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SmtSolverSessionTest {
+
+    private static final SmtExpr X_GT_0 = SmtExprBuilder.mkGt(SmtExprBuilder.mkIntVariable("x"), SmtExprBuilder.ZERO_INT);
+    private static final SmtExpr Y_LT_1 = SmtExprBuilder.mkLt(SmtExprBuilder.mkIntVariable("y"), SmtExprBuilder.ONE_INT);
+
+    @After
+    public void tearDown() {
+        SmtSolverSession.closeAll();
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static SmtQuery query(SmtExpr... assertions) {
+        SmtQuery query = new SmtQuery();
+        query.setLogic("QF_LIA");
+        query.addOption(":timeout", "1000");
+        query.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration("x"));
+        query.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration("y"));
+        for (SmtExpr assertion : assertions) {
+            query.addAssertion(new SmtAssertion(assertion));
+        }
+        return query;
+    }
+
+    @Test
+    public void testCommonPrefixIsKept() throws Exception {
+        SmtSolverSession session = new SmtSolverSession(StubSmtSolver.getCommand());
+        try {
+            String first = session.solve(query(X_GT_0, Y_LT_1), 5000);
+            assertTrue(first, first.startsWith("sat"));
+            assertTrue(first, first.contains("(define-fun x () Int"));
+            assertEquals(2, session.getNumberOfPushedFrames());
+
+            // the second frame is replaced by the negated condition
+            String second = session.solve(query(X_GT_0, SmtExprBuilder.mkNot(X_GT_0)), 5000);
+            assertTrue(second, second.startsWith("unsat"));
+            assertEquals(1, session.getNumberOfReusedFrames());
+            assertEquals(4, session.getNumberOfPushedFrames());
+
+            // the negated condition must have been popped, while the
+            // declaration of y is moved to its own frame
+            String third = session.solve(query(X_GT_0), 5000);
+            assertTrue(third, third.startsWith("sat"));
+            assertEquals(2, session.getNumberOfReusedFrames());
+            assertEquals(5, session.getNumberOfPushedFrames());
+            assertEquals(0, session.getNumberOfRestarts());
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void testSessionIsRestartedOnTimeout() throws Exception {
+        SmtSolverSession session = new SmtSolverSession(StubSmtSolver.getCommand());
+        try {
+            SmtExpr hang = SmtExprBuilder.mkGt(SmtExprBuilder.mkIntVariable("hang"), SmtExprBuilder.ZERO_INT);
+            try {
+                session.solve(query(X_GT_0, hang), 500);
+                fail("Expected a timeout");
+            } catch (SolverTimeoutException e) {
+                // expected
+            }
+            assertEquals(1, session.getNumberOfRestarts());
+
+            String result = session.solve(query(X_GT_0, SmtExprBuilder.mkNot(X_GT_0)), 5000);
+            assertTrue(result, result.startsWith("unsat"));
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void testZ3SolverUsesSession() throws Exception {
+        Properties.Z3_PATH = StubSmtSolver.getCommand();
+        Properties.DSE_SOLVER_SESSION = true;
+
+        IntegerVariable x = new IntegerVariable("x", 5, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        List<Constraint<?>> constraints = new ArrayList<>();
+        constraints.add(new IntegerConstraint(x, Comparator.LT, new IntegerConstant(1)));
+
+        Z3Solver solver = new Z3Solver();
+        SolverResult first = solver.executeSolver(constraints);
+        assertTrue(first.isSAT());
+        assertEquals(0L, first.getValue("x"));
+
+        constraints.add(new IntegerConstraint(x, Comparator.GE, new IntegerConstant(0)));
+        SolverResult second = solver.executeSolver(constraints);
+        assertTrue(second.isSAT());
+        assertEquals(0L, second.getValue("x"));
+
+        assertEquals(1, SmtSolverSession.getTotalNumberOfReusedFrames());
+        assertEquals(0, SmtSolverSession.getTotalNumberOfRestarts());
+        SmtSolverSession.closeAll();
+        assertEquals(0, SmtSolverSession.getTotalNumberOfPushedFrames());
+    }
+
+    @Test
+    public void testConcurrentQueriesUseSeparateSessions() throws Exception {
+        String cmd = StubSmtSolver.getCommand();
+        assertTrue(SmtSolverSession.solve(cmd, query(X_GT_0, Y_LT_1), 5000).startsWith("sat"));
+        assertEquals(1, SmtSolverSession.getNumberOfSessions());
+
+        SmtExpr hang = SmtExprBuilder.mkGt(SmtExprBuilder.mkIntVariable("hang"), SmtExprBuilder.ZERO_INT);
+        CountDownLatch hanging = new CountDownLatch(1);
+        Thread other = new Thread(() -> {
+            hanging.countDown();
+            try {
+                SmtSolverSession.solve(cmd, query(hang), 3000);
+            } catch (Exception e) {
+                // expected timeout
+            }
+        });
+        other.start();
+        hanging.await();
+        Thread.sleep(200);
+
+        // the hanging query does not block the session of this thread, which
+        // still holds the prefix of its previous query
+        long start = System.currentTimeMillis();
+        String result = SmtSolverSession.solve(cmd, query(X_GT_0, SmtExprBuilder.mkNot(X_GT_0)), 5000);
+        assertTrue(result, result.startsWith("unsat"));
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        assertEquals(2, SmtSolverSession.getNumberOfSessions());
+        assertEquals(1, SmtSolverSession.getTotalNumberOfReusedFrames());
+
+        other.join();
+        assertEquals(1, SmtSolverSession.getTotalNumberOfRestarts());
+    }
+}
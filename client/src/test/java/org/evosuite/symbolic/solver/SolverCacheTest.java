@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SolverCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static IntegerVariable var(String name, long concreteValue) {
+        return new IntegerVariable(name, concreteValue, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    private static Constraint<?> constraint(IntegerVariable var, Comparator cmp, long value) {
+        return new IntegerConstraint(var, cmp, new IntegerConstant(value));
+    }
+
+    private static SolverResult sat(String name, long value) {
+        Map<String, Object> model = new HashMap<>();
+        model.put(name, value);
+        return SolverResult.newSAT(model);
+    }
+
+    private static SolverResult modelOf(String name1, Object value1, String name2, Object value2) {
+        Map<String, Object> model = new HashMap<>();
+        model.put(name1, value1);
+        model.put(name2, value2);
+        return SolverResult.newSAT(model);
+    }
+
+    @Test
+    public void testHitIgnoresVariableNamesAndOrder() {
+        SolverCache cache = new SolverCache();
+        IntegerVariable x = var("x", 0);
+        IntegerVariable y = var("y", 0);
+        cache.saveSolverResult(Arrays.asList(constraint(x, Comparator.GT, 10), constraint(y, Comparator.LT, 5)),
+                modelOf("x", 11L, "y", 4L));
+
+        // same query with renamed variables, in another order and with a
+        // different concrete value
+        IntegerVariable a = var("a", 7);
+        IntegerVariable b = var("b", 3);
+        SolverResult result = cache.getCachedResult(
+                Arrays.asList(constraint(b, Comparator.LT, 5), constraint(a, Comparator.GT, 10)));
+
+        assertTrue(result.isSAT());
+        assertEquals(2, result.getModel().size());
+        assertEquals(11L, result.getValue("a"));
+        assertEquals(4L, result.getValue("b"));
+        assertEquals(1, cache.getNumberOfHits());
+        assertEquals(0, cache.getNumberOfMisses());
+    }
+
+    @Test
+    public void testMissOnDifferentConstant() {
+        SolverCache cache = new SolverCache();
+        cache.saveSolverResult(Arrays.asList(constraint(var("x", 0), Comparator.GT, 10)), sat("x", 11));
+
+        assertNull(cache.getCachedResult(Arrays.asList(constraint(var("x", 0), Comparator.GT, 11))));
+        assertEquals(0, cache.getNumberOfHits());
+        assertEquals(1, cache.getNumberOfMisses());
+    }
+
+    @Test
+    public void testUNSATSubsetMakesSupersetUNSAT() {
+        SolverCache cache = new SolverCache();
+        IntegerVariable x = var("x", 0);
+        cache.saveSolverResult(Arrays.asList(constraint(x, Comparator.GT, 10), constraint(x, Comparator.LT, 5)),
+                SolverResult.newUNSAT());
+
+        IntegerVariable z = var("z", 0);
+        List<Constraint<?>> superset = new ArrayList<>();
+        superset.add(constraint(z, Comparator.LT, 5));
+        superset.add(constraint(z, Comparator.NE, 42));
+        superset.add(constraint(z, Comparator.GT, 10));
+
+        SolverResult result = cache.getCachedResult(superset);
+        assertTrue(result.isUNSAT());
+        assertEquals(1, cache.getNumberOfSubsumptionHits());
+
+        // a subset of an UNSAT query is not known to be UNSAT
+        assertNull(cache.getCachedResult(Arrays.asList(constraint(z, Comparator.GT, 10))));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedQueriesAreEvicted() {
+        Properties.DSE_SOLVER_CACHE_MAX_CONSTRAINTS = 2;
+        SolverCache cache = new SolverCache();
+        List<Constraint<?>> first = Arrays.asList(constraint(var("x", 0), Comparator.EQ, 1));
+        List<Constraint<?>> second = Arrays.asList(constraint(var("x", 0), Comparator.EQ, 2));
+        List<Constraint<?>> third = Arrays.asList(constraint(var("x", 0), Comparator.EQ, 3));
+
+        cache.saveSolverResult(first, sat("x", 1));
+        cache.saveSolverResult(second, sat("x", 2));
+        cache.getCachedResult(first);
+        cache.saveSolverResult(third, sat("x", 3));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getNumberOfEvictions());
+        assertNull(cache.getCachedResult(second));
+        assertEquals(1L, cache.getCachedResult(first).getValue("x"));
+        assertEquals(3L, cache.getCachedResult(third).getValue("x"));
+    }
+
+    @Test
+    public void testResultsArePersistedAcrossRuns() throws IOException {
+        File file = new File(tmp.getRoot(), "ctg" + File.separator + "solver-cache.bin");
+        Properties.SOLVER_CACHE_FILE = file.getAbsolutePath();
+
+        IntegerVariable x = var("x", 0);
+        SolverCache previousRun = new SolverCache();
+        previousRun.saveSolverResult(Arrays.asList(constraint(x, Comparator.GT, 10)), sat("x", 11));
+        previousRun.saveSolverResult(Arrays.asList(constraint(x, Comparator.GT, 10), constraint(x, Comparator.LT, 5)),
+                SolverResult.newUNSAT());
+        assertTrue(file.length() > 0);
+
+        // a killed client may leave a truncated record behind
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[]{1, 2, 3});
+        }
+
+        SolverCache cache = new SolverCache();
+        IntegerVariable y = var("y", 0);
+        SolverResult sat = cache.getCachedResult(Arrays.asList(constraint(y, Comparator.GT, 10)));
+        assertEquals(11L, sat.getValue("y"));
+        SolverResult unsat = cache.getCachedResult(
+                Arrays.asList(constraint(y, Comparator.LT, 5), constraint(y, Comparator.GT, 10)));
+        assertTrue(unsat.isUNSAT());
+        assertEquals(2, cache.getNumberOfPersistentHits());
+
+        // results read from the file are kept in memory
+        cache.getCachedResult(Arrays.asList(constraint(y, Comparator.GT, 10)));
+        assertEquals(2, cache.getNumberOfPersistentHits());
+        assertEquals(3, cache.getNumberOfHits());
+
+        // records appended after the truncated one can be read back
+        cache.saveSolverResult(Arrays.asList(constraint(y, Comparator.EQ, 3)), sat("y", 3));
+        SolverCache nextRun = new SolverCache();
+        assertEquals(3L, nextRun.getCachedResult(Arrays.asList(constraint(x, Comparator.EQ, 3))).getValue("x"));
+        assertEquals(11L, nextRun.getCachedResult(Arrays.asList(constraint(x, Comparator.GT, 10))).getValue("x"));
+    }
+
+    @Test
+    public void testPersistedResultsAreBoundedAndCompacted() {
+        Properties.DSE_SOLVER_CACHE_MAX_CONSTRAINTS = 3;
+        File file = new File(tmp.getRoot(), "solver-cache.bin");
+
+        PersistentSolverCache previousRun = PersistentSolverCache.open(file);
+        for (int i = 1; i <= 5; i++) {
+            previousRun.put(Arrays.asList("c" + i), sat("v0", i));
+        }
+        assertEquals(3, previousRun.size());
+        assertNull(previousRun.get(Arrays.asList("c1")));
+        assertEquals(5L, previousRun.get(Arrays.asList("c5")).getValue("v0"));
+        long length = file.length();
+
+        // another client compacts the file to the three most recent results
+        PersistentSolverCache otherClient = PersistentSolverCache.open(file);
+        assertTrue(file.length() < length);
+        assertEquals(3, otherClient.size());
+        assertNull(otherClient.get(Arrays.asList("c2")));
+        otherClient.put(Arrays.asList("c1"), sat("v0", 1));
+        otherClient.close();
+
+        // the records have moved, so the first client reads the file again
+        assertEquals(5L, previousRun.get(Arrays.asList("c5")).getValue("v0"));
+        assertEquals(1L, previousRun.get(Arrays.asList("c1")).getValue("v0"));
+        previousRun.close();
+
+        PersistentSolverCache nextRun = PersistentSolverCache.open(file);
+        assertEquals(3, nextRun.size());
+        assertNull(nextRun.get(Arrays.asList("c3")));
+        assertEquals(1L, nextRun.get(Arrays.asList("c1")).getValue("v0"));
+        assertEquals(4L, nextRun.get(Arrays.asList("c4")).getValue("v0"));
+        assertEquals(5L, nextRun.get(Arrays.asList("c5")).getValue("v0"));
+        nextRun.close();
+    }
+}
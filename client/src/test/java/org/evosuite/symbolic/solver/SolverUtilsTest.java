@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.BranchCondition;
+import org.evosuite.symbolic.PathCondition;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SolverUtilsTest {
+
+    private final IntegerVariable a = var("a");
+    private final IntegerVariable b = var("b");
+    private final IntegerVariable c = var("c");
+    private final IntegerVariable d = var("d");
+
+    private static IntegerVariable var(String name) {
+        return new IntegerVariable(name, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    private static Constraint<?> gt(IntegerVariable var, long value) {
+        return new IntegerConstraint(var, Comparator.GT, new IntegerConstant(value));
+    }
+
+    private static Constraint<?> lt(IntegerVariable left, IntegerVariable right) {
+        return new IntegerConstraint(left, Comparator.LT, right);
+    }
+
+    private static PathCondition pathCondition(Constraint<?>... constraints) {
+        List<BranchCondition> branchConditions = new ArrayList<>();
+        for (int i = 0; i < constraints.length; i++) {
+            branchConditions.add(new BranchCondition("Foo", "bar", i, constraints[i], new ArrayList<>()));
+        }
+        return new PathCondition(branchConditions);
+    }
+
+    @Test
+    public void testPartitionIndependentConstraints() {
+        Constraint<?> aGreaterThan0 = gt(a, 0);
+        Constraint<?> cGreaterThan0 = gt(c, 0);
+        Constraint<?> bLowerThanC = lt(b, c);
+        Constraint<?> dGreaterThan0 = gt(d, 0);
+        Constraint<?> constant = new IntegerConstraint(new IntegerConstant(1), Comparator.LT, new IntegerConstant(2));
+        Constraint<?> aPlusBGreaterThan0 = new IntegerConstraint(
+                new IntegerBinaryExpression(a, Operator.PLUS, b, 0L), Comparator.GT, new IntegerConstant(0));
+
+        List<List<Constraint<?>>> partitions = SolverUtils.partitionIndependentConstraints(
+                Arrays.asList(aGreaterThan0, cGreaterThan0, bLowerThanC, dGreaterThan0, constant, aPlusBGreaterThan0));
+
+        assertEquals(2, partitions.size());
+        assertEquals(Collections.singletonList(dGreaterThan0), partitions.get(0));
+        assertEquals(Arrays.asList(aGreaterThan0, cGreaterThan0, bLowerThanC, aPlusBGreaterThan0), partitions.get(1));
+    }
+
+    @Test
+    public void testQueryKeepsConstraintsDependentThroughLaterVariables() {
+        Constraint<?> cGreaterThan0 = gt(c, 0);
+        Constraint<?> dGreaterThan0 = gt(d, 0);
+        Constraint<?> aLowerThanC = lt(a, c);
+        Constraint<?> aGreaterThan5 = gt(a, 5);
+
+        // c > 0 only depends on the last constraint through a < c, which comes after it
+        List<Constraint<?>> query = SolverUtils.buildQueryNegatingIthCondition(
+                pathCondition(cGreaterThan0, dGreaterThan0, aLowerThanC, aGreaterThan5), 3);
+
+        assertEquals(3, query.size());
+        assertEquals(Arrays.asList(cGreaterThan0, aLowerThanC), query.subList(0, 2));
+        assertEquals(aGreaterThan5.negate(), query.get(2));
+    }
+
+    @Test
+    public void testQueryOfConstraintWithoutVariablesIsEmpty() {
+        Constraint<?> constant = new IntegerConstraint(new IntegerConstant(1), Comparator.LT, new IntegerConstant(2));
+        assertTrue(SolverUtils.buildQuery(pathCondition(gt(a, 0), constant)).isEmpty());
+    }
+}
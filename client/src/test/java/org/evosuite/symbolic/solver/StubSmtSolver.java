@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A minimal incremental SMT-LIB process that stands in for Z3 in the tests
+ * of {@link SmtSolverSession}.
+ * <p>
+ * It answers "unsat" if both an assertion and its negation are in the
+ * current scope, and "sat" otherwise, with every declared Int constant
+ * equal to 0. It never answers a check-sat in a scope with an assertion
+ * mentioning "hang". Like real solvers, it may print warnings on its error
+ * output.
+ */
+public class StubSmtSolver {
+
+    private final List<String> assertions = new ArrayList<>();
+    private final List<String[]> declarations = new ArrayList<>();
+    private final Deque<int[]> scopes = new ArrayDeque<>();
+
+    public static String getCommand() {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classPath = new File(StubSmtSolver.class.getProtectionDomain().getCodeSource().getLocation().getPath())
+                .getAbsolutePath();
+        return java + " -cp " + classPath + " " + StubSmtSolver.class.getName();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Reader in = new InputStreamReader(System.in, StandardCharsets.UTF_8);
+        StubSmtSolver solver = new StubSmtSolver();
+        String command;
+        while ((command = readCommand(in)) != null) {
+            if (!solver.execute(command)) {
+                return;
+            }
+            System.out.flush();
+        }
+    }
+
+    /**
+     * Reads the next top level s-expression, or null at the end of input
+     */
+    private static String readCommand(Reader in) throws IOException {
+        StringBuilder buff = new StringBuilder();
+        int depth = 0;
+        boolean inString = false;
+        int c;
+        while ((c = in.read()) != -1) {
+            if (depth == 0 && c != '(') {
+                continue;
+            }
+            buff.append((char) c);
+            if (c == '"') {
+                inString = !inString;
+            } else if (!inString && c == '(') {
+                depth++;
+            } else if (!inString && c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return buff.toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String body(String command, String keyword) {
+        return command.substring(keyword.length() + 1, command.length() - 1).trim();
+    }
+
+    private boolean execute(String command) throws InterruptedException {
+        if (command.startsWith("(push")) {
+            for (int i = Integer.parseInt(body(command, "(push")); i > 0; i--) {
+                scopes.push(new int[]{assertions.size(), declarations.size()});
+            }
+        } else if (command.startsWith("(pop")) {
+            int[] scope = null;
+            for (int i = Integer.parseInt(body(command, "(pop")); i > 0; i--) {
+                scope = scopes.pop();
+            }
+            if (scope != null) {
+                assertions.subList(scope[0], assertions.size()).clear();
+                declarations.subList(scope[1], declarations.size()).clear();
+            }
+        } else if (command.startsWith("(declare-const") || command.startsWith("(declare-fun")) {
+            String[] tokens = command.replace("(", " ").replace(")", " ").trim().split("\\s+");
+            declarations.add(new String[]{tokens[1], tokens[tokens.length - 1]});
+        } else if (command.startsWith("(assert")) {
+            assertions.add(body(command, "(assert"));
+        } else if (command.startsWith("(check-sat")) {
+            System.err.println("warning: stub solver");
+            for (String assertion : assertions) {
+                if (assertion.contains("hang")) {
+                    Thread.sleep(Long.MAX_VALUE);
+                }
+            }
+            System.out.println(isUNSAT() ? "unsat" : "sat");
+        } else if (command.startsWith("(get-model")) {
+            StringBuilder model = new StringBuilder("(model\n");
+            for (String[] declaration : declarations) {
+                if (declaration[1].equals("Int")) {
+                    model.append("  (define-fun ").append(declaration[0]).append(" () Int\n    0)\n");
+                }
+            }
+            System.out.println(model.append(")"));
+        } else if (command.startsWith("(echo")) {
+            System.out.println(body(command, "(echo").replace("\"", ""));
+        } else if (command.startsWith("(exit")) {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isUNSAT() {
+        for (String assertion : assertions) {
+            if (assertions.contains("(not " + assertion + ")")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver.avm;
+
+import org.evosuite.RandomizedTC;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.evosuite.symbolic.solver.SolverResult;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestConcurrentSearch extends RandomizedTC {
+
+    private static List<Constraint<?>> query(IntegerVariable x, IntegerVariable y, long target) {
+        List<Constraint<?>> constraints = new ArrayList<>();
+        IntegerBinaryExpression sum = new IntegerBinaryExpression(x, Operator.PLUS, y, 0L);
+        constraints.add(new IntegerConstraint(sum, Comparator.GT, new IntegerConstant(target)));
+        constraints.add(new IntegerConstraint(x, Comparator.EQ, new IntegerConstant(target)));
+        return constraints;
+    }
+
+    @Test
+    public void testSearchLeavesVariablesOfQueryUnchanged() throws Exception {
+        IntegerVariable x = new IntegerVariable("x", 0, -1000000, 1000000);
+        IntegerVariable y = new IntegerVariable("y", 0, -1000000, 1000000);
+
+        SolverResult result = new EvoSuiteSolver().executeSolver(query(x, y, 1000));
+        assertTrue(result.isSAT());
+        assertEquals(1000L, ((Number) result.getModel().get("x")).longValue());
+        assertTrue(((Number) result.getModel().get("y")).longValue() > 0);
+        assertEquals(0L, (long) x.getConcreteValue());
+        assertEquals(0L, (long) y.getConcreteValue());
+    }
+
+    @Test
+    public void testConcurrentSearchesOnSharedVariables() throws Exception {
+        IntegerVariable x = new IntegerVariable("x", 0, -1000000, 1000000);
+        IntegerVariable y = new IntegerVariable("y", 0, -1000000, 1000000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SolverResult>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                List<Constraint<?>> constraints = query(x, y, 1000L * (i + 1));
+                Callable<SolverResult> search = () -> new EvoSuiteSolver().executeSolver(constraints);
+                results.add(executor.submit(search));
+            }
+            for (int i = 0; i < 8; i++) {
+                SolverResult result = results.get(i).get();
+                assertTrue(result.isSAT());
+                assertEquals(1000L * (i + 1), ((Number) result.getModel().get("x")).longValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0L, (long) x.getConcreteValue());
+        assertEquals(0L, (long) y.getConcreteValue());
+    }
+}
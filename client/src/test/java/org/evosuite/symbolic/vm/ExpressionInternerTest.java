@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.vm;
+
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerValue;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExpressionInternerTest {
+
+    private final IntegerVariable x = new IntegerVariable("x", 3, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    private final IntegerVariable y = new IntegerVariable("y", 4, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    @Before
+    public void setUp() {
+        ExpressionInterner.clear();
+    }
+
+    @Test
+    public void testStructurallyEqualExpressionsAreShared() {
+        IntegerValue xTimesY = ExpressionFactory.mul(x, y, 12);
+        IntegerValue xTimesYAgain = ExpressionFactory.mul(x, y, 12);
+        assertSame(xTimesY, xTimesYAgain);
+
+        IntegerValue sum = ExpressionFactory.add(xTimesY, ExpressionFactory.buildNewIntegerConstant(100), 112);
+        IntegerValue sumAgain = ExpressionFactory.add(ExpressionFactory.buildNewIntegerConstant(100), xTimesYAgain, 112);
+        assertSame(sum, sumAgain);
+
+        IntegerConstraint constraint = ConstraintFactory.lt(sum, y);
+        assertSame(constraint, ConstraintFactory.lt(sumAgain, y));
+        assertNotSame(constraint, ConstraintFactory.lte(sum, y));
+    }
+
+    @Test
+    public void testExpressionsWithDifferentConcreteValuesAreNotShared() {
+        IntegerValue xTimesY = ExpressionFactory.mul(x, y, 12);
+        IntegerValue otherXTimesY = ExpressionFactory.mul(x, y, 20);
+
+        // equal as symbolic expressions, but each keeps its own concrete value
+        assertEquals(xTimesY, otherXTimesY);
+        assertNotSame(xTimesY, otherXTimesY);
+        assertEquals(12L, (long) xTimesY.getConcreteValue());
+        assertEquals(20L, (long) otherXTimesY.getConcreteValue());
+    }
+
+    @Test
+    public void testExpressionsOfOtherVariablesAreNotShared() {
+        // e.g. the variable of another execution, with another concrete value
+        IntegerVariable otherX = new IntegerVariable("x", 5, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        IntegerValue xTimesY = ExpressionFactory.mul(x, y, 12);
+        IntegerValue otherXTimesY = ExpressionFactory.mul(otherX, y, 12);
+
+        assertEquals(xTimesY, otherXTimesY);
+        assertNotSame(xTimesY, otherXTimesY);
+        IntegerBinaryExpression mul = (IntegerBinaryExpression) otherXTimesY;
+        assertTrue(mul.getLeftOperand() == otherX || mul.getRightOperand() == otherX);
+    }
+
+    @Test
+    public void testHashIsStructural() {
+        IntegerBinaryExpression left = new IntegerBinaryExpression(x, Operator.PLUS, new IntegerConstant(1), 4L);
+        IntegerBinaryExpression right = new IntegerBinaryExpression(
+                new IntegerVariable("x", 0, Integer.MIN_VALUE, Integer.MAX_VALUE), Operator.PLUS, new IntegerConstant(1), 1L);
+        assertEquals(left, right);
+        assertEquals(left.hashCode(), right.hashCode());
+        assertEquals(left.hashCode(), left.hashCode());
+
+        IntegerBinaryExpression other = new IntegerBinaryExpression(x, Operator.PLUS, new IntegerConstant(2), 5L);
+        assertNotEquals(left, other);
+        assertNotEquals(ConstraintFactory.eq(left, y), ConstraintFactory.eq(other, y));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.vm;
+
+import com.examples.with.different.packagename.concolic.ConcreteCalls;
+import org.evosuite.Properties;
+import org.evosuite.dse.VM;
+import org.evosuite.symbolic.BranchCondition;
+import org.evosuite.symbolic.PathCondition;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.symbolic.dse.ConcolicExecutorImpl;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SkipConcreteCallsTest {
+
+    @Before
+    public void setUp() {
+        Properties.CLIENT_ON_THREAD = true;
+        Properties.PRINT_TO_SYSTEM = true;
+        Properties.TIMEOUT = 5000000;
+    }
+
+    @After
+    public void tearDown() {
+        Properties.DSE_SKIP_CONCRETE_CALLS = false;
+    }
+
+    private static DefaultTestCase buildTestCase(int x) throws NoSuchMethodException {
+        Method test = ConcreteCalls.class.getMethod("test", int.class);
+
+        TestCaseBuilder tc = new TestCaseBuilder();
+        VariableReference int0 = tc.appendIntPrimitive(x);
+        tc.appendMethod(null, test, int0);
+        return tc.getDefaultTestCase();
+    }
+
+    private static DefaultTestCase buildSharedStringTestCase() throws NoSuchMethodException {
+        Method test = ConcreteCalls.class.getMethod("testSharedString", String.class);
+
+        TestCaseBuilder tc = new TestCaseBuilder();
+        VariableReference string0 = tc.appendStringPrimitive("abd");
+        tc.appendMethod(null, test, string0);
+        return tc.getDefaultTestCase();
+    }
+
+    private static List<String> getConstraints(PathCondition pc) {
+        List<String> constraints = new ArrayList<>();
+        for (BranchCondition condition : pc.getBranchConditions()) {
+            constraints.add(condition.getConstraint().toString());
+        }
+        return constraints;
+    }
+
+    @Test
+    public void testSkippedCallsKeepPathCondition() throws NoSuchMethodException {
+        for (int x : new int[]{7, 8, 1000}) {
+            Properties.DSE_SKIP_CONCRETE_CALLS = false;
+            PathCondition pc = new ConcolicExecutorImpl().execute(buildTestCase(x));
+            int callbacks = VM.getInstance().getNrCallbacksPath();
+
+            Properties.DSE_SKIP_CONCRETE_CALLS = true;
+            PathCondition lightweightPc = new ConcolicExecutorImpl().execute(buildTestCase(x));
+            int lightweightCallbacks = VM.getInstance().getNrCallbacksPath();
+
+            assertEquals(getConstraints(pc), getConstraints(lightweightPc));
+            assertTrue(getConstraints(pc).size() >= 1);
+            // fibonacci is called with a concrete argument only
+            assertTrue(lightweightCallbacks * 10 < callbacks);
+        }
+    }
+
+    @Test
+    public void testCallReachingSharedSymbolicValueIsNotSkipped() throws NoSuchMethodException {
+        Properties.DSE_SKIP_CONCRETE_CALLS = false;
+        PathCondition pc = new ConcolicExecutorImpl().execute(buildSharedStringTestCase());
+
+        Properties.DSE_SKIP_CONCRETE_CALLS = true;
+        PathCondition lightweightPc = new ConcolicExecutorImpl().execute(buildSharedStringTestCase());
+
+        // the argument of compareSharedString is concrete, but the static field is not
+        assertEquals(1, getConstraints(pc).size());
+        assertEquals(getConstraints(pc), getConstraints(lightweightPc));
+    }
+}
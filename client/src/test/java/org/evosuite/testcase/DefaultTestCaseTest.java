@@ -19,11 +19,28 @@
  */
 package org.evosuite.testcase;
 
+import org.evosuite.Properties;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 public class DefaultTestCaseTest {
 
+    @After
+    public void tearDown() {
+        Properties.LAZY_TEST_CLONING = true;
+    }
+
     @Test
     public void testClone() {
 
@@ -31,4 +48,114 @@ public class DefaultTestCaseTest {
         DefaultTestCase clone = tc.clone();
         Assert.assertTrue(tc.statements != clone.statements);
     }
+
+    private static DefaultTestCase buildTestCase() throws NoSuchMethodException {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference int0 = builder.appendIntPrimitive(1);
+        VariableReference int1 = builder.appendIntPrimitive(2);
+        builder.appendMethod(null, Math.class.getMethod("max", int.class, int.class), int0, int1);
+        return builder.getDefaultTestCase();
+    }
+
+    private static int getValue(TestCase tc, int position) {
+        return ((IntPrimitiveStatement) tc.getStatement(position)).getValue();
+    }
+
+    private static void setValue(TestCase tc, int position, int value) {
+        ((IntPrimitiveStatement) tc.getStatement(position)).setValue(value);
+    }
+
+    @Test
+    public void testCloneOfCloneIsLazy() throws NoSuchMethodException {
+        DefaultTestCase tc = buildTestCase();
+        // statements of the original may have been handed out
+        DefaultTestCase copy = tc.clone();
+        Assert.assertFalse(copy.isLazyClone());
+
+        DefaultTestCase clone = copy.clone();
+        DefaultTestCase cloneOfClone = clone.clone();
+        Assert.assertTrue(clone.isLazyClone());
+        Assert.assertTrue(cloneOfClone.isLazyClone());
+        Assert.assertEquals(3, clone.size());
+        Assert.assertEquals(copy, clone);
+        Assert.assertEquals(copy.hashCode(), clone.hashCode());
+        Assert.assertTrue(clone.isLazyClone());
+
+        Properties.LAZY_TEST_CLONING = false;
+        Assert.assertFalse(copy.clone().isLazyClone());
+    }
+
+    @Test
+    public void testChangesToSourceAreNotVisibleInClone() throws NoSuchMethodException {
+        DefaultTestCase copy = buildTestCase().clone();
+        DefaultTestCase clone = copy.clone();
+
+        setValue(copy, 0, 5);
+        Assert.assertFalse(clone.isLazyClone());
+        Assert.assertEquals(1, getValue(clone, 0));
+        Assert.assertSame(clone, clone.getStatement(2).getTestCase());
+        Assert.assertEquals(0, clone.getStatement(2).getReturnValue().getStPosition() - 2);
+        Assert.assertSame(clone, clone.getStatement(2).getVariableReferences().iterator().next().getTestCase());
+        Assert.assertNotEquals(copy.toCode(), clone.toCode());
+    }
+
+    @Test
+    public void testIterateOverLazyClone() throws NoSuchMethodException {
+        DefaultTestCase copy = buildTestCase().clone();
+        DefaultTestCase clone = copy.clone();
+
+        int position = 0;
+        for (Statement statement : clone) {
+            Assert.assertSame(clone, statement.getTestCase());
+            Assert.assertEquals(position++, statement.getPosition());
+        }
+        Assert.assertEquals(3, position);
+        Assert.assertFalse(clone.isLazyClone());
+    }
+
+    @Test
+    public void testChangesToCloneAreNotVisibleInSource() throws NoSuchMethodException {
+        DefaultTestCase copy = buildTestCase().clone();
+        DefaultTestCase clone = copy.clone();
+        DefaultTestCase cloneOfClone = clone.clone();
+
+        setValue(clone, 1, 7);
+        clone.remove(2);
+        Assert.assertEquals(2, clone.size());
+        Assert.assertEquals(7, getValue(clone, 1));
+
+        // the other clone still shares the statements of the source
+        Assert.assertTrue(cloneOfClone.isLazyClone());
+        Assert.assertEquals(3, copy.size());
+        Assert.assertEquals(2, getValue(copy, 1));
+        Assert.assertFalse(cloneOfClone.isLazyClone());
+        Assert.assertEquals(copy.toCode(), cloneOfClone.toCode());
+    }
+
+    @Test
+    public void testConcurrentAccessToClonesOfOneSource() throws Exception {
+        DefaultTestCase copy = buildTestCase().clone();
+        String code = copy.toCode();
+        DefaultTestCase source = copy.clone();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<DefaultTestCase>> clones = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                clones.add(executor.submit(() -> {
+                    DefaultTestCase clone = source.clone();
+                    clone.clone().getStatement(0);
+                    getValue(clone, 0);
+                    return clone;
+                }));
+            }
+            for (Future<DefaultTestCase> clone : clones) {
+                Assert.assertFalse(clone.get().isLazyClone());
+                Assert.assertEquals(code, clone.get().toCode());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(code, source.toCode());
+    }
 }
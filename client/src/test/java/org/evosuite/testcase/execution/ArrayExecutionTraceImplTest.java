@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ArrayExecutionTraceImplTest {
+
+    private static final String CLASS_NAME = "com.examples.with.different.packagename.Foo";
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static void replay(ExecutionTrace trace, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < 500; i++) {
+            int branch = 1 + random.nextInt(200);
+            if (random.nextBoolean()) {
+                trace.branchPassed(branch, 0, 0.0, random.nextInt(5));
+            } else {
+                trace.branchPassed(branch, 0, random.nextInt(5), 0.0);
+            }
+            trace.linePassed(CLASS_NAME, "foo()V", 1 + random.nextInt(50));
+            trace.linePassed(CLASS_NAME + "$Inner", "bar()V", 100 + random.nextInt(10));
+        }
+    }
+
+    private static void assertSameTrace(ExecutionTrace expected, ExecutionTrace actual) {
+        Assert.assertEquals(expected.getTrueDistances(), actual.getTrueDistances());
+        Assert.assertEquals(expected.getFalseDistances(), actual.getFalseDistances());
+        Assert.assertEquals(expected.getTrueDistancesSum(), actual.getTrueDistancesSum());
+        Assert.assertEquals(expected.getFalseDistancesSum(), actual.getFalseDistancesSum());
+        Assert.assertEquals(expected.getPredicateExecutionCount(), actual.getPredicateExecutionCount());
+        Assert.assertEquals(expected.getCoveredPredicates(), actual.getCoveredPredicates());
+        Assert.assertEquals(expected.getCoveredTrueBranches(), actual.getCoveredTrueBranches());
+        Assert.assertEquals(expected.getCoveredFalseBranches(), actual.getCoveredFalseBranches());
+        Assert.assertEquals(expected.getCoverageData(), actual.getCoverageData());
+        Assert.assertEquals(expected.getCoveredLines(CLASS_NAME), actual.getCoveredLines(CLASS_NAME));
+        Assert.assertEquals(expected.getAllCoveredLines(), actual.getAllCoveredLines());
+    }
+
+    @Test
+    public void testSameDataAsMapBasedTrace() {
+        ExecutionTraceImpl expected = new ExecutionTraceImpl();
+        ArrayExecutionTraceImpl actual = new ArrayExecutionTraceImpl();
+        replay(expected, 42);
+        replay(actual, 42);
+        assertSameTrace(expected, actual);
+
+        for (int branch = 0; branch < 250; branch++) {
+            Assert.assertEquals(expected.hasTrueDistance(branch), actual.hasTrueDistance(branch));
+            if (expected.hasTrueDistance(branch)) {
+                Assert.assertEquals(expected.getTrueDistance(branch), actual.getTrueDistance(branch), 0.0);
+                Assert.assertEquals(expected.getFalseDistance(branch), actual.getFalseDistance(branch), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testClearOnlyResetsTouchedEntries() {
+        ArrayExecutionTraceImpl trace = new ArrayExecutionTraceImpl();
+        replay(trace, 1);
+        trace.clear();
+        Assert.assertTrue(trace.getTrueDistances().isEmpty());
+        Assert.assertTrue(trace.getPredicateExecutionCount().isEmpty());
+        Assert.assertTrue(trace.getCoverageData().isEmpty());
+        Assert.assertFalse(trace.hasTrueDistance(1));
+
+        ExecutionTraceImpl expected = new ExecutionTraceImpl();
+        replay(expected, 2);
+        replay(trace, 2);
+        assertSameTrace(expected, trace);
+    }
+
+    @Test
+    public void testCloneIsIndependent() {
+        ExecutionTraceImpl expected = new ExecutionTraceImpl();
+        ArrayExecutionTraceImpl trace = new ArrayExecutionTraceImpl();
+        replay(expected, 3);
+        replay(trace, 3);
+        ArrayExecutionTraceImpl copy = trace.clone();
+        assertSameTrace(expected.clone(), copy);
+
+        copy.branchPassed(1000, 0, 0.0, 7.0);
+        copy.linePassed(CLASS_NAME, "foo()V", 1000);
+        Assert.assertTrue(copy.hasTrueDistance(1000));
+        Assert.assertFalse(trace.hasTrueDistance(1000));
+        Assert.assertFalse(trace.getCoveredLines(CLASS_NAME).contains(1000));
+        Assert.assertTrue(copy.getCoveredLines(CLASS_NAME).contains(1000));
+    }
+
+    @Test
+    public void testSnapshotKeepsDistanceSums() {
+        ExecutionTraceImpl expected = new ExecutionTraceImpl();
+        ArrayExecutionTraceImpl trace = new ArrayExecutionTraceImpl();
+        replay(expected, 4);
+        replay(trace, 4);
+        ExecutionTraceImpl snapshot = trace.snapshot();
+        Assert.assertTrue(snapshot instanceof ArrayExecutionTraceImpl);
+        assertSameTrace(expected.snapshot(), snapshot);
+        Assert.assertFalse(snapshot.getTrueDistancesSum().isEmpty());
+    }
+
+    @Test
+    public void testProxyUsesArrayTraceWhenSelected() {
+        Properties.EXECUTION_TRACE_TYPE = Properties.ExecutionTraceType.ARRAY;
+        ExecutionTraceProxy proxy = new ExecutionTraceProxy();
+        ExecutionTrace lazyCopy = proxy.lazyClone();
+        proxy.branchPassed(5, 0, 0.0, 1.0);
+        Assert.assertTrue(proxy.hasTrueDistance(5));
+        Assert.assertFalse(lazyCopy.hasTrueDistance(5));
+    }
+}
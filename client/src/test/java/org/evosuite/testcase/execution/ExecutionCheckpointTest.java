@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import com.examples.with.different.packagename.symbolic.Max;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ExecutionCheckpointTest {
+
+    private Method max;
+
+    @Before
+    public void setUp() throws ClassNotFoundException, NoSuchMethodException {
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        Properties.getInstance().resetToDefaults();
+        Properties.TARGET_CLASS = Max.class.getName();
+        TestGenerationContext.getInstance().resetContext();
+        Class<?> maxClass = TestGenerationContext.getInstance().getClassLoaderForSUT()
+                .loadClass(Properties.TARGET_CLASS);
+        max = maxClass.getMethod("max", int.class, int.class);
+        Properties.RESUME_TEST_EXECUTION = true;
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+        TestGenerationContext.getInstance().resetContext();
+    }
+
+    /**
+     * int0 = a; int1 = 5; int2 = max(int0, int1); sb = new StringBuilder();
+     * followed by a suffix that depends on the given value
+     */
+    private DefaultTestCase createTest(int a, int suffix) throws NoSuchMethodException {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference int0 = builder.appendIntPrimitive(a);
+        VariableReference int1 = builder.appendIntPrimitive(5);
+        VariableReference int2 = builder.appendMethod(null, max, int0, int1);
+        VariableReference sb = builder.appendConstructor(StringBuilder.class.getConstructor());
+        VariableReference int3 = builder.appendIntPrimitive(suffix);
+        VariableReference int4 = builder.appendMethod(null, max, int2, int3);
+        builder.appendMethod(sb, StringBuilder.class.getMethod("append", int.class), int4);
+        return builder.getDefaultTestCase();
+    }
+
+    private static void assertSameExecution(ExecutionResult expected, ExecutionResult actual) {
+        assertEquals(expected.getExecutedStatements(), actual.getExecutedStatements());
+        assertEquals(expected.getPositionsWhereExceptionsWereThrown(), actual.getPositionsWhereExceptionsWereThrown());
+        ExecutionTrace expectedTrace = expected.getTrace();
+        ExecutionTrace actualTrace = actual.getTrace();
+        assertEquals(expectedTrace.getPredicateExecutionCount(), actualTrace.getPredicateExecutionCount());
+        assertEquals(expectedTrace.getTrueDistances(), actualTrace.getTrueDistances());
+        assertEquals(expectedTrace.getFalseDistances(), actualTrace.getFalseDistances());
+        assertEquals(expectedTrace.getMethodExecutionCount(), actualTrace.getMethodExecutionCount());
+        assertEquals(expectedTrace.getCoveredLines(), actualTrace.getCoveredLines());
+    }
+
+    @Test
+    public void testCheckpointBeforeFirstMutableObject() throws NoSuchMethodException {
+        DefaultTestCase test = createTest(1, 3);
+        ExecutionResult result = TestCaseExecutor.runTest(test);
+        assertEquals(0, result.getRestoredStatements());
+
+        ExecutionCheckpoint checkpoint = test.getExecutionCheckpoint();
+        assertNotNull(checkpoint);
+        assertEquals(3, checkpoint.getPosition());
+
+        // the checkpoint is carried over to clones
+        assertSame(checkpoint, test.clone().getExecutionCheckpoint());
+    }
+
+    @Test
+    public void testResumedExecutionEqualsFullExecution() throws NoSuchMethodException {
+        DefaultTestCase parent = createTest(1, 3);
+        TestCaseExecutor.runTest(parent);
+
+        for (int suffix = 0; suffix < 8; suffix++) {
+            DefaultTestCase child = createTest(1, suffix);
+            child.setExecutionCheckpoint(parent.getExecutionCheckpoint());
+            ExecutionResult resumed = TestCaseExecutor.runTest(child);
+            assertEquals(3, resumed.getRestoredStatements());
+
+            Properties.RESUME_TEST_EXECUTION = false;
+            ExecutionResult full = TestCaseExecutor.runTest(createTest(1, suffix));
+            Properties.RESUME_TEST_EXECUTION = true;
+            assertEquals(0, full.getRestoredStatements());
+            assertSameExecution(full, resumed);
+        }
+    }
+
+    @Test
+    public void testChangedPrefixIsExecuted() throws NoSuchMethodException {
+        DefaultTestCase parent = createTest(1, 3);
+        TestCaseExecutor.runTest(parent);
+
+        DefaultTestCase child = createTest(7, 3);
+        child.setExecutionCheckpoint(parent.getExecutionCheckpoint());
+        ExecutionResult result = TestCaseExecutor.runTest(child);
+        assertEquals(0, result.getRestoredStatements());
+        // the new execution replaces the checkpoint
+        assertNotNull(child.getExecutionCheckpoint());
+        assertEquals(3, child.getExecutionCheckpoint().getPosition());
+    }
+
+    @Test
+    public void testNoCheckpointAfterException() throws NoSuchMethodException {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference int0 = builder.appendIntPrimitive(1);
+        VariableReference int1 = builder.appendMethod(null, max, int0, int0);
+        VariableReference integer0 = builder.appendNull(Integer.class);
+        builder.appendMethod(integer0, Integer.class.getMethod("compareTo", Integer.class), int1);
+        DefaultTestCase test = builder.getDefaultTestCase();
+
+        ExecutionResult result = TestCaseExecutor.runTest(test);
+        assertEquals(3, (int) result.getFirstPositionOfThrownException());
+        assertNull(test.getExecutionCheckpoint());
+
+        Properties.RESUME_TEST_EXECUTION = false;
+        DefaultTestCase other = createTest(1, 3);
+        TestCaseExecutor.runTest(other);
+        assertNull(other.getExecutionCheckpoint());
+    }
+}
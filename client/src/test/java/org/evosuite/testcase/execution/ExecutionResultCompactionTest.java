@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import com.examples.with.different.packagename.symbolic.Max;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.ResourceController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ExecutionResultCompactionTest {
+
+    private Method max;
+
+    @Before
+    public void setUp() throws ClassNotFoundException, NoSuchMethodException {
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        Properties.getInstance().resetToDefaults();
+        Properties.TARGET_CLASS = Max.class.getName();
+        TestGenerationContext.getInstance().resetContext();
+        Class<?> maxClass = TestGenerationContext.getInstance().getClassLoaderForSUT()
+                .loadClass(Properties.TARGET_CLASS);
+        max = maxClass.getMethod("max", int.class, int.class);
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+        TestGenerationContext.getInstance().resetContext();
+    }
+
+    private DefaultTestCase createTest(int a, int b) {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference int0 = builder.appendIntPrimitive(a);
+        VariableReference int1 = builder.appendIntPrimitive(b);
+        builder.appendMethod(null, max, int0, int1);
+        return builder.getDefaultTestCase();
+    }
+
+    @Test
+    public void testCompactedTraceKeepsFitnessData() {
+        DefaultTestCase test = createTest(1, 5);
+        ExecutionResult result = TestCaseExecutor.runTest(test);
+        ExecutionTrace trace = result.getTrace();
+        long numRederived = ExecutionResult.getNumRederived();
+
+        result.compact();
+        assertTrue(result.isCompacted());
+        assertEquals(3, result.getExecutedStatements());
+
+        ExecutionTrace compacted = result.getTrace();
+        assertEquals(trace.getCoveredLines(), compacted.getCoveredLines());
+        assertEquals(trace.getCoveredMethods(), compacted.getCoveredMethods());
+        assertEquals(trace.getPredicateExecutionCount(), compacted.getPredicateExecutionCount());
+        assertEquals(trace.getTrueDistances(), compacted.getTrueDistances());
+        assertEquals(trace.getFalseDistances(), compacted.getFalseDistances());
+        assertEquals(trace.getCoveredTrueBranches(), compacted.getCoveredTrueBranches());
+        assertEquals(trace.getCoveredFalseBranches(), compacted.getCoveredFalseBranches());
+        assertEquals(trace.getMutationDistances(), compacted.getMutationDistances());
+        assertEquals(numRederived, ExecutionResult.getNumRederived());
+    }
+
+    @Test
+    public void testCompactedTraceIsRederived() {
+        DefaultTestCase test = createTest(1, 5);
+        ExecutionResult result = TestCaseExecutor.runTest(test);
+        ExecutionTrace trace = result.getTrace();
+        long executionId = result.getExecutionId();
+        long numRederived = ExecutionResult.getNumRederived();
+
+        result.compact();
+        // clones share the compacted state
+        ExecutionResult copy = result.clone();
+        assertTrue(copy.isCompacted());
+
+        CompactExecutionTrace compacted = (CompactExecutionTrace) result.getTrace();
+        assertFalse(compacted.isRederived());
+        assertEquals(trace.getMethodCalls().size(), compacted.getMethodCalls().size());
+        assertTrue(compacted.isRederived());
+        assertEquals(numRederived + 1, ExecutionResult.getNumRederived());
+        assertEquals(executionId, result.getExecutionId());
+        assertEquals(trace.getCoverageData(), compacted.getCoverageData());
+        assertEquals(numRederived + 1, ExecutionResult.getNumRederived());
+
+        assertEquals(trace.getCoverageData(), copy.getTrace().getCoverageData());
+        assertEquals(numRederived + 2, ExecutionResult.getNumRederived());
+    }
+
+    @Test
+    public void testCloneRederivesFromItsOwnTest() {
+        ExecutionResult result = TestCaseExecutor.runTest(createTest(1, 5));
+        ExecutionTrace original = result.getTrace();
+        ExecutionTrace other = TestCaseExecutor.runTest(createTest(7, 5)).getTrace();
+        assertFalse(original.getCoveredTrueBranches().equals(other.getCoveredTrueBranches())
+                && original.getCoveredFalseBranches().equals(other.getCoveredFalseBranches()));
+
+        result.compact();
+        ExecutionResult copy = result.clone();
+        copy.setTest(createTest(7, 5));
+
+        assertEquals(other.getCoverageData(), copy.getTrace().getCoverageData());
+        assertEquals(original.getCoverageData(), result.getTrace().getCoverageData());
+    }
+
+    @Test
+    public void testCompactSuite() {
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(createTest(7, 5));
+        chromosome.setLastExecutionResult(TestCaseExecutor.runTest(chromosome.getTestCase()));
+        chromosome.setChanged(false);
+        TestChromosome unexecuted = new TestChromosome();
+        unexecuted.setTestCase(createTest(1, 2));
+        TestSuiteChromosome suite = new TestSuiteChromosome();
+        suite.addTest(chromosome);
+        suite.addTest(unexecuted);
+
+        suite.compactCachedResults();
+        assertTrue(suite.getTestChromosome(0).getLastExecutionResult().isCompacted());
+        assertNull(suite.getTestChromosome(1).getLastExecutionResult());
+        assertNotNull(suite.getTestChromosome(0).getLastExecutionResult().getTrace());
+    }
+
+    private TestChromosome createExecutedChromosome(int a, int b, int rank) {
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(createTest(a, b));
+        chromosome.setLastExecutionResult(TestCaseExecutor.runTest(chromosome.getTestCase()));
+        chromosome.setChanged(false);
+        chromosome.setRank(rank);
+        return chromosome;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEliteIsChosenByRank() {
+        Properties.BOUNDED_MEMORY = true;
+        Properties.ELITE = 1;
+        // as in MOSA, the population is not sorted by rank
+        TestChromosome dominated = createExecutedChromosome(1, 5, 1);
+        TestChromosome elite = createExecutedChromosome(7, 5, 0);
+        GeneticAlgorithm<TestChromosome> algorithm = mock(GeneticAlgorithm.class);
+        when(algorithm.getPopulation()).thenReturn(Arrays.asList(dominated, elite));
+
+        new ResourceController<TestChromosome>().iteration(algorithm);
+        assertTrue(dominated.getLastExecutionResult().isCompacted());
+        assertFalse(elite.getLastExecutionResult().isCompacted());
+    }
+}
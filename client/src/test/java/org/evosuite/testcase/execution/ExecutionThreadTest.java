@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExecutionThreadTest {
+
+    private static final String CLASS_NAME = "com.examples.with.different.packagename.Foo";
+
+    private static void runOn(ExecutionTracer tracer, Runnable probes, boolean detach) throws InterruptedException {
+        ExecutionThread thread = new ExecutionThread(Thread.currentThread().getThreadGroup(), probes, tracer);
+        if (detach)
+            thread.detach();
+        thread.start();
+        thread.join();
+    }
+
+    @Test
+    public void testProbesReportToTracerOfThread() throws InterruptedException {
+        ExecutionTracer tracer = new ExecutionTracer();
+        tracer.setDisabled(false);
+        runOn(tracer, () -> {
+            ExecutionTracer.passedLine(CLASS_NAME, "foo()V", 3);
+            ExecutionTracer.passedBranch(0, org.objectweb.asm.Opcodes.IFEQ, 7, 0);
+            ExecutionTracer.statementExecuted();
+        }, false);
+
+        Assert.assertTrue(tracer.getTrace().getCoveredLines(CLASS_NAME).contains(3));
+        Assert.assertTrue(tracer.getTrace().getCoveredTrueBranches().contains(7));
+        Assert.assertEquals(1, tracer.getNumStatementsExecuted());
+        Assert.assertFalse(ExecutionTracer.getExecutionTracer().getTrace().getCoveredTrueBranches().contains(7));
+    }
+
+    @Test
+    public void testDetachedThreadIsNotTraced() throws InterruptedException {
+        ExecutionTracer tracer = new ExecutionTracer();
+        tracer.setDisabled(false);
+        ExecutionTracer.setThread(Thread.currentThread());
+        runOn(tracer, () -> ExecutionTracer.passedBranch(0, org.objectweb.asm.Opcodes.IFEQ, 7, 0), true);
+
+        Assert.assertFalse(tracer.getTrace().getCoveredTrueBranches().contains(7));
+        Assert.assertFalse(ExecutionTracer.getExecutionTracer().getTrace().getCoveredTrueBranches().contains(7));
+    }
+
+    @Test
+    public void testKillSwitchOfThreadTracer() throws InterruptedException {
+        ExecutionTracer tracer = new ExecutionTracer();
+        tracer.setDisabled(false);
+        tracer.setTracerKillSwitch(true);
+        boolean[] timedOut = new boolean[1];
+        runOn(tracer, () -> {
+            try {
+                ExecutionTracer.passedLine(CLASS_NAME, "foo()V", 3);
+            } catch (TestCaseExecutor.TimeoutExceeded e) {
+                timedOut[0] = true;
+            }
+        }, false);
+        Assert.assertTrue(timedOut[0]);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestExecutionWorkerPoolTest {
+
+    @Before
+    public void setUp() {
+        Properties.SANDBOX = false;
+        Properties.EXECUTION_WORKERS = 3;
+    }
+
+    @After
+    public void tearDown() {
+        TestExecutionWorkerPool.pullDown();
+        RuntimeSettings.mockJVMNonDeterminism = false;
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static DefaultTestCase createTest(int value, boolean throwsException) throws NoSuchMethodException {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference integer0;
+        if (throwsException) {
+            integer0 = builder.appendNull(Integer.class);
+        } else {
+            VariableReference int0 = builder.appendIntPrimitive(value);
+            integer0 = builder.appendMethod(null, Integer.class.getMethod("valueOf", int.class), int0);
+        }
+        builder.appendMethod(integer0, Integer.class.getMethod("toString"));
+        builder.appendMethod(integer0, Integer.class.getMethod("hashCode"));
+        return builder.getDefaultTestCase();
+    }
+
+    private static TestChromosome createChromosome(int value, boolean throwsException) throws NoSuchMethodException {
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(createTest(value, throwsException));
+        chromosome.setChanged(true);
+        return chromosome;
+    }
+
+    @Test
+    public void testSameResultsAsSerialExecution() throws NoSuchMethodException {
+        List<TestChromosome> tests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tests.add(createChromosome(i, i % 3 == 0));
+        }
+
+        TestExecutionWorkerPool pool = TestExecutionWorkerPool.getInstance();
+        pool.executeTests(tests);
+        Assert.assertEquals(tests.size(), pool.getNumParallelTests());
+
+        for (int i = 0; i < tests.size(); i++) {
+            TestChromosome test = tests.get(i);
+            Assert.assertFalse(test.isChanged());
+            ExecutionResult parallel = test.getLastExecutionResult();
+            Assert.assertNotNull(parallel);
+
+            ExecutionResult serial = TestCaseExecutor.runTest(createTest(i, i % 3 == 0));
+            Assert.assertEquals(serial.getExecutedStatements(), parallel.getExecutedStatements());
+            Assert.assertEquals(serial.getPositionsWhereExceptionsWereThrown(),
+                    parallel.getPositionsWhereExceptionsWereThrown());
+            Assert.assertEquals(i % 3 == 0, !parallel.noThrownExceptions());
+        }
+    }
+
+    @Test
+    public void testUnchangedTestsAreNotExecutedAgain() throws NoSuchMethodException {
+        TestChromosome test = createChromosome(1, false);
+        ExecutionResult result = TestCaseExecutor.runTest(test.getTestCase());
+        test.setLastExecutionResult(result);
+        test.setChanged(false);
+
+        List<TestChromosome> tests = new ArrayList<>();
+        tests.add(test);
+        tests.add(createChromosome(2, false));
+        tests.add(createChromosome(3, false));
+        TestExecutionWorkerPool.getInstance().executeTests(tests);
+
+        Assert.assertSame(result, test.getLastExecutionResult());
+        Assert.assertNotNull(tests.get(1).getLastExecutionResult());
+        Assert.assertNotNull(tests.get(2).getLastExecutionResult());
+    }
+
+    @Test
+    public void testTestsUsingMockedRandomAreExecutedSerially() throws NoSuchMethodException {
+        RuntimeSettings.mockJVMNonDeterminism = true;
+        List<TestChromosome> tests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TestCaseBuilder builder = new TestCaseBuilder();
+            builder.appendMethod(null, org.evosuite.runtime.Random.class.getMethod("nextInt"));
+            TestChromosome test = new TestChromosome();
+            test.setTestCase(builder.getDefaultTestCase());
+            test.setChanged(true);
+            tests.add(test);
+        }
+
+        TestExecutionWorkerPool pool = TestExecutionWorkerPool.getInstance();
+        pool.executeTests(tests);
+        Assert.assertEquals(0, pool.getNumParallelTests());
+        Assert.assertEquals(tests.size(), pool.getNumSerialTests());
+        for (TestChromosome test : tests) {
+            Assert.assertTrue(test.getLastExecutionResult().wasRandomOrTimeAccessed());
+        }
+
+        // the results of the serial executions keep the tests out of the next batch
+        tests.forEach(test -> test.setChanged(true));
+        pool.executeTests(tests);
+        Assert.assertEquals(0, pool.getNumParallelTests());
+        Assert.assertEquals(2 * tests.size(), pool.getNumSerialTests());
+    }
+
+    @Test
+    public void testExecutionThreadUsesOwnTracer() throws InterruptedException {
+        ExecutionTracer tracer = new ExecutionTracer();
+        AtomicReference<ExecutionTracer> seen = new AtomicReference<>();
+        Thread thread = new ExecutionThread(Thread.currentThread().getThreadGroup(),
+                () -> seen.set(ExecutionTracer.getExecutionTracer()), tracer);
+        thread.start();
+        thread.join();
+        Assert.assertSame(tracer, seen.get());
+        Assert.assertNotSame(tracer, ExecutionTracer.getExecutionTracer());
+    }
+}
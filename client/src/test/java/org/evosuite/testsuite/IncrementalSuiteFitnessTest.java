@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import com.examples.with.different.packagename.ncs.Triangle;
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
+import org.evosuite.coverage.line.LineCoverageSuiteFitness;
+import org.evosuite.coverage.method.MethodCoverageSuiteFitness;
+import org.evosuite.coverage.mutation.WeakMutationSuiteFitness;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.Randomness;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class IncrementalSuiteFitnessTest {
+
+    @Before
+    public void setUp() throws ClassNotFoundException {
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        Properties.getInstance().resetToDefaults();
+        Properties.CRITERION = new Criterion[]{Criterion.BRANCH, Criterion.LINE, Criterion.METHOD,
+                Criterion.WEAKMUTATION};
+        Properties.TARGET_CLASS = Triangle.class.getName();
+        TestGenerationContext.getInstance().resetContext();
+        TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+        TestGenerationContext.getInstance().resetContext();
+    }
+
+    private static TestChromosome createTest() throws ClassNotFoundException, NoSuchMethodException {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference a = builder.appendIntPrimitive(Randomness.nextInt(-1, 4));
+        VariableReference b = builder.appendIntPrimitive(Randomness.nextInt(-1, 4));
+        VariableReference c = builder.appendIntPrimitive(Randomness.nextInt(-1, 4));
+        Class<?> triangleClass = TestGenerationContext.getInstance().getClassLoaderForSUT()
+                .loadClass(Properties.TARGET_CLASS);
+        Method exe = triangleClass.getMethod("exe", int.class, int.class, int.class);
+        builder.appendMethod(null, exe, a, b, c);
+
+        TestChromosome test = new TestChromosome();
+        test.setTestCase(builder.getDefaultTestCase());
+        return test;
+    }
+
+    private static void evaluateMutatedSuites(boolean archive) throws Exception {
+        Properties.TEST_ARCHIVE = archive;
+        List<TestSuiteFitnessFunction> fitnessFunctions = Arrays.asList(new BranchCoverageSuiteFitness(),
+                new LineCoverageSuiteFitness(), new MethodCoverageSuiteFitness(), new WeakMutationSuiteFitness());
+
+        Randomness.setSeed(5);
+        TestSuiteChromosome suite = new TestSuiteChromosome();
+        for (int round = 0; round < 40; round++) {
+            TestSuiteChromosome offspring = suite.clone();
+            int choice = Randomness.nextInt(4);
+            if (choice == 0 || offspring.size() < 2) {
+                offspring.addTest(createTest());
+            } else if (choice == 1) {
+                offspring.deleteTest(offspring.getTestChromosome(Randomness.nextInt(offspring.size())));
+            } else if (choice == 2) {
+                offspring.getTestChromosomes().set(Randomness.nextInt(offspring.size()), createTest());
+            } else {
+                // the test is executed again
+                offspring.getTestChromosome(Randomness.nextInt(offspring.size())).setChanged(true);
+            }
+            if (Randomness.nextBoolean()) {
+                suite = offspring;
+            }
+
+            for (TestSuiteFitnessFunction ff : fitnessFunctions) {
+                Properties.INCREMENTAL_SUITE_FITNESS = false;
+                double expected = ff.getFitness(offspring);
+                double expectedCoverage = offspring.getCoverage(ff);
+
+                Properties.INCREMENTAL_SUITE_FITNESS = true;
+                assertEquals(expected, ff.getFitness(offspring), 1e-9);
+                assertEquals(expectedCoverage, offspring.getCoverage(ff), 1e-9);
+
+                if (round % 10 == 9) {
+                    // covered goals are removed from the search
+                    ff.updateCoveredGoals();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalFitnessEqualsFullFitness() throws Exception {
+        evaluateMutatedSuites(false);
+    }
+
+    @Test
+    public void testIncrementalFitnessEqualsFullFitnessWithArchive() throws Exception {
+        evaluateMutatedSuites(true);
+    }
+}
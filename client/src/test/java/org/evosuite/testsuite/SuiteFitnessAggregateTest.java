@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceProxy;
+import org.evosuite.utils.Randomness;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SuiteFitnessAggregateTest {
+
+    private final Map<Long, Map<Integer, Integer>> counts = new HashMap<>();
+
+    private final Map<Long, Map<Integer, Double>> distances = new HashMap<>();
+
+    private final AtomicInteger analyzed = new AtomicInteger();
+
+    private ExecutionResult createResult() {
+        ExecutionResult result = new ExecutionResult(null);
+        result.setTrace(new ExecutionTraceProxy());
+        Map<Integer, Integer> count = new LinkedHashMap<>();
+        Map<Integer, Double> distance = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            count.merge(Randomness.nextInt(10), 1 + Randomness.nextInt(3), Integer::sum);
+            distance.merge(Randomness.nextInt(10), (double) Randomness.nextInt(4), Math::min);
+        }
+        counts.put(result.getExecutionId(), count);
+        distances.put(result.getExecutionId(), distance);
+        return result;
+    }
+
+    private SuiteFitnessAggregate.Contribution analyze(ExecutionResult result) {
+        analyzed.incrementAndGet();
+        SuiteFitnessAggregate.Contribution contribution = new SuiteFitnessAggregate.Contribution(1, 1);
+        contribution.addCounts(0, counts.get(result.getExecutionId()));
+        contribution.addMinima(0, distances.get(result.getExecutionId()));
+        return contribution;
+    }
+
+    private void assertAggregates(List<ExecutionResult> results, SuiteFitnessAggregate aggregate) {
+        Map<Integer, Integer> expectedCounts = new LinkedHashMap<>();
+        Map<Integer, Double> expectedMinima = new LinkedHashMap<>();
+        for (ExecutionResult result : results) {
+            counts.get(result.getExecutionId()).forEach((key, count) -> expectedCounts.merge(key, count, Integer::sum));
+            distances.get(result.getExecutionId()).forEach((key, value) -> expectedMinima.merge(key, value, Math::min));
+        }
+        assertEquals(expectedCounts, aggregate.getCounts(0));
+        assertEquals(expectedMinima, aggregate.getMinima(0));
+    }
+
+    @Test
+    public void testUpdatesMatchFullAggregation() {
+        Randomness.setSeed(3);
+        SuiteFitnessAggregate aggregate = new SuiteFitnessAggregate(1, 1);
+        List<ExecutionResult> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int choice = Randomness.nextInt(3);
+            if (choice == 0 || results.isEmpty()) {
+                results.add(createResult());
+            } else if (choice == 1) {
+                results.remove(Randomness.nextInt(results.size()));
+            } else {
+                // a clone of a test shares the execution result
+                results.add(results.get(Randomness.nextInt(results.size())).clone());
+            }
+            analyzed.set(0);
+            aggregate.update(results, this::analyze);
+            assertTrue(analyzed.get() <= 1);
+            assertAggregates(results, aggregate);
+        }
+    }
+
+    @Test
+    public void testExecutionIdOfClonesAndNewTraces() {
+        ExecutionResult result = createResult();
+        ExecutionResult clone = result.clone();
+        assertEquals(result.getExecutionId(), clone.getExecutionId());
+        clone.setTrace(new ExecutionTraceProxy());
+        assertNotEquals(result.getExecutionId(), clone.getExecutionId());
+    }
+
+    @Test
+    public void testClonedSuiteCopiesOnWrite() {
+        TestSuiteChromosome suite = new TestSuiteChromosome();
+        TestSuiteFitnessFunction ff = new TestSuiteFitnessFunction() {
+            private static final long serialVersionUID = -2755373425431405340L;
+
+            @Override
+            public double getFitness(TestSuiteChromosome individual) {
+                return 0.0;
+            }
+        };
+        SuiteFitnessAggregate aggregate = new SuiteFitnessAggregate(1, 1);
+        suite.setFitnessAggregate(ff, aggregate);
+        assertSame(aggregate, suite.getFitnessAggregate(ff));
+
+        TestSuiteChromosome clone = suite.clone();
+        SuiteFitnessAggregate copy = clone.getFitnessAggregate(ff);
+        assertNotSame(aggregate, copy);
+        assertFalse(copy.isShared());
+        assertSame(copy, clone.getFitnessAggregate(ff));
+        assertNotSame(copy, suite.getFitnessAggregate(ff));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MemberHandlesTest {
+
+    public static class Foo {
+
+        public static int counter = 0;
+
+        public final String name;
+
+        public Foo(String name) {
+            if (name == null) {
+                throw new IllegalStateException("no name");
+            }
+            this.name = name;
+        }
+
+        public static long add(long x, int y) {
+            return x + y;
+        }
+
+        public String greet(String other) {
+            return name + " greets " + other;
+        }
+
+        public void fail() {
+            throw new UnsupportedOperationException(name);
+        }
+    }
+
+    public static class BrokenInitializer {
+
+        static {
+            if (true) {
+                throw new IllegalStateException("broken");
+            }
+        }
+
+        public static void foo() {
+        }
+    }
+
+    @Test
+    public void testMethodResultsAreTheSameAsWithReflection() throws Exception {
+        GenericMethod add = new GenericMethod(Foo.class.getMethod("add", long.class, int.class), Foo.class);
+        GenericMethod greet = new GenericMethod(Foo.class.getMethod("greet", String.class), Foo.class);
+        Foo foo = new Foo("foo");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(3L, add.invoke(null, new Object[]{1L, 2}));
+            // needs a widening conversion, as with reflection
+            assertEquals(3L, add.invoke(null, new Object[]{1, 2}));
+            assertEquals("foo greets bar", greet.invoke(foo, new Object[]{"bar"}));
+            assertEquals("foo greets null", greet.invoke(foo, new Object[]{null}));
+        }
+    }
+
+    @Test
+    public void testExceptionsAreTheSameAsWithReflection() throws Exception {
+        GenericMethod failing = new GenericMethod(Foo.class.getMethod("fail"), Foo.class);
+        GenericMethod greet = new GenericMethod(Foo.class.getMethod("greet", String.class), Foo.class);
+        Foo foo = new Foo("foo");
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                failing.invoke(foo, new Object[0]);
+                fail();
+            } catch (InvocationTargetException e) {
+                assertTrue(e.getCause() instanceof UnsupportedOperationException);
+                assertEquals("foo", e.getCause().getMessage());
+            }
+            try {
+                greet.invoke("not a foo", new Object[]{"bar"});
+                fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                greet.invoke(foo, new Object[]{42});
+                fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testConstructor() throws Exception {
+        GenericConstructor constructor = new GenericConstructor(Foo.class.getConstructor(String.class), Foo.class);
+        for (int i = 0; i < 3; i++) {
+            Object foo = constructor.newInstance(new Object[]{"foo"});
+            assertEquals("foo", ((Foo) foo).name);
+            try {
+                constructor.newInstance(new Object[]{null});
+                fail();
+            } catch (InvocationTargetException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+
+        GenericConstructor abstractConstructor = new GenericConstructor(
+                AbstractList.class.getDeclaredConstructor(), AbstractList.class);
+        try {
+            abstractConstructor.newInstance(new Object[0]);
+            fail();
+        } catch (InstantiationException | IllegalAccessException e) {
+            // expected, as with reflection
+        }
+    }
+
+    @Test
+    public void testFields() throws Exception {
+        GenericField name = new GenericField(Foo.class.getField("name"), Foo.class);
+        GenericField counter = new GenericField(Foo.class.getField("counter"), Foo.class);
+        Foo foo = new Foo("foo");
+        for (int i = 0; i < 3; i++) {
+            Foo.counter = i;
+            assertEquals("foo", name.get(foo));
+            assertEquals(i, counter.get(null));
+            try {
+                name.get(new ArrayList<>());
+                fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                name.get(null);
+                fail();
+            } catch (NullPointerException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testFailingClassInitializerIsNotWrapped() throws Exception {
+        GenericMethod foo = new GenericMethod(BrokenInitializer.class.getMethod("foo"), BrokenInitializer.class);
+        try {
+            foo.invoke(null, new Object[0]);
+            fail();
+        } catch (ExceptionInInitializerError e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        try {
+            foo.invoke(null, new Object[0]);
+            fail();
+        } catch (NoClassDefFoundError e) {
+            // expected, as with reflection
+        }
+    }
+
+    @Test
+    public void testVoidMethodReturnsNull() throws Exception {
+        GenericMethod clear = new GenericMethod(ArrayList.class.getMethod("clear"), ArrayList.class);
+        ArrayList<String> list = new ArrayList<>();
+        list.add("foo");
+        assertNull(clear.invoke(list, new Object[0]));
+        assertTrue(list.isEmpty());
+        list.add("foo");
+        assertNull(clear.invoke(list, new Object[0]));
+        assertTrue(list.isEmpty());
+    }
+}
@@ -330,6 +330,14 @@ public class JobHandler extends Thread {
             commands.add("-Dctg_seeds_file_in=" + seedIn.getAbsolutePath() + File.separator + seedsFileName);
         }
 
+        if (Properties.CTG_SOLVER_CACHE) {
+            commands.add("-Dsolver_cache_file=" + StorageManager.getSolverCacheFile().getAbsolutePath());
+        }
+
+        if (Properties.CTG_INSTRUMENTATION_CACHE) {
+            commands.add("-Dinstrumentation_cache_dir=" + StorageManager.getInstrumentationCacheFolder().getAbsolutePath());
+        }
+
         commands.addAll(getOutputVariables());
         commands.add("-Danalysis_criteria=" + Properties.ANALYSIS_CRITERIA);
 
@@ -142,6 +142,24 @@ public class StorageManager {
         return new File(new File(Properties.CTG_DIR), "evosuite-" + Properties.CTG_SEEDS_DIR_NAME);
     }
 
+    /**
+     * File shared by all CTG runs where solver results are stored
+     *
+     * @return the solver cache file
+     */
+    public static File getSolverCacheFile() {
+        return new File(new File(Properties.CTG_DIR), Properties.CTG_SOLVER_CACHE_FILE_NAME);
+    }
+
+    /**
+     * Folder shared by all CTG runs where instrumented classes are stored
+     *
+     * @return the instrumentation cache folder
+     */
+    public static File getInstrumentationCacheFolder() {
+        return new File(new File(Properties.CTG_DIR), Properties.CTG_INSTRUMENTATION_CACHE_DIR_NAME);
+    }
+
     /**
      * Create a new tmp folder for this CTG session
      *
@@ -44,6 +44,14 @@ public class LoopCounter {
      */
     private final List<Long> counters;
 
+    /**
+     * Number of iterations so far, per thread. Only used when several test
+     * cases are executed concurrently in the same JVM
+     */
+    private final ThreadLocal<List<Long>> threadCounters = ThreadLocal.withInitial(ArrayList::new);
+
+    private volatile boolean threadConfined = false;
+
 
     private LoopCounter() {
         counters = new ArrayList<>();
@@ -53,8 +61,26 @@ public class LoopCounter {
         return singleton;
     }
 
+    /**
+     * In thread-confined mode each thread counts its own loop iterations, and
+     * {@link #reset()} only clears the counters of the calling thread
+     *
+     * @param threadConfined whether to keep one set of counters per thread
+     */
+    public void setThreadConfined(boolean threadConfined) {
+        this.threadConfined = threadConfined;
+    }
+
+    public boolean isThreadConfined() {
+        return threadConfined;
+    }
+
+    private List<Long> getCounters() {
+        return threadConfined ? threadCounters.get() : counters;
+    }
+
     public void reset() {
-        counters.clear();
+        getCounters().clear();
     }
 
     public void setActive(boolean active) {
@@ -72,6 +98,7 @@ public class LoopCounter {
      * @return the next valid index for a new loop
      */
     public int getNewIndex() {
+        List<Long> counters = getCounters();
         int index = counters.size();
         counters.add(0L);
         return index;
@@ -99,6 +126,7 @@ public class LoopCounter {
         }
 
         //first check initialization
+        List<Long> counters = getCounters();
         int size = counters.size();
         if (index >= size) {
             for (int i = 0; i < 1 + (index - size); i++) {
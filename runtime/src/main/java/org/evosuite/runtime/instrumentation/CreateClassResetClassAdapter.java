@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import java.io.ObjectStreamClass;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -313,6 +314,17 @@ public class CreateClassResetClassAdapter extends ClassVisitor {
         super.visitEnd();
     }
 
+    /**
+     * Returns the fields whose <code>final</code> modifier was removed, which
+     * are registered in {@link ModifiedTargetStaticFields} once the class has
+     * been visited
+     *
+     * @return the names of the fields
+     */
+    public List<String> getModifiedStaticFields() {
+        return Collections.unmodifiableList(modifiedStaticFields);
+    }
+
     @Deprecated
     private void determineSerialisableUID() {
         try {
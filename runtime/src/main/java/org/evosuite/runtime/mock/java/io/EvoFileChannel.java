@@ -128,31 +128,52 @@ public class EvoFileChannel extends FileChannel{  //FIXME mock FileChannel
 			throw new NonReadableChannelException();
 		}
 
+		if( (offset < 0) || (offset > dsts.length) ||  (length < 0) || (length > dsts.length-offset) ){
+			throw new IndexOutOfBoundsException();
+		}
+
 		throwExceptionIfClosed();
 
 		int counter = 0;
 
 		synchronized(readWriteMonitor){
-			for(int j=offset; j<length; j++){
+			for(int j=offset; j<offset+length; j++){
 				ByteBuffer dst = dsts[j];
 				int r = dst.remaining();
-				for(int i=0; i<r; i++){
-					int b = NativeMockedIO.read(path, posToUpdate);
-					if(b < 0){ //end of stream
-						return -1;
-					}
+				if(r == 0){
+					continue;
+				}
 
-					if(closed){
-						throw new AsynchronousCloseException();
+				int read;
+				if(dst.hasArray()){
+					read = NativeMockedIO.read(path, posToUpdate, dst.array(), dst.arrayOffset() + dst.position(), r);
+					if(read > 0){
+						dst.position(dst.position() + read);
 					}
-
-					if(Thread.currentThread().isInterrupted()){
-						close();
-						throw new ClosedByInterruptException();
+				} else {
+					byte[] buffer = new byte[r];
+					read = NativeMockedIO.read(path, posToUpdate, buffer, 0, r);
+					if(read > 0){
+						dst.put(buffer, 0, read);
 					}
+				}
+
+				if(closed){
+					throw new AsynchronousCloseException();
+				}
+
+				if(Thread.currentThread().isInterrupted()){
+					close();
+					throw new ClosedByInterruptException();
+				}
 
-					dst.put((byte)b);
-					counter++;
+				if(read < 0){ //end of stream
+					return counter == 0 ? -1 : counter;
+				}
+
+				counter += read;
+				if(read < r){ //end of stream
+					break;
 				}
 			}
 		}
@@ -203,26 +224,31 @@ public class EvoFileChannel extends FileChannel{  //FIXME mock FileChannel
 
 		int counter = 0;
 
-		byte[] buffer = new byte[1];
-
 		synchronized(readWriteMonitor){
-			for(int j=offset; j<length; j++){
+			for(int j=offset; j<offset+length; j++){
 				ByteBuffer src = srcs[j];
 				int r = src.remaining();
-				for(int i=0; i<r; i++){
-					byte b = src.get();
-					buffer[0] = b;
-					NativeMockedIO.writeBytes(path, posToUpdate, buffer, 0, 1);
-					counter++;
-
-					if(closed){
-						throw new AsynchronousCloseException();
-					}
+				if(r == 0){
+					continue;
+				}
 
-					if(Thread.currentThread().isInterrupted()){
-						close();
-						throw new ClosedByInterruptException();
-					}
+				if(src.hasArray()){
+					NativeMockedIO.writeBytes(path, posToUpdate, src.array(), src.arrayOffset() + src.position(), r);
+					src.position(src.position() + r);
+				} else {
+					byte[] buffer = new byte[r];
+					src.get(buffer);
+					NativeMockedIO.writeBytes(path, posToUpdate, buffer, 0, r);
+				}
+				counter += r;
+
+				if(closed){
+					throw new AsynchronousCloseException();
+				}
+
+				if(Thread.currentThread().isInterrupted()){
+					close();
+					throw new ClosedByInterruptException();
 				}
 			}
 		}
@@ -51,6 +51,10 @@ public class ThreadCounter {
         counter = 0;
     }
 
+    public int getNumberOfStartedThreads() {
+        return counter;
+    }
+
     public synchronized void checkIfCanStartNewThread() throws TooManyResourcesException {
         if (counter >= RuntimeSettings.maxNumberOfThreads) {
             throw new TooManyResourcesException("This test case has tried to start too many threads. " +
@@ -19,8 +19,7 @@
  */
 package org.evosuite.runtime.vfs;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Representation of a virtual file
@@ -29,46 +28,61 @@ import java.util.List;
  */
 public class VFile extends FSObject {
 
+    private static final int INITIAL_CAPACITY = 1024;
+
     /**
-     * the actual data contained in file as a list of bytes
+     * the actual data contained in file. Only the first {@code size} bytes
+     * are part of the file, the others are always 0
      */
-    private final List<Byte> data;
+    private byte[] data;
+
+    private int size;
 
     public VFile(String path, VFolder parent) {
         super(path, parent);
 
-        //TODO might need a better type of data structure supporting multi-threading
-        data = new ArrayList<>(1024);
+        data = new byte[INITIAL_CAPACITY];
+        size = 0;
     }
 
-    public void eraseData() {
-        data.clear();
+    public synchronized void eraseData() {
+        if (data.length > INITIAL_CAPACITY) {
+            data = new byte[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(data, 0, size, (byte) 0);
+        }
+        size = 0;
     }
 
     public synchronized int getDataSize() {
-        return data.size();
+        return size;
     }
 
 
     public synchronized void setLength(int newLength) {
 
-        /*
-         * Note: this implementation is not particularly efficient...
-         * but setLength is rarely called
-         */
+        if (newLength < 0) {
+            throw new IllegalArgumentException("Length of the file cannot be negative");
+        }
 
-        while (newLength > data.size()) {
-            data.add((byte) 0);
+        if (newLength > size) {
+            ensureCapacity(newLength);
+        } else {
+            // bytes after the end of the file must be 0 if the file grows again
+            Arrays.fill(data, newLength, size, (byte) 0);
         }
+        size = newLength;
+    }
 
-        if (newLength == 0) {
-            data.clear();
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= data.length) {
             return;
         }
-
-        while (data.size() > newLength) {
-            data.remove(data.size() - 1);
+        int newCapacity = data.length * 2;
+        if (newCapacity < minCapacity || newCapacity < 0) {
+            newCapacity = minCapacity;
         }
+        data = Arrays.copyOf(data, newCapacity);
     }
 
     /**
@@ -80,15 +94,43 @@ public class VFile extends FSObject {
             throw new IllegalArgumentException("Position in the file cannot be negative");
         }
 
-        if (position >= data.size()) {
+        if (position >= size) {
+            return -1; //this represent the end of the stream
+        }
+
+        return data[position] & 0xFF;
+    }
+
+    /**
+     * Copy up to {@code len} bytes starting from {@code position} into {@code b}
+     *
+     * @return the number of copied bytes, or -1 if {@code position} is at (or after) the end of the file
+     * and {@code len} is positive
+     */
+    public synchronized int read(int position, byte[] b, int off, int len) throws IllegalArgumentException {
+        if (position < 0) {
+            throw new IllegalArgumentException("Position in the file cannot be negative");
+        }
+
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (len == 0) {
+            return 0;
+        }
+
+        if (position >= size) {
             return -1; //this represent the end of the stream
         }
 
-        return data.get(position) & 0xFF;
+        int read = Math.min(len, size - position);
+        System.arraycopy(data, position, b, off, read);
+        return read;
     }
 
     public synchronized int writeBytes(byte[] b, int off, int len) {
-        return writeBytes(data.size(), b, off, len);
+        return writeBytes(size, b, off, len);
     }
 
 
@@ -102,20 +144,19 @@ public class VFile extends FSObject {
             return 0;
         }
 
-        if (position >= data.size()) {
-            setLength(position);
+        int written = Math.max(0, Math.min(len, b.length - off));
+        if (position > Integer.MAX_VALUE - written) {
+            throw new IllegalArgumentException("Virtual file system does not handle files larger than "
+                    + Integer.MAX_VALUE + " bytes");
         }
 
-        int written = 0;
-        for (int i = off; i < b.length & (i - off) < len; i++) {
-            if (position < data.size()) {
-                data.set(position, (b[i]));
-            } else {
-                data.add(b[i]);
-            }
-            position++;
-            written++;
+        int end = position + written;
+        if (end > size) {
+            ensureCapacity(end);
+            // bytes between the old end of the file and position are already 0
+            size = end;
         }
+        System.arraycopy(b, off, data, position, written);
 
         setLastModified(getCurrentTimeMillis());
 
@@ -31,6 +31,8 @@ import org.junit.Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 
 public class VirtualFileSystemTest {
@@ -129,6 +131,85 @@ public class VirtualFileSystemTest {
         Assert.assertEquals(0, buffer[3]);
     }
 
+    @Test
+    public void testBulkReadAndWrite() throws IOException {
+
+        File file = MockFile.createTempFile("foo", ".tmp");
+
+        byte[] data = new byte[5000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        MockFileOutputStream out = new MockFileOutputStream(file);
+        out.write(data, 0, 3000);
+        out.write(data, 3000, 2000);
+        out.close();
+
+        MockFileInputStream in = new MockFileInputStream(file);
+        byte[] buffer = new byte[4000];
+        Assert.assertEquals(4000, in.read(buffer));
+        Assert.assertArrayEquals(Arrays.copyOf(data, 4000), buffer);
+        Assert.assertEquals(1000, in.read(buffer, 0, buffer.length));
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 4000, 5000), Arrays.copyOf(buffer, 1000));
+        Assert.assertEquals(0, in.available());
+        Assert.assertEquals(-1, in.read(buffer));
+        in.close();
+    }
+
+    @Test
+    public void testChannelReadAndWrite() throws IOException {
+
+        File file = MockFile.createTempFile("foo", ".tmp");
+
+        MockFileOutputStream out = new MockFileOutputStream(file);
+        FileChannel outChannel = out.getChannel();
+        Assert.assertEquals(3, outChannel.write(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+        ByteBuffer direct = ByteBuffer.allocateDirect(2);
+        direct.put((byte) 4).put((byte) 5).flip();
+        Assert.assertEquals(2, outChannel.write(direct));
+        Assert.assertEquals(0, direct.remaining());
+        out.close();
+
+        MockFileInputStream in = new MockFileInputStream(file);
+        FileChannel inChannel = in.getChannel();
+        ByteBuffer first = ByteBuffer.allocate(2);
+        ByteBuffer second = ByteBuffer.allocateDirect(4);
+        Assert.assertEquals(5, inChannel.read(new ByteBuffer[]{first, second}));
+        Assert.assertArrayEquals(new byte[]{1, 2}, first.array());
+        second.flip();
+        Assert.assertEquals(3, second.remaining());
+        Assert.assertEquals(3, second.get());
+        Assert.assertEquals(4, second.get());
+        Assert.assertEquals(5, second.get());
+        Assert.assertEquals(-1, inChannel.read(ByteBuffer.allocate(1)));
+        in.close();
+    }
+
+    @Test
+    public void testSetLengthPadsWithZeros() throws IOException {
+
+        File file = MockFile.createTempFile("foo", ".tmp");
+        MockFileOutputStream out = new MockFileOutputStream(file);
+        out.write(new byte[]{7, 7, 7, 7});
+        out.close();
+
+        VFile vf = (VFile) VirtualFileSystem.getInstance().findFSObject(file.getAbsolutePath());
+        vf.setLength(1);
+        vf.setLength(3);
+        Assert.assertEquals(3, vf.getDataSize());
+
+        byte[] buffer = new byte[3];
+        Assert.assertEquals(3, vf.read(0, buffer, 0, buffer.length));
+        Assert.assertArrayEquals(new byte[]{7, 0, 0}, buffer);
+
+        // writing after the end of the file fills the gap with zeros
+        Assert.assertEquals(1, vf.writeBytes(5, new byte[]{9}, 0, 1));
+        Assert.assertEquals(6, vf.getDataSize());
+        Assert.assertEquals(0, vf.read(4));
+        Assert.assertEquals(9, vf.read(5));
+        Assert.assertEquals(-1, vf.read(6));
+    }
+
     @Test
     public void testReadingNonExistingFile() throws IOException {
         String fileName = "this_file_should_not_exist";